@@ -178,13 +178,14 @@ trait BrokerCollie extends Collie {
   /**
     * Create a topic admin according to passed cluster.
     * Noted: the input cluster MUST be running. otherwise, a exception is returned.
+    * Noted: the returned admin is a handle of shared admin so the topic metadata is cached across callers.
     * @param brokerClusterInfo target cluster
     * @return topic admin
     */
   def topicAdmin(
     brokerClusterInfo: BrokerClusterInfo
   )(implicit executionContext: ExecutionContext): Future[TopicAdmin] =
-    cluster(brokerClusterInfo.key).map(_ => TopicAdmin.of(brokerClusterInfo.connectionProps))
+    cluster(brokerClusterInfo.key).map(_ => TopicAdmin.shared(brokerClusterInfo.connectionProps))
 }
 
 object BrokerCollie {
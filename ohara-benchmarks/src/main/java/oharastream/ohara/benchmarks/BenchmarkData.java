@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.benchmarks;
+
+import java.util.stream.IntStream;
+import oharastream.ohara.common.data.Cell;
+import oharastream.ohara.common.data.Row;
+import oharastream.ohara.common.util.CommonUtils;
+
+/** generate the inputs of benchmarks. */
+public final class BenchmarkData {
+  /** the type of values in the generated row. */
+  public enum ValueType {
+    INT,
+    LONG,
+    DOUBLE,
+    STRING,
+    BYTES,
+    /** the types are rotated by column. */
+    MIXED
+  }
+
+  private static final ValueType[] MIXED_TYPES = {
+    ValueType.INT, ValueType.LONG, ValueType.DOUBLE, ValueType.STRING, ValueType.BYTES
+  };
+
+  /**
+   * @param columnCount the number of cells
+   * @return the names of cells
+   */
+  public static String[] names(int columnCount) {
+    return IntStream.range(0, columnCount).mapToObj(i -> "column-" + i).toArray(String[]::new);
+  }
+
+  /**
+   * @param columnCount the number of cells
+   * @param valueType the type of values
+   * @param stringSize the size of string and bytes values
+   * @return cells
+   */
+  public static Cell<?>[] cells(int columnCount, ValueType valueType, int stringSize) {
+    String[] names = names(columnCount);
+    return IntStream.range(0, columnCount)
+        .mapToObj(i -> cell(names[i], i, valueType, stringSize))
+        .toArray(Cell<?>[]::new);
+  }
+
+  /**
+   * @param columnCount the number of cells
+   * @param valueType the type of values
+   * @param stringSize the size of string and bytes values
+   * @return row
+   */
+  public static Row row(int columnCount, ValueType valueType, int stringSize) {
+    return Row.of(cells(columnCount, valueType, stringSize));
+  }
+
+  private static Cell<?> cell(String name, int index, ValueType valueType, int stringSize) {
+    switch (valueType == ValueType.MIXED ? MIXED_TYPES[index % MIXED_TYPES.length] : valueType) {
+      case INT:
+        return Cell.of(name, index);
+      case LONG:
+        return Cell.of(name, (long) index * Integer.MAX_VALUE);
+      case DOUBLE:
+        return Cell.of(name, index / 3.0D);
+      case STRING:
+        return Cell.of(name, CommonUtils.randomString(stringSize));
+      case BYTES:
+        return Cell.of(name, CommonUtils.randomString(stringSize).getBytes());
+      default:
+        throw new IllegalArgumentException("unsupported type:" + valueType);
+    }
+  }
+
+  private BenchmarkData() {}
+}
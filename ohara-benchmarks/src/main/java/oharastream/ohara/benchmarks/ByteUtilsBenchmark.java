@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import oharastream.ohara.common.util.ByteUtils;
+import oharastream.ohara.common.util.CommonUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** the conversions of {@link ByteUtils}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ByteUtilsBenchmark {
+  @Param({"10", "1000"})
+  public int stringSize;
+
+  private int intValue;
+  private long longValue;
+  private double doubleValue;
+  private String stringValue;
+  private byte[] intBytes;
+  private byte[] longBytes;
+  private byte[] doubleBytes;
+  private byte[] stringBytes;
+
+  @Setup
+  public void setup() {
+    intValue = (int) CommonUtils.current();
+    longValue = CommonUtils.current();
+    doubleValue = CommonUtils.current() / 3.0D;
+    stringValue = CommonUtils.randomString(stringSize);
+    intBytes = ByteUtils.toBytes(intValue);
+    longBytes = ByteUtils.toBytes(longValue);
+    doubleBytes = ByteUtils.toBytes(doubleValue);
+    stringBytes = ByteUtils.toBytes(stringValue);
+  }
+
+  @Benchmark
+  public byte[] intToBytes() {
+    return ByteUtils.toBytes(intValue);
+  }
+
+  @Benchmark
+  public int bytesToInt() {
+    return ByteUtils.toInt(intBytes);
+  }
+
+  @Benchmark
+  public byte[] longToBytes() {
+    return ByteUtils.toBytes(longValue);
+  }
+
+  @Benchmark
+  public long bytesToLong() {
+    return ByteUtils.toLong(longBytes);
+  }
+
+  @Benchmark
+  public byte[] doubleToBytes() {
+    return ByteUtils.toBytes(doubleValue);
+  }
+
+  @Benchmark
+  public double bytesToDouble() {
+    return ByteUtils.toDouble(doubleBytes);
+  }
+
+  @Benchmark
+  public byte[] stringToBytes() {
+    return ByteUtils.toBytes(stringValue);
+  }
+
+  @Benchmark
+  public String bytesToString() {
+    return ByteUtils.toString(stringBytes);
+  }
+}
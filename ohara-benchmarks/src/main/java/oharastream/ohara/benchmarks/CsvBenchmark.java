@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import oharastream.ohara.common.util.CommonUtils;
+import oharastream.ohara.kafka.connector.csv.source.CsvTokenizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * split a wide csv line by {@link CsvTokenizer} and by the lookahead regex which was used by csv
+ * source connector. The regex scans the rest of line for each delimiter so it is slow on the wide
+ * line.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvBenchmark {
+  private static final Pattern CSV_REGEX = Pattern.compile(",(?=([^\"]*\"[^\"]*\")*[^\"]*$)");
+
+  @Param({"10", "100", "1000"})
+  public int columnCount;
+
+  /** true if all fields are enclosed by quotes. */
+  @Param({"false", "true"})
+  public boolean quoted;
+
+  @Param({"10"})
+  public int stringSize;
+
+  private String line;
+  private CsvTokenizer tokenizer;
+
+  @Setup
+  public void setup() {
+    line =
+        IntStream.range(0, columnCount)
+            .mapToObj(i -> CommonUtils.randomString(stringSize))
+            .map(s -> quoted ? "\"" + s + "\"" : s)
+            .collect(Collectors.joining(","));
+    tokenizer = CsvTokenizer.builder().build();
+  }
+
+  @Benchmark
+  public void regex(Blackhole blackhole) {
+    Arrays.stream(CSV_REGEX.split(line)).map(String::trim).forEach(blackhole::consume);
+  }
+
+  @Benchmark
+  public void tokenizer(Blackhole blackhole) {
+    tokenizer.tokenize(line);
+    for (int i = 0; i != tokenizer.size(); ++i) blackhole.consume(tokenizer.field(i));
+  }
+}
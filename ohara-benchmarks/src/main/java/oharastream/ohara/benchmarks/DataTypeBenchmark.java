@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import oharastream.ohara.common.data.Cell;
+import oharastream.ohara.common.data.DataType;
+import oharastream.ohara.common.data.Row;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** the lookups of {@link DataType#from(Object)} and {@link DataType#of(short)}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataTypeBenchmark {
+  /** a value of each type. The order is same to DataType. */
+  private final Object[] values = {
+    new byte[] {1},
+    true,
+    (byte) 1,
+    (short) 1,
+    1,
+    1L,
+    1.0F,
+    1.0D,
+    "a",
+    new BigDecimal("1.0"),
+    Row.of(Cell.of("a", 1)),
+    Cell.of("a", 1)
+  };
+
+  private final short[] orders = new short[DataType.all.size()];
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i != orders.length; ++i) orders[i] = DataType.all.get(i).order;
+  }
+
+  @Benchmark
+  public void from(Blackhole blackhole) {
+    for (Object value : values) blackhole.consume(DataType.from(value));
+  }
+
+  @Benchmark
+  public void of(Blackhole blackhole) {
+    for (short order : orders) blackhole.consume(DataType.of(order));
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.benchmarks;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import oharastream.ohara.common.data.Serializer;
+import oharastream.ohara.common.util.CommonUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** the round trips of {@link Serializer#OBJECT}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectSerializerBenchmark {
+  /** the objects having built-in codec and the object serialized by java serialization. */
+  public enum ObjectType {
+    BIG_DECIMAL,
+    TIMESTAMP,
+    UUID,
+    JAVA_SERIALIZATION
+  }
+
+  @Param({"BIG_DECIMAL", "TIMESTAMP", "UUID", "JAVA_SERIALIZATION"})
+  public ObjectType objectType;
+
+  private Object object;
+  private byte[] objectBytes;
+
+  @Setup
+  public void setup() {
+    switch (objectType) {
+      case BIG_DECIMAL:
+        object = new BigDecimal("12345678901234567890.0123456789");
+        break;
+      case TIMESTAMP:
+        object = new Timestamp(CommonUtils.current());
+        break;
+      case UUID:
+        object = UUID.randomUUID();
+        break;
+      default:
+        object =
+            new ArrayList<>(List.of(CommonUtils.randomString(10), CommonUtils.randomString(10)));
+        break;
+    }
+    objectBytes = Serializer.OBJECT.to(object);
+  }
+
+  @Benchmark
+  public byte[] toBytes() {
+    return Serializer.OBJECT.to(object);
+  }
+
+  @Benchmark
+  public Object fromBytes() {
+    return Serializer.OBJECT.from(objectBytes);
+  }
+}
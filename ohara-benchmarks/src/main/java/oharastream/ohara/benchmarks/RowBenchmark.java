@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import oharastream.ohara.common.data.Cell;
+import oharastream.ohara.common.data.Row;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** the data model hot paths: {@link Row#of(Cell[])}, {@link Row#cell(String)} and cell hashing. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowBenchmark {
+  @Param({"1", "10", "100", "1000"})
+  public int columnCount;
+
+  @Param({"INT", "STRING", "MIXED"})
+  public BenchmarkData.ValueType valueType;
+
+  @Param({"10"})
+  public int stringSize;
+
+  private String[] names;
+  private Object[] values;
+  private Cell<?>[] cells;
+  private Row row;
+
+  @Setup
+  public void setup() {
+    cells = BenchmarkData.cells(columnCount, valueType, stringSize);
+    names = BenchmarkData.names(columnCount);
+    values = new Object[cells.length];
+    for (int i = 0; i != cells.length; ++i) values[i] = cells[i].value();
+    row = Row.of(cells);
+  }
+
+  @Benchmark
+  public Row rowOf() {
+    return Row.of(cells);
+  }
+
+  /** seek all cells by name. */
+  @Benchmark
+  public void cellByName(Blackhole blackhole) {
+    for (String name : names) blackhole.consume(row.cell(name));
+  }
+
+  /** the hash of cell is cached so the cells are created in each invocation. */
+  @Benchmark
+  public int cellOfAndHashCode() {
+    int hash = 0;
+    for (int i = 0; i != names.length; ++i) hash += Cell.of(names[i], values[i]).hashCode();
+    return hash;
+  }
+
+  @Benchmark
+  public int rowHashCode() {
+    return Row.of(cells).hashCode();
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import oharastream.ohara.common.data.Cell;
+import oharastream.ohara.common.data.Row;
+import oharastream.ohara.common.data.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** the round trips of {@link Serializer#ROW} and {@link Serializer#CELL}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+  @Param({"1", "10", "100"})
+  public int columnCount;
+
+  @Param({"INT", "LONG", "DOUBLE", "STRING", "BYTES", "MIXED"})
+  public BenchmarkData.ValueType valueType;
+
+  @Param({"10", "1000"})
+  public int stringSize;
+
+  private Row row;
+  private byte[] rowBytes;
+  private Cell<?> cell;
+  private byte[] cellBytes;
+
+  @Setup
+  public void setup() {
+    row = BenchmarkData.row(columnCount, valueType, stringSize);
+    rowBytes = Serializer.ROW.to(row);
+    cell = row.cell(0);
+    cellBytes = Serializer.CELL.to(cell);
+  }
+
+  @Benchmark
+  public byte[] rowToBytes() {
+    return Serializer.ROW.to(row);
+  }
+
+  @Benchmark
+  public Row rowFromBytes() {
+    return Serializer.ROW.from(rowBytes);
+  }
+
+  @Benchmark
+  public Row rowRoundTrip() {
+    return Serializer.ROW.from(Serializer.ROW.to(row));
+  }
+
+  @Benchmark
+  public byte[] cellToBytes() {
+    return Serializer.CELL.to(cell);
+  }
+
+  @Benchmark
+  public Cell<?> cellFromBytes() {
+    return Serializer.CELL.from(cellBytes);
+  }
+}
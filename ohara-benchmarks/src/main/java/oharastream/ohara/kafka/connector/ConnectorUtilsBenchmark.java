@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka.connector;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import oharastream.ohara.benchmarks.BenchmarkData;
+import oharastream.ohara.common.data.Cell;
+import oharastream.ohara.common.data.Column;
+import oharastream.ohara.common.data.Row;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * check the row against the columns by {@link ConnectorUtils#match(Row, List, boolean)}. The cost
+ * should be linear to the number of columns. Noted: this benchmark is in the package of connector
+ * since the check is package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConnectorUtilsBenchmark {
+  @Param({"10", "100", "1000"})
+  public int columnCount;
+
+  @Param({"INT", "MIXED"})
+  public BenchmarkData.ValueType valueType;
+
+  @Param({"10"})
+  public int stringSize;
+
+  private Row row;
+  private List<Column> columns;
+
+  @Setup
+  public void setup() {
+    Cell<?>[] cells = BenchmarkData.cells(columnCount, valueType, stringSize);
+    row = Row.of(cells);
+    columns =
+        IntStream.range(0, cells.length)
+            .mapToObj(
+                i ->
+                    Column.builder()
+                        .name(cells[i].name())
+                        .dataType(cells[i].dataType())
+                        .order(i)
+                        .build())
+            .collect(Collectors.toUnmodifiableList());
+  }
+
+  @Benchmark
+  public void match() {
+    ConnectorUtils.match(row, columns, false);
+  }
+}
@@ -39,12 +39,27 @@ import scala.concurrent.duration.Duration
 trait FtpClient extends Releasable {
   def listFileNames(dir: String): Seq[String]
 
+  /**
+    * @param dir folder path
+    * @return the names and last modified times (in milliseconds) of files. The time is -1 if server does not offer it
+    */
+  def listLastModified(dir: String): Map[String, Long]
+
   /**
     * open an input stream from a existent file. If file doesn't exist, an NoSuchFileException will be thrown.
     * @param path file path
     * @return input stream
     */
-  def open(path: String): InputStream
+  def open(path: String): InputStream = open(path, 0)
+
+  /**
+    * open an input stream from a existent file and then start reading from the byte position. The ftp server is asked
+    * to restart the transfer at the position so the skipped bytes are not transferred.
+    * @param path file path
+    * @param position the byte position to start reading
+    * @return input stream
+    */
+  def open(path: String, position: Long): InputStream
 
   /**
     * create an new file. If file already exists, an IllegalArgumentException will be thrown.
@@ -160,6 +175,12 @@ trait FtpClient extends Releasable {
     */
   def fileType(path: String): FileType
 
+  /**
+    * @param path file path
+    * @return the number of bytes of file
+    */
+  def size(path: String): Long
+
   /**
     * @return ftp server's status
     */
@@ -292,20 +313,22 @@ object FtpClient {
           if (lastException != null) throw lastException
           else throw new IllegalArgumentException("still fail...but there is no root cause ...")
         }
-        override def listFileNames(dir: String): Seq[String]        = retry(() => client().listFileNames(dir))
-        override def open(path: String): InputStream                = retry(() => client().open(path))
-        override def create(path: String): OutputStream             = retry(() => client().create(path))
-        override def append(path: String): OutputStream             = retry(() => client().append(path))
-        override def moveFile(from: String, to: String): Unit       = retry(() => client().moveFile(from, to))
-        override def mkdir(path: String): Unit                      = retry(() => client().mkdir(path))
-        override def delete(path: String): Unit                     = retry(() => client().delete(path))
-        override def delete(path: String, recursive: Boolean): Unit = retry(() => client().delete(path, recursive))
-        override def tmpFolder(): String                            = client().tmpFolder()
-        override def exist(path: String): Boolean                   = retry(() => client().exist(path))
-        override def fileType(path: String): FileType               = retry(() => client().fileType(path))
-        override def status(): String                               = retry(() => client().status())
-        override def workingFolder(): String                        = retry(() => client().workingFolder())
-        override def close(): Unit                                  = client().close()
+        override def listFileNames(dir: String): Seq[String]          = retry(() => client().listFileNames(dir))
+        override def listLastModified(dir: String): Map[String, Long] = retry(() => client().listLastModified(dir))
+        override def open(path: String, position: Long): InputStream  = retry(() => client().open(path, position))
+        override def create(path: String): OutputStream               = retry(() => client().create(path))
+        override def append(path: String): OutputStream               = retry(() => client().append(path))
+        override def moveFile(from: String, to: String): Unit         = retry(() => client().moveFile(from, to))
+        override def mkdir(path: String): Unit                        = retry(() => client().mkdir(path))
+        override def delete(path: String): Unit                       = retry(() => client().delete(path))
+        override def delete(path: String, recursive: Boolean): Unit   = retry(() => client().delete(path, recursive))
+        override def tmpFolder(): String                              = client().tmpFolder()
+        override def exist(path: String): Boolean                     = retry(() => client().exist(path))
+        override def fileType(path: String): FileType                 = retry(() => client().fileType(path))
+        override def size(path: String): Long                         = retry(() => client().size(path))
+        override def status(): String                                 = retry(() => client().status())
+        override def workingFolder(): String                          = retry(() => client().workingFolder())
+        override def close(): Unit                                    = client().close()
       }
     }
 
@@ -334,10 +357,19 @@ object FtpClient {
 
       override def listFileNames(dir: String): Seq[String] = connectIfNeeded().listFiles(dir).map(_.getName).toSeq
 
-      override def open(path: String): InputStream = {
+      override def listLastModified(dir: String): Map[String, Long] =
+        connectIfNeeded()
+          .listFiles(dir)
+          .map(file => file.getName -> Option(file.getTimestamp).map(_.getTimeInMillis).getOrElse(-1L))
+          .toMap
+
+      override def open(path: String, position: Long): InputStream = {
+        if (position < 0) throw new IllegalArgumentException(s"position can't be negative. actual:$position")
         val client = connectIfNeeded()
         client.setFileType(FTP.BINARY_FILE_TYPE)
         if (nonExist(path)) throw new NoSuchFileException(s"$path doesn't exist")
+        // the restart offset is reset after the transfer command
+        if (position > 0) client.setRestartOffset(position)
         val inputStream = client.retrieveFileStream(path)
         if (inputStream == null)
           throw new IllegalStateException(s"Failed to open $path because from ${client.getReplyCode}")
@@ -502,6 +534,14 @@ object FtpClient {
           } finally client.cwd(current)
         } else throw new NoSuchFileException(s"$path doesn't exist")
 
+      override def size(path: String): Long = {
+        if (nonExist(path)) throw new NoSuchFileException(s"$path doesn't exist")
+        connectIfNeeded().listFiles(path).filter(_.isFile) match {
+          case Array(file) => file.getSize
+          case _           => throw new IllegalArgumentException(s"$path is not a file")
+        }
+      }
+
       override def status(): String = connectIfNeeded().getStatus
 
       override def workingFolder(): String =
@@ -167,6 +167,11 @@ private[filesystem] object FtpFileSystem {
         client.listFileNames(dir).filter(filter.accept)
       }
 
+      override def listLastModified(dir: String): util.Map[String, java.lang.Long] = wrap { () =>
+        if (nonExists(dir)) throw new NoSuchFileException(s"The path $dir doesn't exist")
+        client.listLastModified(dir).map { case (name, time) => name -> java.lang.Long.valueOf(time) }.asJava
+      }
+
       /**
         * Creates a new file in the given path
         *
@@ -200,9 +205,20 @@ private[filesystem] object FtpFileSystem {
         * @throws NoSuchFileException if the file does not exist
         * @return an input stream with the requested file
         */
-      override def open(path: String): InputStream = wrap { () =>
+      override def open(path: String): InputStream = open(path, 0)
+
+      /**
+        * Open for reading an file at the given path and then start reading from the byte position. The ftp server
+        * restarts the transfer at the position.
+        *
+        * @param path the path of the file
+        * @param position the byte position to start reading
+        * @throws NoSuchFileException if the file does not exist
+        * @return an input stream with the requested file
+        */
+      override def open(path: String, position: Long): InputStream = wrap { () =>
         if (nonExists(path)) throw new NoSuchFileException(s"The path ${path} doesn't exist")
-        client.open(path)
+        client.open(path, position)
       }
 
       /**
@@ -282,6 +298,17 @@ private[filesystem] object FtpFileSystem {
         client.fileType(path)
       }
 
+      /**
+        * Get the number of bytes of file from the ftp server.
+        *
+        * @param path the path of the file
+        * @throws NoSuchFileException if the file does not exist
+        * @return the size of file
+        */
+      override def size(path: String): Long = wrap { () =>
+        client.size(path)
+      }
+
       /**
         * Get the working folder of account. An exception will be thrown if it fails to get working folder.
         *
@@ -19,6 +19,8 @@ package oharastream.ohara.client.filesystem.hdfs
 import java.io.{InputStream, OutputStream}
 import java.nio.file.Paths
 import java.util
+import java.util.concurrent.{Executors, TimeUnit}
+import java.util.function.Consumer
 
 import com.typesafe.scalalogging.Logger
 import oharastream.ohara.client.filesystem.{FileFilter, FileSystem}
@@ -27,6 +29,9 @@ import oharastream.ohara.common.util.{CommonUtils, Releasable}
 import oharastream.ohara.kafka.connector.storage.FileType
 import org.apache.hadoop.conf.Configuration
 import org.apache.hadoop.fs.{Path, PathFilter, RemoteIterator}
+import org.apache.hadoop.hdfs.DistributedFileSystem
+import org.apache.hadoop.hdfs.client.HdfsAdmin
+import org.apache.hadoop.hdfs.inotify.Event
 
 import scala.jdk.CollectionConverters._
 
@@ -99,6 +104,60 @@ private[filesystem] object HdfsFileSystem {
         hadoopFS.listStatus(new Path(dir), fileFilter).map(_.getPath.getName).toSeq
       }
 
+      override def listLastModified(dir: String): util.Map[String, java.lang.Long] = wrap { () =>
+        if (nonExists(dir)) throw new NoSuchFileException(s"The path $dir doesn't exist")
+        hadoopFS
+          .listStatus(new Path(dir))
+          .map(status => status.getPath.getName -> java.lang.Long.valueOf(status.getModificationTime))
+          .toMap
+          .asJava
+      }
+
+      /**
+        * Watch the folder by the inotify of hdfs. The inotify is available to the superuser of hdfs only so it returns
+        * empty if the event stream is not accessible.
+        *
+        * @param dir the path of folder
+        * @param listener the callback of changed file name
+        * @return an object stopping the watch, or empty if the inotify is not accessible
+        */
+      override def watch(dir: String, listener: Consumer[String]): util.Optional[Releasable] = hadoopFS match {
+        case dfs: DistributedFileSystem =>
+          try {
+            val events = new HdfsAdmin(dfs.getUri, dfs.getConf).getInotifyEventStream
+            val folder = dfs.makeQualified(new Path(dir)).toUri.getPath
+            def changed(path: String): Unit = {
+              val p = new Path(path)
+              if (p.getParent != null && p.getParent.toUri.getPath == folder) listener.accept(p.getName)
+            }
+            val executor = Executors.newSingleThreadExecutor()
+            executor.execute { () =>
+              try {
+                while (!Thread.currentThread().isInterrupted)
+                  Option(events.poll(1, TimeUnit.SECONDS)).foreach(_.getEvents.foreach {
+                    case e: Event.CreateEvent => changed(e.getPath)
+                    case e: Event.CloseEvent  => changed(e.getPath)
+                    case e: Event.RenameEvent => changed(e.getDstPath)
+                    case _                    => ()
+                  })
+              } catch {
+                case _: InterruptedException => ()
+                case e: Exception            => LOG.error(s"failed to watch $dir", e)
+              }
+            }
+            util.Optional.of[Releasable](() => {
+              executor.shutdownNow()
+              executor.awaitTermination(30, TimeUnit.SECONDS)
+              ()
+            })
+          } catch {
+            case e: Exception =>
+              LOG.warn(s"the inotify of hdfs is not accessible so $dir is not watched", e)
+              util.Optional.empty()
+          }
+        case _ => util.Optional.empty()
+      }
+
       /**
         * Creates a new file in the given path
         *
@@ -138,6 +197,40 @@ private[filesystem] object HdfsFileSystem {
         hadoopFS.open(new Path(path))
       }
 
+      /**
+        * Open for reading an file at the given path and then seek to the byte position.
+        *
+        * @param path the path of the file
+        * @param position the byte position to start reading
+        * @throws IllegalArgumentException if the file does not exist
+        * @return an input stream with the requested file
+        */
+      override def open(path: String, position: Long): InputStream = wrap { () =>
+        if (position < 0) throw new IllegalArgumentException(s"position can't be negative. actual:$position")
+        if (nonExists(path)) throw new NoSuchFileException(s"The path $path doesn't exist")
+        val input = hadoopFS.open(new Path(path))
+        try input.seek(position)
+        catch {
+          case e: Throwable =>
+            Releasable.close(input)
+            throw e
+        }
+        input
+      }
+
+      /**
+        * Get the number of bytes of file from the file status.
+        *
+        * @param path the path of the file
+        * @throws NoSuchFileException if the file does not exist
+        * @return the size of file
+        */
+      override def size(path: String): Long = wrap { () =>
+        val p = new Path(path)
+        if (!hadoopFS.exists(p)) throw new NoSuchFileException(s"$path doesn't exist")
+        hadoopFS.getFileStatus(p).getLen
+      }
+
       /**
         * Delete the given file for folder (If empty)
         *
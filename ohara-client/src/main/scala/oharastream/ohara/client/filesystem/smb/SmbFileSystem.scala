@@ -174,6 +174,17 @@ private[filesystem] object SmbFileSystem {
           .toSeq
       }
 
+      override def listLastModified(dir: String): util.Map[String, java.lang.Long] = connectShare { shareRoot =>
+        if (nonExists(dir)) throw new NoSuchFileException(s"${dir} doesn't exist")
+        shareRoot
+          .list(dir)
+          .asScala
+          .filterNot(f => f.getFileName == "." || f.getFileName == "..")
+          .map(f => f.getFileName -> java.lang.Long.valueOf(f.getLastWriteTime.toEpochMillis))
+          .toMap
+          .asJava
+      }
+
       /**
         * Creates a new file in the given path, including any necessary but nonexistent parent folders
         *
@@ -262,12 +273,25 @@ private[filesystem] object SmbFileSystem {
         * @throws NoSuchFileException if the file does not exist
         * @return an input stream with the requested file
         */
-      override def open(path: String): InputStream = connectShare { shareRoot =>
+      override def open(path: String): InputStream = open(path, 0)
+
+      /**
+        * Open for reading an file at the given path and then start reading from the byte position.
+        *
+        * @param path the path of the file
+        * @param position the byte position to start reading
+        * @throws NoSuchFileException if the file does not exist
+        * @return an input stream with the requested file
+        */
+      override def open(path: String, position: Long): InputStream = connectShare { shareRoot =>
+        if (position < 0) throw new IllegalArgumentException(s"position can't be negative. actual:$position")
         if (nonExists(path)) throw new NoSuchFileException(s"$path doesn't exist")
         val accessMask: util.Set[AccessMask]         = util.EnumSet.of(AccessMask.GENERIC_READ)
         val createDisposition: SMB2CreateDisposition = SMB2CreateDisposition.FILE_OPEN
         val smbFile                                  = shareRoot.openFile(path, accessMask, null, SMB2ShareAccess.ALL, createDisposition, null)
         val is                                       = smbFile.getInputStream()
+        // smbj skips by moving the read offset of file so the skipped bytes are not transferred
+        if (position > 0) is.skip(position)
 
         // wrap InputStream. upon a close, also close the File object and Share object.
         new InputStream {
@@ -381,6 +405,18 @@ private[filesystem] object SmbFileSystem {
         if (isFolder) FileType.FOLDER else FileType.FILE
       }
 
+      /**
+        * Get the number of bytes of file from the file information.
+        *
+        * @param path the path of the file
+        * @throws NoSuchFileException if the file does not exist
+        * @return the size of file
+        */
+      override def size(path: String): Long = connectShare { shareRoot =>
+        if (!exists(path)) throw new NoSuchFileException(s"$path doesn't exist")
+        shareRoot.getFileInformation(path).getStandardInformation.getEndOfFile
+      }
+
       /**
         * Get the working folder of account. An exception will be thrown if it fails to get working folder.
         *
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.common.data;
+
+import java.util.Objects;
+
+/**
+ * the base of built-in cells. The hash code is computed when it is requested first time, and the
+ * value is hashed by the same algorithm as {@link Object#hashCode()} of boxed value so all
+ * built-in cells having equal name and value are equal.
+ *
+ * @param <T> value type
+ */
+abstract class AbstractCell<T> implements Cell<T> {
+  private final String name;
+  // 0 means the hash is not computed yet. It is ok to compute it repeatedly if the hash is 0.
+  private int hashCode = 0;
+
+  AbstractCell(String name) {
+    this.name = Objects.requireNonNull(name);
+  }
+
+  @Override
+  public final String name() {
+    return name;
+  }
+
+  /** @return the hash of value */
+  abstract int valueHashCode();
+
+  /**
+   * @param that another cell having the same name
+   * @return true if the value of this cell is equal to that
+   */
+  abstract boolean valueEquals(Cell<?> that);
+
+  @Override
+  public final int hashCode() {
+    int hash = hashCode;
+    if (hash == 0) {
+      hash = name.hashCode() + 31 * valueHashCode();
+      hashCode = hash;
+    }
+    return hash;
+  }
+
+  @Override
+  public final boolean equals(Object obj) {
+    if (obj == this) return true;
+    if (obj instanceof Cell) {
+      Cell<?> that = (Cell<?>) obj;
+      return name.equals(that.name()) && valueEquals(that);
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return name + "/" + value();
+  }
+}
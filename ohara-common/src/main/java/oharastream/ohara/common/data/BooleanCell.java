@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.common.data;
+
+/**
+ * the cell carrying a boolean value without boxing. It is equal to the {@link Cell} which has the
+ * same name and {@link Boolean} value. see {@link Cell#of(String, boolean)}
+ */
+public final class BooleanCell extends AbstractCell<Boolean> {
+  /**
+   * @param cell cell
+   * @return the boolean value of cell
+   * @throws IllegalArgumentException if the value of cell is not a boolean
+   */
+  static boolean asBoolean(Cell<?> cell) {
+    if (cell instanceof BooleanCell) return ((BooleanCell) cell).value;
+    Object value = cell.value();
+    if (value instanceof Boolean) return (Boolean) value;
+    throw new IllegalArgumentException(
+        "the type of cell:" + cell.name() + " is " + cell.dataType() + " rather than BOOLEAN");
+  }
+
+  private final boolean value;
+
+  BooleanCell(String name, boolean value) {
+    super(name);
+    this.value = value;
+  }
+
+  /** @return the boolean value */
+  public boolean booleanValue() {
+    return value;
+  }
+
+  @Override
+  public Boolean value() {
+    return value;
+  }
+
+  @Override
+  public DataType dataType() {
+    return DataType.BOOLEAN;
+  }
+
+  @Override
+  int valueHashCode() {
+    return Boolean.hashCode(value);
+  }
+
+  @Override
+  boolean valueEquals(Cell<?> that) {
+    if (that instanceof BooleanCell) return value == ((BooleanCell) that).value;
+    return that.value() instanceof Boolean && value == (Boolean) that.value();
+  }
+
+  @Override
+  public String toString() {
+    return name() + "/" + value;
+  }
+}
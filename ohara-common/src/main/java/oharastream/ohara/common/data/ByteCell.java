@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.common.data;
+
+/**
+ * the cell carrying a byte value without boxing. It is equal to the {@link Cell} which has the
+ * same name and {@link Byte} value. see {@link Cell#of(String, byte)}
+ */
+public final class ByteCell extends AbstractCell<Byte> {
+  /**
+   * @param cell cell
+   * @return the byte value of cell
+   * @throws IllegalArgumentException if the value of cell is not a byte
+   */
+  static byte asByte(Cell<?> cell) {
+    if (cell instanceof ByteCell) return ((ByteCell) cell).value;
+    Object value = cell.value();
+    if (value instanceof Byte) return (Byte) value;
+    throw new IllegalArgumentException(
+        "the type of cell:" + cell.name() + " is " + cell.dataType() + " rather than BYTE");
+  }
+
+  private final byte value;
+
+  ByteCell(String name, byte value) {
+    super(name);
+    this.value = value;
+  }
+
+  /** @return the byte value */
+  public byte byteValue() {
+    return value;
+  }
+
+  @Override
+  public Byte value() {
+    return value;
+  }
+
+  @Override
+  public DataType dataType() {
+    return DataType.BYTE;
+  }
+
+  @Override
+  int valueHashCode() {
+    return Byte.hashCode(value);
+  }
+
+  @Override
+  boolean valueEquals(Cell<?> that) {
+    if (that instanceof ByteCell) return value == ((ByteCell) that).value;
+    return that.value() instanceof Byte && value == (Byte) that.value();
+  }
+
+  @Override
+  public String toString() {
+    return name() + "/" + value;
+  }
+}
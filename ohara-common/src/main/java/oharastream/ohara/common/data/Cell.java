@@ -16,15 +16,14 @@
 
 package oharastream.ohara.common.data;
 
-import java.util.Objects;
-import java.util.stream.IntStream;
-import oharastream.ohara.common.util.ByteUtils;
-
 /**
  * a basic data in ohara pipeline. Although no limit to the type in using Cell, serialization
  * exception may happen in transferring cell through network if the value is not serializable. see
  * {@link Serializer} for more information.
  *
+ * <p>The primitive values can be carried by the unboxed cells (for example, {@link IntCell}) which
+ * are created by the overloaded factories, such as {@link #of(String, int)}.
+ *
  * @param <T> value type
  */
 public interface Cell<T> {
@@ -35,55 +34,44 @@ public interface Cell<T> {
   /** @return value from cell */
   T value();
 
+  /**
+   * the type of value. The built-in primitive cells return the type directly.
+   *
+   * @return data type of value
+   */
+  default DataType dataType() {
+    return DataType.from(value());
+  }
+
   static <T> Cell<T> of(String name, T value) {
-    Objects.requireNonNull(name);
-    Objects.requireNonNull(value);
-    int hashCode;
-    if (value instanceof byte[]) {
-      byte[] bs = (byte[]) value;
-      hashCode =
-          name.hashCode()
-              + 31
-                  * IntStream.range(0, bs.length)
-                      .map(i -> bs[i])
-                      .reduce(1, (hash, current) -> hash * 31 + current);
-    } else hashCode = name.hashCode() + 31 * value.hashCode();
+    return new ObjectCell<>(name, value);
+  }
+
+  static BooleanCell of(String name, boolean value) {
+    return new BooleanCell(name, value);
+  }
 
-    return new Cell<T>() {
+  static ByteCell of(String name, byte value) {
+    return new ByteCell(name, value);
+  }
 
-      @Override
-      public String name() {
-        return name;
-      }
+  static ShortCell of(String name, short value) {
+    return new ShortCell(name, value);
+  }
 
-      @Override
-      public T value() {
-        return value;
-      }
+  static IntCell of(String name, int value) {
+    return new IntCell(name, value);
+  }
 
-      @Override
-      public String toString() {
-        return name() + "/" + value();
-      }
+  static LongCell of(String name, long value) {
+    return new LongCell(name, value);
+  }
 
-      @Override
-      public int hashCode() {
-        return hashCode;
-      }
+  static FloatCell of(String name, float value) {
+    return new FloatCell(name, value);
+  }
 
-      @Override
-      public boolean equals(Object obj) {
-        if (obj == this) return true;
-        if (obj instanceof Cell) {
-          Cell<?> that = (Cell<?>) obj;
-          // java can't do deep comparison for byte array...
-          if (value() instanceof byte[] && that.value() instanceof byte[])
-            return name().equals(that.name())
-                && ByteUtils.equals((byte[]) value(), (byte[]) that.value());
-          return name().equals(that.name()) && value().equals(that.value());
-        }
-        return false;
-      }
-    };
+  static DoubleCell of(String name, double value) {
+    return new DoubleCell(name, value);
   }
 }
@@ -19,24 +19,44 @@ package oharastream.ohara.common.data;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Stream;
 
+/**
+ * the types of value carried by {@link Cell}. Each type is bound to a value class, and the lookups
+ * ({@link #of(short)} and {@link #from(Object)}) are resolved by array index and per-class cache
+ * respectively, so they need no change when a type is added.
+ *
+ * <p>The serialization and conversion still switch on the type. A new type must be added to all of
+ * the following places:
+ *
+ * <ul>
+ *   <li>{@link RowCodec}: writeVersion0 and readValue (version 0), putCompactValue and
+ *       readCompactValue (version 1). They throw on an unknown type.
+ *   <li>{@link LazyRow}: decode throws on an unknown type. compactValue reads an unknown type as a
+ *       length-prefixed value, which is wrong for a fixed-size type.
+ *   <li>ConnectorUtils#match of ohara-kafka: it checks an unknown type as {@link #OBJECT}.
+ *   <li>CsvRecordConverter#toCell of ohara-kafka: it throws on an unknown type.
+ * </ul>
+ */
 public enum DataType {
-  BYTES((short) 0),
-  BOOLEAN((short) 1),
-  BYTE((short) 2),
-  SHORT((short) 3),
-  INT((short) 4),
-  LONG((short) 5),
-  FLOAT((short) 6),
-  DOUBLE((short) 7),
-  STRING((short) 8),
-  OBJECT((short) 9),
-  ROW((short) 10),
-  CELL((short) 11);
+  BYTES((short) 0, byte[].class),
+  BOOLEAN((short) 1, Boolean.class),
+  BYTE((short) 2, Byte.class),
+  SHORT((short) 3, Short.class),
+  INT((short) 4, Integer.class),
+  LONG((short) 5, Long.class),
+  FLOAT((short) 6, Float.class),
+  DOUBLE((short) 7, Double.class),
+  STRING((short) 8, String.class),
+  /** the fallback of all serializable values which are not matched by other types. */
+  OBJECT((short) 9, Serializable.class),
+  ROW((short) 10, Row.class),
+  CELL((short) 11, Cell.class);
 
   public final short order;
 
+  /** the class of value. The subclasses are mapped to this type also. */
+  public final Class<?> valueClass;
+
   /**
    * seek the data type by the index
    *
@@ -44,10 +64,9 @@ public enum DataType {
    * @return Data type
    */
   public static DataType of(short order) {
-    return Stream.of(DataType.values())
-        .filter(t -> t.order == order)
-        .findFirst()
-        .orElseThrow(() -> new IllegalArgumentException("unknown order:" + order));
+    if (order < 0 || order >= ORDERS.length || ORDERS[order] == null)
+      throw new IllegalArgumentException("unknown order:" + order);
+    return ORDERS[order];
   }
 
   /**
@@ -57,24 +76,43 @@ public enum DataType {
    * @return data type
    */
   public static DataType from(Object obj) {
-    if (obj instanceof byte[]) return BYTES;
-    else if (obj instanceof Byte) return BYTE;
-    else if (obj instanceof Boolean) return BOOLEAN;
-    else if (obj instanceof Short) return SHORT;
-    else if (obj instanceof Integer) return INT;
-    else if (obj instanceof Long) return LONG;
-    else if (obj instanceof Float) return FLOAT;
-    else if (obj instanceof Double) return DOUBLE;
-    else if (obj instanceof String) return STRING;
-    else if (obj instanceof Cell) return CELL;
-    else if (obj instanceof Row) return ROW;
-    else if (obj instanceof Serializable) return OBJECT;
-    else throw new UnsupportedOperationException(obj.getClass() + " is not supported");
+    DataType type = TYPES.get(obj.getClass());
+    if (type == null) throw new UnsupportedOperationException(obj.getClass() + " is not supported");
+    return type;
   }
 
   public static final List<DataType> all = Arrays.asList(DataType.values());
 
-  DataType(short order) {
+  /** indexed by order. */
+  private static final DataType[] ORDERS;
+
+  static {
+    ORDERS = new DataType[all.stream().mapToInt(t -> t.order).max().orElse(-1) + 1];
+    all.forEach(t -> ORDERS[t.order] = t);
+  }
+
+  /**
+   * the type of each class is resolved once. The exact match is preferred, and OBJECT is the last
+   * candidate since it is the most general type.
+   */
+  private static final ClassValue<DataType> TYPES =
+      new ClassValue<>() {
+        @Override
+        protected DataType computeValue(Class<?> clazz) {
+          return all.stream()
+              .filter(t -> t.valueClass == clazz)
+              .findFirst()
+              .or(
+                  () ->
+                      all.stream()
+                          .filter(t -> t != OBJECT && t.valueClass.isAssignableFrom(clazz))
+                          .findFirst())
+              .orElse(OBJECT.valueClass.isAssignableFrom(clazz) ? OBJECT : null);
+        }
+      };
+
+  DataType(short order, Class<?> valueClass) {
     this.order = order;
+    this.valueClass = valueClass;
   }
 }
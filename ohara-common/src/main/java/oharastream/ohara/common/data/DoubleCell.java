@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.common.data;
+
+/**
+ * the cell carrying a double value without boxing. It is equal to the {@link Cell} which has the
+ * same name and {@link Double} value. see {@link Cell#of(String, double)}
+ */
+public final class DoubleCell extends AbstractCell<Double> {
+  /**
+   * @param cell cell
+   * @return the double value of cell
+   * @throws IllegalArgumentException if the value of cell is not a double
+   */
+  static double asDouble(Cell<?> cell) {
+    if (cell instanceof DoubleCell) return ((DoubleCell) cell).value;
+    Object value = cell.value();
+    if (value instanceof Double) return (Double) value;
+    throw new IllegalArgumentException(
+        "the type of cell:" + cell.name() + " is " + cell.dataType() + " rather than DOUBLE");
+  }
+
+  private final double value;
+
+  DoubleCell(String name, double value) {
+    super(name);
+    this.value = value;
+  }
+
+  /** @return the double value */
+  public double doubleValue() {
+    return value;
+  }
+
+  @Override
+  public Double value() {
+    return value;
+  }
+
+  @Override
+  public DataType dataType() {
+    return DataType.DOUBLE;
+  }
+
+  @Override
+  int valueHashCode() {
+    return Double.hashCode(value);
+  }
+
+  @Override
+  boolean valueEquals(Cell<?> that) {
+    if (that instanceof DoubleCell) {
+      double other = ((DoubleCell) that).value;
+      // follow the rule of Double#equals so NaN is equal to NaN
+      return Double.compare(value, other) == 0;
+    }
+    return that.value() instanceof Double && Double.compare(value, (Double) that.value()) == 0;
+  }
+
+  @Override
+  public String toString() {
+    return name() + "/" + value;
+  }
+}
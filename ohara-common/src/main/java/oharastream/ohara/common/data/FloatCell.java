@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.common.data;
+
+/**
+ * the cell carrying a float value without boxing. It is equal to the {@link Cell} which has the
+ * same name and {@link Float} value. see {@link Cell#of(String, float)}
+ */
+public final class FloatCell extends AbstractCell<Float> {
+  /**
+   * @param cell cell
+   * @return the float value of cell
+   * @throws IllegalArgumentException if the value of cell is not a float
+   */
+  static float asFloat(Cell<?> cell) {
+    if (cell instanceof FloatCell) return ((FloatCell) cell).value;
+    Object value = cell.value();
+    if (value instanceof Float) return (Float) value;
+    throw new IllegalArgumentException(
+        "the type of cell:" + cell.name() + " is " + cell.dataType() + " rather than FLOAT");
+  }
+
+  private final float value;
+
+  FloatCell(String name, float value) {
+    super(name);
+    this.value = value;
+  }
+
+  /** @return the float value */
+  public float floatValue() {
+    return value;
+  }
+
+  @Override
+  public Float value() {
+    return value;
+  }
+
+  @Override
+  public DataType dataType() {
+    return DataType.FLOAT;
+  }
+
+  @Override
+  int valueHashCode() {
+    return Float.hashCode(value);
+  }
+
+  @Override
+  boolean valueEquals(Cell<?> that) {
+    if (that instanceof FloatCell) {
+      float other = ((FloatCell) that).value;
+      // follow the rule of Float#equals so NaN is equal to NaN
+      return Float.compare(value, other) == 0;
+    }
+    return that.value() instanceof Float && Float.compare(value, (Float) that.value()) == 0;
+  }
+
+  @Override
+  public String toString() {
+    return name() + "/" + value;
+  }
+}
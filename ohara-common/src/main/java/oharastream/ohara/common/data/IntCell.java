@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.common.data;
+
+/**
+ * the cell carrying an int value without boxing. It is equal to the {@link Cell} which has the
+ * same name and {@link Integer} value. see {@link Cell#of(String, int)}
+ */
+public final class IntCell extends AbstractCell<Integer> {
+  /**
+   * @param cell cell
+   * @return the int value of cell
+   * @throws IllegalArgumentException if the value of cell is not an int
+   */
+  static int asInt(Cell<?> cell) {
+    if (cell instanceof IntCell) return ((IntCell) cell).value;
+    Object value = cell.value();
+    if (value instanceof Integer) return (Integer) value;
+    throw new IllegalArgumentException(
+        "the type of cell:" + cell.name() + " is " + cell.dataType() + " rather than INT");
+  }
+
+  private final int value;
+
+  IntCell(String name, int value) {
+    super(name);
+    this.value = value;
+  }
+
+  /** @return the int value */
+  public int intValue() {
+    return value;
+  }
+
+  @Override
+  public Integer value() {
+    return value;
+  }
+
+  @Override
+  public DataType dataType() {
+    return DataType.INT;
+  }
+
+  @Override
+  int valueHashCode() {
+    return Integer.hashCode(value);
+  }
+
+  @Override
+  boolean valueEquals(Cell<?> that) {
+    if (that instanceof IntCell) return value == ((IntCell) that).value;
+    return that.value() instanceof Integer && value == (Integer) that.value();
+  }
+
+  @Override
+  public String toString() {
+    return name() + "/" + value;
+  }
+}
@@ -0,0 +1,558 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.common.data;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.IntBinaryOperator;
+import oharastream.ohara.common.annotations.Nullable;
+import oharastream.ohara.common.util.ByteUtils;
+
+/**
+ * A {@link Row} backed by the serialized bytes. The offsets of cells are indexed when this object
+ * is created, and a cell is decoded only when it is requested. The primitive accessors (for
+ * example, {@link #getInt(String)}) read the value from bytes directly so they don't box the value.
+ *
+ * <p>NOTED: the bytes must not be changed after creating this view. This class is not thread-safe
+ * but the lazy decoding is idempotent so concurrent reads see equal cells.
+ */
+public final class LazyRow implements Row {
+  private static final int LINEAR_SCAN_THRESHOLD = 8;
+
+  private final ByteBuffer buffer;
+  private final byte version;
+  private final int size;
+  // the absolute index of name. It is -1 if the name comes from schema
+  private final int[] nameOffsets;
+  private final int[] nameLengths;
+  private final DataType[] types;
+  private final int[] valueOffsets;
+  private final int[] valueLengths;
+  // the cells of version 0 row can be written by version 1 if they are too large. It is null if
+  // there is no such cell
+  private boolean[] compactCells;
+  private final int tagOffset;
+  private final int end;
+
+  // the following members are decoded lazily
+  private final String[] names;
+  private final Cell<?>[] cells;
+  private List<String> namesList;
+  private List<Cell<?>> cellsList;
+  private List<String> tags;
+  private NameIndex nameIndex;
+
+  /**
+   * @param buffer the buffer whose position 0 is the beginning of row
+   * @param schema the schema used to decode the row written with schema
+   */
+  LazyRow(ByteBuffer buffer, @Nullable RowCodec.Schema schema) {
+    this.buffer = buffer;
+    String[] schemaNames = null;
+    try {
+      this.version = buffer.get(0);
+      int index = 1;
+      switch (version) {
+        case RowCodec.VERSION_0:
+          {
+            size = requireSize(buffer.getInt(index));
+            index += ByteUtils.SIZE_OF_INT;
+            nameOffsets = new int[size];
+            nameLengths = new int[size];
+            types = new DataType[size];
+            valueOffsets = new int[size];
+            valueLengths = new int[size];
+            for (int i = 0; i != size; ++i) {
+              int cellSize = requireSize(buffer.getInt(index));
+              int cellStart = index + ByteUtils.SIZE_OF_INT;
+              int cellEnd = cellStart + cellSize;
+              byte cellVersion = buffer.get(cellStart);
+              if (cellVersion == RowCodec.VERSION_0) {
+                // | version (1 byte) | name length (2 bytes) | name | type (2 bytes) |
+                // | value length (2 bytes) | value |
+                nameLengths[i] = requireSize(buffer.getShort(cellStart + 1));
+                nameOffsets[i] = cellStart + 3;
+                int typeIndex = nameOffsets[i] + nameLengths[i];
+                types[i] = DataType.of(buffer.getShort(typeIndex));
+                valueLengths[i] = requireSize(buffer.getShort(typeIndex + 2));
+                valueOffsets[i] = typeIndex + 4;
+              } else if (cellVersion == RowCodec.VERSION_1) {
+                // the large cell is written by version 1
+                // | version (1 byte) | name length (varint) | name | type (1 byte) | value |
+                nameLengths[i] = requireSize(varint(cellStart + 1));
+                nameOffsets[i] = varintEnd(cellStart + 1);
+                int typeIndex = nameOffsets[i] + nameLengths[i];
+                types[i] = DataType.of(buffer.get(typeIndex));
+                compactValue(i, typeIndex + 1);
+                if (compactCells == null) compactCells = new boolean[size];
+                compactCells[i] = true;
+              } else
+                throw new IllegalArgumentException("Unsupported version of cell:" + cellVersion);
+              if (valueOffsets[i] + valueLengths[i] > cellEnd)
+                throw new IllegalArgumentException("the cell:" + i + " is broken");
+              index = cellEnd;
+            }
+            tagOffset = index;
+            int tagCount = requireSize(buffer.getShort(index));
+            index += ByteUtils.SIZE_OF_SHORT;
+            for (int i = 0; i != tagCount; ++i)
+              index += ByteUtils.SIZE_OF_SHORT + requireSize(buffer.getShort(index));
+            break;
+          }
+        case RowCodec.VERSION_1:
+          {
+            byte flag = buffer.get(index++);
+            switch (flag) {
+              case RowCodec.FLAG_DICTIONARY:
+                size = requireSize(varint(index));
+                index = varintEnd(index);
+                nameOffsets = new int[size];
+                nameLengths = new int[size];
+                types = new DataType[size];
+                for (int i = 0; i != size; ++i) {
+                  nameLengths[i] = requireSize(varint(index));
+                  nameOffsets[i] = varintEnd(index);
+                  index = nameOffsets[i] + nameLengths[i];
+                  types[i] = DataType.of(buffer.get(index++));
+                }
+                break;
+              case RowCodec.FLAG_SCHEMA:
+                if (schema == null)
+                  throw new IllegalArgumentException(
+                      "the row is written with schema but no schema exists");
+                int fingerprint = buffer.getInt(index);
+                if (fingerprint != schema.fingerprint)
+                  throw new IllegalArgumentException(
+                      "the fingerprint of schema is "
+                          + schema.fingerprint
+                          + " but the row is written with "
+                          + fingerprint);
+                index += ByteUtils.SIZE_OF_INT;
+                int bitmapIndex = index;
+                index += (schema.names.length + 7) / 8;
+                int count = 0;
+                for (int i = bitmapIndex; i != index; ++i)
+                  count += Integer.bitCount(buffer.get(i) & 0xFF);
+                size = count;
+                nameOffsets = new int[size];
+                nameLengths = new int[size];
+                types = new DataType[size];
+                schemaNames = new String[size];
+                for (int i = 0, j = 0; i != schema.names.length; ++i) {
+                  if ((buffer.get(bitmapIndex + i / 8) & (1 << (i % 8))) != 0) {
+                    nameOffsets[j] = -1;
+                    schemaNames[j] = schema.names[i];
+                    types[j] = schema.types[i];
+                    ++j;
+                  }
+                }
+                break;
+              default:
+                throw new UnsupportedOperationException("Unsupported flag:" + flag);
+            }
+            valueOffsets = new int[size];
+            valueLengths = new int[size];
+            for (int i = 0; i != size; ++i) index = compactValue(i, index);
+            tagOffset = index;
+            int tagCount = requireSize(varint(index));
+            index = varintEnd(index);
+            for (int i = 0; i != tagCount; ++i)
+              index = varintEnd(index) + requireSize(varint(index));
+            break;
+          }
+        default:
+          throw new UnsupportedOperationException("Unsupported version:" + version);
+      }
+      if (index > buffer.limit())
+        throw new IllegalArgumentException(
+            "required " + index + " bytes but actual " + buffer.limit() + " bytes");
+      this.end = index;
+      this.names = schemaNames == null ? new String[size] : schemaNames;
+      this.cells = new Cell<?>[size];
+    } catch (IllegalArgumentException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  /** @return the number of bytes of this row */
+  int length() {
+    return end;
+  }
+
+  // -------------------------------[row]-------------------------------//
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public List<String> names() {
+    if (namesList == null) {
+      for (int i = 0; i != size; ++i) name(i);
+      namesList = List.of(names);
+    }
+    return namesList;
+  }
+
+  @Override
+  public Cell<?> cell(int index) {
+    if (index < 0 || index >= size)
+      throw new NoSuchElementException("no cell exists with index:" + index);
+    Cell<?> cell = cells[index];
+    if (cell == null) {
+      cell = decode(index);
+      cells[index] = cell;
+    }
+    return cell;
+  }
+
+  @Override
+  public Cell<?> cell(String name) {
+    return cell(indexOf(name));
+  }
+
+  @Override
+  public List<Cell<?>> cells() {
+    if (cellsList == null) {
+      for (int i = 0; i != size; ++i) cell(i);
+      cellsList = List.of(cells);
+    }
+    return cellsList;
+  }
+
+  @Override
+  public List<String> tags() {
+    if (tags == null) {
+      int index = tagOffset;
+      final String[] tagArray;
+      if (version == RowCodec.VERSION_0) {
+        tagArray = new String[buffer.getShort(index)];
+        index += ByteUtils.SIZE_OF_SHORT;
+        for (int i = 0; i != tagArray.length; ++i) {
+          int length = buffer.getShort(index);
+          index += ByteUtils.SIZE_OF_SHORT;
+          tagArray[i] = string(index, length);
+          index += length;
+        }
+      } else {
+        tagArray = new String[varint(index)];
+        index = varintEnd(index);
+        for (int i = 0; i != tagArray.length; ++i) {
+          int length = varint(index);
+          index = varintEnd(index);
+          tagArray[i] = string(index, length);
+          index += length;
+        }
+      }
+      tags = List.of(tagArray);
+    }
+    return tags;
+  }
+
+  // -------------------------------[primitive accessors]-------------------------------//
+
+  /**
+   * @param index cell's index
+   * @return the type of cell
+   */
+  public DataType type(int index) {
+    if (index < 0 || index >= size)
+      throw new NoSuchElementException("no cell exists with index:" + index);
+    return types[index];
+  }
+
+  @Override
+  public boolean getBoolean(int index) {
+    return buffer.get(valueOffset(index, DataType.BOOLEAN)) != (byte) 0;
+  }
+
+  @Override
+  public boolean getBoolean(String name) {
+    return getBoolean(indexOf(name));
+  }
+
+  @Override
+  public byte getByte(int index) {
+    return buffer.get(valueOffset(index, DataType.BYTE));
+  }
+
+  @Override
+  public byte getByte(String name) {
+    return getByte(indexOf(name));
+  }
+
+  @Override
+  public short getShort(int index) {
+    int offset = valueOffset(index, DataType.SHORT);
+    if (!compact(index)) return buffer.getShort(offset);
+    return (short) RowCodec.unzigzag(varint(offset));
+  }
+
+  @Override
+  public short getShort(String name) {
+    return getShort(indexOf(name));
+  }
+
+  @Override
+  public int getInt(int index) {
+    int offset = valueOffset(index, DataType.INT);
+    if (!compact(index)) return buffer.getInt(offset);
+    return RowCodec.unzigzag(varint(offset));
+  }
+
+  @Override
+  public int getInt(String name) {
+    return getInt(indexOf(name));
+  }
+
+  @Override
+  public long getLong(int index) {
+    int offset = valueOffset(index, DataType.LONG);
+    if (!compact(index)) return buffer.getLong(offset);
+    return RowCodec.unzigzag(varlong(offset));
+  }
+
+  @Override
+  public long getLong(String name) {
+    return getLong(indexOf(name));
+  }
+
+  @Override
+  public float getFloat(int index) {
+    return buffer.getFloat(valueOffset(index, DataType.FLOAT));
+  }
+
+  @Override
+  public float getFloat(String name) {
+    return getFloat(indexOf(name));
+  }
+
+  @Override
+  public double getDouble(int index) {
+    return buffer.getDouble(valueOffset(index, DataType.DOUBLE));
+  }
+
+  @Override
+  public double getDouble(String name) {
+    return getDouble(indexOf(name));
+  }
+
+  public String getString(int index) {
+    int offset = valueOffset(index, DataType.STRING);
+    return string(offset, valueLengths[index]);
+  }
+
+  public String getString(String name) {
+    return getString(indexOf(name));
+  }
+
+  /**
+   * the large value can be read in chunks from the returned buffer without copying it to a array.
+   *
+   * @param index cell's index
+   * @return a read-only buffer of the value of {@link DataType#BYTES} cell. It shares the bytes of
+   *     this row.
+   */
+  public ByteBuffer getByteBuffer(int index) {
+    int offset = valueOffset(index, DataType.BYTES);
+    return slice(offset, valueLengths[index]).asReadOnlyBuffer();
+  }
+
+  public ByteBuffer getByteBuffer(String name) {
+    return getByteBuffer(indexOf(name));
+  }
+
+  // -------------------------------[object]-------------------------------//
+
+  @Override
+  public int hashCode() {
+    // this algorithm must be same to Row.of
+    IntBinaryOperator accumulate = (hash, current) -> hash * 31 + current;
+    return 31 * cells().stream().mapToInt(Objects::hashCode).reduce(1, accumulate)
+        + tags().stream().mapToInt(Objects::hashCode).reduce(1, accumulate);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) return true;
+    if (obj instanceof Row) return equals((Row) obj, true);
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "cells:" + cells() + ", tags:" + tags();
+  }
+
+  // -------------------------------[helpers]-------------------------------//
+
+  private int indexOf(String name) {
+    Objects.requireNonNull(name);
+    // the narrow row is cheaper to scan than to index
+    if (size <= LINEAR_SCAN_THRESHOLD) {
+      for (int i = 0; i != size; ++i) if (name.equals(name(i))) return i;
+      throw new NoSuchElementException("no cell exists with name:" + name);
+    }
+    if (nameIndex == null) nameIndex = NameIndex.of(names());
+    return nameIndex.requireIndex(name);
+  }
+
+  private String name(int index) {
+    String name = names[index];
+    if (name == null) {
+      name = string(nameOffsets[index], nameLengths[index]);
+      names[index] = name;
+    }
+    return name;
+  }
+
+  private int valueOffset(int index, DataType expected) {
+    DataType type = type(index);
+    if (type != expected)
+      throw new IllegalArgumentException(
+          "the type of cell:" + name(index) + " is " + type + " rather than " + expected);
+    return valueOffsets[index];
+  }
+
+  private Cell<?> decode(int index) {
+    String name = name(index);
+    int offset = valueOffsets[index];
+    int length = valueLengths[index];
+    switch (types[index]) {
+      case BYTES:
+        byte[] bytes = new byte[length];
+        buffer.duplicate().position(offset).get(bytes);
+        return Cell.of(name, bytes);
+      case BOOLEAN:
+        return Cell.of(name, getBoolean(index));
+      case BYTE:
+        return Cell.of(name, getByte(index));
+      case SHORT:
+        return Cell.of(name, getShort(index));
+      case INT:
+        return Cell.of(name, getInt(index));
+      case LONG:
+        return Cell.of(name, getLong(index));
+      case FLOAT:
+        return Cell.of(name, getFloat(index));
+      case DOUBLE:
+        return Cell.of(name, getDouble(index));
+      case STRING:
+        return Cell.of(name, getString(index));
+      case CELL:
+        return Cell.of(name, RowCodec.readCell(slice(offset, length)));
+      case ROW:
+        return Cell.of(name, new LazyRow(slice(offset, length), null));
+      case OBJECT:
+        byte[] objectBytes = new byte[length];
+        buffer.duplicate().position(offset).get(objectBytes);
+        return Cell.of(name, Serializer.OBJECT.from(objectBytes));
+      default:
+        throw new UnsupportedClassVersionError(types[index].getClass().getName());
+    }
+  }
+
+  /**
+   * index the value of compact format (version 1).
+   *
+   * @param i cell's index
+   * @param index the offset of value
+   * @return the offset next to the value
+   */
+  private int compactValue(int i, int index) {
+    switch (types[i]) {
+      case BOOLEAN:
+      case BYTE:
+        valueOffsets[i] = index;
+        valueLengths[i] = ByteUtils.SIZE_OF_BYTE;
+        break;
+      case SHORT:
+      case INT:
+      case LONG:
+        valueOffsets[i] = index;
+        valueLengths[i] = varintEnd(index) - index;
+        break;
+      case FLOAT:
+        valueOffsets[i] = index;
+        valueLengths[i] = ByteUtils.SIZE_OF_FLOAT;
+        break;
+      case DOUBLE:
+        valueOffsets[i] = index;
+        valueLengths[i] = ByteUtils.SIZE_OF_DOUBLE;
+        break;
+      default:
+        valueLengths[i] = requireSize(varint(index));
+        valueOffsets[i] = varintEnd(index);
+        break;
+    }
+    return valueOffsets[i] + valueLengths[i];
+  }
+
+  /** @return true if the integral value of cell is a zigzag varint */
+  private boolean compact(int index) {
+    return version == RowCodec.VERSION_1 || (compactCells != null && compactCells[index]);
+  }
+
+  private ByteBuffer slice(int offset, int length) {
+    return buffer.duplicate().position(offset).limit(offset + length).slice();
+  }
+
+  private String string(int offset, int length) {
+    if (buffer.hasArray())
+      return ByteUtils.toString(buffer.array(), buffer.arrayOffset() + offset, length);
+    byte[] bytes = new byte[length];
+    buffer.duplicate().position(offset).get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private int varint(int index) {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      byte b = buffer.get(index++);
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) return value;
+    }
+    throw new IllegalStateException("malformed varint");
+  }
+
+  private long varlong(int index) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = buffer.get(index++);
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) return value;
+    }
+    throw new IllegalStateException("malformed varlong");
+  }
+
+  /** @return the index next to the varint */
+  private int varintEnd(int index) {
+    while ((buffer.get(index) & 0x80) != 0) ++index;
+    return index + 1;
+  }
+
+  private static int requireSize(int size) {
+    if (size < 0) throw new IllegalStateException(size + " should be bigger than zero");
+    return size;
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.common.data;
+
+/**
+ * the cell carrying a long value without boxing. It is equal to the {@link Cell} which has the
+ * same name and {@link Long} value. see {@link Cell#of(String, long)}
+ */
+public final class LongCell extends AbstractCell<Long> {
+  /**
+   * @param cell cell
+   * @return the long value of cell
+   * @throws IllegalArgumentException if the value of cell is not a long
+   */
+  static long asLong(Cell<?> cell) {
+    if (cell instanceof LongCell) return ((LongCell) cell).value;
+    Object value = cell.value();
+    if (value instanceof Long) return (Long) value;
+    throw new IllegalArgumentException(
+        "the type of cell:" + cell.name() + " is " + cell.dataType() + " rather than LONG");
+  }
+
+  private final long value;
+
+  LongCell(String name, long value) {
+    super(name);
+    this.value = value;
+  }
+
+  /** @return the long value */
+  public long longValue() {
+    return value;
+  }
+
+  @Override
+  public Long value() {
+    return value;
+  }
+
+  @Override
+  public DataType dataType() {
+    return DataType.LONG;
+  }
+
+  @Override
+  int valueHashCode() {
+    return Long.hashCode(value);
+  }
+
+  @Override
+  boolean valueEquals(Cell<?> that) {
+    if (that instanceof LongCell) return value == ((LongCell) that).value;
+    return that.value() instanceof Long && value == (Long) that.value();
+  }
+
+  @Override
+  public String toString() {
+    return name() + "/" + value;
+  }
+}
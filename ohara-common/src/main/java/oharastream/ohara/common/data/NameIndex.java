@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.common.data;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * a compact and immutable map from cell name to cell index. It is an open-addressing hash table
+ * storing the indexes only, so it is cheap to build and it can be shared by the rows having the
+ * same names in the same order (see {@link #of(Cell[])}).
+ */
+final class NameIndex {
+  /** the rows generated by a task usually have the same names so we keep the latest index. */
+  private static final ThreadLocal<NameIndex> LATEST = new ThreadLocal<>();
+
+  static final NameIndex EMPTY = new NameIndex(new String[0]);
+
+  /**
+   * create (or reuse) the index for the names of cells.
+   *
+   * @param cells cells
+   * @return name index
+   * @throws IllegalArgumentException if there are duplicate names
+   */
+  static NameIndex of(Cell<?>[] cells) {
+    if (cells.length == 0) return EMPTY;
+    NameIndex latest = LATEST.get();
+    if (latest != null && latest.matches(cells)) return latest;
+    String[] names = new String[cells.length];
+    for (int i = 0; i != names.length; ++i) names[i] = cells[i].name();
+    NameIndex index = new NameIndex(names);
+    LATEST.set(index);
+    return index;
+  }
+
+  /**
+   * create the index for names.
+   *
+   * @param names names
+   * @return name index
+   * @throws IllegalArgumentException if there are duplicate names
+   */
+  static NameIndex of(List<String> names) {
+    if (names.isEmpty()) return EMPTY;
+    return new NameIndex(names.toArray(new String[0]));
+  }
+
+  private final String[] names;
+  private final List<String> namesList;
+  // the value is (index + 1) and 0 means empty slot
+  private final int[] slots;
+
+  private NameIndex(String[] names) {
+    this.names = names;
+    this.namesList = List.of(names);
+    // keep the load factor under 0.5
+    this.slots = new int[Integer.highestOneBit(Math.max(1, names.length) * 2) << 1];
+    int mask = slots.length - 1;
+    for (int i = 0; i != names.length; ++i) {
+      int slot = hash(names[i]) & mask;
+      while (slots[slot] != 0) {
+        if (names[slots[slot] - 1].equals(names[i]))
+          throw new IllegalArgumentException("Row can't accept duplicate cell name");
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = i + 1;
+    }
+  }
+
+  /** @return the immutable names */
+  List<String> names() {
+    return namesList;
+  }
+
+  int size() {
+    return names.length;
+  }
+
+  /**
+   * @param name cell name
+   * @return the index of name or -1 if the name does not exist
+   */
+  int indexOf(String name) {
+    int mask = slots.length - 1;
+    int slot = hash(name) & mask;
+    while (slots[slot] != 0) {
+      int index = slots[slot] - 1;
+      String candidate = names[index];
+      // the names from same source are usually the same instances
+      if (candidate == name || candidate.equals(name)) return index;
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * @param name cell name
+   * @return the index of name
+   * @throws NoSuchElementException if the name does not exist
+   */
+  int requireIndex(String name) {
+    int index = indexOf(name);
+    if (index < 0) throw new NoSuchElementException("no cell exists with name:" + name);
+    return index;
+  }
+
+  private boolean matches(Cell<?>[] cells) {
+    if (cells.length != names.length) return false;
+    for (int i = 0; i != cells.length; ++i) {
+      String name = cells[i].name();
+      if (name != names[i] && !name.equals(names[i])) return false;
+    }
+    return true;
+  }
+
+  private static int hash(String name) {
+    int h = name.hashCode();
+    // spread the high bits since the table is indexed by the low bits
+    return h ^ (h >>> 16);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(names);
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.common.data;
+
+import java.util.Arrays;
+import java.util.Objects;
+import oharastream.ohara.common.util.ByteUtils;
+
+/**
+ * the cell carrying a boxed value. see {@link Cell#of(String, Object)}
+ *
+ * @param <T> value type
+ */
+final class ObjectCell<T> extends AbstractCell<T> {
+  private final T value;
+
+  ObjectCell(String name, T value) {
+    super(name);
+    this.value = Objects.requireNonNull(value);
+  }
+
+  @Override
+  public T value() {
+    return value;
+  }
+
+  @Override
+  int valueHashCode() {
+    // java can't do deep hash for byte array...
+    if (value instanceof byte[]) return Arrays.hashCode((byte[]) value);
+    return value.hashCode();
+  }
+
+  @Override
+  boolean valueEquals(Cell<?> that) {
+    // java can't do deep comparison for byte array...
+    if (value instanceof byte[] && that.value() instanceof byte[])
+      return ByteUtils.equals((byte[]) value, (byte[]) that.value());
+    return value.equals(that.value());
+  }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.common.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import oharastream.ohara.common.util.ByteUtils;
+
+/**
+ * the implementation of {@link Serializer#OBJECT}. The object having a registered codec is
+ * serialized by the codec. Otherwise, it is serialized by java serialization.
+ *
+ * <p>codec format: | marker (1 byte) | codec id (1 byte) | payload |
+ *
+ * <p>The java serialization always starts with the magic number 0xACED so the formats are
+ * distinguishable. The data written by older version (java serialization) is still readable.
+ */
+final class ObjectSerializer implements Serializer<Object> {
+  /** the ids which are smaller than or equal to this value are reserved by ohara. */
+  static final int MAX_RESERVED_ID = 127;
+
+  static final int MAX_ID = 255;
+
+  private static final byte CODEC_MARKER = 1;
+  private static final int HEADER_SIZE = 2;
+
+  static final ObjectSerializer INSTANCE = new ObjectSerializer();
+
+  private static final class Codec {
+    private final int id;
+    private final Serializer<Object> serializer;
+
+    private Codec(int id, Serializer<Object> serializer) {
+      this.id = id;
+      this.serializer = serializer;
+    }
+  }
+
+  private final Map<Class<?>, Codec> codecsByClass = new ConcurrentHashMap<>();
+  private final AtomicReferenceArray<Codec> codecsById = new AtomicReferenceArray<>(MAX_ID + 1);
+
+  private ObjectSerializer() {
+    fixed(
+        1,
+        BigDecimal.class,
+        value -> value.unscaledValue().toByteArray().length + ByteUtils.SIZE_OF_INT,
+        (value, buffer) -> buffer.putInt(value.scale()).put(value.unscaledValue().toByteArray()),
+        buffer -> {
+          int scale = buffer.getInt();
+          byte[] unscaled = new byte[buffer.remaining()];
+          buffer.get(unscaled);
+          return new BigDecimal(new BigInteger(unscaled), scale);
+        });
+    fixed(
+        2,
+        Timestamp.class,
+        value -> ByteUtils.SIZE_OF_LONG + ByteUtils.SIZE_OF_INT,
+        (value, buffer) -> buffer.putLong(value.getTime()).putInt(value.getNanos()),
+        buffer -> {
+          Timestamp timestamp = new Timestamp(buffer.getLong());
+          timestamp.setNanos(buffer.getInt());
+          return timestamp;
+        });
+    fixed(
+        3,
+        LocalDateTime.class,
+        value -> ByteUtils.SIZE_OF_LONG * 2,
+        (value, buffer) ->
+            buffer
+                .putLong(value.toLocalDate().toEpochDay())
+                .putLong(value.toLocalTime().toNanoOfDay()),
+        buffer ->
+            LocalDateTime.of(
+                LocalDate.ofEpochDay(buffer.getLong()), LocalTime.ofNanoOfDay(buffer.getLong())));
+    fixed(
+        4,
+        UUID.class,
+        value -> ByteUtils.SIZE_OF_LONG * 2,
+        (value, buffer) ->
+            buffer.putLong(value.getMostSignificantBits()).putLong(value.getLeastSignificantBits()),
+        buffer -> new UUID(buffer.getLong(), buffer.getLong()));
+    fixed(
+        5,
+        java.sql.Date.class,
+        value -> ByteUtils.SIZE_OF_LONG,
+        (value, buffer) -> buffer.putLong(value.getTime()),
+        buffer -> new java.sql.Date(buffer.getLong()));
+    fixed(
+        6,
+        Time.class,
+        value -> ByteUtils.SIZE_OF_LONG,
+        (value, buffer) -> buffer.putLong(value.getTime()),
+        buffer -> new Time(buffer.getLong()));
+    fixed(
+        7,
+        LocalDate.class,
+        value -> ByteUtils.SIZE_OF_LONG,
+        (value, buffer) -> buffer.putLong(value.toEpochDay()),
+        buffer -> LocalDate.ofEpochDay(buffer.getLong()));
+    fixed(
+        8,
+        Instant.class,
+        value -> ByteUtils.SIZE_OF_LONG + ByteUtils.SIZE_OF_INT,
+        (value, buffer) -> buffer.putLong(value.getEpochSecond()).putInt(value.getNano()),
+        buffer -> Instant.ofEpochSecond(buffer.getLong(), buffer.getInt()));
+  }
+
+  /** register the built-in codec which writes the header and payload to a single array. */
+  private <T> void fixed(
+      int id,
+      Class<T> clazz,
+      Function<T, Integer> size,
+      BiConsumer<T, ByteBuffer> writer,
+      Function<ByteBuffer, T> reader) {
+    add(
+        id,
+        clazz,
+        new Serializer<T>() {
+          @Override
+          public byte[] to(T obj) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + size.apply(obj));
+            buffer.put(CODEC_MARKER).put((byte) id);
+            writer.accept(obj, buffer);
+            return buffer.array();
+          }
+
+          @Override
+          public T from(byte[] bytes) {
+            return reader.apply(
+                ByteBuffer.wrap(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE).slice());
+          }
+        });
+  }
+
+  /**
+   * register the codec of user-defined class.
+   *
+   * @param id codec id. It must be bigger than {@link #MAX_RESERVED_ID} and not bigger than {@link
+   *     #MAX_ID}
+   * @param clazz the class of object. NOTED: the subclass is not handled by the codec
+   * @param serializer codec
+   * @param <T> object type
+   */
+  <T> void register(int id, Class<T> clazz, Serializer<T> serializer) {
+    if (id <= MAX_RESERVED_ID || id > MAX_ID)
+      throw new IllegalArgumentException(
+          "the id must be in (" + MAX_RESERVED_ID + ", " + MAX_ID + "] but actual:" + id);
+    Objects.requireNonNull(serializer);
+    add(
+        id,
+        clazz,
+        new Serializer<T>() {
+          @Override
+          public byte[] to(T obj) {
+            byte[] payload = serializer.to(obj);
+            byte[] bytes = new byte[HEADER_SIZE + payload.length];
+            bytes[0] = CODEC_MARKER;
+            bytes[1] = (byte) id;
+            System.arraycopy(payload, 0, bytes, HEADER_SIZE, payload.length);
+            return bytes;
+          }
+
+          @Override
+          public T from(byte[] bytes) {
+            byte[] payload = new byte[bytes.length - HEADER_SIZE];
+            System.arraycopy(bytes, HEADER_SIZE, payload, 0, payload.length);
+            return serializer.from(payload);
+          }
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  private synchronized <T> void add(int id, Class<T> clazz, Serializer<T> serializer) {
+    Objects.requireNonNull(clazz);
+    if (codecsByClass.containsKey(clazz))
+      throw new IllegalArgumentException("the codec of " + clazz.getName() + " is registered");
+    Codec codec = new Codec(id, (Serializer<Object>) serializer);
+    if (!codecsById.compareAndSet(id, null, codec))
+      throw new IllegalArgumentException("the id:" + id + " is used by another codec");
+    codecsByClass.put(clazz, codec);
+  }
+
+  @Override
+  public byte[] to(Object obj) {
+    Codec codec = codecsByClass.get(obj.getClass());
+    if (codec != null) return codec.serializer.to(obj);
+    try (ByteArrayOutputStream bytes = new ByteArrayOutputStream(100);
+        ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(obj);
+      out.flush();
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  @Override
+  public Object from(byte[] bytes) {
+    if (bytes.length >= HEADER_SIZE && bytes[0] == CODEC_MARKER) {
+      Codec codec = codecsById.get(bytes[1] & 0xFF);
+      if (codec == null)
+        throw new IllegalArgumentException("there is no codec for id:" + (bytes[1] & 0xFF));
+      try {
+        return codec.serializer.from(bytes);
+      } catch (IllegalArgumentException e) {
+        throw e;
+      } catch (RuntimeException e) {
+        throw new IllegalArgumentException(e);
+      }
+    }
+    try (ByteArrayInputStream bs = new ByteArrayInputStream(bytes);
+        ObjectInputStream input = new ObjectInputStream(bs)) {
+      return input.readObject();
+    } catch (IOException | java.lang.ClassNotFoundException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+}
@@ -20,8 +20,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.IntBinaryOperator;
-import java.util.stream.Collectors;
 
 /**
  * a collection from {@link Cell}. Also, {@link Row} can carry variable tags which can be used to
@@ -54,6 +54,66 @@ public interface Row extends Iterable<Cell<?>> {
   /** @return a immutable collection from cells */
   List<Cell<?>> cells();
 
+  // -------------------------------[primitive accessors]-------------------------------//
+  // the following methods don't box the value if the cell is a primitive cell (for example,
+  // IntCell). They throw IllegalArgumentException if the type of value is not matched.
+
+  default boolean getBoolean(int index) {
+    return BooleanCell.asBoolean(cell(index));
+  }
+
+  default boolean getBoolean(String name) {
+    return BooleanCell.asBoolean(cell(name));
+  }
+
+  default byte getByte(int index) {
+    return ByteCell.asByte(cell(index));
+  }
+
+  default byte getByte(String name) {
+    return ByteCell.asByte(cell(name));
+  }
+
+  default short getShort(int index) {
+    return ShortCell.asShort(cell(index));
+  }
+
+  default short getShort(String name) {
+    return ShortCell.asShort(cell(name));
+  }
+
+  default int getInt(int index) {
+    return IntCell.asInt(cell(index));
+  }
+
+  default int getInt(String name) {
+    return IntCell.asInt(cell(name));
+  }
+
+  default long getLong(int index) {
+    return LongCell.asLong(cell(index));
+  }
+
+  default long getLong(String name) {
+    return LongCell.asLong(cell(name));
+  }
+
+  default float getFloat(int index) {
+    return FloatCell.asFloat(cell(index));
+  }
+
+  default float getFloat(String name) {
+    return FloatCell.asFloat(cell(name));
+  }
+
+  default double getDouble(int index) {
+    return DoubleCell.asDouble(cell(index));
+  }
+
+  default double getDouble(String name) {
+    return DoubleCell.asDouble(cell(name));
+  }
+
   /**
    * the default order from cells from this method is same to {@link #cells()}
    *
@@ -82,10 +142,20 @@ public interface Row extends Iterable<Cell<?>> {
    * @return true if both rows have same cells and tags (if includeTags is true)
    */
   default boolean equals(Row that, boolean includeTags) {
-    if (cells().size() != that.cells().size()) return false;
-    if (includeTags && !tags().stream().allMatch(tag -> that.tags().stream().anyMatch(tag::equals)))
+    if (size() != that.size()) return false;
+    if (includeTags && !tags().isEmpty() && !Set.copyOf(that.tags()).containsAll(tags()))
       return false;
-    return cells().stream().allMatch(cell -> that.cells().stream().anyMatch(cell::equals));
+    // the names in a row are unique so the cells can be paired by name
+    for (Cell<?> cell : cells()) {
+      Cell<?> other;
+      try {
+        other = that.cell(cell.name());
+      } catch (NoSuchElementException e) {
+        return false;
+      }
+      if (!cell.equals(other)) return false;
+    }
+    return true;
   }
 
   static Row of(Cell<?>... cells) {
@@ -95,16 +165,15 @@ public interface Row extends Iterable<Cell<?>> {
   static Row of(List<String> tags, Cell<?>... cells) {
     var tagsCopy = List.copyOf(tags);
     var cellsCopy = List.of(cells);
-    // check duplicate names
-    int numberOfNames =
-        cellsCopy.stream().map(Cell::name).collect(Collectors.toUnmodifiableSet()).size();
-    if (numberOfNames != cellsCopy.size())
-      throw new IllegalArgumentException("Row can't accept duplicate cell name");
+    // it also checks duplicate names
+    var nameIndex = NameIndex.of(cells);
     return new Row() {
+      // 0 means the hash is not computed yet
+      private int hashCode = 0;
 
       @Override
       public List<String> names() {
-        return cellsCopy.stream().map(Cell::name).collect(Collectors.toUnmodifiableList());
+        return nameIndex.names();
       }
 
       @Override
@@ -116,10 +185,7 @@ public interface Row extends Iterable<Cell<?>> {
 
       @Override
       public Cell<?> cell(String name) {
-        return cellsCopy.stream()
-            .filter(c -> c.name().equals(name))
-            .findFirst()
-            .orElseThrow(() -> new NoSuchElementException("no cell exists with name:" + name));
+        return cellsCopy.get(nameIndex.requireIndex(name));
       }
 
       @Override
@@ -132,11 +198,22 @@ public interface Row extends Iterable<Cell<?>> {
         return tagsCopy;
       }
 
+      @Override
+      public int size() {
+        return cellsCopy.size();
+      }
+
       @Override
       public int hashCode() {
-        IntBinaryOperator accumulate = (hash, current) -> hash * 31 + current;
-        return 31 * cells().stream().mapToInt(Objects::hashCode).reduce(1, accumulate)
-            + tags.stream().mapToInt(Objects::hashCode).reduce(1, accumulate);
+        int hash = hashCode;
+        if (hash == 0) {
+          IntBinaryOperator accumulate = (h, current) -> h * 31 + current;
+          hash =
+              31 * cells().stream().mapToInt(Objects::hashCode).reduce(1, accumulate)
+                  + tags.stream().mapToInt(Objects::hashCode).reduce(1, accumulate);
+          hashCode = hash;
+        }
+        return hash;
       }
 
       @Override
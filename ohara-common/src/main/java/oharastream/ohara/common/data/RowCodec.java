@@ -0,0 +1,1016 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.common.data;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import oharastream.ohara.common.annotations.Nullable;
+import oharastream.ohara.common.util.ByteUtils;
+
+/**
+ * A allocation-light codec of {@link Row} and {@link Cell}. It writes the data into a {@link
+ * ByteBuffer} in a single pass (the length fields are reserved and then back-filled) and it reads
+ * the data from a {@link ByteBuffer} by offsets rather than streams. The output is byte-to-byte
+ * identical to the version 0 format of {@link Serializer#ROW} and {@link Serializer#CELL} except
+ * for the cells which are too large to version 0 (see {@link #write(Cell, ByteBuffer)}).
+ *
+ * <p>The version 1 is a compact format. The fixed-size headers of each cell are replaced by a
+ * column dictionary, the integral values are zigzag varints and the lengths are varints. The
+ * dictionary can be replaced by a {@link Schema} shared by both writer and reader so the names of
+ * cells are not carried by the data. The readers decode both versions transparently.
+ *
+ * <p>NOTED: the buffers passed to this codec must be in {@link ByteOrder#BIG_ENDIAN}.
+ */
+public final class RowCodec {
+  static final byte VERSION_0 = 0;
+  static final byte VERSION_1 = 1;
+
+  /** the flag of version 1. the names and types of cells are in the dictionary of row. */
+  static final byte FLAG_DICTIONARY = 0;
+
+  /** the flag of version 1. the names and types of cells are in the schema. */
+  static final byte FLAG_SCHEMA = 1;
+
+  /** the format used to serialize row. */
+  public enum Format {
+    /** the version 0. It is readable to all ohara versions. */
+    DEFAULT,
+    /** the version 1 with a column dictionary in each row. */
+    COMPACT,
+    /** the version 1 with the schema shared by writer and reader. */
+    COMPACT_WITH_SCHEMA
+  }
+
+  /**
+   * the names and types of cells shared by writer and reader. The cells of a row must follow the
+   * order of schema otherwise the row is written with column dictionary. It is fine to skip some
+   * columns since there is a presence bitmap in the row.
+   */
+  public static final class Schema {
+    /**
+     * create the schema from the columns. The names of cells are {@link Column#newName()} and the
+     * order is {@link Column#order()}.
+     *
+     * @param columns columns
+     * @return schema
+     */
+    public static Schema of(List<Column> columns) {
+      return of(columns, Column::newName);
+    }
+
+    /**
+     * create the schema from the columns. The order is {@link Column#order()}.
+     *
+     * @param columns columns
+     * @param name used to pick up the name of cell from column. For example, the reader of row
+     *     uses {@link Column#name()} and the writer uses {@link Column#newName()}
+     * @return schema
+     */
+    public static Schema of(List<Column> columns, Function<Column, String> name) {
+      List<Column> sorted =
+          columns.stream()
+              .sorted(Comparator.comparingInt(Column::order))
+              .collect(Collectors.toUnmodifiableList());
+      return of(
+          sorted.stream().map(name).collect(Collectors.toUnmodifiableList()),
+          sorted.stream().map(Column::dataType).collect(Collectors.toUnmodifiableList()));
+    }
+
+    /**
+     * @param names the names of cells
+     * @param types the types of cells
+     * @return schema
+     */
+    public static Schema of(List<String> names, List<DataType> types) {
+      return new Schema(names, types);
+    }
+
+    final String[] names;
+    final DataType[] types;
+    final Map<String, Integer> indexes;
+    final int fingerprint;
+
+    private Schema(List<String> names, List<DataType> types) {
+      if (names.size() != types.size())
+        throw new IllegalArgumentException(
+            "the size of names:" + names.size() + " is different from types:" + types.size());
+      this.names = names.toArray(new String[0]);
+      this.types = types.toArray(new DataType[0]);
+      Map<String, Integer> indexes = new HashMap<>(this.names.length * 2);
+      CRC32 crc = new CRC32();
+      for (int i = 0; i != this.names.length; ++i) {
+        if (indexes.put(Objects.requireNonNull(this.names[i]), i) != null)
+          throw new IllegalArgumentException("duplicate name:" + this.names[i]);
+        crc.update(ByteUtils.toBytes(this.names[i]));
+        crc.update(this.types[i].order);
+      }
+      this.indexes = Collections.unmodifiableMap(indexes);
+      this.fingerprint = (int) crc.getValue();
+    }
+
+    /** @return the names of cells */
+    public List<String> names() {
+      return List.of(names);
+    }
+
+    /** @return the types of cells */
+    public List<DataType> types() {
+      return List.of(types);
+    }
+
+    /**
+     * @return the checksum of names and types. It is used to check whether the reader is using the
+     *     same schema as writer.
+     */
+    public int fingerprint() {
+      return fingerprint;
+    }
+
+    /**
+     * @param row row
+     * @return true if all cells of row are in this schema and they follow the schema order
+     */
+    private boolean accept(Row row) {
+      int last = -1;
+      for (Cell<?> cell : row) {
+        Integer index = indexes.get(cell.name());
+        if (index == null || index <= last || types[index] != cell.dataType())
+          return false;
+        last = index;
+      }
+      return true;
+    }
+  }
+
+  /** the initial size of thread-local buffer. */
+  private static final int INITIAL_CAPACITY = 1024;
+
+  /**
+   * the thread-local buffer which is bigger than this size is not kept after encoding. It prevents
+   * a huge row from pinning the memory of worker thread.
+   */
+  private static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+  private static final ThreadLocal<ByteBuffer> BUFFER =
+      ThreadLocal.withInitial(() -> ByteBuffer.allocate(INITIAL_CAPACITY));
+
+  // -------------------------------[encode]-------------------------------//
+
+  /**
+   * serialize the row to byte array. The intermediate buffer is reused by the same thread so the
+   * only allocation is the returned array.
+   *
+   * @param row row
+   * @return serialized row
+   */
+  public static byte[] toBytes(Row row) {
+    return encode(buffer -> write(row, buffer));
+  }
+
+  /**
+   * serialize the cell to byte array. The intermediate buffer is reused by the same thread so the
+   * only allocation is the returned array.
+   *
+   * @param cell cell
+   * @return serialized cell
+   */
+  public static byte[] toBytes(Cell<?> cell) {
+    return encode(buffer -> write(cell, buffer));
+  }
+
+  /**
+   * serialize the row to byte array by specified format.
+   *
+   * @param row row
+   * @param format format
+   * @param schema the schema used by {@link Format#COMPACT_WITH_SCHEMA}. It is ignored by other
+   *     formats. null means the row carries a column dictionary.
+   * @return serialized row
+   */
+  public static byte[] toBytes(Row row, Format format, @Nullable Schema schema) {
+    switch (format) {
+      case COMPACT:
+        return toCompactBytes(row, null);
+      case COMPACT_WITH_SCHEMA:
+        return toCompactBytes(row, schema);
+      case DEFAULT:
+      default:
+        return toBytes(row);
+    }
+  }
+
+  /**
+   * serialize the row to byte array by compact format (version 1).
+   *
+   * @param row row
+   * @param schema the schema shared by writer and reader. null means the row carries a column
+   *     dictionary.
+   * @return serialized row
+   */
+  public static byte[] toCompactBytes(Row row, @Nullable Schema schema) {
+    return encode(buffer -> writeCompact(row, schema, buffer));
+  }
+
+  /**
+   * serialize the cell to byte array by compact format (version 1).
+   *
+   * @param cell cell
+   * @return serialized cell
+   */
+  public static byte[] toCompactBytes(Cell<?> cell) {
+    return encode(buffer -> writeCompact(cell, buffer));
+  }
+
+  /**
+   * write the row to the buffer from current position. The position is moved to the end of row.
+   *
+   * @param row row
+   * @param buffer buffer
+   * @throws BufferOverflowException if there is insufficient space in the buffer
+   */
+  public static void write(Row row, ByteBuffer buffer) {
+    checkOrder(buffer);
+    buffer.put(VERSION_0);
+    // cells count
+    buffer.putInt(row.size());
+    for (Cell<?> cell : row) {
+      // cell size
+      int sizeIndex = reserve(buffer, ByteUtils.SIZE_OF_INT);
+      write(cell, buffer);
+      buffer.putInt(sizeIndex, buffer.position() - sizeIndex - ByteUtils.SIZE_OF_INT);
+    }
+    List<String> tags = row.tags();
+    // noted: the (int) length is converted to short type.
+    buffer.putShort((short) tags.size());
+    for (String tag : tags) putString(buffer, tag, "tag");
+  }
+
+  /**
+   * write the cell to the buffer from current position. The position is moved to the end of cell.
+   * The cell whose name or value is bigger than {@link Short#MAX_VALUE} bytes is written by
+   * compact format (version 1) since the lengths of version 0 are shorts. The readers of this
+   * class can read both versions.
+   *
+   * @param cell cell
+   * @param buffer buffer
+   * @throws BufferOverflowException if there is insufficient space in the buffer
+   */
+  public static void write(Cell<?> cell, ByteBuffer buffer) {
+    checkOrder(buffer);
+    int start = buffer.position();
+    if (!writeVersion0(cell, buffer)) {
+      buffer.position(start);
+      writeCompact(cell, buffer);
+    }
+  }
+
+  /** @return false if the cell is too large to version 0. The buffer is dirty in this case. */
+  private static boolean writeVersion0(Cell<?> cell, ByteBuffer buffer) {
+    buffer.put(VERSION_0);
+    int nameIndex = reserve(buffer, ByteUtils.SIZE_OF_SHORT);
+    putUtf8(buffer, cell.name());
+    if (!tryBackfillShort(buffer, nameIndex)) return false;
+    DataType type = cell.dataType();
+    buffer.putShort(type.order);
+    int sizeIndex = reserve(buffer, ByteUtils.SIZE_OF_SHORT);
+    switch (type) {
+      case BYTES:
+        byte[] bytes = (byte[]) cell.value();
+        // don't copy the bytes which are too large
+        if (bytes.length > Short.MAX_VALUE) return false;
+        buffer.put(bytes);
+        break;
+      case BOOLEAN:
+        buffer.put(BooleanCell.asBoolean(cell) ? (byte) -1 : (byte) 0);
+        break;
+      case BYTE:
+        buffer.put(ByteCell.asByte(cell));
+        break;
+      case SHORT:
+        buffer.putShort(ShortCell.asShort(cell));
+        break;
+      case INT:
+        buffer.putInt(IntCell.asInt(cell));
+        break;
+      case LONG:
+        buffer.putLong(LongCell.asLong(cell));
+        break;
+      case FLOAT:
+        buffer.putFloat(FloatCell.asFloat(cell));
+        break;
+      case DOUBLE:
+        buffer.putDouble(DoubleCell.asDouble(cell));
+        break;
+      case STRING:
+        String string = (String) cell.value();
+        // a char is encoded to one byte at least
+        if (string.length() > Short.MAX_VALUE) return false;
+        putUtf8(buffer, string);
+        break;
+      case CELL:
+        write((Cell<?>) cell.value(), buffer);
+        break;
+      case ROW:
+        write((Row) cell.value(), buffer);
+        break;
+      case OBJECT:
+        byte[] objectBytes = Serializer.OBJECT.to(cell.value());
+        if (objectBytes.length > Short.MAX_VALUE) return false;
+        buffer.put(objectBytes);
+        break;
+      default:
+        throw new UnsupportedClassVersionError(type.getClass().getName());
+    }
+    return tryBackfillShort(buffer, sizeIndex);
+  }
+
+  /**
+   * write the row by compact format (version 1) to the buffer from current position. The position
+   * is moved to the end of row.
+   *
+   * <p>| version (1 byte) | flag (1 byte) | dictionary or schema | values | tag count (varint) |
+   * tags |
+   *
+   * <p>dictionary: | cell count (varint) | name length (varint) | name | type (1 byte) | ... |
+   *
+   * <p>schema: | fingerprint (int 4 bytes) | presence bitmap ((column count + 7) / 8 bytes) |
+   *
+   * @param row row
+   * @param schema the schema shared by writer and reader. null means the row carries a column
+   *     dictionary.
+   * @param buffer buffer
+   * @throws BufferOverflowException if there is insufficient space in the buffer
+   */
+  public static void writeCompact(Row row, @Nullable Schema schema, ByteBuffer buffer) {
+    checkOrder(buffer);
+    buffer.put(VERSION_1);
+    if (schema != null && schema.accept(row)) {
+      buffer.put(FLAG_SCHEMA);
+      buffer.putInt(schema.fingerprint);
+      int bitmapIndex = reserve(buffer, (schema.names.length + 7) / 8);
+      for (int i = bitmapIndex; i != buffer.position(); ++i) buffer.put(i, (byte) 0);
+      for (Cell<?> cell : row) {
+        int index = schema.indexes.get(cell.name());
+        int byteIndex = bitmapIndex + index / 8;
+        buffer.put(byteIndex, (byte) (buffer.get(byteIndex) | (1 << (index % 8))));
+      }
+    } else {
+      buffer.put(FLAG_DICTIONARY);
+      putVarint(buffer, row.size());
+      for (Cell<?> cell : row) {
+        putCompactString(buffer, cell.name());
+        buffer.put((byte) cell.dataType().order);
+      }
+    }
+    for (Cell<?> cell : row) putCompactValue(buffer, cell);
+    List<String> tags = row.tags();
+    putVarint(buffer, tags.size());
+    for (String tag : tags) putCompactString(buffer, tag);
+  }
+
+  /**
+   * write the cell by compact format (version 1) to the buffer from current position. The position
+   * is moved to the end of cell.
+   *
+   * <p>| version (1 byte) | name length (varint) | name | type (1 byte) | value |
+   *
+   * @param cell cell
+   * @param buffer buffer
+   * @throws BufferOverflowException if there is insufficient space in the buffer
+   */
+  public static void writeCompact(Cell<?> cell, ByteBuffer buffer) {
+    checkOrder(buffer);
+    buffer.put(VERSION_1);
+    putCompactString(buffer, cell.name());
+    buffer.put((byte) cell.dataType().order);
+    putCompactValue(buffer, cell);
+  }
+
+  /**
+   * the fixed-size values are written without length. the integral values are zigzag varints. The
+   * others are prefixed by varint length.
+   */
+  private static void putCompactValue(ByteBuffer buffer, Cell<?> cell) {
+    DataType type = cell.dataType();
+    switch (type) {
+      case BYTES:
+        byte[] bytes = (byte[]) cell.value();
+        putVarint(buffer, bytes.length);
+        buffer.put(bytes);
+        break;
+      case BOOLEAN:
+        buffer.put(BooleanCell.asBoolean(cell) ? (byte) -1 : (byte) 0);
+        break;
+      case BYTE:
+        buffer.put(ByteCell.asByte(cell));
+        break;
+      case SHORT:
+        putVarint(buffer, zigzag(ShortCell.asShort(cell)));
+        break;
+      case INT:
+        putVarint(buffer, zigzag(IntCell.asInt(cell)));
+        break;
+      case LONG:
+        putVarlong(buffer, zigzag(LongCell.asLong(cell)));
+        break;
+      case FLOAT:
+        buffer.putFloat(FloatCell.asFloat(cell));
+        break;
+      case DOUBLE:
+        buffer.putDouble(DoubleCell.asDouble(cell));
+        break;
+      case STRING:
+        putCompactString(buffer, (String) cell.value());
+        break;
+      case CELL:
+        {
+          int sizeIndex = reserve(buffer, 1);
+          writeCompact((Cell<?>) cell.value(), buffer);
+          backfillVarint(buffer, sizeIndex);
+          break;
+        }
+      case ROW:
+        {
+          int sizeIndex = reserve(buffer, 1);
+          writeCompact((Row) cell.value(), null, buffer);
+          backfillVarint(buffer, sizeIndex);
+          break;
+        }
+      case OBJECT:
+        byte[] objectBytes = Serializer.OBJECT.to(cell.value());
+        putVarint(buffer, objectBytes.length);
+        buffer.put(objectBytes);
+        break;
+      default:
+        throw new UnsupportedClassVersionError(type.getClass().getName());
+    }
+  }
+
+  // -------------------------------[decode]-------------------------------//
+
+  /**
+   * deserialize the row from byte array.
+   *
+   * @param bytes serialized row
+   * @return row
+   */
+  public static Row fromBytes(byte[] bytes) {
+    return read(ByteBuffer.wrap(bytes));
+  }
+
+  /**
+   * deserialize the cell from byte array.
+   *
+   * @param bytes serialized cell
+   * @return cell
+   */
+  public static Cell<?> cellFromBytes(byte[] bytes) {
+    return readCell(ByteBuffer.wrap(bytes));
+  }
+
+  /**
+   * deserialize the row from byte array.
+   *
+   * @param bytes serialized row
+   * @param schema the schema used to decode the row written with schema. It is ignored by other
+   *     formats.
+   * @return row
+   */
+  public static Row fromBytes(byte[] bytes, @Nullable Schema schema) {
+    return read(ByteBuffer.wrap(bytes), schema);
+  }
+
+  /**
+   * read a row from current position of buffer. The position is moved to the end of row.
+   *
+   * @param buffer buffer
+   * @return row
+   * @throws IllegalArgumentException if the bytes are not a serialized row
+   */
+  public static Row read(ByteBuffer buffer) {
+    return read(buffer, null);
+  }
+
+  /**
+   * read a row from current position of buffer. The position is moved to the end of row.
+   *
+   * @param buffer buffer
+   * @param schema the schema used to decode the row written with schema. It is ignored by other
+   *     formats.
+   * @return row
+   * @throws IllegalArgumentException if the bytes are not a serialized row or the row is written
+   *     with a schema different from input schema
+   */
+  public static Row read(ByteBuffer buffer, @Nullable Schema schema) {
+    checkOrder(buffer);
+    try {
+      int version = buffer.get();
+      switch (version) {
+        case VERSION_0:
+          int cellCount = buffer.getInt();
+          if (cellCount < 0)
+            throw new IllegalStateException("the number from cell should be bigger than zero");
+          Cell<?>[] cells = new Cell<?>[cellCount];
+          for (int i = 0; i != cellCount; ++i) {
+            int cellSize = requireSize(buffer.getInt());
+            int end = buffer.position() + cellSize;
+            cells[i] = readCell(buffer);
+            buffer.position(end);
+          }
+          int tagCount = buffer.getShort();
+          if (tagCount < 0)
+            throw new IllegalStateException("the number from tag should be bigger than zero");
+          String[] tags = new String[tagCount];
+          for (int i = 0; i != tagCount; ++i) tags[i] = getString(buffer, buffer.getShort());
+          return Row.of(Arrays.asList(tags), cells);
+        case VERSION_1:
+          return readCompact(buffer, schema);
+        default:
+          throw new UnsupportedOperationException("Unsupported version:" + version);
+      }
+    } catch (IllegalArgumentException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  /**
+   * read a cell from current position of buffer. The position is moved to the end of cell.
+   *
+   * @param buffer buffer
+   * @return cell
+   * @throws IllegalArgumentException if the bytes are not a serialized cell
+   */
+  public static Cell<?> readCell(ByteBuffer buffer) {
+    checkOrder(buffer);
+    try {
+      int version = buffer.get();
+      switch (version) {
+        case VERSION_0:
+          String name = getString(buffer, buffer.getShort());
+          DataType type = DataType.of(buffer.getShort());
+          int valueSize = requireSize(buffer.getShort());
+          int end = buffer.position() + valueSize;
+          if (end > buffer.limit())
+            throw new IllegalStateException(
+                "required " + valueSize + " but actual " + buffer.remaining() + " bytes");
+          Cell<?> cell = readValue(buffer, name, type, valueSize);
+          buffer.position(end);
+          return cell;
+        case VERSION_1:
+          String compactName = getCompactString(buffer);
+          return readCompactValue(buffer, compactName, DataType.of(buffer.get()));
+        default:
+          throw new UnsupportedOperationException("Unsupported version:" + version);
+      }
+    } catch (IllegalArgumentException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  /**
+   * check the version byte of serialized row. It is a quick check so the bytes passing it may be
+   * still unreadable.
+   *
+   * @param bytes bytes
+   * @return true if the bytes start with a known version of row
+   */
+  public static boolean isRow(@Nullable byte[] bytes) {
+    return bytes != null && bytes.length > 0 && (bytes[0] == VERSION_0 || bytes[0] == VERSION_1);
+  }
+
+  /**
+   * create a row view backed by the bytes. The cells are decoded on demand.
+   *
+   * @param bytes serialized row
+   * @return row view
+   * @throws IllegalArgumentException if the bytes are not a serialized row
+   */
+  public static LazyRow view(byte[] bytes) {
+    return view(bytes, null);
+  }
+
+  /**
+   * create a row view backed by the bytes. The cells are decoded on demand.
+   *
+   * @param bytes serialized row
+   * @param schema the schema used to decode the row written with schema. It is ignored by other
+   *     formats.
+   * @return row view
+   * @throws IllegalArgumentException if the bytes are not a serialized row
+   */
+  public static LazyRow view(byte[] bytes, @Nullable Schema schema) {
+    return new LazyRow(ByteBuffer.wrap(bytes), schema);
+  }
+
+  /**
+   * create a row view backed by the buffer from current position. The position is moved to the end
+   * of row. NOTED: the content of buffer must not be changed before the view is released.
+   *
+   * @param buffer buffer
+   * @param schema the schema used to decode the row written with schema. It is ignored by other
+   *     formats.
+   * @return row view
+   * @throws IllegalArgumentException if the bytes are not a serialized row
+   */
+  public static LazyRow view(ByteBuffer buffer, @Nullable Schema schema) {
+    checkOrder(buffer);
+    LazyRow row = new LazyRow(buffer.slice(), schema);
+    buffer.position(buffer.position() + row.length());
+    return row;
+  }
+
+  private static Cell<?> readValue(ByteBuffer buffer, String name, DataType type, int size) {
+    switch (type) {
+      case BYTES:
+        byte[] bytes = new byte[size];
+        buffer.get(bytes);
+        return Cell.of(name, bytes);
+      case BOOLEAN:
+        return Cell.of(name, buffer.get() != (byte) 0);
+      case BYTE:
+        return Cell.of(name, buffer.get());
+      case SHORT:
+        return Cell.of(name, buffer.getShort());
+      case INT:
+        return Cell.of(name, buffer.getInt());
+      case LONG:
+        return Cell.of(name, buffer.getLong());
+      case FLOAT:
+        return Cell.of(name, buffer.getFloat());
+      case DOUBLE:
+        return Cell.of(name, buffer.getDouble());
+      case STRING:
+        return Cell.of(name, getString(buffer, size));
+      case CELL:
+        return Cell.of(name, readCell(buffer));
+      case ROW:
+        return Cell.of(name, read(buffer));
+      case OBJECT:
+        byte[] objectBytes = new byte[size];
+        buffer.get(objectBytes);
+        return Cell.of(name, Serializer.OBJECT.from(objectBytes));
+      default:
+        throw new UnsupportedClassVersionError(type.getClass().getName());
+    }
+  }
+
+  private static Row readCompact(ByteBuffer buffer, @Nullable Schema schema) {
+    byte flag = buffer.get();
+    final String[] names;
+    final DataType[] types;
+    switch (flag) {
+      case FLAG_DICTIONARY:
+        int cellCount = requireSize(getVarint(buffer));
+        names = new String[cellCount];
+        types = new DataType[cellCount];
+        for (int i = 0; i != cellCount; ++i) {
+          names[i] = getCompactString(buffer);
+          types[i] = DataType.of(buffer.get());
+        }
+        break;
+      case FLAG_SCHEMA:
+        if (schema == null)
+          throw new IllegalArgumentException(
+              "the row is written with schema but no schema exists. The reader must have the same"
+                  + " columns as the writer");
+        int fingerprint = buffer.getInt();
+        if (fingerprint != schema.fingerprint)
+          throw new IllegalArgumentException(
+              "the fingerprint of schema is "
+                  + schema.fingerprint
+                  + " but the row is written with "
+                  + fingerprint
+                  + ". The reader must have the same columns as the writer");
+        int bitmapIndex = reserve(buffer, (schema.names.length + 7) / 8);
+        int count = 0;
+        for (int i = bitmapIndex; i != buffer.position(); ++i)
+          count += Integer.bitCount(buffer.get(i) & 0xFF);
+        names = new String[count];
+        types = new DataType[count];
+        for (int i = 0, j = 0; i != schema.names.length; ++i) {
+          if ((buffer.get(bitmapIndex + i / 8) & (1 << (i % 8))) != 0) {
+            names[j] = schema.names[i];
+            types[j] = schema.types[i];
+            ++j;
+          }
+        }
+        break;
+      default:
+        throw new UnsupportedOperationException("Unsupported flag:" + flag);
+    }
+    Cell<?>[] cells = new Cell<?>[names.length];
+    for (int i = 0; i != cells.length; ++i)
+      cells[i] = readCompactValue(buffer, names[i], types[i]);
+    int tagCount = requireSize(getVarint(buffer));
+    String[] tags = new String[tagCount];
+    for (int i = 0; i != tagCount; ++i) tags[i] = getCompactString(buffer);
+    return Row.of(Arrays.asList(tags), cells);
+  }
+
+  private static Cell<?> readCompactValue(ByteBuffer buffer, String name, DataType type) {
+    switch (type) {
+      case BYTES:
+        byte[] bytes = new byte[requireSize(getVarint(buffer))];
+        buffer.get(bytes);
+        return Cell.of(name, bytes);
+      case BOOLEAN:
+        return Cell.of(name, buffer.get() != (byte) 0);
+      case BYTE:
+        return Cell.of(name, buffer.get());
+      case SHORT:
+        return Cell.of(name, (short) unzigzag(getVarint(buffer)));
+      case INT:
+        return Cell.of(name, unzigzag(getVarint(buffer)));
+      case LONG:
+        return Cell.of(name, unzigzag(getVarlong(buffer)));
+      case FLOAT:
+        return Cell.of(name, buffer.getFloat());
+      case DOUBLE:
+        return Cell.of(name, buffer.getDouble());
+      case STRING:
+        return Cell.of(name, getCompactString(buffer));
+      case CELL:
+        {
+          int end = requireSize(getVarint(buffer)) + buffer.position();
+          Cell<?> cell = readCell(buffer);
+          buffer.position(end);
+          return Cell.of(name, cell);
+        }
+      case ROW:
+        {
+          int end = requireSize(getVarint(buffer)) + buffer.position();
+          Row row = read(buffer, null);
+          buffer.position(end);
+          return Cell.of(name, row);
+        }
+      case OBJECT:
+        byte[] objectBytes = new byte[requireSize(getVarint(buffer))];
+        buffer.get(objectBytes);
+        return Cell.of(name, Serializer.OBJECT.from(objectBytes));
+      default:
+        throw new UnsupportedClassVersionError(type.getClass().getName());
+    }
+  }
+
+  // -------------------------------[helpers]-------------------------------//
+
+  private static byte[] encode(Consumer<ByteBuffer> writer) {
+    ByteBuffer buffer = BUFFER.get();
+    while (true) {
+      buffer.clear();
+      try {
+        writer.accept(buffer);
+        byte[] result = Arrays.copyOf(buffer.array(), buffer.position());
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) BUFFER.remove();
+        return result;
+      } catch (BufferOverflowException e) {
+        if (buffer.capacity() >= Integer.MAX_VALUE / 2)
+          throw new IllegalArgumentException("the data is too large to be serialized", e);
+        buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+        BUFFER.set(buffer);
+      }
+    }
+  }
+
+  private static void checkOrder(ByteBuffer buffer) {
+    if (buffer.order() != ByteOrder.BIG_ENDIAN)
+      throw new IllegalArgumentException("the byte order of buffer must be BIG_ENDIAN");
+  }
+
+  private static int requireSize(int size) {
+    if (size < 0) throw new IllegalStateException(size + " should be bigger than zero");
+    return size;
+  }
+
+  /**
+   * skip the space of length field.
+   *
+   * @return the index of reserved space
+   */
+  private static int reserve(ByteBuffer buffer, int size) {
+    int index = buffer.position();
+    if (buffer.remaining() < size) throw new BufferOverflowException();
+    buffer.position(index + size);
+    return index;
+  }
+
+  /** @return false if the size is bigger than {@link Short#MAX_VALUE} */
+  private static boolean tryBackfillShort(ByteBuffer buffer, int sizeIndex) {
+    int size = buffer.position() - sizeIndex - ByteUtils.SIZE_OF_SHORT;
+    if (size > Short.MAX_VALUE) return false;
+    buffer.putShort(sizeIndex, (short) size);
+    return true;
+  }
+
+  private static void backfillShort(ByteBuffer buffer, int sizeIndex, String field) {
+    int size = buffer.position() - sizeIndex - ByteUtils.SIZE_OF_SHORT;
+    if (size > Short.MAX_VALUE)
+      throw new IllegalArgumentException(
+          "the max size from " + field + " is " + Short.MAX_VALUE + " current:" + size);
+    // noted: the (int) length is converted to short type.
+    buffer.putShort(sizeIndex, (short) size);
+  }
+
+  /** | length (short 2 bytes) | string (bytes) | */
+  private static void putString(ByteBuffer buffer, String value, String field) {
+    int sizeIndex = reserve(buffer, ByteUtils.SIZE_OF_SHORT);
+    putUtf8(buffer, value);
+    backfillShort(buffer, sizeIndex, field);
+  }
+
+  /**
+   * encode the string by UTF-8 into the buffer directly. The output is same to {@link
+   * String#getBytes(java.nio.charset.Charset)} so the malformed surrogate is replaced by '?'.
+   */
+  private static void putUtf8(ByteBuffer buffer, String value) {
+    int length = value.length();
+    for (int i = 0; i != length; ++i) {
+      char c = value.charAt(i);
+      if (c < 0x80) buffer.put((byte) c);
+      else if (c < 0x800) {
+        buffer.put((byte) (0xC0 | (c >> 6)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      } else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c)
+            && i + 1 != length
+            && Character.isLowSurrogate(value.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, value.charAt(++i));
+          buffer.put((byte) (0xF0 | (codePoint >> 18)));
+          buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+          buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+          buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        } else buffer.put((byte) '?');
+      } else {
+        buffer.put((byte) (0xE0 | (c >> 12)));
+        buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      }
+    }
+  }
+
+  /** | length (varint) | string (bytes) | */
+  private static void putCompactString(ByteBuffer buffer, String value) {
+    putVarint(buffer, utf8Length(value));
+    putUtf8(buffer, value);
+  }
+
+  private static String getCompactString(ByteBuffer buffer) {
+    return getString(buffer, getVarint(buffer));
+  }
+
+  /** @return the number of bytes of string encoded by UTF-8 */
+  private static int utf8Length(String value) {
+    int length = value.length();
+    int size = length;
+    for (int i = 0; i != length; ++i) {
+      char c = value.charAt(i);
+      if (c >= 0x80) {
+        if (c < 0x800) size += 1;
+        else if (Character.isSurrogate(c)) {
+          if (Character.isHighSurrogate(c)
+              && i + 1 != length
+              && Character.isLowSurrogate(value.charAt(i + 1))) {
+            // the surrogate pair is 2 chars and 4 bytes
+            size += 2;
+            ++i;
+          }
+          // the malformed surrogate is replaced by '?'
+        } else size += 2;
+      }
+    }
+    return size;
+  }
+
+  private static int zigzag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  private static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  static int unzigzag(int value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  static long unzigzag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static int varintSize(int value) {
+    int size = 1;
+    while ((value & ~0x7F) != 0) {
+      value >>>= 7;
+      ++size;
+    }
+    return size;
+  }
+
+  private static void putVarint(ByteBuffer buffer, int value) {
+    while ((value & ~0x7F) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  private static void putVarlong(ByteBuffer buffer, long value) {
+    while ((value & ~0x7FL) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  private static int getVarint(ByteBuffer buffer) {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      byte b = buffer.get();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) return value;
+    }
+    throw new IllegalStateException("malformed varint");
+  }
+
+  private static long getVarlong(ByteBuffer buffer) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = buffer.get();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) return value;
+    }
+    throw new IllegalStateException("malformed varlong");
+  }
+
+  /**
+   * write the varint length of data following the reserved byte. The data is moved backward if the
+   * varint needs more than one byte.
+   *
+   * @param buffer buffer
+   * @param index the index of reserved byte
+   */
+  private static void backfillVarint(ByteBuffer buffer, int index) {
+    int end = buffer.position();
+    int size = end - index - 1;
+    int shift = varintSize(size) - 1;
+    if (shift > 0) {
+      if (buffer.remaining() < shift) throw new BufferOverflowException();
+      if (buffer.hasArray()) {
+        int offset = buffer.arrayOffset();
+        System.arraycopy(
+            buffer.array(), offset + index + 1, buffer.array(), offset + index + 1 + shift, size);
+      } else for (int i = end - 1; i > index; --i) buffer.put(i + shift, buffer.get(i));
+    }
+    buffer.position(index);
+    putVarint(buffer, size);
+    buffer.position(end + shift);
+  }
+
+  private static String getString(ByteBuffer buffer, int size) {
+    requireSize(size);
+    if (size > buffer.remaining()) throw new BufferUnderflowException();
+    if (!buffer.hasArray()) {
+      byte[] bytes = new byte[size];
+      buffer.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+    String value =
+        ByteUtils.toString(buffer.array(), buffer.arrayOffset() + buffer.position(), size);
+    buffer.position(buffer.position() + size);
+    return value;
+  }
+
+  private RowCodec() {}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.common.data;
+
+/**
+ * the cell carrying a short value without boxing. It is equal to the {@link Cell} which has the
+ * same name and {@link Short} value. see {@link Cell#of(String, short)}
+ */
+public final class ShortCell extends AbstractCell<Short> {
+  /**
+   * @param cell cell
+   * @return the short value of cell
+   * @throws IllegalArgumentException if the value of cell is not a short
+   */
+  static short asShort(Cell<?> cell) {
+    if (cell instanceof ShortCell) return ((ShortCell) cell).value;
+    Object value = cell.value();
+    if (value instanceof Short) return (Short) value;
+    throw new IllegalArgumentException(
+        "the type of cell:" + cell.name() + " is " + cell.dataType() + " rather than SHORT");
+  }
+
+  private final short value;
+
+  ShortCell(String name, short value) {
+    super(name);
+    this.value = value;
+  }
+
+  /** @return the short value */
+  public short shortValue() {
+    return value;
+  }
+
+  @Override
+  public Short value() {
+    return value;
+  }
+
+  @Override
+  public DataType dataType() {
+    return DataType.SHORT;
+  }
+
+  @Override
+  int valueHashCode() {
+    return Short.hashCode(value);
+  }
+
+  @Override
+  boolean valueEquals(Cell<?> that) {
+    if (that instanceof ShortCell) return value == ((ShortCell) that).value;
+    return that.value() instanceof Short && value == (Short) that.value();
+  }
+
+  @Override
+  public String toString() {
+    return name() + "/" + value;
+  }
+}
@@ -17,6 +17,7 @@
 package oharastream.ohara.common.util;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Comparator;
 
 public final class ByteUtils {
@@ -123,6 +124,40 @@ public final class ByteUtils {
     value |= bytes[offset + 7] & 0xFF;
     return value;
   }
+
+  // -------------[varlong]------------- //
+
+  /**
+   * convert the long to unsigned varint bytes. Each byte carries 7 bits and the highest bit marks
+   * that there are more bytes. The small positive number is encoded by fewer bytes (for example,
+   * 0 ~ 127 is encoded by single byte).
+   *
+   * @param value long value
+   * @return varint bytes
+   */
+  public static byte[] toVarBytes(long value) {
+    byte[] buffer = new byte[SIZE_OF_LONG + 2];
+    int size = 0;
+    while ((value & ~0x7FL) != 0) {
+      buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[size++] = (byte) value;
+    return Arrays.copyOf(buffer, size);
+  }
+
+  public static long toVarLong(byte[] bytes) {
+    if (bytes == null) throw new IllegalArgumentException("bytes can't be null");
+    long value = 0;
+    for (int index = 0; index != bytes.length; ++index) {
+      if (index * 7 >= Long.SIZE)
+        throw new IllegalArgumentException("the varint is too long:" + bytes.length);
+      value |= (bytes[index] & 0x7FL) << (index * 7);
+      if ((bytes[index] & 0x80) == 0) return value;
+    }
+    throw new IllegalArgumentException("the varint is not completed");
+  }
+
   // -------------[float]------------- //
   public static byte[] toBytes(float value) {
     return toBytes(Float.floatToIntBits(value));
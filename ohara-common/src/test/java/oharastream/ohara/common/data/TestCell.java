@@ -16,6 +16,7 @@
 
 package oharastream.ohara.common.data;
 
+import java.util.List;
 import oharastream.ohara.common.rule.OharaTest;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -67,4 +68,44 @@ public class TestCell extends OharaTest {
     Assertions.assertEquals(c.name(), "abc");
     Assertions.assertEquals(c.value(), Row.of(Cell.of("abc", "aaa")));
   }
+
+  @Test
+  public void testPrimitiveCell() {
+    Assertions.assertTrue(Cell.of("a", true) instanceof BooleanCell);
+    Assertions.assertTrue(Cell.of("a", (byte) 1) instanceof ByteCell);
+    Assertions.assertTrue(Cell.of("a", (short) 1) instanceof ShortCell);
+    Assertions.assertTrue(Cell.of("a", 1) instanceof IntCell);
+    Assertions.assertTrue(Cell.of("a", 1L) instanceof LongCell);
+    Assertions.assertTrue(Cell.of("a", 1F) instanceof FloatCell);
+    Assertions.assertTrue(Cell.of("a", 1D) instanceof DoubleCell);
+    // the boxed value is not converted to primitive cell
+    Assertions.assertFalse(Cell.of("a", Integer.valueOf(1)) instanceof IntCell);
+    Assertions.assertEquals(10, Cell.of("a", 10).intValue());
+    Assertions.assertEquals(DataType.LONG, Cell.of("a", 1L).dataType());
+  }
+
+  @Test
+  public void testPrimitiveCellEqualsBoxedCell() {
+    List.of(
+            Cell.of("a", true),
+            Cell.of("a", (byte) 1),
+            Cell.of("a", (short) 1),
+            Cell.of("a", 1),
+            Cell.of("a", 1L),
+            Cell.of("a", 1F),
+            Cell.of("a", 1D))
+        .forEach(
+            cell -> {
+              Cell<?> boxed = Cell.of(cell.name(), (Object) cell.value());
+              Assertions.assertEquals(cell, boxed);
+              Assertions.assertEquals(boxed, cell);
+              Assertions.assertEquals(cell.hashCode(), boxed.hashCode());
+              Assertions.assertEquals(cell.toString(), boxed.toString());
+              Assertions.assertEquals(cell.dataType(), boxed.dataType());
+            });
+    Assertions.assertNotEquals(Cell.of("a", 1), Cell.of("a", 1L));
+    Assertions.assertNotEquals(Cell.of("a", 1), Cell.of("b", 1));
+    Assertions.assertEquals(Cell.of("a", Double.NaN), Cell.of("a", Double.NaN));
+    Assertions.assertNotEquals(Cell.of("a", 0.0F), Cell.of("a", -0.0F));
+  }
 }
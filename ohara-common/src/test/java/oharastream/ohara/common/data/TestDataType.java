@@ -70,4 +70,27 @@ public class TestDataType extends OharaTest {
     Assertions.assertEquals(DataType.ROW, DataType.from(Row.of(Cell.of("aa", "aa"))));
     Assertions.assertEquals(DataType.OBJECT, DataType.from(new Time(123123)));
   }
+
+  @Test
+  public void testOfSubclass() {
+    Assertions.assertEquals(DataType.CELL, DataType.from(Cell.of("a", 1)));
+    Assertions.assertEquals(DataType.CELL, DataType.from(Cell.of("a", "b")));
+    Assertions.assertEquals(
+        DataType.ROW, DataType.from(RowCodec.view(RowCodec.toBytes(Row.of(Cell.of("a", 1))))));
+    // the cached type is reused
+    Assertions.assertEquals(DataType.OBJECT, DataType.from(new Time(123123)));
+  }
+
+  @Test
+  public void testUnsupportedType() {
+    Assertions.assertThrows(UnsupportedOperationException.class, () -> DataType.from(new Object()));
+    Assertions.assertThrows(UnsupportedOperationException.class, () -> DataType.from(new Object()));
+  }
+
+  @Test
+  public void testUnknownOrder() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> DataType.of((short) -1));
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> DataType.of((short) DataType.all.size()));
+  }
 }
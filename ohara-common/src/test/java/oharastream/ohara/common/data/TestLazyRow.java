@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.common.data;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import oharastream.ohara.common.rule.OharaTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestLazyRow extends OharaTest {
+
+  private static Row row() {
+    return Row.of(
+        List.of("tag0", "tag1"),
+        Cell.of("bytes", new byte[] {1, 2, 3}),
+        Cell.of("boolean", true),
+        Cell.of("byte", (byte) 1),
+        Cell.of("short", (short) -2),
+        Cell.of("int", -3),
+        Cell.of("long", Long.MAX_VALUE),
+        Cell.of("float", 5.0F),
+        Cell.of("double", 6.0D),
+        Cell.of("string", "ohara"),
+        Cell.of("cell", Cell.of("a", "b")),
+        Cell.of("row", Row.of(List.of("t"), Cell.of("a", "b"))),
+        Cell.of("object", new java.math.BigDecimal("1.23")));
+  }
+
+  private static void check(LazyRow view) {
+    Row row = row();
+    Assertions.assertEquals(row.size(), view.size());
+    Assertions.assertEquals(row.names(), view.names());
+    Assertions.assertEquals(row.tags(), view.tags());
+    Assertions.assertEquals(row.cells(), view.cells());
+    Assertions.assertEquals(row, view);
+    Assertions.assertEquals(view, row);
+    Assertions.assertEquals(row.hashCode(), view.hashCode());
+    Assertions.assertTrue(view.getBoolean("boolean"));
+    Assertions.assertEquals((byte) 1, view.getByte("byte"));
+    Assertions.assertEquals((short) -2, view.getShort("short"));
+    Assertions.assertEquals(-3, view.getInt("int"));
+    Assertions.assertEquals(Long.MAX_VALUE, view.getLong("long"));
+    Assertions.assertEquals(5.0F, view.getFloat("float"));
+    Assertions.assertEquals(6.0D, view.getDouble("double"));
+    Assertions.assertEquals("ohara", view.getString("string"));
+  }
+
+  @Test
+  public void testVersion0() {
+    check(RowCodec.view(RowCodec.toBytes(row())));
+  }
+
+  @Test
+  public void testVersion1() {
+    check(RowCodec.view(RowCodec.toCompactBytes(row(), null)));
+  }
+
+  @Test
+  public void testVersion1WithSchema() {
+    Row row = row();
+    RowCodec.Schema schema =
+        RowCodec.Schema.of(
+            row.names(),
+            row.cells().stream()
+                .map(Cell::value)
+                .map(DataType::from)
+                .collect(Collectors.toList()));
+    check(RowCodec.view(RowCodec.toCompactBytes(row, schema), schema));
+  }
+
+  @Test
+  public void testDecodeOnDemand() {
+    LazyRow view = RowCodec.view(RowCodec.toBytes(row()));
+    Assertions.assertEquals(Cell.of("int", -3), view.cell("int"));
+    Assertions.assertSame(view.cell("int"), view.cell(4));
+    Assertions.assertEquals(DataType.ROW, view.type(10));
+    Assertions.assertTrue(view.cell("row").value() instanceof LazyRow);
+  }
+
+  @Test
+  public void testWrongType() {
+    LazyRow view = RowCodec.view(RowCodec.toBytes(row()));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> view.getInt("string"));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> view.getLong("int"));
+  }
+
+  @Test
+  public void testNonexistentCell() {
+    LazyRow view = RowCodec.view(RowCodec.toBytes(row()));
+    Assertions.assertThrows(NoSuchElementException.class, () -> view.cell("xxx"));
+    Assertions.assertThrows(NoSuchElementException.class, () -> view.cell(100));
+    Assertions.assertThrows(NoSuchElementException.class, () -> view.getInt(-1));
+  }
+
+  @Test
+  public void testEmptyRow() {
+    Assertions.assertEquals(Row.EMPTY, RowCodec.view(RowCodec.toBytes(Row.EMPTY)));
+    Assertions.assertEquals(Row.EMPTY, RowCodec.view(RowCodec.toCompactBytes(Row.EMPTY, null)));
+  }
+
+  @Test
+  public void testViewOfBuffer() {
+    Row row0 = Row.of(Cell.of("a", 1));
+    Row row1 = Row.of(Cell.of("b", "c"));
+    ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+    RowCodec.write(row0, buffer);
+    RowCodec.writeCompact(row1, null, buffer);
+    buffer.flip();
+    Assertions.assertEquals(row0, RowCodec.view(buffer, null));
+    Assertions.assertEquals(row1, RowCodec.view(buffer, null));
+    Assertions.assertEquals(0, buffer.remaining());
+  }
+
+  @Test
+  public void testBrokenBytes() {
+    byte[] bytes = RowCodec.toBytes(row());
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> RowCodec.view(Arrays.copyOf(bytes, bytes.length - 1)));
+  }
+
+  @Test
+  public void testWideRow() {
+    Row row =
+        Row.of(IntStream.range(0, 100).mapToObj(i -> Cell.of("c" + i, i)).toArray(Cell[]::new));
+    LazyRow view = RowCodec.view(RowCodec.toCompactBytes(row, null));
+    IntStream.range(0, row.size()).forEach(i -> Assertions.assertEquals(i, view.getInt("c" + i)));
+    Assertions.assertThrows(NoSuchElementException.class, () -> view.getInt("xxx"));
+    Assertions.assertEquals(row, view);
+  }
+}
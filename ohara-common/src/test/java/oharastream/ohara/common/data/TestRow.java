@@ -18,6 +18,8 @@ package oharastream.ohara.common.data;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
 import oharastream.ohara.common.rule.OharaTest;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -90,4 +92,56 @@ public class TestRow extends OharaTest {
     Assertions.assertEquals(cell1, row.cell(1));
     Assertions.assertEquals(cell2, row.cell(2));
   }
+
+  @Test
+  public void testPrimitiveAccessors() {
+    Row row =
+        Row.of(
+            Cell.of("boolean", true),
+            Cell.of("byte", (byte) 1),
+            Cell.of("short", (short) 2),
+            Cell.of("int", 3),
+            Cell.of("long", 4L),
+            Cell.of("float", 5F),
+            // boxed value is readable also
+            Cell.of("double", Double.valueOf(6)));
+    Assertions.assertTrue(row.getBoolean("boolean"));
+    Assertions.assertEquals((byte) 1, row.getByte("byte"));
+    Assertions.assertEquals((short) 2, row.getShort("short"));
+    Assertions.assertEquals(3, row.getInt("int"));
+    Assertions.assertEquals(3, row.getInt(3));
+    Assertions.assertEquals(4L, row.getLong("long"));
+    Assertions.assertEquals(5F, row.getFloat("float"));
+    Assertions.assertEquals(6D, row.getDouble("double"));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> row.getInt("long"));
+    Assertions.assertThrows(NoSuchElementException.class, () -> row.getInt("xxx"));
+  }
+
+  @Test
+  public void testWideRow() {
+    Cell<?>[] cells =
+        IntStream.range(0, 1000).mapToObj(i -> Cell.of("c" + i, i)).toArray(Cell[]::new);
+    Row row = Row.of(cells);
+    IntStream.range(0, cells.length)
+        .forEach(i -> Assertions.assertSame(cells[i], row.cell(cells[i].name())));
+    Assertions.assertThrows(NoSuchElementException.class, () -> row.cell("xxx"));
+    Assertions.assertSame(row.names(), row.names());
+    // reverse the order
+    Cell<?>[] reversed =
+        IntStream.range(0, cells.length)
+            .mapToObj(i -> cells[cells.length - 1 - i])
+            .toArray(Cell[]::new);
+    Assertions.assertEquals(row, Row.of(reversed));
+    Assertions.assertNotEquals(row, Row.of(Arrays.copyOf(reversed, reversed.length - 1)));
+  }
+
+  @Test
+  public void testShareNames() {
+    Row row0 = Row.of(Cell.of("a", 1), Cell.of("b", 2));
+    Row row1 = Row.of(Cell.of("a", 3), Cell.of("b", 4));
+    Assertions.assertSame(row0.names(), row1.names());
+    Assertions.assertEquals(List.of("b", "a"), Row.of(Cell.of("b", 2), Cell.of("a", 1)).names());
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> Row.of(Cell.of("a", 1), Cell.of("a", 2)));
+  }
 }
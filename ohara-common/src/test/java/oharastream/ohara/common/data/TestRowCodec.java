@@ -0,0 +1,338 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.common.data;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import oharastream.ohara.common.rule.OharaTest;
+import oharastream.ohara.common.util.CommonUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestRowCodec extends OharaTest {
+
+  private static Row row() {
+    return Row.of(
+        List.of("tag0", "tag1"),
+        Cell.of("bytes", new byte[] {1, 2, 3}),
+        Cell.of("boolean", true),
+        Cell.of("byte", (byte) 1),
+        Cell.of("short", (short) 2),
+        Cell.of("int", 3),
+        Cell.of("long", 4L),
+        Cell.of("float", 5.0F),
+        Cell.of("double", 6.0D),
+        Cell.of("string", "ohara 歐哈拉 😀"),
+        Cell.of("cell", Cell.of("a", "b")),
+        Cell.of("row", Row.of(Cell.of("a", "b"))),
+        Cell.of("object", new java.math.BigDecimal("1.23")));
+  }
+
+  @Test
+  public void testRoundTrip() {
+    Row row = row();
+    Assertions.assertEquals(row, RowCodec.fromBytes(RowCodec.toBytes(row)));
+  }
+
+  @Test
+  public void testCellRoundTrip() {
+    row()
+        .forEach(
+            cell ->
+                Assertions.assertEquals(cell, RowCodec.cellFromBytes(RowCodec.toBytes(cell))));
+  }
+
+  @Test
+  public void testWriteToBuffer() {
+    Row row = row();
+    byte[] expected = RowCodec.toBytes(row);
+    ByteBuffer buffer = ByteBuffer.allocate(expected.length + 10);
+    buffer.position(10);
+    RowCodec.write(row, buffer);
+    Assertions.assertEquals(expected.length + 10, buffer.position());
+    buffer.position(10);
+    Assertions.assertEquals(row, RowCodec.read(buffer));
+    Assertions.assertEquals(0, buffer.remaining());
+  }
+
+  @Test
+  public void testReuseBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocate(1024);
+    IntStream.range(0, 10)
+        .forEach(
+            i -> {
+              Row row = Row.of(Cell.of("index", i), Cell.of("value", CommonUtils.randomString()));
+              buffer.clear();
+              RowCodec.write(row, buffer);
+              buffer.flip();
+              Assertions.assertEquals(row, RowCodec.read(buffer));
+            });
+  }
+
+  @Test
+  public void testReadMultipleRows() {
+    Row row0 = Row.of(Cell.of("a", 1));
+    Row row1 = Row.of(Cell.of("b", "c"));
+    ByteBuffer buffer = ByteBuffer.allocate(1024);
+    RowCodec.write(row0, buffer);
+    RowCodec.write(row1, buffer);
+    buffer.flip();
+    Assertions.assertEquals(row0, RowCodec.read(buffer));
+    Assertions.assertEquals(row1, RowCodec.read(buffer));
+  }
+
+  @Test
+  public void testDirectBuffer() {
+    Row row = row();
+    ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+    RowCodec.write(row, buffer);
+    buffer.flip();
+    Assertions.assertEquals(row, RowCodec.read(buffer));
+  }
+
+  @Test
+  public void testInsufficientBuffer() {
+    Assertions.assertThrows(
+        BufferOverflowException.class, () -> RowCodec.write(row(), ByteBuffer.allocate(10)));
+  }
+
+  @Test
+  public void testLittleEndianBuffer() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> RowCodec.write(row(), ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN)));
+  }
+
+  @Test
+  public void testLargeRow() {
+    Row row =
+        Row.of(
+            IntStream.range(0, 1000)
+                .mapToObj(i -> Cell.of(String.valueOf(i), CommonUtils.randomString(100)))
+                .toArray(Cell[]::new));
+    Assertions.assertEquals(row, RowCodec.fromBytes(RowCodec.toBytes(row)));
+  }
+
+  @Test
+  public void testTooLargeTag() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            RowCodec.toBytes(
+                Row.of(
+                    List.of(CommonUtils.randomString(Short.MAX_VALUE + 1)), Cell.of("a", "b"))));
+  }
+
+  @Test
+  public void testLargeValue() {
+    byte[] bytes = new byte[Short.MAX_VALUE * 3];
+    for (int i = 0; i != bytes.length; ++i) bytes[i] = (byte) i;
+    Row row =
+        Row.of(
+            List.of("tag"),
+            Cell.of("small", 1),
+            Cell.of("bytes", bytes),
+            Cell.of("string", "中文".repeat(Short.MAX_VALUE / 4)),
+            Cell.of(CommonUtils.randomString(Short.MAX_VALUE + 1), "long name"),
+            Cell.of("cell", Cell.of("a", CommonUtils.randomString(Short.MAX_VALUE))),
+            Cell.of("row", Row.of(Cell.of("a", bytes))),
+            Cell.of("object", new ArrayList<>(List.of(CommonUtils.randomString(40000)))),
+            Cell.of("int", -3));
+    byte[] serialized = RowCodec.toBytes(row);
+    // the row is still version 0
+    Assertions.assertEquals(RowCodec.VERSION_0, serialized[0]);
+    Assertions.assertEquals(row, RowCodec.fromBytes(serialized));
+    Assertions.assertEquals(row, RowCodec.view(serialized));
+    Assertions.assertEquals(-3, RowCodec.view(serialized).getInt("int"));
+    row.cells()
+        .forEach(c -> Assertions.assertEquals(c, RowCodec.cellFromBytes(Serializer.CELL.to(c))));
+
+    // the small cell is still version 0
+    Assertions.assertEquals(RowCodec.VERSION_0, RowCodec.toBytes(Cell.of("a", "b"))[0]);
+    Assertions.assertEquals(RowCodec.VERSION_1, RowCodec.toBytes(Cell.of("a", bytes))[0]);
+  }
+
+  @Test
+  public void testReadLargeValueInChunks() {
+    byte[] bytes = new byte[Short.MAX_VALUE * 2];
+    for (int i = 0; i != bytes.length; ++i) bytes[i] = (byte) i;
+    LazyRow view = RowCodec.view(RowCodec.toBytes(Row.of(Cell.of("a", bytes))));
+    ByteBuffer buffer = view.getByteBuffer("a");
+    Assertions.assertTrue(buffer.isReadOnly());
+    Assertions.assertEquals(bytes.length, buffer.remaining());
+    byte[] chunk = new byte[1000];
+    int offset = 0;
+    while (buffer.hasRemaining()) {
+      int length = Math.min(chunk.length, buffer.remaining());
+      buffer.get(chunk, 0, length);
+      for (int i = 0; i != length; ++i) Assertions.assertEquals(bytes[offset + i], chunk[i]);
+      offset += length;
+    }
+    Assertions.assertEquals(bytes.length, offset);
+    Assertions.assertThrows(NoSuchElementException.class, () -> view.getByteBuffer("xxx"));
+  }
+
+  @Test
+  public void testBrokenBytes() {
+    byte[] bytes = RowCodec.toBytes(row());
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> RowCodec.fromBytes(Arrays.copyOf(bytes, bytes.length / 2)));
+  }
+
+  @Test
+  public void testCompactRoundTrip() {
+    Row row = row();
+    Assertions.assertEquals(row, RowCodec.fromBytes(RowCodec.toCompactBytes(row, null)));
+    Assertions.assertEquals(row, Serializer.ROW.from(Serializer.COMPACT_ROW.to(row)));
+  }
+
+  @Test
+  public void testCompactCellRoundTrip() {
+    row()
+        .forEach(
+            cell ->
+                Assertions.assertEquals(
+                    cell, RowCodec.cellFromBytes(RowCodec.toCompactBytes(cell))));
+  }
+
+  @Test
+  public void testCompactIsSmaller() {
+    Row row =
+        Row.of(
+            IntStream.range(0, 20)
+                .mapToObj(i -> Cell.of("column" + i, (long) i))
+                .toArray(Cell[]::new));
+    byte[] compact = RowCodec.toCompactBytes(row, null);
+    Assertions.assertTrue(compact.length * 2 < RowCodec.toBytes(row).length);
+    RowCodec.Schema schema =
+        RowCodec.Schema.of(
+            row.names(), row.cells().stream().map(c -> DataType.LONG).collect(Collectors.toList()));
+    byte[] withSchema = RowCodec.toCompactBytes(row, schema);
+    Assertions.assertTrue(withSchema.length * 4 < compact.length);
+    Assertions.assertEquals(row, RowCodec.fromBytes(withSchema, schema));
+  }
+
+  @Test
+  public void testIntegralBoundaries() {
+    Row row =
+        Row.of(
+            Cell.of("a", Short.MIN_VALUE),
+            Cell.of("b", Short.MAX_VALUE),
+            Cell.of("c", Integer.MIN_VALUE),
+            Cell.of("d", Integer.MAX_VALUE),
+            Cell.of("e", Long.MIN_VALUE),
+            Cell.of("f", Long.MAX_VALUE),
+            Cell.of("g", -1),
+            Cell.of("h", 0L));
+    Assertions.assertEquals(row, RowCodec.fromBytes(RowCodec.toCompactBytes(row, null)));
+  }
+
+  @Test
+  public void testLargeNestedValue() {
+    // the varint length of nested row needs more than one byte
+    Row nested = Row.of(Cell.of("a", CommonUtils.randomString(1000)));
+    Row row = Row.of(Cell.of("row", nested), Cell.of("cell", Cell.of("c", nested)));
+    Assertions.assertEquals(row, RowCodec.fromBytes(RowCodec.toCompactBytes(row, null)));
+    ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+    RowCodec.writeCompact(row, null, buffer);
+    buffer.flip();
+    Assertions.assertEquals(row, RowCodec.read(buffer));
+  }
+
+  @Test
+  public void testSchemaWithMissingColumns() {
+    RowCodec.Schema schema =
+        RowCodec.Schema.of(
+            List.of("a", "b", "c", "d", "e", "f", "g", "h", "i"),
+            List.of(
+                DataType.INT,
+                DataType.STRING,
+                DataType.INT,
+                DataType.INT,
+                DataType.INT,
+                DataType.INT,
+                DataType.INT,
+                DataType.INT,
+                DataType.BOOLEAN));
+    Row row = Row.of(List.of("tag"), Cell.of("b", "b"), Cell.of("i", true));
+    Assertions.assertEquals(row, RowCodec.fromBytes(RowCodec.toCompactBytes(row, schema), schema));
+  }
+
+  @Test
+  public void testFallbackToDictionary() {
+    RowCodec.Schema schema =
+        RowCodec.Schema.of(List.of("a", "b"), List.of(DataType.INT, DataType.INT));
+    // wrong order
+    Row row = Row.of(Cell.of("b", 1), Cell.of("a", 2));
+    Assertions.assertEquals(row, RowCodec.fromBytes(RowCodec.toCompactBytes(row, schema)));
+    // wrong type
+    Row row2 = Row.of(Cell.of("a", "1"));
+    Assertions.assertEquals(row2, RowCodec.fromBytes(RowCodec.toCompactBytes(row2, schema)));
+    // unknown name
+    Row row3 = Row.of(Cell.of("c", 1));
+    Assertions.assertEquals(row3, RowCodec.fromBytes(RowCodec.toCompactBytes(row3, schema)));
+  }
+
+  @Test
+  public void testSchemaIsRequired() {
+    RowCodec.Schema schema = RowCodec.Schema.of(List.of("a"), List.of(DataType.INT));
+    byte[] bytes = RowCodec.toCompactBytes(Row.of(Cell.of("a", 1)), schema);
+    Assertions.assertThrows(IllegalArgumentException.class, () -> RowCodec.fromBytes(bytes));
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> RowCodec.fromBytes(bytes, RowCodec.Schema.of(List.of("b"), List.of(DataType.INT))));
+  }
+
+  @Test
+  public void testSchemaFromColumns() {
+    List<Column> columns =
+        List.of(
+            Column.builder().name("b").newName("bb").dataType(DataType.INT).order(1).build(),
+            Column.builder().name("a").newName("aa").dataType(DataType.STRING).order(0).build());
+    RowCodec.Schema schema = RowCodec.Schema.of(columns);
+    Assertions.assertEquals(List.of("aa", "bb"), schema.names());
+    Assertions.assertEquals(List.of(DataType.STRING, DataType.INT), schema.types());
+    Row row = Row.of(Cell.of("aa", "a"), Cell.of("bb", 1));
+    byte[] bytes = RowCodec.toBytes(row, RowCodec.Format.COMPACT_WITH_SCHEMA, schema);
+    Assertions.assertEquals(row, RowCodec.fromBytes(bytes, schema));
+  }
+
+  @Test
+  public void testDuplicateNameInSchema() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> RowCodec.Schema.of(List.of("a", "a"), List.of(DataType.INT, DataType.INT)));
+  }
+
+  @Test
+  public void testIsRow() {
+    Row row = Row.of(Cell.of("a", 1));
+    Assertions.assertTrue(RowCodec.isRow(RowCodec.toBytes(row)));
+    Assertions.assertTrue(RowCodec.isRow(RowCodec.toCompactBytes(row, null)));
+    Assertions.assertFalse(RowCodec.isRow(null));
+    Assertions.assertFalse(RowCodec.isRow(new byte[0]));
+    Assertions.assertFalse(RowCodec.isRow(new byte[] {'{', '}'}));
+  }
+}
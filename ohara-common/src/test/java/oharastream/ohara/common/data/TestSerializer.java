@@ -16,8 +16,21 @@
 
 package oharastream.ohara.common.data;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
 import oharastream.ohara.common.rule.OharaTest;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -105,4 +118,142 @@ public class TestSerializer extends OharaTest {
             Row.of(Cell.of("abc", Row.of(Cell.of("abc", "aaa")))));
     data.forEach(v -> Assertions.assertEquals(v, Serializer.ROW.from(Serializer.ROW.to(v))));
   }
+
+  @Test
+  public void testBuiltInObjectCodecs() throws IOException {
+    Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+    timestamp.setNanos(123456789);
+    List<Object> data =
+        Arrays.asList(
+            new BigDecimal("-12345678901234567890.0123456789"),
+            BigDecimal.ZERO,
+            timestamp,
+            LocalDateTime.of(2019, 10, 1, 12, 30, 59, 999),
+            UUID.randomUUID(),
+            new java.sql.Date(System.currentTimeMillis()),
+            new Time(System.currentTimeMillis()),
+            LocalDate.of(1970, 1, 1).minusDays(100),
+            Instant.ofEpochSecond(-100, 123));
+    for (Object v : data) {
+      byte[] bytes = Serializer.OBJECT.to(v);
+      Assertions.assertEquals(v, Serializer.OBJECT.from(bytes));
+      Assertions.assertTrue(bytes.length < javaSerialization(v).length);
+    }
+  }
+
+  @Test
+  public void testReadJavaSerialization() throws IOException {
+    List<Object> data =
+        Arrays.asList(
+            new BigDecimal("1.23"), UUID.randomUUID(), "abc", new Timestamp(100), List.of(1, 2));
+    for (Object v : data) Assertions.assertEquals(v, Serializer.OBJECT.from(javaSerialization(v)));
+  }
+
+  @Test
+  public void testFallbackToJavaSerialization() throws IOException {
+    List<Object> data = Arrays.asList("abc", List.of(1, 2), new SimpleObject("a"));
+    for (Object v : data) {
+      Assertions.assertArrayEquals(javaSerialization(v), Serializer.OBJECT.to(v));
+      Assertions.assertEquals(v, Serializer.OBJECT.from(Serializer.OBJECT.to(v)));
+    }
+  }
+
+  @Test
+  public void testRegisterCodec() {
+    Serializer.register(
+        200,
+        RegisteredObject.class,
+        new Serializer<RegisteredObject>() {
+          @Override
+          public byte[] to(RegisteredObject obj) {
+            return obj.value.getBytes(StandardCharsets.UTF_8);
+          }
+
+          @Override
+          public RegisteredObject from(byte[] bytes) {
+            return new RegisteredObject(new String(bytes, StandardCharsets.UTF_8));
+          }
+        });
+    RegisteredObject obj = new RegisteredObject("ohara");
+    byte[] bytes = Serializer.OBJECT.to(obj);
+    Assertions.assertEquals(2 + obj.value.length(), bytes.length);
+    Assertions.assertEquals(obj, Serializer.OBJECT.from(bytes));
+    Row row = Row.of(Cell.of("a", obj));
+    Assertions.assertEquals(row, Serializer.ROW.from(Serializer.ROW.to(row)));
+
+    // the id is used
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> Serializer.register(200, SimpleObject.class, new SimpleObjectSerializer()));
+    // the class is registered
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> Serializer.register(201, BigDecimal.class, new SimpleObjectSerializer().cast()));
+  }
+
+  @Test
+  public void testIllegalCodecId() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> Serializer.register(1, SimpleObject.class, new SimpleObjectSerializer()));
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> Serializer.register(256, SimpleObject.class, new SimpleObjectSerializer()));
+    // there is no codec for id 250
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> Serializer.OBJECT.from(new byte[] {1, (byte) 250}));
+  }
+
+  private static byte[] javaSerialization(Object obj) throws IOException {
+    try (ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(obj);
+      out.flush();
+      return bytes.toByteArray();
+    }
+  }
+
+  private static class SimpleObject implements Serializable {
+    private static final long serialVersionUID = 1L;
+    final String value;
+
+    SimpleObject(String value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof SimpleObject && Objects.equals(value, ((SimpleObject) obj).value);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(value);
+    }
+  }
+
+  private static class RegisteredObject extends SimpleObject {
+    private static final long serialVersionUID = 1L;
+
+    RegisteredObject(String value) {
+      super(value);
+    }
+  }
+
+  private static class SimpleObjectSerializer implements Serializer<SimpleObject> {
+    @Override
+    public byte[] to(SimpleObject obj) {
+      return new byte[0];
+    }
+
+    @Override
+    public SimpleObject from(byte[] bytes) {
+      return new SimpleObject("");
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> Serializer<T> cast() {
+      return (Serializer<T>) this;
+    }
+  }
 }
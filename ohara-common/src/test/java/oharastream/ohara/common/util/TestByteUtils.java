@@ -32,6 +32,19 @@ public class TestByteUtils extends OharaTest {
     Assertions.assertFalse(ByteUtils.toBoolean(ByteUtils.toBytes(false)));
   }
 
+  @Test
+  public void testVarLong() {
+    List<Long> data = Arrays.asList(Long.MIN_VALUE, -1L, 0L, 1L, 127L, 128L, 300L, Long.MAX_VALUE);
+    data.forEach(
+        v -> Assertions.assertEquals((long) v, ByteUtils.toVarLong(ByteUtils.toVarBytes(v))));
+    Assertions.assertEquals(1, ByteUtils.toVarBytes(127).length);
+    Assertions.assertEquals(2, ByteUtils.toVarBytes(128).length);
+    Assertions.assertEquals(10, ByteUtils.toVarBytes(-1).length);
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> ByteUtils.toVarLong(new byte[] {(byte) 0x80}));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ByteUtils.toVarLong(new byte[0]));
+  }
+
   @Test
   public void testShort() {
     List<Short> data =
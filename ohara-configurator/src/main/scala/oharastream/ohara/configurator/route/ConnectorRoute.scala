@@ -22,7 +22,7 @@ import oharastream.ohara.agent.WorkerCollie
 import oharastream.ohara.client.configurator.ConnectorApi
 import oharastream.ohara.client.configurator.ConnectorApi._
 import oharastream.ohara.client.configurator.FileInfoApi.ClassInfo
-import oharastream.ohara.common.setting.{ConnectorKey, ObjectKey}
+import oharastream.ohara.common.setting.{ClassType, ConnectorKey, ObjectKey}
 import oharastream.ohara.common.util.CommonUtils
 import oharastream.ohara.configurator.route.hook._
 import oharastream.ohara.configurator.store.{DataStore, MetricsCache}
@@ -245,6 +245,7 @@ private[configurator] object ConnectorRoute {
 
   private[this] def hookOfStart(
     implicit objectChecker: DataChecker,
+    store: DataStore,
     workerCollie: WorkerCollie,
     executionContext: ExecutionContext
   ): HookOfAction[ConnectorInfo] =
@@ -275,15 +276,34 @@ private[configurator] object ConnectorRoute {
                       s"but topic:${topicInfo.key} is on another broker cluster:${topicInfo.brokerClusterKey}"
                   )
                 }
-                workerCollie.connectorAdmin(workerClusterInfo).flatMap {
-                  _.connectorCreator()
-                    .settings(connectorInfo.plain)
-                    // always override the name
-                    .connectorKey(connectorInfo.key)
-                    .threadPool(executionContext)
-                    .topicKeys(connectorInfo.topicKeys)
-                    .create()
-                    .map(_ => ())
+                workerCollie.connectorAdmin(workerClusterInfo).flatMap { wkClient =>
+                  wkClient
+                    .connectorDefinitions()
+                    .flatMap { classInfos =>
+                      // the rows written by "compact_with_schema" are readable only to the sink having same columns
+                      classInfos.get(connectorInfo.className).map(_.classType) match {
+                        case Some(ClassType.SOURCE) =>
+                          checkRowSchemaOfReaders(
+                            connectorInfo,
+                            c => classInfos.get(c.className).exists(_.classType == ClassType.SINK)
+                          )
+                        case Some(ClassType.SINK) =>
+                          checkRowSchemaOfWriters(connectorInfo.key, connectorInfo.topicKeys, connectorInfo.columns)
+                        case _ => Future.unit
+                      }
+                    }
+                    .flatMap(
+                      _ =>
+                        wkClient
+                          .connectorCreator()
+                          .settings(connectorInfo.plain)
+                          // always override the name
+                          .connectorKey(connectorInfo.key)
+                          .threadPool(executionContext)
+                          .topicKeys(connectorInfo.topicKeys)
+                          .create()
+                          .map(_ => ())
+                    )
                 }
             }
         }
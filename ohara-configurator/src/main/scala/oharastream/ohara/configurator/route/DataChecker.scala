@@ -604,40 +604,36 @@ object DataChecker {
           this
         }
 
-        private[this] def checkTopic(
-          key: TopicKey
-        )(implicit executionContext: ExecutionContext): Future[Option[(TopicInfo, DataCondition)]] =
-          store.get[TopicInfo](key).flatMap {
-            case None => Future.successful(None)
-            case Some(topicInfo) =>
-              checkCluster[BrokerClusterInfo](
-                serviceCollie.brokerCollie,
-                topicInfo.brokerClusterKey
-              ).flatMap {
-                case None => Future.successful(Some(topicInfo -> DataCondition.STOPPED))
-                case Some((brokerClusterInfo, condition)) =>
-                  condition match {
-                    case DataCondition.STOPPED => Future.successful(Some(topicInfo -> DataCondition.STOPPED))
-                    case DataCondition.RUNNING =>
+        /**
+          * the topics hosted by same broker cluster are checked by single request.
+          */
+        private[this] def checkTopics()(
+          implicit executionContext: ExecutionContext
+        ): Future[Map[TopicInfo, DataCondition]] =
+          (if (requireAllTopics) store.values[TopicInfo]()
+           else Future.traverse(requiredTopics.keySet)(store.get[TopicInfo]).map(_.flatten.toSeq))
+            .flatMap { topicInfos =>
+              Future.traverse(topicInfos.groupBy(_.brokerClusterKey).toSeq) {
+                case (brokerClusterKey, infos) =>
+                  checkCluster[BrokerClusterInfo](serviceCollie.brokerCollie, brokerClusterKey).flatMap {
+                    case Some((brokerClusterInfo, DataCondition.RUNNING)) =>
                       implicit val bkService: BrokerCollie = serviceCollie.brokerCollie
                       topicAdmin(brokerClusterInfo)(
-                        _.exist(topicInfo.key).toScala
+                        _.topicKeys.toScala
                           .map(
-                            existent =>
-                              if (existent) Some(topicInfo -> DataCondition.RUNNING)
-                              else Some(topicInfo          -> DataCondition.STOPPED)
+                            existentKeys =>
+                              infos.map(
+                                topicInfo =>
+                                  if (existentKeys.contains(topicInfo.key)) topicInfo -> DataCondition.RUNNING
+                                  else topicInfo                                      -> DataCondition.STOPPED
+                              )
                           )
                       )
+                    case _ => Future.successful(infos.map(_ -> DataCondition.STOPPED))
                   }
               }
-          }
-
-        private[this] def checkTopics()(
-          implicit executionContext: ExecutionContext
-        ): Future[Map[TopicInfo, DataCondition]] =
-          if (requireAllTopics) store.values[TopicInfo]().map(_.map(_.key)).flatMap { keys =>
-            Future.traverse(keys)(checkTopic).map(_.flatten.toMap)
-          } else Future.traverse(requiredTopics.keySet)(checkTopic).map(_.flatten.toMap)
+            }
+            .map(_.flatten.toMap)
 
         //---------------------[Volume]---------------------//
         private[this] var requireAllVolumes = false
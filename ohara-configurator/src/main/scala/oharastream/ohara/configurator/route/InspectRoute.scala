@@ -23,6 +23,7 @@ import akka.http.scaladsl.server
 import akka.http.scaladsl.server.Directives.{entity, _}
 import oharastream.ohara.agent.{BrokerCollie, ServiceCollie, WorkerCollie}
 import oharastream.ohara.client.configurator.BrokerApi.BrokerClusterInfo
+import oharastream.ohara.client.configurator.ConnectorApi.ConnectorInfo
 import oharastream.ohara.client.configurator.FileInfoApi.{ClassInfo, FileInfo}
 import oharastream.ohara.client.configurator.InspectApi._
 import oharastream.ohara.client.configurator.StreamApi.StreamClusterInfo
@@ -41,14 +42,14 @@ import oharastream.ohara.client.configurator.{
 }
 import oharastream.ohara.client.database.DatabaseClient
 import oharastream.ohara.client.kafka.ConnectorAdmin
-import oharastream.ohara.common.data.Serializer
+import oharastream.ohara.common.data.{RowCodec, Serializer}
 import oharastream.ohara.common.setting.{ClassType, ConnectorKey, ObjectKey, TopicKey}
 import oharastream.ohara.common.util.{ByteUtils, CommonUtils, Releasable, VersionUtils}
 import oharastream.ohara.configurator.Configurator.Mode
 import oharastream.ohara.configurator.fake.{FakeConnectorAdmin, FakeServiceCollie}
 import oharastream.ohara.configurator.store.DataStore
 import oharastream.ohara.kafka.Consumer.Record
-import oharastream.ohara.kafka.{Consumer, Header, TopicAdmin}
+import oharastream.ohara.kafka.{Consumer, Header, RecordLayout, TopicAdmin}
 import oharastream.ohara.shabondi.ShabondiDefinitions
 import oharastream.ohara.shabondi.common.JsonSupport
 import oharastream.ohara.stream.config.StreamDefUtils
@@ -56,13 +57,27 @@ import spray.json.{DeserializationException, JsArray, JsNull, JsNumber, JsObject
 
 import scala.concurrent.{ExecutionContext, Future}
 import scala.jdk.CollectionConverters._
+import scala.jdk.OptionConverters._
 
 private[configurator] object InspectRoute {
-  private[this] def topicData(records: Seq[Record[Array[Byte], Array[Byte]]]): TopicData =
+  /**
+   * convert the records to messages.
+   * @param records records
+   * @param connectors the connectors used to resolve the compact headers
+   * @return topic data
+   */
+  private[this] def topicData(
+    records: Seq[Record[Array[Byte], Array[Byte]]],
+    connectors: Seq[ConnectorInfo]
+  ): TopicData = {
+    val connectorKeys = connectors.map(_.key).asJava
     TopicData(
       records.reverse
-        .filter(_.key().isPresent)
-        .map(record => (record.partition(), record.offset(), record.key().get(), record.headers().asScala))
+        // the row is in the value if the record is written by RecordLayout.VALUE
+        .flatMap { record =>
+          Option(RecordLayout.payload(record.key().orElse(null), record.value().orElse(null)))
+            .map(bytes => (record.partition(), record.offset(), bytes, record.headers().asScala))
+        }
         .map {
           case (partition, offset, bytes, headers) =>
             var error: Option[String] = None
@@ -74,28 +89,48 @@ private[configurator] object InspectRoute {
                   None
               }
 
+            // only Ohara source connectors have this header
+            val sourceKey = swallowException(
+              headers
+                .find(_.key() == Header.SOURCE_KEY_KEY)
+                .map(_.value())
+                .map(ByteUtils.toString)
+                .map(ObjectKey.toObjectKey)
+                // the compact header carries the connector id only
+                .orElse(
+                  headers
+                    .find(_.key() == Header.SOURCE_ID_KEY)
+                    .flatMap(header => Header.sourceKey(header.value(), connectorKeys).toScala)
+                )
+            )
             Message(
               partition = partition,
               offset = offset,
-              // only Ohara source connectors have this header
               sourceClass = swallowException(
                 headers
                   .find(_.key() == Header.SOURCE_CLASS_KEY)
                   .map(_.value())
                   .map(ByteUtils.toString)
+                  .orElse(sourceKey.flatMap(key => connectors.find(_.key == key).map(_.className)))
               ),
-              sourceKey = swallowException(
-                headers
-                  .find(_.key() == Header.SOURCE_KEY_KEY)
-                  .map(_.value())
-                  .map(ByteUtils.toString)
-                  .map(ObjectKey.toObjectKey)
+              sourceKey = sourceKey,
+              value = swallowException(
+                Some(
+                  JsonSupport.toJson(
+                    // the rows written by "compact_with_schema" are readable only to the schema of source connector
+                    sourceKey
+                      .flatMap(key => connectors.find(_.key == key))
+                      .filter(_.columns.nonEmpty)
+                      .map(connector => RowCodec.fromBytes(bytes, RowCodec.Schema.of(connector.columns.asJava)))
+                      .getOrElse(Serializer.ROW.from(bytes))
+                  )
+                )
               ),
-              value = swallowException(Some(JsonSupport.toJson(Serializer.ROW.from(bytes)))),
               error = error
             )
         }
     )
+  }
 
   private[this] val zookeeperDefinition = ServiceDefinition(
     imageName = ZookeeperApi.IMAGE_NAME_DEFAULT,
@@ -187,64 +222,69 @@ private[configurator] object InspectRoute {
                     .check()
                     .map(_.runningBrokers.head.connectionProps)
               )
-              .map { connectionProps =>
-                serviceCollie match {
-                  // no true service so fake data
-                  case s: FakeServiceCollie if !s.embedded =>
-                    TopicData(
-                      Seq(
-                        Message(
-                          partition = 0,
-                          offset = 0,
-                          sourceClass = None,
-                          sourceKey = None,
-                          value = Some(
-                            JsObject(
-                              Map(
-                                "a" -> JsString("b"),
-                                "b" -> JsNumber(123),
-                                "c" -> JsArray(Vector(JsString("c"), JsString("d"), JsString("e"))),
-                                "d" -> JsObject(Map("a" -> JsString("aaa"))),
-                                "e" -> JsTrue
+              .flatMap(
+                connectionProps => dataStore.values[ConnectorInfo]().map(connectors => (connectionProps, connectors))
+              )
+              .map {
+                case (connectionProps, connectors) =>
+                  serviceCollie match {
+                    // no true service so fake data
+                    case s: FakeServiceCollie if !s.embedded =>
+                      TopicData(
+                        Seq(
+                          Message(
+                            partition = 0,
+                            offset = 0,
+                            sourceClass = None,
+                            sourceKey = None,
+                            value = Some(
+                              JsObject(
+                                Map(
+                                  "a" -> JsString("b"),
+                                  "b" -> JsNumber(123),
+                                  "c" -> JsArray(Vector(JsString("c"), JsString("d"), JsString("e"))),
+                                  "d" -> JsObject(Map("a" -> JsString("aaa"))),
+                                  "e" -> JsTrue
+                                )
                               )
-                            )
-                          ),
-                          error = None
+                            ),
+                            error = None
+                          )
                         )
                       )
-                    )
-                  case _ =>
-                    val consumer = Consumer
-                      .builder()
-                      .connectionProps(connectionProps)
-                      .build()
-                    try {
-                      val endTime = CommonUtils.current() + timeoutMs
-                      consumer.assignments(
-                        consumer
-                          .endOffsets()
-                          .asScala
-                          .filter {
-                            case (tp, _) =>
-                              tp.topicKey() == topicKey
-                          }
-                          .map {
-                            case (tp, offset) =>
-                              tp -> lang.Long.valueOf(offset - limit)
-                          }
-                          .toMap
-                          .asJava
-                      )
-                      topicData(
-                        consumer
-                        // even if the timeout reach the limit, we still give a last try :)
-                          .poll(java.time.Duration.ofMillis(Math.max(1000L, endTime - CommonUtils.current())), limit)
-                          .asScala
-                          .slice(0, limit)
-                          .toSeq
-                      )
-                    } finally Releasable.close(consumer)
-                }
+                    case _ =>
+                      val consumer = Consumer
+                        .builder()
+                        .connectionProps(connectionProps)
+                        .build()
+                      try {
+                        val endTime = CommonUtils.current() + timeoutMs
+                        consumer.assignments(
+                          consumer
+                            .endOffsets()
+                            .asScala
+                            .filter {
+                              case (tp, _) =>
+                                tp.topicKey() == topicKey
+                            }
+                            .map {
+                              case (tp, offset) =>
+                                tp -> lang.Long.valueOf(offset - limit)
+                            }
+                            .toMap
+                            .asJava
+                        )
+                        topicData(
+                          consumer
+                          // even if the timeout reach the limit, we still give a last try :)
+                            .poll(java.time.Duration.ofMillis(Math.max(1000L, endTime - CommonUtils.current())), limit)
+                            .asScala
+                            .slice(0, limit)
+                            .toSeq,
+                          connectors
+                        )
+                      } finally Releasable.close(consumer)
+                  }
               }
           )
         }
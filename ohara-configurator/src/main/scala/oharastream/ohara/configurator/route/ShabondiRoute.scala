@@ -124,6 +124,7 @@ private[configurator] object ShabondiRoute {
 
   private[this] def hookOfStart(
     implicit objectChecker: DataChecker,
+    store: DataStore,
     shabondiCollie: ShabondiCollie,
     executionContext: ExecutionContext
   ): HookOfAction[ShabondiClusterInfo] =
@@ -157,15 +158,23 @@ private[configurator] object ShabondiRoute {
             case DataCondition.RUNNING => Future.unit
             case DataCondition.STOPPED =>
               val brokerClusterInfo = objInfo.brokerClusterInfos.head._1
-              shabondiCollie.creator
-                .settings(clusterInfo.settings)
-                .name(clusterInfo.name)
-                .group(clusterInfo.group)
-                .nodeNames(clusterInfo.nodeNames)
-                .brokerClusterKey(brokerClusterInfo.key)
-                .brokers(brokerClusterInfo.connectionProps)
-                .threadPool(executionContext)
-                .create()
+              // shabondi sink has no columns so it can't read the rows written by "compact_with_schema"
+              val checkRowSchema =
+                if (clusterInfo.shabondiClass == ShabondiApi.SHABONDI_SINK_CLASS_NAME)
+                  checkRowSchemaOfWriters(clusterInfo.key, checkTopics, Seq.empty)
+                else Future.unit
+              checkRowSchema.flatMap(
+                _ =>
+                  shabondiCollie.creator
+                    .settings(clusterInfo.settings)
+                    .name(clusterInfo.name)
+                    .group(clusterInfo.group)
+                    .nodeNames(clusterInfo.nodeNames)
+                    .brokerClusterKey(brokerClusterInfo.key)
+                    .brokers(brokerClusterInfo.connectionProps)
+                    .threadPool(executionContext)
+                    .create()
+              )
           }
         }
     }
@@ -147,6 +147,7 @@ private[configurator] object StreamRoute {
 
   private[this] def hookOfStart(
     implicit dataChecker: DataChecker,
+    store: DataStore,
     streamCollie: StreamCollie,
     executionContext: ExecutionContext
   ): HookOfAction[StreamClusterInfo] =
@@ -203,18 +204,22 @@ private[configurator] object StreamRoute {
                       s"but topic:${topicInfo.key} is on another broker cluster:${topicInfo.brokerClusterKey}"
                   )
                 }
-                streamCollie.creator
-                // these settings will send to container environment
-                // we convert all value to string for convenient
-                  .settings(streamClusterInfo.settings)
-                  .name(streamClusterInfo.name)
-                  .group(streamClusterInfo.group)
-                  .nodeNames(streamClusterInfo.nodeNames)
-                  .jarKey(fileInfo.key)
-                  .brokerClusterKey(brokerClusterInfo.key)
-                  .connectionProps(brokerClusterInfo.connectionProps)
-                  .threadPool(executionContext)
-                  .create()
+                // stream has no columns so it can't read the rows written by "compact_with_schema"
+                checkRowSchemaOfWriters(streamClusterInfo.key, streamClusterInfo.fromTopicKeys, Seq.empty).flatMap(
+                  _ =>
+                    streamCollie.creator
+                    // these settings will send to container environment
+                    // we convert all value to string for convenient
+                      .settings(streamClusterInfo.settings)
+                      .name(streamClusterInfo.name)
+                      .group(streamClusterInfo.group)
+                      .nodeNames(streamClusterInfo.nodeNames)
+                      .jarKey(fileInfo.key)
+                      .brokerClusterKey(brokerClusterInfo.key)
+                      .connectionProps(brokerClusterInfo.connectionProps)
+                      .threadPool(executionContext)
+                      .create()
+                )
             }
         }
     }
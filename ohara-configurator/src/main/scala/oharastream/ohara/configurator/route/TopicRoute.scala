@@ -26,93 +26,68 @@ import oharastream.ohara.common.setting.{ObjectKey, TopicKey}
 import oharastream.ohara.common.util.CommonUtils
 import oharastream.ohara.configurator.route.hook._
 import oharastream.ohara.configurator.store.{DataStore, MetricsCache}
-import oharastream.ohara.kafka.PartitionInfo
 
 import scala.compat.java8.FutureConverters._
 import scala.concurrent.{ExecutionContext, Future}
 import scala.jdk.CollectionConverters._
 
 private[configurator] object TopicRoute {
+  private[this] def stopped(topicInfo: TopicInfo): TopicInfo =
+    topicInfo.copy(
+      partitionInfos = Seq.empty,
+      nodeMetrics = Map.empty,
+      state = None
+    )
+
   /**
-    * update the metrics for input topic
-    * @param topicInfo topic info
-    * @return updated topic info
+    * update the metrics for input topics. The topics hosted by same broker cluster are described by single request.
+    * @param topicInfos topic infos
+    * @return updated topic infos. the order is same to input
     */
-  private[this] def updateState(topicInfo: TopicInfo)(
+  private[this] def updateStates(topicInfos: Seq[TopicInfo])(
     implicit meterCache: MetricsCache,
     objectChecker: DataChecker,
     brokerCollie: BrokerCollie,
     executionContext: ExecutionContext
-  ): Future[TopicInfo] =
-    objectChecker.checkList
-      .topic(topicInfo.key)
-      .check()
-      .map(_.topicInfos.head._2)
-      .flatMap {
-        case DataCondition.STOPPED =>
-          Future.successful(
-            topicInfo.copy(
-              partitionInfos = Seq.empty,
-              nodeMetrics = Map.empty,
-              state = None
-            )
-          )
-        case DataCondition.RUNNING =>
+  ): Future[Seq[TopicInfo]] =
+    Future
+      .traverse(topicInfos.groupBy(_.brokerClusterKey).toSeq) {
+        case (brokerClusterKey, infos) =>
           objectChecker.checkList
-            .brokerCluster(topicInfo.brokerClusterKey, DataCondition.RUNNING)
+            .brokerCluster(brokerClusterKey, DataCondition.RUNNING)
             .check()
             .map(_.runningBrokers.head)
             .flatMap { brokerClusterInfo =>
               topicAdmin(brokerClusterInfo) { topicAdmin =>
-                topicAdmin
-                  .exist(topicInfo.key)
-                  .toScala
-                  .flatMap { existent =>
-                    if (existent)
-                      topicAdmin
-                        .topicDescription(topicInfo.key)
-                        .toScala
-                        .map(_.partitionInfos.asScala -> Some(TopicState.RUNNING))
-                    else Future.successful(Seq.empty  -> None)
-                  }
-                  .map {
-                    case (partitions, state) =>
-                      topicInfo.copy(
-                        partitionInfos = partitions
-                          .map(
-                            partition =>
-                              new PartitionInfo(
-                                partition.id,
-                                partition.leader,
-                                partition.replicas,
-                                partition.inSyncReplicas(),
-                                partition.beginningOffset,
-                                partition.endOffset
-                              )
+                topicAdmin.topicDescriptions(infos.map(_.key).toSet.asJava).toScala.map { descriptions =>
+                  infos.map { topicInfo =>
+                    Option(descriptions.get(topicInfo.key))
+                      .map(
+                        description =>
+                          topicInfo.copy(
+                            partitionInfos = description.partitionInfos.asScala.toSeq,
+                            state = Some(TopicState.RUNNING),
+                            nodeMetrics = meterCache.meters(brokerClusterInfo, topicInfo.key)
                           )
-                          .toSeq,
-                        state = state,
-                        nodeMetrics = meterCache.meters(brokerClusterInfo, topicInfo.key)
                       )
+                      .getOrElse(stopped(topicInfo))
                   }
+                }
               }
             }
+            .recover {
+              case _: Throwable => infos.map(stopped)
+            }
       }
-      .recover {
-        case _: Throwable =>
-          topicInfo.copy(
-            partitionInfos = Seq.empty,
-            nodeMetrics = Map.empty,
-            state = None
-          )
-      }
+      .map(_.flatten.map(topicInfo => topicInfo.key -> topicInfo).toMap)
+      .map(updated => topicInfos.map(topicInfo => updated(topicInfo.key)))
 
   private[this] def hookOfGet(
     implicit meterCache: MetricsCache,
     objectChecker: DataChecker,
     brokerCollie: BrokerCollie,
     executionContext: ExecutionContext
-  ): HookOfGet[TopicInfo] = (topicInfo: TopicInfo) => updateState(topicInfo)
+  ): HookOfGet[TopicInfo] = (topicInfo: TopicInfo) => updateStates(Seq(topicInfo)).map(_.head)
 
   private[this] def hookOfList(
     implicit meterCache: MetricsCache,
@@ -120,7 +95,7 @@ private[configurator] object TopicRoute {
     brokerCollie: BrokerCollie,
     executionContext: ExecutionContext
   ): HookOfList[TopicInfo] =
-    (topicInfos: Seq[TopicInfo]) => Future.traverse(topicInfos)(updateState)
+    (topicInfos: Seq[TopicInfo]) => updateStates(topicInfos)
 
   private[this] def creationToTopicInfo(
     creation: Creation
@@ -25,22 +25,33 @@ import akka.http.scaladsl.server
 import akka.http.scaladsl.server.Directives._
 import oharastream.ohara.agent._
 import oharastream.ohara.client.configurator.BrokerApi.BrokerClusterInfo
+import oharastream.ohara.client.configurator.ConnectorApi.ConnectorInfo
 import oharastream.ohara.client.configurator.ShabondiApi.ShabondiClusterInfo
 import oharastream.ohara.client.configurator.StreamApi.StreamClusterInfo
 import oharastream.ohara.client.configurator.VolumeApi.Volume
 import oharastream.ohara.client.configurator.WorkerApi.WorkerClusterInfo
 import oharastream.ohara.client.configurator.ZookeeperApi.ZookeeperClusterInfo
-import oharastream.ohara.client.configurator.{ClusterCreation, ClusterInfo, ClusterUpdating, ErrorApi, JsonRefiner}
+import oharastream.ohara.client.configurator.{
+  ClusterCreation,
+  ClusterInfo,
+  ClusterUpdating,
+  ErrorApi,
+  JsonRefiner,
+  ShabondiApi
+}
 import oharastream.ohara.client.kafka.ConnectorAdmin
+import oharastream.ohara.common.data.{Column, RowCodec}
 import oharastream.ohara.common.setting.SettingDef.Permission
-import oharastream.ohara.common.setting.{ObjectKey, SettingDef}
+import oharastream.ohara.common.setting.{ObjectKey, SettingDef, TopicKey}
 import oharastream.ohara.common.util.{CommonUtils, Releasable, VersionUtils}
 import oharastream.ohara.configurator.route.hook._
 import oharastream.ohara.configurator.store.{DataStore, MetricsCache}
 import oharastream.ohara.kafka.TopicAdmin
+import oharastream.ohara.kafka.connector.json.ConnectorDefUtils
 import spray.json.{DeserializationException, JsArray, JsString, JsValue, RootJsonFormat}
 
 import scala.concurrent.{ExecutionContext, Future}
+import scala.jdk.CollectionConverters._
 import scala.reflect.{ClassTag, classTag}
 
 package object route {
@@ -507,6 +518,83 @@ package object route {
         f
       }
 
+  /**
+    * @return true if the connector writes rows by format "compact_with_schema". The rows carry only the fingerprint of
+    *         schema so the readers must have the same columns. Noted: the connector having no columns writes the names
+    *         of cells as it has no schema.
+    */
+  private[this] def writeWithSchema(connectorInfo: ConnectorInfo): Boolean =
+    connectorInfo.columns.nonEmpty && connectorInfo.plain
+      .get(ConnectorDefUtils.ROW_FORMAT_DEFINITION.key())
+      .exists(_.equalsIgnoreCase(RowCodec.Format.COMPACT_WITH_SCHEMA.name()))
+
+  /**
+    * the sink reads the cells by Column#name rather than Column#newName
+    * @return the fingerprint of schema used by reader. None if the reader has no columns
+    */
+  private[this] def readerFingerprint(columns: Seq[Column]): Option[Int] =
+    if (columns.isEmpty) None
+    else Some(RowCodec.Schema.of(columns.asJava, (column: Column) => column.name).fingerprint())
+
+  private[this] def checkRowSchema(writer: ConnectorInfo, readerKey: ObjectKey, topicKeys: Set[TopicKey])(
+    readerColumns: Seq[Column]
+  ): Unit = {
+    val sharedTopicKeys   = writer.topicKeys.intersect(topicKeys)
+    val writerFingerprint = RowCodec.Schema.of(writer.columns.asJava).fingerprint()
+    if (sharedTopicKeys.nonEmpty && !readerFingerprint(readerColumns).contains(writerFingerprint))
+      throw new IllegalArgumentException(
+        s"${writer.key} writes rows to topics:${sharedTopicKeys.mkString(",")} by format:" +
+          s"${RowCodec.Format.COMPACT_WITH_SCHEMA} but $readerKey does not have the same columns to read them. " +
+          s"Please use format:${RowCodec.Format.COMPACT} instead"
+      )
+  }
+
+  /**
+    * check the source connectors writing the topics by format "compact_with_schema". It throws exception if the reader
+    * does not have the same columns as the writer since the rows are not readable without the schema.
+    * @param readerKey the key of reader. It is excluded from the writers
+    * @param topicKeys the topics read by reader
+    * @param columns the columns of reader. The stream and shabondi sink have no columns.
+    */
+  private[route] def checkRowSchemaOfWriters(readerKey: ObjectKey, topicKeys: Set[TopicKey], columns: Seq[Column])(
+    implicit store: DataStore,
+    executionContext: ExecutionContext
+  ): Future[Unit] =
+    store
+      .values[ConnectorInfo]()
+      .map(
+        _.filter(_.key != readerKey)
+          .filter(writeWithSchema)
+          .foreach(writer => checkRowSchema(writer, readerKey, topicKeys)(columns))
+      )
+
+  /**
+    * the opposite of checkRowSchemaOfWriters. It checks the readers (sink connectors, streams and shabondi sinks) of
+    * the topics written by the connector.
+    * @param writer the source connector
+    * @param isSink used to pick up the sink connectors
+    */
+  private[route] def checkRowSchemaOfReaders(writer: ConnectorInfo, isSink: ConnectorInfo => Boolean)(
+    implicit store: DataStore,
+    executionContext: ExecutionContext
+  ): Future[Unit] =
+    if (!writeWithSchema(writer)) Future.unit
+    else
+      for {
+        connectorInfos       <- store.values[ConnectorInfo]()
+        streamClusterInfos   <- store.values[StreamClusterInfo]()
+        shabondiClusterInfos <- store.values[ShabondiClusterInfo]()
+      } yield {
+        connectorInfos
+          .filter(_.key != writer.key)
+          .filter(isSink)
+          .foreach(reader => checkRowSchema(writer, reader.key, reader.topicKeys)(reader.columns))
+        streamClusterInfos.foreach(reader => checkRowSchema(writer, reader.key, reader.fromTopicKeys)(Seq.empty))
+        shabondiClusterInfos
+          .filter(_.shabondiClass == ShabondiApi.SHABONDI_SINK_CLASS_NAME)
+          .foreach(reader => checkRowSchema(writer, reader.key, reader.sinkFromTopics)(Seq.empty))
+      }
+
   /**
     * a helper method to Updating request that it remove all fields declared as non-updatable.
     * @param settings origin settings
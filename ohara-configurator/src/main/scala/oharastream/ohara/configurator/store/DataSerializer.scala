@@ -0,0 +1,223 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.configurator.store
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream, DataInputStream, DataOutputStream}
+import java.nio.charset.StandardCharsets
+
+import oharastream.ohara.client.configurator.BrokerApi.BrokerClusterInfo
+import oharastream.ohara.client.configurator.ConnectorApi.ConnectorInfo
+import oharastream.ohara.client.configurator.FileInfoApi.FileInfo
+import oharastream.ohara.client.configurator.NodeApi.Node
+import oharastream.ohara.client.configurator.ObjectApi.ObjectInfo
+import oharastream.ohara.client.configurator.PipelineApi.Pipeline
+import oharastream.ohara.client.configurator.ShabondiApi.ShabondiClusterInfo
+import oharastream.ohara.client.configurator.StreamApi.StreamClusterInfo
+import oharastream.ohara.client.configurator.TopicApi.TopicInfo
+import oharastream.ohara.client.configurator.VolumeApi.Volume
+import oharastream.ohara.client.configurator.WorkerApi.WorkerClusterInfo
+import oharastream.ohara.client.configurator.ZookeeperApi.ZookeeperClusterInfo
+import oharastream.ohara.client.configurator.{
+  BrokerApi,
+  ConnectorApi,
+  Data,
+  FileInfoApi,
+  NodeApi,
+  ObjectApi,
+  PipelineApi,
+  ShabondiApi,
+  StreamApi,
+  TopicApi,
+  VolumeApi,
+  WorkerApi,
+  ZookeeperApi
+}
+import oharastream.ohara.common.data.Serializer
+import spray.json._
+
+/**
+  * the default serializer of DataStore. The well-known data is converted to json by its json format and then the json
+  * is written in a compact binary form. It is smaller and faster than java serialization. The other data is still
+  * serialized by java serialization, and the data written by java serialization (by older configurator) is readable.
+  *
+  * format: | version (1 byte) | data id (1 byte) | json |
+  *
+  * The json of FileInfo does not carry the content of file so the content is appended to the json.
+  *
+  * format of FileInfo: | version (1 byte) | data id (1 byte) | json | length of content (4 bytes) | content |
+  *
+  * NOTED: the data id is stored with the data so it can't be changed.
+  */
+private[store] object DataSerializer extends Serializer[Data] {
+  private[this] val VERSION: Byte = 1
+
+  private[this] case class Codec(id: Byte, clazz: Class[_ <: Data], format: RootJsonFormat[Data])
+
+  private[this] def codec[T <: Data](id: Int, clazz: Class[T], format: RootJsonFormat[T]): Codec =
+    Codec(id.toByte, clazz, format.asInstanceOf[RootJsonFormat[Data]])
+
+  private[this] val CODECS: Seq[Codec] = Seq(
+    codec(1, classOf[TopicInfo], TopicApi.TOPIC_INFO_FORMAT),
+    codec(2, classOf[ConnectorInfo], ConnectorApi.CONNECTOR_INFO_FORMAT),
+    codec(3, classOf[FileInfo], FileInfoApi.FILE_INFO_FORMAT),
+    codec(4, classOf[Node], NodeApi.NODE_FORMAT),
+    codec(5, classOf[Pipeline], PipelineApi.PIPELINE_FORMAT),
+    codec(6, classOf[Volume], VolumeApi.VOLUME_FORMAT),
+    codec(7, classOf[ObjectInfo], ObjectApi.OBJECT_FORMAT),
+    codec(8, classOf[ZookeeperClusterInfo], ZookeeperApi.ZOOKEEPER_CLUSTER_INFO_FORMAT),
+    codec(9, classOf[BrokerClusterInfo], BrokerApi.BROKER_CLUSTER_INFO_FORMAT),
+    codec(10, classOf[WorkerClusterInfo], WorkerApi.WORKER_CLUSTER_INFO_FORMAT),
+    codec(11, classOf[StreamClusterInfo], StreamApi.STREAM_CLUSTER_INFO_FORMAT),
+    codec(12, classOf[ShabondiClusterInfo], ShabondiApi.SHABONDI_CLUSTER_INFO_FORMAT)
+  )
+
+  private[this] val CODECS_BY_CLASS: Map[Class[_], Codec] = CODECS.map(c => c.clazz -> c).toMap
+
+  private[this] val CODECS_BY_ID: Map[Byte, Codec] = CODECS.map(c => c.id -> c).toMap
+
+  override def to(obj: Data): Array[Byte] = CODECS_BY_CLASS.get(obj.getClass) match {
+    case Some(codec) =>
+      val bytes  = new ByteArrayOutputStream(256)
+      val output = new DataOutputStream(bytes)
+      output.writeByte(VERSION)
+      output.writeByte(codec.id)
+      JsonCodec.write(codec.format.write(obj), output)
+      obj match {
+        case fileInfo: FileInfo =>
+          output.writeInt(fileInfo.bytes.length)
+          output.write(fileInfo.bytes)
+        case _ =>
+      }
+      output.flush()
+      bytes.toByteArray
+    case None => Serializer.OBJECT.to(obj)
+  }
+
+  override def from(bytes: Array[Byte]): Data =
+    if (bytes.length > 1 && bytes(0) == VERSION) {
+      val codec = CODECS_BY_ID.getOrElse(
+        bytes(1),
+        throw new IllegalArgumentException(s"there is no codec for data id:${bytes(1)}")
+      )
+      val input = new DataInputStream(new ByteArrayInputStream(bytes, 2, bytes.length - 2))
+      codec.format.read(JsonCodec.read(input)) match {
+        case fileInfo: FileInfo =>
+          val content = new Array[Byte](input.readInt())
+          input.readFully(content)
+          new FileInfo(
+            group = fileInfo.group,
+            name = fileInfo.name,
+            url = fileInfo.url,
+            lastModified = fileInfo.lastModified,
+            bytes = content,
+            size = fileInfo.size,
+            classInfos = fileInfo.classInfos,
+            tags = fileInfo.tags
+          )
+        case data => data
+      }
+    } else Serializer.OBJECT.from(bytes).asInstanceOf[Data]
+
+  /**
+    * the binary form of json. The lengths are varints and the integral number is a zigzag varint.
+    */
+  private[store] object JsonCodec {
+    private[this] val NULL: Byte    = 0
+    private[this] val FALSE: Byte   = 1
+    private[this] val TRUE: Byte    = 2
+    private[this] val LONG: Byte    = 3
+    private[this] val DECIMAL: Byte = 4
+    private[this] val STRING: Byte  = 5
+    private[this] val ARRAY: Byte   = 6
+    private[this] val OBJECT: Byte  = 7
+
+    def write(json: JsValue, output: DataOutputStream): Unit = json match {
+      case JsNull  => output.writeByte(NULL)
+      case JsFalse => output.writeByte(FALSE)
+      case JsTrue  => output.writeByte(TRUE)
+      case JsNumber(v) if v.scale == 0 && v.isValidLong =>
+        output.writeByte(LONG)
+        writeVarlong((v.toLongExact << 1) ^ (v.toLongExact >> 63), output)
+      case JsNumber(v) =>
+        output.writeByte(DECIMAL)
+        writeString(v.toString, output)
+      case JsString(v) =>
+        output.writeByte(STRING)
+        writeString(v, output)
+      case JsArray(elements) =>
+        output.writeByte(ARRAY)
+        writeVarlong(elements.size, output)
+        elements.foreach(write(_, output))
+      case JsObject(fields) =>
+        output.writeByte(OBJECT)
+        writeVarlong(fields.size, output)
+        fields.foreach {
+          case (key, value) =>
+            writeString(key, output)
+            write(value, output)
+        }
+    }
+
+    def read(input: DataInputStream): JsValue = input.readByte() match {
+      case NULL    => JsNull
+      case FALSE   => JsFalse
+      case TRUE    => JsTrue
+      case LONG    =>
+        val v = readVarlong(input)
+        JsNumber((v >>> 1) ^ -(v & 1))
+      case DECIMAL => JsNumber(BigDecimal(readString(input)))
+      case STRING  => JsString(readString(input))
+      case ARRAY   => JsArray((0 until readVarlong(input).toInt).map(_ => read(input)).toVector)
+      case OBJECT  => JsObject((0 until readVarlong(input).toInt).map(_ => readString(input) -> read(input)).toMap)
+      case tag     => throw new IllegalArgumentException(s"unknown json tag:$tag")
+    }
+
+    private[this] def writeString(s: String, output: DataOutputStream): Unit = {
+      val bytes = s.getBytes(StandardCharsets.UTF_8)
+      writeVarlong(bytes.length, output)
+      output.write(bytes)
+    }
+
+    private[this] def readString(input: DataInputStream): String = {
+      val bytes = new Array[Byte](readVarlong(input).toInt)
+      input.readFully(bytes)
+      new String(bytes, StandardCharsets.UTF_8)
+    }
+
+    private[this] def writeVarlong(value: Long, output: DataOutputStream): Unit = {
+      var v = value
+      while ((v & ~0x7FL) != 0) {
+        output.writeByte(((v & 0x7F) | 0x80).toInt)
+        v >>>= 7
+      }
+      output.writeByte(v.toInt)
+    }
+
+    private[this] def readVarlong(input: DataInputStream): Long = {
+      var result = 0L
+      var shift  = 0
+      var b      = 0
+      do {
+        if (shift >= 64) throw new IllegalArgumentException("the varint is too long")
+        b = input.readByte()
+        result |= (b & 0x7FL) << shift
+        shift += 7
+      } while ((b & 0x80) != 0)
+      result
+    }
+  }
+}
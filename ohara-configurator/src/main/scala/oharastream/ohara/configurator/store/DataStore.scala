@@ -161,14 +161,10 @@ object DataStore {
   def apply(): DataStore = builder.build()
 
   class Builder private[DataStore] extends oharastream.ohara.common.pattern.Builder[DataStore] {
-    private[this] var dataSerializer: Serializer[Data] = new Serializer[Data] {
-      override def to(obj: Data): Array[Byte] = Serializer.OBJECT.to(obj)
-      override def from(bytes: Array[Byte]): Data =
-        Serializer.OBJECT.from(bytes).asInstanceOf[Data]
-    }
-    private[this] var persistentFolder: String = CommonUtils.createTempFolder("store").getCanonicalPath
+    private[this] var dataSerializer: Serializer[Data] = DataSerializer
+    private[this] var persistentFolder: String         = CommonUtils.createTempFolder("store").getCanonicalPath
 
-    @Optional("default implementation is Serializer.OBJECT")
+    @Optional("default implementation is DataSerializer which stores the well-known data in binary json")
     def dataSerializer(dataSerializer: Serializer[Data]): Builder = {
       this.dataSerializer = Objects.requireNonNull(dataSerializer)
       this
@@ -20,14 +20,15 @@ import java.util.concurrent.TimeUnit
 
 import oharastream.ohara.client.configurator.ConnectorApi.State
 import oharastream.ohara.client.configurator.{BrokerApi, ConnectorApi, TopicApi, WorkerApi, ZookeeperApi}
-import oharastream.ohara.common.data.{Column, DataType}
+import oharastream.ohara.common.data.{Column, DataType, RowCodec}
 import oharastream.ohara.common.rule.OharaTest
 import oharastream.ohara.common.setting.{ConnectorKey, ObjectKey, TopicKey, WithDefinitions}
 import oharastream.ohara.common.util.{CommonUtils, Releasable, VersionUtils}
-import oharastream.ohara.configurator.Configurator
+import oharastream.ohara.configurator.{Configurator, FallibleSink}
 import oharastream.ohara.connector.perf.PerfSourceProps
 import oharastream.ohara.kafka.RowDefaultPartitioner
 import oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions
+import oharastream.ohara.kafka.connector.json.ConnectorDefUtils
 import org.junit.jupiter.api.{AfterEach, BeforeEach, Test}
 import org.scalatest.matchers.should.Matchers._
 import spray.json.{JsArray, JsNumber, JsObject, JsString, JsTrue, JsValue}
@@ -735,6 +736,52 @@ class TestConnectorRoute extends OharaTest {
       .toString()
   }
 
+  @Test
+  def testCompactWithSchema(): Unit = {
+    val topic = result(topicApi.request.brokerClusterKey(brokerClusterInfo.key).create())
+    result(topicApi.start(topic.key))
+    val columns = Seq(
+      Column.builder().name("a").dataType(DataType.STRING).order(1).build(),
+      Column.builder().name("b").dataType(DataType.INT).order(2).build()
+    )
+    val source = result(
+      connectorApi.request
+        .topicKey(topic.key)
+        .className("oharastream.ohara.connector.perf.PerfSource")
+        .columns(columns)
+        .setting(ConnectorDefUtils.ROW_FORMAT_DEFINITION.key(), JsString(RowCodec.Format.COMPACT_WITH_SCHEMA.name()))
+        .workerClusterKey(workerClusterInfo.key)
+        .create()
+    )
+    result(connectorApi.start(source.key))
+
+    // the sink having different columns can't read the rows written with schema
+    val sink = result(
+      connectorApi.request
+        .topicKey(topic.key)
+        .className(classOf[FallibleSink].getName)
+        .columns(columns.take(1))
+        .workerClusterKey(workerClusterInfo.key)
+        .create()
+    )
+    an[IllegalArgumentException] should be thrownBy result(connectorApi.start(sink.key))
+
+    // the sink having same columns is ok
+    result(connectorApi.request.key(sink.key).columns(columns).update())
+    result(connectorApi.start(sink.key))
+
+    // the source can't start if there is a sink having no columns
+    result(connectorApi.stop(source.key))
+    result(
+      connectorApi.request
+        .topicKey(topic.key)
+        .className(classOf[FallibleSink].getName)
+        .workerClusterKey(workerClusterInfo.key)
+        .create()
+    )
+    an[IllegalArgumentException] should be thrownBy result(connectorApi.start(source.key))
+  }
+
   @AfterEach
   def tearDown(): Unit = Releasable.close(configurator)
 }
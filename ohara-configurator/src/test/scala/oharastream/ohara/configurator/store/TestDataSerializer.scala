@@ -0,0 +1,350 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.configurator.store
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream, DataInputStream, DataOutputStream}
+import java.net.URL
+
+import oharastream.ohara.client.configurator.BrokerApi.BrokerClusterInfo
+import oharastream.ohara.client.configurator.ConnectorApi.{ConnectorInfo, Status}
+import oharastream.ohara.client.configurator.FileInfoApi.{ClassInfo, FileInfo}
+import oharastream.ohara.client.configurator.MetricsApi.{Meter, Metrics}
+import oharastream.ohara.client.configurator.NodeApi.Node
+import oharastream.ohara.client.configurator.ObjectApi.ObjectInfo
+import oharastream.ohara.client.configurator.PipelineApi.{Endpoint, ObjectAbstract, Pipeline}
+import oharastream.ohara.client.configurator.ShabondiApi.ShabondiClusterInfo
+import oharastream.ohara.client.configurator.StreamApi.StreamClusterInfo
+import oharastream.ohara.client.configurator.TopicApi.{TopicInfo, TopicState}
+import oharastream.ohara.client.configurator.VolumeApi.{Volume, VolumeState}
+import oharastream.ohara.client.configurator.WorkerApi.WorkerClusterInfo
+import oharastream.ohara.client.configurator.ZookeeperApi.ZookeeperClusterInfo
+import oharastream.ohara.client.configurator.{
+  BrokerApi,
+  ClusterState,
+  ConnectorApi,
+  Data,
+  ObjectApi,
+  ShabondiApi,
+  StreamApi,
+  TopicApi,
+  WorkerApi,
+  ZookeeperApi
+}
+import oharastream.ohara.common.data.Serializer
+import oharastream.ohara.common.rule.OharaTest
+import oharastream.ohara.common.setting.{ClassType, ObjectKey, SettingDef, TopicKey}
+import oharastream.ohara.common.util.CommonUtils
+import oharastream.ohara.kafka.{PartitionInfo, PartitionNode}
+import org.junit.jupiter.api.Test
+import org.scalatest.matchers.should.Matchers._
+import spray.json._
+
+class TestDataSerializer extends OharaTest {
+  private[this] def node(): Node =
+    Node(CommonUtils.randomString(10), CommonUtils.randomString(), CommonUtils.randomString())
+      .copy(tags = Map("a" -> JsNumber(1), "b" -> JsArray(JsString("c"), JsNull)))
+
+  private[this] def tags: Map[String, JsValue] = Map("a" -> JsNumber(1), "b" -> JsArray(JsString("c"), JsNull))
+
+  private[this] def metrics: Map[String, Metrics] = Map(
+    CommonUtils.randomString() -> Metrics(
+      Seq(
+        Meter(
+          name = CommonUtils.randomString(),
+          value = 1.5,
+          valueInPerSec = None,
+          unit = CommonUtils.randomString(),
+          document = CommonUtils.randomString(),
+          queryTime = CommonUtils.current(),
+          startTime = Some(CommonUtils.current()),
+          lastModified = None
+        )
+      )
+    )
+  )
+
+  /**
+    * @param data data
+    * @return the data deserialized from the bytes written by DataSerializer
+    */
+  private[this] def roundTrip[T <: Data](data: T): T = {
+    val bytes = DataSerializer.to(data)
+    // the well-known data is not written by java serialization
+    bytes shouldNot be(Serializer.OBJECT.to(data))
+    DataSerializer.from(bytes).asInstanceOf[T]
+  }
+
+  @Test
+  def testTopicInfo(): Unit = {
+    val node = new PartitionNode(0, CommonUtils.randomString(), CommonUtils.availablePort())
+    val value = TopicInfo(
+      settings = TopicApi.access.request.brokerClusterKey(ObjectKey.of("g", "n")).tags(tags).creation.raw,
+      partitionInfos = Seq(new PartitionInfo(0, node, java.util.List.of(node), java.util.List.of(), 1, 100)),
+      nodeMetrics = metrics,
+      state = Some(TopicState.RUNNING),
+      lastModified = CommonUtils.current()
+    )
+    roundTrip(value) shouldBe value
+  }
+
+  @Test
+  def testConnectorInfo(): Unit = {
+    val value = ConnectorInfo(
+      settings = ConnectorApi.access.request
+        .className(CommonUtils.randomString())
+        .workerClusterKey(ObjectKey.of("g", "n"))
+        .topicKey(TopicKey.of("g", "n"))
+        .creation
+        .raw,
+      state = Some(ConnectorApi.State.RUNNING),
+      aliveNodes = Set(CommonUtils.randomString()),
+      error = None,
+      tasksStatus = Seq(
+        Status(
+          state = ConnectorApi.State.FAILED,
+          nodeName = CommonUtils.randomString(),
+          error = Some(CommonUtils.randomString()),
+          coordinator = false
+        )
+      ),
+      nodeMetrics = metrics,
+      lastModified = CommonUtils.current()
+    )
+    roundTrip(value) shouldBe value
+  }
+
+  @Test
+  def testFileInfo(): Unit = {
+    val value = new FileInfo(
+      group = CommonUtils.randomString(),
+      name = CommonUtils.randomString(),
+      url = Some(new URL("http://localhost:12345/abc")),
+      lastModified = CommonUtils.current(),
+      bytes = CommonUtils.randomString().getBytes,
+      classInfos = Seq(
+        ClassInfo(
+          classType = ClassType.SOURCE,
+          className = CommonUtils.randomString(),
+          settingDefinitions = Seq(SettingDef.builder().key(CommonUtils.randomString()).build())
+        )
+      ),
+      tags = tags
+    )
+    val result = roundTrip(value)
+    result.group shouldBe value.group
+    result.name shouldBe value.name
+    result.url shouldBe value.url
+    result.lastModified shouldBe value.lastModified
+    // the content of file is appended to json
+    result.bytes shouldBe value.bytes
+    result.size shouldBe value.size
+    result.classInfos shouldBe value.classInfos
+    result.tags shouldBe value.tags
+
+    val noUrl = new FileInfo(
+      group = CommonUtils.randomString(),
+      name = CommonUtils.randomString(),
+      url = None,
+      lastModified = CommonUtils.current(),
+      bytes = Array.empty,
+      classInfos = Seq.empty,
+      tags = Map.empty
+    )
+    roundTrip(noUrl).url shouldBe None
+  }
+
+  @Test
+  def testPipeline(): Unit = {
+    val value = Pipeline(
+      group = CommonUtils.randomString(),
+      name = CommonUtils.randomString(),
+      endpoints = Set(Endpoint(CommonUtils.randomString(), CommonUtils.randomString(), "topic")),
+      objects = Set(
+        ObjectAbstract(
+          group = CommonUtils.randomString(),
+          name = CommonUtils.randomString(),
+          kind = "source",
+          className = Some(CommonUtils.randomString()),
+          state = None,
+          error = Some(CommonUtils.randomString()),
+          nodeMetrics = metrics,
+          lastModified = CommonUtils.current(),
+          tags = tags
+        )
+      ),
+      jarKeys = Set(ObjectKey.of(CommonUtils.randomString(), CommonUtils.randomString())),
+      lastModified = CommonUtils.current(),
+      tags = tags
+    )
+    roundTrip(value) shouldBe value
+  }
+
+  @Test
+  def testVolume(): Unit = {
+    val value = Volume(
+      group = CommonUtils.randomString(),
+      name = CommonUtils.randomString(),
+      nodeNames = Set(CommonUtils.randomString()),
+      path = "/tmp/" + CommonUtils.randomString(),
+      state = Some(VolumeState.RUNNING),
+      error = None,
+      tags = tags,
+      lastModified = CommonUtils.current()
+    )
+    roundTrip(value) shouldBe value
+  }
+
+  @Test
+  def testObjectInfo(): Unit = {
+    val value = ObjectInfo(
+      ObjectApi.access.request.name(CommonUtils.randomString()).settings(tags).creation.raw,
+      CommonUtils.current()
+    )
+    roundTrip(value) shouldBe value
+  }
+
+  @Test
+  def testZookeeperClusterInfo(): Unit = {
+    val value = ZookeeperClusterInfo(
+      settings = ZookeeperApi.access.request.nodeName(CommonUtils.randomString()).tags(tags).creation.raw,
+      aliveNodes = Set(CommonUtils.randomString()),
+      lastModified = CommonUtils.current(),
+      state = Some(ClusterState.RUNNING),
+      error = None
+    )
+    roundTrip(value) shouldBe value
+  }
+
+  @Test
+  def testBrokerClusterInfo(): Unit = {
+    val value = BrokerClusterInfo(
+      settings = BrokerApi.access.request
+        .nodeName(CommonUtils.randomString())
+        .zookeeperClusterKey(ObjectKey.of("g", "n"))
+        .creation
+        .raw,
+      aliveNodes = Set.empty,
+      lastModified = CommonUtils.current(),
+      state = None,
+      error = Some(CommonUtils.randomString())
+    )
+    roundTrip(value) shouldBe value
+  }
+
+  @Test
+  def testWorkerClusterInfo(): Unit = {
+    val value = WorkerClusterInfo(
+      settings = WorkerApi.access.request
+        .nodeName(CommonUtils.randomString())
+        .brokerClusterKey(ObjectKey.of("g", "n"))
+        .creation
+        .raw,
+      aliveNodes = Set(CommonUtils.randomString()),
+      lastModified = CommonUtils.current(),
+      state = Some(ClusterState.PENDING),
+      error = None
+    )
+    roundTrip(value) shouldBe value
+  }
+
+  @Test
+  def testStreamClusterInfo(): Unit = {
+    val value = StreamClusterInfo(
+      settings = StreamApi.access.request
+        .jarKey(ObjectKey.of("g", "jar"))
+        .nodeName(CommonUtils.randomString())
+        .fromTopicKey(TopicKey.of("g", "from"))
+        .toTopicKey(TopicKey.of("g", "to"))
+        .brokerClusterKey(ObjectKey.of("g", "n"))
+        .creation
+        .raw,
+      aliveNodes = Set(CommonUtils.randomString()),
+      state = Some(ClusterState.RUNNING),
+      error = None,
+      nodeMetrics = metrics,
+      lastModified = CommonUtils.current()
+    )
+    roundTrip(value) shouldBe value
+  }
+
+  @Test
+  def testShabondiClusterInfo(): Unit = {
+    val value = ShabondiClusterInfo(
+      settings = ShabondiApi.access.request
+        .shabondiClass(ShabondiApi.SHABONDI_SOURCE_CLASS_NAME)
+        .clientPort(CommonUtils.availablePort())
+        .brokerClusterKey(ObjectKey.of("g", "n"))
+        .nodeName(CommonUtils.randomString())
+        .sourceToTopics(Set(TopicKey.of("g", "n")))
+        .creation
+        .raw,
+      aliveNodes = Set.empty,
+      state = None,
+      error = None,
+      nodeMetrics = Map.empty,
+      lastModified = CommonUtils.current()
+    )
+    roundTrip(value) shouldBe value
+  }
+
+  @Test
+  def testWellKnownData(): Unit = {
+    val value = node()
+    val bytes = DataSerializer.to(value)
+    DataSerializer.from(bytes) shouldBe value
+    bytes.length should be < Serializer.OBJECT.to(value).length
+  }
+
+  @Test
+  def testUnknownData(): Unit = {
+    val value = SimpleData(
+      group = CommonUtils.randomString(),
+      name = CommonUtils.randomString(),
+      lastModified = CommonUtils.current(),
+      kind = CommonUtils.randomString()
+    )
+    DataSerializer.to(value) shouldBe Serializer.OBJECT.to(value)
+    DataSerializer.from(DataSerializer.to(value)) shouldBe value
+  }
+
+  @Test
+  def testReadJavaSerialization(): Unit = {
+    val value = node()
+    DataSerializer.from(Serializer.OBJECT.to(value)) shouldBe value
+  }
+
+  @Test
+  def testUnknownDataId(): Unit =
+    an[IllegalArgumentException] should be thrownBy DataSerializer.from(Array[Byte](1, 100))
+
+  @Test
+  def testJson(): Unit = {
+    val json = JsObject(
+      "null"    -> JsNull,
+      "boolean" -> JsArray(JsTrue, JsFalse),
+      "long"    -> JsArray(JsNumber(0), JsNumber(-1), JsNumber(Long.MaxValue), JsNumber(Long.MinValue)),
+      "decimal" -> JsArray(JsNumber(1.5), JsNumber(BigDecimal("1.0")), JsNumber(BigDecimal(Long.MaxValue) + 1)),
+      "string"  -> JsString("中文"),
+      "object"  -> JsObject("a" -> JsObject(), "b" -> JsArray())
+    )
+    val bytes  = new ByteArrayOutputStream()
+    val output = new DataOutputStream(bytes)
+    DataSerializer.JsonCodec.write(json, output)
+    output.flush()
+    DataSerializer.JsonCodec.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray))) shouldBe json
+  }
+}
@@ -108,16 +108,24 @@ trait BaseQueryHandler extends Releasable {
     Row.of(
       schema
         .sortBy(_.order)
-        .map(s => (s, values(s.name, columns)))
-        .map {
-          case (s, value) =>
-            Cell.of(
-              s.newName,
-              convertToValue(s, value)
-            )
-        }: _*
+        .map(s => convertToCell(s, values(s.name, columns))): _*
     )
 
+  /**
+    * the primitive values are carried by primitive cells (for example, IntCell) to avoid boxing.
+    */
+  private[source] def convertToCell(column: Column, value: Any): Cell[_] =
+    column.dataType match {
+      case DataType.BOOLEAN => Cell.of(column.newName, value.asInstanceOf[Boolean])
+      case DataType.SHORT   => Cell.of(column.newName, value.asInstanceOf[Short])
+      case DataType.INT     => Cell.of(column.newName, value.asInstanceOf[Int])
+      case DataType.LONG    => Cell.of(column.newName, value.asInstanceOf[Long])
+      case DataType.FLOAT   => Cell.of(column.newName, value.asInstanceOf[Float])
+      case DataType.DOUBLE  => Cell.of(column.newName, value.asInstanceOf[Double])
+      case DataType.BYTE    => Cell.of(column.newName, value.asInstanceOf[Byte])
+      case _                => Cell.of(column.newName, convertToValue(column, value))
+    }
+
   private[source] def convertToValue(column: Column, value: Any): Any = {
     // Confirm all data type is java.lang.*
     column.dataType match {
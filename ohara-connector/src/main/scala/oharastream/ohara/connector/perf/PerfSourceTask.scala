@@ -50,14 +50,7 @@ class PerfSourceTask extends RowSourceTask {
     if (schema.isEmpty) schema = PerfSourceTask.DEFAULT_SCHEMA
     (0 until props.batch).foreach { index =>
       val value = CommonUtils.current() + index
-      val row = Row.of(
-        schema.sortBy(_.order).map { c =>
-          Cell.of(
-            c.newName,
-            convertToValue(c.dataType, value)
-          )
-        }: _*
-      )
+      val row = Row.of(schema.sortBy(_.order).map(c => convertToCell(c, value)): _*)
       rowCache.put(row, Serializer.ROW.to(row))
     }
     records = rowCache.keys
@@ -78,6 +71,22 @@ class PerfSourceTask extends RowSourceTask {
     records
   }
 
+  /**
+    * the primitive values are carried by primitive cells (for example, IntCell) to avoid boxing.
+    */
+  private[perf] def convertToCell(column: Column, value: Long): Cell[_] = {
+    column.dataType match {
+      case DataType.BOOLEAN => Cell.of(column.newName, false)
+      case DataType.BYTE    => Cell.of(column.newName, ByteUtils.toBytes(value).head)
+      case DataType.SHORT   => Cell.of(column.newName, value.toShort)
+      case DataType.INT     => Cell.of(column.newName, value.toInt)
+      case DataType.LONG    => Cell.of(column.newName, value)
+      case DataType.FLOAT   => Cell.of(column.newName, value.toFloat)
+      case DataType.DOUBLE  => Cell.of(column.newName, value.toDouble)
+      case _                => Cell.of(column.newName, convertToValue(column.dataType, value))
+    }
+  }
+
   private[perf] def convertToValue(dataType: DataType, value: Long): Any = {
     dataType match {
       case DataType.BOOLEAN => java.lang.Boolean.valueOf(false)
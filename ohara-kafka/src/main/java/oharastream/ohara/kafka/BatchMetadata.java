@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * the result of a batch sent by {@link Producer.BatchSender}. The index of a record is the order
+ * in which it was added to the batch. A record is failed if any of the topics rejects it, even
+ * though other topics may have accepted it, and the exception of the first rejection is kept.
+ */
+public class BatchMetadata {
+  private final int records;
+  private final long bytes;
+  private final Map<Integer, Exception> exceptions;
+
+  BatchMetadata(int records, long bytes, Map<Integer, Exception> exceptions) {
+    this.records = records;
+    this.bytes = bytes;
+    this.exceptions = Map.copyOf(exceptions);
+  }
+
+  /** @return the number of records accepted by brokers. It counts a record once per topic */
+  public int records() {
+    return records;
+  }
+
+  /** @return the serialized size (key and value) of records accepted by brokers */
+  public long bytes() {
+    return bytes;
+  }
+
+  /** @return true if all records are accepted by brokers */
+  public boolean succeed() {
+    return exceptions.isEmpty();
+  }
+
+  /** @return the sorted indexes of failed records */
+  public List<Integer> failedIndexes() {
+    return exceptions.keySet().stream().sorted().collect(Collectors.toUnmodifiableList());
+  }
+
+  /** @return the exception of each failed record */
+  public Map<Integer, Exception> exceptions() {
+    return exceptions;
+  }
+
+  @Override
+  public String toString() {
+    return "BatchMetadata{"
+        + "records="
+        + records
+        + ", bytes="
+        + bytes
+        + ", failedIndexes="
+        + failedIndexes()
+        + '}';
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+import oharastream.ohara.common.cache.RefreshableCache;
+import oharastream.ohara.common.setting.TopicKey;
+import oharastream.ohara.common.util.Releasable;
+
+/**
+ * a TopicAdmin keeping the topic descriptions in a {@link RefreshableCache}. The cached
+ * descriptions are refreshed in background, expired after timeout and invalidated when the topics
+ * are changed by this admin. Noted that the changes made by other admins are visible after the
+ * timeout.
+ */
+class CachedTopicAdmin implements TopicAdmin {
+  private final TopicAdmin admin;
+  private final RefreshableCache<TopicKey, TopicDescription> cache;
+
+  CachedTopicAdmin(TopicAdmin admin, Duration timeout) {
+    this.admin = Objects.requireNonNull(admin);
+    this.cache =
+        RefreshableCache.<TopicKey, TopicDescription>builder()
+            .timeout(timeout)
+            .frequency(timeout)
+            .supplier(this::refresh)
+            .build();
+  }
+
+  /**
+   * only the cached topics are refreshed. The deleted topics are excluded from the result so they
+   * are removed from cache also.
+   */
+  private Map<TopicKey, TopicDescription> refresh() {
+    return admin.topicDescriptions(cache.snapshot().keySet()).toCompletableFuture().join();
+  }
+
+  private CompletionStage<Map<TopicKey, TopicDescription>> fetch(Set<TopicKey> keys) {
+    return admin
+        .topicDescriptions(keys)
+        .thenApply(
+            descriptions -> {
+              cache.put(descriptions);
+              return descriptions;
+            });
+  }
+
+  private void invalidate(Collection<TopicKey> keys) {
+    keys.forEach(cache::remove);
+  }
+
+  @Override
+  public TopicCreator topicCreator() {
+    return new TopicCreator() {
+      @Override
+      protected CompletionStage<Void> doCreate(
+          int numberOfPartitions,
+          short numberOfReplications,
+          Map<String, String> options,
+          TopicKey topicKey) {
+        return createTopics(Set.of(this));
+      }
+    };
+  }
+
+  @Override
+  public CompletionStage<Void> createTopics(Collection<TopicCreator> creators) {
+    return admin
+        .createTopics(creators)
+        .whenComplete(
+            (v, e) ->
+                invalidate(
+                    creators.stream()
+                        .map(creator -> creator.topicKey)
+                        .collect(Collectors.toUnmodifiableList())));
+  }
+
+  @Override
+  public CompletionStage<Boolean> exist(TopicKey key) {
+    if (cache.get(key).isPresent()) return CompletableFuture.completedFuture(true);
+    return admin.exist(key);
+  }
+
+  @Override
+  public CompletionStage<Set<TopicKey>> topicKeys() {
+    return admin.topicKeys();
+  }
+
+  @Override
+  public CompletionStage<TopicDescription> topicDescription(TopicKey key) {
+    return topicDescriptions(Set.of(key))
+        .thenApply(
+            descriptions -> {
+              TopicDescription description = descriptions.get(key);
+              if (description == null) throw new NoSuchElementException(key + " does not exist");
+              return description;
+            });
+  }
+
+  @Override
+  public CompletionStage<Map<TopicKey, TopicDescription>> topicDescriptions(Set<TopicKey> keys) {
+    Map<TopicKey, TopicDescription> cached =
+        keys.stream()
+            .map(key -> cache.get(key).map(d -> Map.entry(key, d)))
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+    if (cached.size() == keys.size()) return CompletableFuture.completedFuture(cached);
+    // fetch all missed topics by single request
+    return fetch(
+            keys.stream()
+                .filter(key -> !cached.containsKey(key))
+                .collect(Collectors.toUnmodifiableSet()))
+        .thenApply(
+            descriptions -> {
+              if (cached.isEmpty()) return descriptions;
+              Map<TopicKey, TopicDescription> result = new HashMap<>(cached);
+              result.putAll(descriptions);
+              return Map.copyOf(result);
+            });
+  }
+
+  @Override
+  public CompletionStage<Void> createPartitions(TopicKey key, int numberOfPartitions) {
+    return admin
+        .createPartitions(key, numberOfPartitions)
+        .whenComplete((v, e) -> invalidate(Set.of(key)));
+  }
+
+  @Override
+  public CompletionStage<Boolean> deleteTopic(TopicKey key) {
+    return deleteTopics(Set.of(key)).thenApply(keys -> keys.contains(key));
+  }
+
+  @Override
+  public CompletionStage<Set<TopicKey>> deleteTopics(Set<TopicKey> keys) {
+    return admin.deleteTopics(keys).whenComplete((v, e) -> invalidate(keys));
+  }
+
+  @Override
+  public String connectionProps() {
+    return admin.connectionProps();
+  }
+
+  @Override
+  public CompletionStage<Map<String, Integer>> brokerPorts() {
+    return admin.brokerPorts();
+  }
+
+  @Override
+  public void close() {
+    Releasable.close(cache);
+    Releasable.close(admin);
+  }
+
+  @Override
+  public boolean closed() {
+    return admin.closed();
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka;
+
+/**
+ * The compression types of producer. NOTED: the names in lower case MUST be same with
+ * org.apache.kafka.common.record.CompressionType
+ */
+public enum CompressionType {
+  NONE,
+  GZIP,
+  SNAPPY,
+  LZ4,
+  ZSTD;
+
+  /** @return the name used by kafka configs */
+  public String kafkaName() {
+    return name().toLowerCase();
+  }
+}
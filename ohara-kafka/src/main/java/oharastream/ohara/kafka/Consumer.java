@@ -18,11 +18,13 @@ package oharastream.ohara.kafka;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import oharastream.ohara.common.data.Serializer;
+import oharastream.ohara.common.setting.ObjectKey;
 import oharastream.ohara.common.setting.TopicKey;
 import oharastream.ohara.common.util.CommonUtils;
 import oharastream.ohara.common.util.Releasable;
@@ -30,8 +32,10 @@ import oharastream.ohara.kafka.connector.TopicPartition;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.clients.consumer.OffsetResetStrategy;
 import org.apache.kafka.common.serialization.Deserializer;
 
@@ -51,6 +55,16 @@ public interface Consumer<K, V> extends Releasable {
    */
   List<Record<K, V>> poll(Duration timeout);
 
+  /**
+   * poll the data from subscribed topics. Different from {@link #poll(Duration)}, the returned
+   * records are a view of polled data. The records are converted when they are iterated, and the
+   * headers are converted only if they are accessed.
+   *
+   * @param timeout waiting time
+   * @return a view of polled records
+   */
+  Records<K, V> pollRecords(Duration timeout);
+
   /**
    * Overloading poll method
    *
@@ -160,6 +174,31 @@ public interface Consumer<K, V> extends Releasable {
    */
   void assignments(Map<TopicPartition, Long> assignments);
 
+  /**
+   * stop fetching the data from specific partitions. Noted: the paused partitions are still
+   * assigned to this consumer.
+   *
+   * @param partitions partitions
+   */
+  void pause(Set<TopicPartition> partitions);
+
+  /**
+   * resume the paused partitions.
+   *
+   * @param partitions partitions
+   */
+  void resume(Set<TopicPartition> partitions);
+
+  /** @return the partitions paused by {@link #pause(Set)} */
+  Set<TopicPartition> paused();
+
+  /**
+   * commit the offsets synchronously. Noted: the offset is the next record to read.
+   *
+   * @param offsets partitions and offsets
+   */
+  void commit(Map<TopicPartition, Long> offsets);
+
   static Builder<byte[], byte[]> builder() {
     return new Builder<>().keySerializer(Serializer.BYTES).valueSerializer(Serializer.BYTES);
   }
@@ -174,6 +213,8 @@ public interface Consumer<K, V> extends Releasable {
     private String connectionProps;
     private Serializer<?> keySerializer = null;
     private Serializer<?> valueSerializer = null;
+    private ObjectKey metricsKey = null;
+    private boolean readCommitted = false;
 
     private Builder() {
       // do nothing
@@ -211,6 +252,18 @@ public interface Consumer<K, V> extends Releasable {
       return this;
     }
 
+    /**
+     * receive only the records of committed transactions. It is required by the consumer of
+     * transactional producer. see {@link Producer.Builder#transactional(String)}
+     *
+     * @return this builder
+     */
+    @oharastream.ohara.common.annotations.Optional("default is to receive all records")
+    public Builder<Key, Value> readCommitted() {
+      this.readCommitted = true;
+      return this;
+    }
+
     /**
      * @param topicKey the topic you want to subscribe
      * @return this builder
@@ -258,6 +311,20 @@ public interface Consumer<K, V> extends Releasable {
       return this;
     }
 
+    /**
+     * expose the poll latency, records per poll, end-to-end latency and the lag of assigned
+     * partitions. The metrics are registered with the key so they are collected with other metrics
+     * of the object. see {@link ConsumerMetrics}
+     *
+     * @param metricsKey the key of metrics. It is normally the key of object using this consumer
+     * @return this builder
+     */
+    @oharastream.ohara.common.annotations.Optional("default is no metrics")
+    public Builder<Key, Value> metricsKey(ObjectKey metricsKey) {
+      this.metricsKey = Objects.requireNonNull(metricsKey);
+      return this;
+    }
+
     @SuppressWarnings("unchecked")
     public <NewKey> Builder<NewKey, Value> keySerializer(Serializer<NewKey> keySerializer) {
       this.keySerializer = Objects.requireNonNull(keySerializer);
@@ -322,6 +389,7 @@ public interface Consumer<K, V> extends Releasable {
       props.setProperty(ConsumerConfig.GROUP_ID_CONFIG, groupId);
       // kafka demand us to pass lowe case words...
       props.setProperty(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, fromBegin.name().toLowerCase());
+      if (readCommitted) props.setProperty(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
 
       KafkaConsumer<Key, Value> kafkaConsumer =
           new KafkaConsumer<>(
@@ -338,38 +406,69 @@ public interface Consumer<K, V> extends Releasable {
         kafkaConsumer.assign(
             assignments.stream().map(Builder::toKafka).collect(Collectors.toUnmodifiableList()));
 
+      ObjectKey metricsKey = this.metricsKey;
       return new Consumer<Key, Value>() {
+        private final ConsumerMetrics metrics =
+            metricsKey == null
+                ? null
+                : ConsumerMetrics.of(
+                    metricsKey,
+                    () -> ConsumerMetrics.lags(kafkaConsumer.metrics(), assignment()));
+
         @Override
         public void close() {
-          kafkaConsumer.close();
+          try {
+            kafkaConsumer.close();
+          } finally {
+            Releasable.close(metrics);
+          }
+        }
+
+        private void record(long startTime, ConsumerRecords<Key, Value> records) {
+          if (metrics == null) return;
+          metrics.poll(CommonUtils.current() - startTime, records == null ? 0 : records.count());
+          if (records != null) records.forEach(cr -> metrics.record(cr.timestamp()));
+        }
+
+        /** It is expensive to parse topic key from topic name so the results are cached. */
+        private final Map<String, TopicKey> topicKeyCache = new ConcurrentHashMap<>();
+
+        private Record<Key, Value> toRecord(ConsumerRecord<Key, Value> cr) {
+          return new Record<>(
+              topicKeyCache.computeIfAbsent(cr.topic(), TopicKey::requirePlain),
+              cr.partition(),
+              cr.timestamp(),
+              TimestampType.of(cr.timestampType()),
+              cr.offset(),
+              () ->
+                  cr.headers() == null
+                      ? List.of()
+                      : StreamSupport.stream(cr.headers().spliterator(), false)
+                          .map(header -> new Header(header.key(), header.value()))
+                          .collect(Collectors.toUnmodifiableList()),
+              cr.key(),
+              cr.value());
         }
 
         @Override
         public List<Record<Key, Value>> poll(Duration timeout) {
+          long startTime = CommonUtils.current();
           ConsumerRecords<Key, Value> r = kafkaConsumer.poll(timeout);
+          record(startTime, r);
 
           if (r == null || r.isEmpty()) return List.of();
-          else
-            return StreamSupport.stream(
-                    Spliterators.spliteratorUnknownSize(r.iterator(), Spliterator.ORDERED), false)
-                .map(
-                    cr ->
-                        new Record<>(
-                            TopicKey.requirePlain(cr.topic()),
-                            cr.partition(),
-                            cr.timestamp(),
-                            TimestampType.of(cr.timestampType()),
-                            cr.offset(),
-                            Optional.ofNullable(cr.headers())
-                                .map(
-                                    headers ->
-                                        StreamSupport.stream(headers.spliterator(), false)
-                                            .map(header -> new Header(header.key(), header.value()))
-                                            .collect(Collectors.toUnmodifiableList()))
-                                .orElse(List.of()),
-                            cr.key(),
-                            cr.value()))
-                .collect(Collectors.toUnmodifiableList());
+          List<Record<Key, Value>> records = new ArrayList<>(r.count());
+          r.forEach(cr -> records.add(toRecord(cr)));
+          return Collections.unmodifiableList(records);
+        }
+
+        @Override
+        public Records<Key, Value> pollRecords(Duration timeout) {
+          long startTime = CommonUtils.current();
+          ConsumerRecords<Key, Value> r = kafkaConsumer.poll(timeout);
+          record(startTime, r);
+          if (r == null) r = ConsumerRecords.empty();
+          return new Records<>(r, this::toRecord);
         }
 
         @Override
@@ -443,6 +542,100 @@ public interface Consumer<K, V> extends Releasable {
           assignments.forEach(
               (tp, offset) -> kafkaConsumer.seek(Builder.toKafka(tp), Math.max(0, offset)));
         }
+
+        @Override
+        public void pause(Set<TopicPartition> partitions) {
+          kafkaConsumer.pause(
+              partitions.stream().map(Builder::toKafka).collect(Collectors.toUnmodifiableList()));
+        }
+
+        @Override
+        public void resume(Set<TopicPartition> partitions) {
+          kafkaConsumer.resume(
+              partitions.stream().map(Builder::toKafka).collect(Collectors.toUnmodifiableList()));
+        }
+
+        @Override
+        public Set<TopicPartition> paused() {
+          return kafkaConsumer.paused().stream()
+              .map(TopicPartition::of)
+              .collect(Collectors.toUnmodifiableSet());
+        }
+
+        @Override
+        public void commit(Map<TopicPartition, Long> offsets) {
+          kafkaConsumer.commitSync(
+              offsets.entrySet().stream()
+                  .collect(
+                      Collectors.toUnmodifiableMap(
+                          e -> Builder.toKafka(e.getKey()),
+                          e -> new OffsetAndMetadata(e.getValue()))));
+        }
+      };
+    }
+  }
+
+  /**
+   * a view of kafka's consumer records. The records are converted to {@link Record} when they are
+   * iterated. Noted: the view is not cached so iterating it again creates new {@link Record}.
+   *
+   * @param <K> K key type
+   * @param <V> V value type
+   */
+  class Records<K, V> implements Iterable<Record<K, V>> {
+    private final ConsumerRecords<K, V> records;
+    private final Function<ConsumerRecord<K, V>, Record<K, V>> converter;
+
+    private Records(
+        ConsumerRecords<K, V> records, Function<ConsumerRecord<K, V>, Record<K, V>> converter) {
+      this.records = Objects.requireNonNull(records);
+      this.converter = Objects.requireNonNull(converter);
+    }
+
+    /** @return the number of records */
+    public int count() {
+      return records.count();
+    }
+
+    public boolean isEmpty() {
+      return records.isEmpty();
+    }
+
+    /** @return the partitions having records. Noted that only ohara topics are listed */
+    public Set<TopicPartition> partitions() {
+      return records.partitions().stream()
+          .filter(p -> TopicKey.ofPlain(p.topic()).isPresent())
+          .map(TopicPartition::of)
+          .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * @param partition partition
+     * @return the records of specific partition. The order of records is same to the offsets
+     */
+    public List<Record<K, V>> records(TopicPartition partition) {
+      List<ConsumerRecord<K, V>> rs =
+          records.records(
+              new org.apache.kafka.common.TopicPartition(
+                  partition.topicKey().topicNameOnKafka(), partition.partition()));
+      List<Record<K, V>> result = new ArrayList<>(rs.size());
+      rs.forEach(cr -> result.add(converter.apply(cr)));
+      return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public Iterator<Record<K, V>> iterator() {
+      Iterator<ConsumerRecord<K, V>> iter = records.iterator();
+      return new Iterator<>() {
+        @Override
+        public boolean hasNext() {
+          return iter.hasNext();
+        }
+
+        @Override
+        public Record<K, V> next() {
+          return converter.apply(iter.next());
+        }
       };
     }
   }
@@ -459,7 +652,10 @@ public interface Consumer<K, V> extends Releasable {
     private final long timestamp;
     private final TimestampType timestampType;
     private final long offset;
-    private final List<Header> headers;
+    /** the headers are converted on demand. */
+    private final Supplier<List<Header>> headersSupplier;
+
+    private List<Header> headers = null;
     private final K key;
     private final V value;
 
@@ -475,7 +671,7 @@ public interface Consumer<K, V> extends Releasable {
         long timestamp,
         TimestampType timestampType,
         long offset,
-        List<Header> headers,
+        Supplier<List<Header>> headersSupplier,
         K key,
         V value) {
       this.topicKey = Objects.requireNonNull(topicKey);
@@ -483,7 +679,7 @@ public interface Consumer<K, V> extends Releasable {
       this.timestamp = timestamp;
       this.timestampType = timestampType;
       this.offset = offset;
-      this.headers = Collections.unmodifiableList(headers);
+      this.headersSupplier = Objects.requireNonNull(headersSupplier);
       this.key = key;
       this.value = value;
     }
@@ -533,6 +729,7 @@ public interface Consumer<K, V> extends Releasable {
      * @return header list
      */
     public List<Header> headers() {
+      if (headers == null) headers = headersSupplier.get();
       return headers;
     }
 
@@ -563,14 +760,14 @@ public interface Consumer<K, V> extends Releasable {
           && Objects.equals(timestamp, that.timestamp)
           && Objects.equals(timestampType, that.timestampType)
           && Objects.equals(offset, that.offset)
-          && CommonUtils.equals(headers, that.headers)
+          && CommonUtils.equals(headers(), that.headers())
           && Objects.equals(key, that.key)
           && Objects.equals(value, that.value);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(topicKey, headers, key, value);
+      return Objects.hash(topicKey, headers(), key, value);
     }
 
     @Override
@@ -579,7 +776,7 @@ public interface Consumer<K, V> extends Releasable {
           .append("topicKey", topicKey)
           .append("timestamp", timestamp)
           .append("offset", offset)
-          .append("headers", headers)
+          .append("headers", headers())
           .append("key", key)
           .append("value", value)
           .toString();
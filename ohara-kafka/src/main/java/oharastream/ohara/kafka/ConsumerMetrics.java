@@ -0,0 +1,250 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import oharastream.ohara.common.setting.ObjectKey;
+import oharastream.ohara.common.util.CommonUtils;
+import oharastream.ohara.common.util.ReleaseOnce;
+import oharastream.ohara.common.util.Releasable;
+import oharastream.ohara.kafka.connector.TopicPartition;
+import oharastream.ohara.metrics.basic.Counter;
+import oharastream.ohara.metrics.basic.Histogram;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+
+/**
+ * The metrics of consuming data. All of them are exposed by counters carrying the same key so they
+ * are collected with other metrics of the object.
+ *
+ * <ul>
+ *   <li>poll.latency: the time spent in polling data
+ *   <li>records.per.poll: the number of records returned by a poll
+ *   <li>end.to.end.latency: the time between producing (the timestamp of record) and consuming
+ *   <li>lag.{topic}.{partition}: the number of records which are not consumed yet
+ * </ul>
+ */
+public final class ConsumerMetrics extends ReleaseOnce {
+  private static final String FETCH_GROUP = "consumer-fetch-manager-metrics";
+  private static final String LAG_NAME = "records-lag";
+  /** the lags are read from kafka metrics so it is unnecessary to update them frequently. */
+  private static final long LAG_INTERVAL = 1000;
+
+  /**
+   * @param key the object key of counters
+   * @param lags supplies the lag of assigned partitions. It is called at most once per second
+   * @return consumer metrics
+   */
+  public static ConsumerMetrics of(ObjectKey key, Supplier<Map<TopicPartition, Long>> lags) {
+    return new ConsumerMetrics(key, lags);
+  }
+
+  /** kafka replaces the dots in topic name by underscores when creating the metrics tags. */
+  private static String tag(TopicPartition tp) {
+    return tp.topicKey().topicNameOnKafka().replace('.', '_') + "-" + tp.partition();
+  }
+
+  private static Map<TopicPartition, Long> lags(
+      Set<TopicPartition> partitions, Function<TopicPartition, Object> lag) {
+    Map<TopicPartition, Long> result = new HashMap<>(partitions.size());
+    partitions.forEach(
+        tp -> {
+          Object value = lag.apply(tp);
+          // the lag is NaN before the first fetch
+          if (value instanceof Number && !Double.isNaN(((Number) value).doubleValue()))
+            result.put(tp, ((Number) value).longValue());
+        });
+    return result;
+  }
+
+  /**
+   * parse the lag of partitions from the metrics of kafka consumer.
+   *
+   * @param metrics kafka consumer metrics
+   * @param partitions assigned partitions
+   * @return the lag of partitions. The partition having no lag metrics is excluded
+   */
+  public static Map<TopicPartition, Long> lags(
+      Map<MetricName, ? extends Metric> metrics, Set<TopicPartition> partitions) {
+    Map<String, Object> values =
+        metrics.entrySet().stream()
+            .filter(e -> e.getKey().name().equals(LAG_NAME))
+            .filter(e -> e.getKey().group().equals(FETCH_GROUP))
+            .filter(e -> e.getKey().tags().containsKey("topic"))
+            .filter(e -> e.getKey().tags().containsKey("partition"))
+            .collect(
+                Collectors.toMap(
+                    e -> e.getKey().tags().get("topic") + "-" + e.getKey().tags().get("partition"),
+                    e -> e.getValue().metricValue(),
+                    (v0, v1) -> v0));
+    return lags(partitions, tp -> values.get(tag(tp)));
+  }
+
+  /**
+   * read the lag of partitions from the kafka consumer living in this JVM. It is used by the
+   * connectors which can't access the kafka consumer directly.
+   *
+   * @param clientId the client id of kafka consumer. It is a regex
+   * @param partitions assigned partitions
+   * @return the lag of partitions. The partition having no lag metrics is excluded
+   */
+  public static Map<TopicPartition, Long> lags(String clientId, Set<TopicPartition> partitions) {
+    Pattern pattern = Pattern.compile(CommonUtils.requireNonEmpty(clientId));
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    return lags(
+        partitions,
+        tp -> {
+          try {
+            return server
+                .queryNames(
+                    new ObjectName(
+                        "kafka.consumer:type="
+                            + FETCH_GROUP
+                            + ",client-id=*,topic="
+                            + tp.topicKey().topicNameOnKafka().replace('.', '_')
+                            + ",partition="
+                            + tp.partition()),
+                    null)
+                .stream()
+                .filter(name -> pattern.matcher(name.getKeyProperty("client-id")).matches())
+                .findFirst()
+                .map(
+                    name -> {
+                      try {
+                        return server.getAttribute(name, LAG_NAME);
+                      } catch (Exception e) {
+                        return null;
+                      }
+                    })
+                .orElse(null);
+          } catch (Exception e) {
+            return null;
+          }
+        });
+  }
+
+  private final ObjectKey key;
+  private final Supplier<Map<TopicPartition, Long>> lags;
+  private final AtomicLong lastLagUpdate = new AtomicLong(0);
+  private final Map<TopicPartition, Counter> lagCounters = new ConcurrentHashMap<>();
+  private final Histogram pollLatency;
+  private final Histogram recordsPerPoll;
+  private final Histogram endToEndLatency;
+
+  private ConsumerMetrics(ObjectKey key, Supplier<Map<TopicPartition, Long>> lags) {
+    this.key = Objects.requireNonNull(key);
+    this.lags = Objects.requireNonNull(lags);
+    this.pollLatency =
+        Histogram.builder()
+            .key(key)
+            .item("poll.latency")
+            .unit("ms")
+            .document("time spent in polling data")
+            .register();
+    this.recordsPerPoll =
+        Histogram.builder()
+            .key(key)
+            .item("records.per.poll")
+            .unit("records")
+            .document("number of records returned by a poll")
+            .register();
+    this.endToEndLatency =
+        Histogram.builder()
+            .key(key)
+            .item("end.to.end.latency")
+            .unit("ms")
+            .document("time between producing and consuming a record")
+            .register();
+  }
+
+  /**
+   * record a poll.
+   *
+   * @param latency the time (in milliseconds) spent in the poll
+   * @param numberOfRecords the number of polled records
+   */
+  public void poll(long latency, int numberOfRecords) {
+    pollLatency.record(latency);
+    records(numberOfRecords);
+  }
+
+  /**
+   * record the number of polled records. It is used by the caller who can't see the poll (for
+   * example, the sink connector)
+   *
+   * @param numberOfRecords the number of polled records
+   */
+  public void records(int numberOfRecords) {
+    recordsPerPoll.record(numberOfRecords);
+    updateLags();
+  }
+
+  /**
+   * record the end-to-end latency of a record.
+   *
+   * @param timestamp the timestamp of record. the non-positive value is ignored
+   */
+  public void record(long timestamp) {
+    if (timestamp > 0) endToEndLatency.record(CommonUtils.current() - timestamp);
+  }
+
+  private void updateLags() {
+    long last = lastLagUpdate.get();
+    long now = CommonUtils.current();
+    if (now - last < LAG_INTERVAL || !lastLagUpdate.compareAndSet(last, now)) return;
+    Map<TopicPartition, Long> current = lags.get();
+    current.forEach(
+        (tp, lag) ->
+            lagCounters
+                .computeIfAbsent(
+                    tp,
+                    ignored ->
+                        Counter.builder()
+                            .key(key)
+                            .item("lag." + tp.topicKey().topicNameOnKafka() + "." + tp.partition())
+                            .unit("records")
+                            .document("number of records which are not consumed yet")
+                            .register())
+                .setAndGet(lag));
+    // the partitions are revoked
+    lagCounters.keySet().stream()
+        .filter(tp -> !current.containsKey(tp))
+        .collect(Collectors.toUnmodifiableList())
+        .forEach(tp -> Releasable.close(lagCounters.remove(tp)));
+  }
+
+  @Override
+  protected void doClose() {
+    Releasable.close(pollLatency);
+    Releasable.close(recordsPerPoll);
+    Releasable.close(endToEndLatency);
+    lagCounters.values().forEach(Counter::close);
+    lagCounters.clear();
+  }
+}
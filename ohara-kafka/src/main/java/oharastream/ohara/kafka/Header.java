@@ -16,13 +16,148 @@
 
 package oharastream.ohara.kafka;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import oharastream.ohara.common.setting.ObjectKey;
+import oharastream.ohara.common.util.ByteUtils;
 
 public class Header {
   public static final String SOURCE_CLASS_KEY = "SOURCE_CLASS";
   public static final String SOURCE_KEY_KEY = "SOURCE_KEY";
 
+  /**
+   * the compact form of {@link #SOURCE_KEY_KEY}. The value is the varint of {@link
+   * #sourceId(ObjectKey)} and it can be resolved back to the key by {@link #sourceKey(byte[])} or
+   * {@link #sourceKey(byte[], Collection)}.
+   */
+  public static final String SOURCE_ID_KEY = "SOURCE_ID";
+
+  /** the headers added to the records generated by source connectors. */
+  public enum Format {
+    /** the source class and the json string of source key. It is readable to all consumers. */
+    FULL,
+    /** the numeric id of source key only. It saves the bytes of small records. */
+    COMPACT
+  }
+
+  /** the source key and the number of registrations. the tasks of a source share the key. */
+  private static final class Registration {
+    private final ObjectKey key;
+    private int count = 1;
+
+    private Registration(ObjectKey key) {
+      this.key = key;
+    }
+  }
+
+  /** the source keys registered by this process. the key is the source id. */
+  private static final Map<Integer, Registration> SOURCE_KEYS = new ConcurrentHashMap<>();
+
+  /**
+   * the source id is the positive crc32 of the group and name so all processes generate the same id
+   * for the same key without coordination.
+   *
+   * @param key source key
+   * @return source id
+   */
+  public static int sourceId(ObjectKey key) {
+    CRC32 crc = new CRC32();
+    crc.update(key.group().getBytes(StandardCharsets.UTF_8));
+    // the zero byte separates group from name so "a" + "bc" is different from "ab" + "c"
+    crc.update(0);
+    crc.update(key.name().getBytes(StandardCharsets.UTF_8));
+    return (int) (crc.getValue() & Integer.MAX_VALUE);
+  }
+
+  /**
+   * register the source key to this process. The source should call this method once and then put
+   * the returned bytes to all records. The registration is counted so the tasks of same source can
+   * register the key repeatedly, and each of them should call {@link #unregister(ObjectKey)} when
+   * it is stopped.
+   *
+   * @param key source key
+   * @return the value of {@link #SOURCE_ID_KEY}
+   * @throws IllegalArgumentException if the source id is used by another registered key
+   */
+  public static byte[] register(ObjectKey key) {
+    int id = sourceId(key);
+    SOURCE_KEYS.compute(
+        id,
+        (i, registration) -> {
+          if (registration == null) return new Registration(key);
+          if (!registration.key.equals(key))
+            throw new IllegalArgumentException(
+                "the source id of "
+                    + key
+                    + " conflicts with "
+                    + registration.key
+                    + ". Please use the "
+                    + Format.FULL
+                    + " header instead");
+          registration.count += 1;
+          return registration;
+        });
+    return ByteUtils.toVarBytes(id);
+  }
+
+  /**
+   * remove the registration of source key. The key is removed from this process if all
+   * registrations are removed.
+   *
+   * @param key source key
+   */
+  public static void unregister(ObjectKey key) {
+    SOURCE_KEYS.computeIfPresent(
+        sourceId(key),
+        (i, registration) -> {
+          if (!registration.key.equals(key)) return registration;
+          registration.count -= 1;
+          return registration.count == 0 ? null : registration;
+        });
+  }
+
+  /**
+   * resolve the source key registered by this process.
+   *
+   * @param value the value of {@link #SOURCE_ID_KEY}
+   * @return source key or empty if the id is not registered by this process
+   */
+  public static Optional<ObjectKey> sourceKey(byte[] value) {
+    return Optional.ofNullable(SOURCE_KEYS.get((int) ByteUtils.toVarLong(value)))
+        .map(registration -> registration.key);
+  }
+
+  /**
+   * resolve the source key from the candidates. It is useful to the readers which know all source
+   * keys (for example, configurator) but they don't run in the process of sources. The candidates
+   * take precedence over the keys registered by this process.
+   *
+   * @param value the value of {@link #SOURCE_ID_KEY}
+   * @param candidates the source keys
+   * @return source key or empty if there is no matched key or the id is shared by many candidates
+   */
+  public static Optional<ObjectKey> sourceKey(
+      byte[] value, Collection<? extends ObjectKey> candidates) {
+    int id = (int) ByteUtils.toVarLong(value);
+    List<ObjectKey> matched =
+        candidates.stream()
+            .filter(k -> sourceId(k) == id)
+            .map(k -> (ObjectKey) k)
+            .distinct()
+            .collect(Collectors.toUnmodifiableList());
+    if (matched.size() == 1) return Optional.of(matched.get(0));
+    if (matched.size() > 1) return Optional.empty();
+    return sourceKey(value);
+  }
+
   private final String key;
   private final byte[] value;
 
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import oharastream.ohara.common.data.Row;
+import oharastream.ohara.common.setting.SettingDef;
+import oharastream.ohara.common.setting.TopicKey;
+import oharastream.ohara.common.setting.WithDefinitions;
+import oharastream.ohara.kafka.connector.json.StringList;
+
+/**
+ * a partitioner hashing the values of selected columns. The rows having same values of those
+ * columns are sent to same partition so the order of them is kept. The columns are defined by
+ * {@link #KEY_COLUMNS_DEFINITION}. If no column is defined, the default partitioner is used.
+ *
+ * <p>Noted: the partitioner sees the key of record. Under {@link RecordLayout#VALUE}, the key
+ * consists of the key columns of record layout only, so the columns which are not key columns are
+ * hashed as missing.
+ */
+public class KeyColumnPartitioner extends RowPartitioner {
+  /** the key seen by producer. */
+  public static final String KEY_COLUMNS_KEY = "partitioner.key.columns";
+
+  public static final SettingDef KEY_COLUMNS_DEFINITION =
+      SettingDef.builder()
+          .displayName("key columns")
+          .key(PRODUCER_OVERRIDE_PREFIX + KEY_COLUMNS_KEY)
+          .documentation("the columns used to calculate the partition of row")
+          .optional(SettingDef.Type.ARRAY)
+          .build();
+
+  private List<String> keyColumns = List.of();
+
+  @Override
+  protected void init(Map<String, ?> configs) {
+    Object value = configs.get(KEY_COLUMNS_KEY);
+    if (value == null) return;
+    String columns = value.toString().trim();
+    // the value is json array if it is passed through connector settings
+    keyColumns =
+        List.copyOf(
+            columns.startsWith("[") ? StringList.ofJson(columns) : StringList.ofKafkaList(columns));
+  }
+
+  @Override
+  public Optional<Integer> partition(
+      TopicKey topicKey, Row row, byte[] serializedRow, Cluster cluster) {
+    if (keyColumns.isEmpty()) return Optional.empty();
+    int numberOfPartitions = cluster.partitionInfos(topicKey).size();
+    if (numberOfPartitions == 0) return Optional.empty();
+    int hash = 1;
+    for (String name : keyColumns) hash = 31 * hash + hash(row, name);
+    // spread the high bits to low bits since the number of partitions is usually small
+    return Optional.of(Math.floorMod(hash ^ (hash >>> 16), numberOfPartitions));
+  }
+
+  private static int hash(Row row, String name) {
+    Object value;
+    try {
+      value = row.cell(name).value();
+    } catch (NoSuchElementException e) {
+      return 0;
+    }
+    if (value instanceof byte[]) return Arrays.hashCode((byte[]) value);
+    return value == null ? 0 : value.hashCode();
+  }
+
+  @Override
+  public Map<String, SettingDef> settingDefinitions() {
+    return WithDefinitions.merge(
+        this, Map.of(), Map.of(KEY_COLUMNS_DEFINITION.key(), KEY_COLUMNS_DEFINITION));
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import oharastream.ohara.common.annotations.VisibleForTesting;
+import oharastream.ohara.common.data.Row;
+import oharastream.ohara.common.setting.TopicKey;
+import oharastream.ohara.common.util.CommonUtils;
+
+/**
+ * a partitioner choosing the partition having the lowest load. The load of a partition is the
+ * number of rows sent to it by this partitioner, and it is weighted by the state of partition:
+ *
+ * <ul>
+ *   <li>the partitions led by a busy broker (which leads more partitions) are weighted higher
+ *   <li>the under-replicated partitions are weighted higher
+ *   <li>the partitions having no leader are skipped
+ * </ul>
+ *
+ * <p>The number of rows decays by half every 10 seconds so the load reflects the recent
+ * rows. A new partition, or a partition getting back its leader, starts from the lowest load of
+ * other partitions. Otherwise, it would get all rows until it catches up with the others.
+ *
+ * <p>Noted: the broker lag is not available to producer so the weight is calculated by the
+ * metadata carried by {@link Cluster}.
+ */
+public class LoadAwarePartitioner extends RowPartitioner {
+  @VisibleForTesting static final Duration HALF_LIFE = Duration.ofSeconds(10);
+
+  /** the decay is skipped if the elapsed time is shorter than this interval. */
+  private static final long DECAY_INTERVAL = 100;
+
+  private final Map<TopicKey, Loads> loads = new ConcurrentHashMap<>();
+
+  @Override
+  protected Optional<Integer> partition(
+      TopicKey topicKey, Supplier<Row> row, byte[] serializedRow, Cluster cluster) {
+    // the row is not decoded since this partitioner ignores the content of rows
+    List<PartitionInfo> partitionInfos = cluster.partitionInfos(topicKey);
+    if (partitionInfos.isEmpty()) return Optional.empty();
+    return loads
+        .computeIfAbsent(topicKey, k -> new Loads())
+        .choose(cluster, partitionInfos, current());
+  }
+
+  @VisibleForTesting
+  long current() {
+    return CommonUtils.current();
+  }
+
+  private static double weight(Cluster cluster, PartitionInfo info) {
+    // the number of partitions led by the leader
+    double weight =
+        Math.max(1, cluster.partitionsByNode().getOrDefault(info.leader(), List.of()).size());
+    if (info.inSyncReplicas().size() < info.replicas().size()) weight *= 2;
+    return weight;
+  }
+
+  /** the decayed number of rows sent to each partition of a topic. */
+  private static final class Loads {
+    /** indexed by partition id. NaN means the partition is new or has no leader. */
+    private double[] values = new double[0];
+
+    private long lastDecay = -1;
+
+    synchronized Optional<Integer> choose(
+        Cluster cluster, List<PartitionInfo> partitionInfos, long now) {
+      int maxId = partitionInfos.stream().mapToInt(PartitionInfo::id).max().orElse(-1);
+      if (values.length <= maxId) {
+        int length = values.length;
+        values = Arrays.copyOf(values, maxId + 1);
+        Arrays.fill(values, length, values.length, Double.NaN);
+      }
+      decay(now);
+      double lowest = Double.MAX_VALUE;
+      for (PartitionInfo info : partitionInfos) {
+        // the partition is seeded again when it gets back the leader
+        if (info.leader() == null) values[info.id()] = Double.NaN;
+        else if (!Double.isNaN(values[info.id()])) lowest = Math.min(lowest, values[info.id()]);
+      }
+      double seed = lowest == Double.MAX_VALUE ? 0 : lowest;
+      int partition = -1;
+      double minLoad = Double.MAX_VALUE;
+      for (PartitionInfo info : partitionInfos) {
+        if (info.leader() == null) continue;
+        if (Double.isNaN(values[info.id()])) values[info.id()] = seed;
+        double load = (values[info.id()] + 1) * weight(cluster, info);
+        if (load < minLoad) {
+          minLoad = load;
+          partition = info.id();
+        }
+      }
+      if (partition < 0) return Optional.empty();
+      values[partition] += 1;
+      return Optional.of(partition);
+    }
+
+    private void decay(long now) {
+      if (lastDecay < 0) lastDecay = now;
+      long elapsed = now - lastDecay;
+      if (elapsed < DECAY_INTERVAL) return;
+      double factor = Math.pow(0.5, (double) elapsed / HALF_LIFE.toMillis());
+      // NaN is kept
+      for (int i = 0; i != values.length; ++i) values[i] *= factor;
+      lastDecay = now;
+    }
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+import oharastream.ohara.kafka.connector.TopicPartition;
+
+/**
+ * track the offsets dispatched to workers. Only the offsets which are contiguous and done can be
+ * committed. For example, if the offsets 0, 1 and 2 are dispatched and only 0 and 2 are done, the
+ * committable offset is 1 (the next record to read).
+ *
+ * <p>Noted: only {@link #done(TopicPartition, long)} can be called by many threads. Other methods
+ * must be called by the same thread (the poller).
+ */
+class OffsetTracker {
+  private static class State {
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    private long next = -1;
+    private long committed = -1;
+  }
+
+  private final Map<TopicPartition, State> states = new ConcurrentHashMap<>();
+
+  void dispatch(TopicPartition partition, long offset) {
+    State state = states.computeIfAbsent(partition, p -> new State());
+    state.inFlight.add(offset);
+    state.next = Math.max(state.next, offset + 1);
+  }
+
+  void done(TopicPartition partition, long offset) {
+    State state = states.get(partition);
+    if (state != null) state.inFlight.remove(offset);
+  }
+
+  /**
+   * @param partition partition
+   * @return the number of offsets which are dispatched but not done
+   */
+  int inFlight(TopicPartition partition) {
+    State state = states.get(partition);
+    return state == null ? 0 : state.inFlight.size();
+  }
+
+  /** @return the number of offsets which are dispatched but not done */
+  int inFlight() {
+    return states.values().stream().mapToInt(s -> s.inFlight.size()).sum();
+  }
+
+  /** @return the offsets (the next record to read) which are not committed yet */
+  Map<TopicPartition, Long> committable() {
+    return states.entrySet().stream()
+        .map(
+            e -> {
+              State state = e.getValue();
+              // the smallest in-flight offset is the first record which is not done
+              Long min = state.inFlight.ceiling(Long.MIN_VALUE);
+              long offset = min == null ? state.next : min;
+              return offset <= state.committed ? null : Map.entry(e.getKey(), offset);
+            })
+        .filter(Objects::nonNull)
+        .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+  }
+
+  /**
+   * mark the offsets as committed.
+   *
+   * @param offsets committed offsets
+   */
+  void committed(Map<TopicPartition, Long> offsets) {
+    offsets.forEach(
+        (partition, offset) -> {
+          State state = states.get(partition);
+          if (state != null) state.committed = Math.max(state.committed, offset);
+        });
+  }
+
+  /**
+   * remove the partitions which are no longer assigned. The in-flight offsets of them are dropped.
+   *
+   * @param assignment current assignment
+   */
+  void retain(Set<TopicPartition> assignment) {
+    states.keySet().retainAll(assignment);
+  }
+}
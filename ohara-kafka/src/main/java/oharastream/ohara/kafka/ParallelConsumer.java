@@ -0,0 +1,390 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import oharastream.ohara.common.annotations.Optional;
+import oharastream.ohara.common.data.Serializer;
+import oharastream.ohara.common.setting.TopicKey;
+import oharastream.ohara.common.util.CommonUtils;
+import oharastream.ohara.common.util.Releasable;
+import oharastream.ohara.kafka.connector.TopicPartition;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * a consumer which processes the records by a pool of workers. A single thread polls the records
+ * and hands them to the workers. The records having same partition (or same key if {@link
+ * Builder#orderByKey()} is enabled) are processed by same worker so the order is kept.
+ *
+ * <p>The partition is paused if there are too many records in flight, and it is resumed after the
+ * workers catch up. The offsets are committed only if all previous records of the partition are
+ * processed, so the records are processed at least once.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public interface ParallelConsumer<K, V> extends Releasable {
+
+  /** @return the number of records which are dispatched but not processed */
+  int inFlight();
+
+  /** @return true if this consumer is closed */
+  boolean closed();
+
+  /**
+   * the poller stops and closes this consumer if it fails to poll the records, for example, the
+   * records are not deserializable.
+   *
+   * @return the exception which breaks the poller, or empty if the poller is not broken
+   */
+  java.util.Optional<Throwable> error();
+
+  static Builder<byte[], byte[]> builder() {
+    return new Builder<>().keySerializer(Serializer.BYTES).valueSerializer(Serializer.BYTES);
+  }
+
+  class Builder<Key, Value>
+      implements oharastream.ohara.common.pattern.Builder<ParallelConsumer<Key, Value>> {
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelConsumer.class);
+    private Set<TopicKey> topicKeys;
+    private String groupId = String.format("ohara-consumer-%s", CommonUtils.randomString());
+    private String connectionProps;
+    private boolean fromBegin = false;
+    private Serializer<?> keySerializer = null;
+    private Serializer<?> valueSerializer = null;
+    private java.util.function.Consumer<Consumer.Record<Key, Value>> processor = null;
+    private BiConsumer<Consumer.Record<Key, Value>, Throwable> exceptionHandler =
+        (record, e) ->
+            LOG.error(
+                "failed to process record of "
+                    + record.topicKey()
+                    + "-"
+                    + record.partition()
+                    + " at offset:"
+                    + record.offset(),
+                e);
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean orderByKey = false;
+    private int maxInFlight = 1000;
+    private Duration pollTimeout = Duration.ofMillis(500);
+    private Duration commitInterval = Duration.ofSeconds(1);
+
+    private Builder() {
+      // do nothing
+    }
+
+    public Builder<Key, Value> topicKey(TopicKey topicKey) {
+      return topicKeys(Set.of(Objects.requireNonNull(topicKey)));
+    }
+
+    public Builder<Key, Value> topicKeys(Set<TopicKey> topicKeys) {
+      this.topicKeys = CommonUtils.requireNonEmpty(topicKeys);
+      return this;
+    }
+
+    @Optional("default is random string")
+    public Builder<Key, Value> groupId(String groupId) {
+      this.groupId = CommonUtils.requireNonEmpty(groupId);
+      return this;
+    }
+
+    public Builder<Key, Value> connectionProps(String connectionProps) {
+      this.connectionProps = CommonUtils.requireNonEmpty(connectionProps);
+      return this;
+    }
+
+    @Optional("default is OffsetResetStrategy.LATEST")
+    public Builder<Key, Value> offsetFromBegin() {
+      this.fromBegin = true;
+      return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <NewKey> Builder<NewKey, Value> keySerializer(Serializer<NewKey> keySerializer) {
+      this.keySerializer = Objects.requireNonNull(keySerializer);
+      return (Builder<NewKey, Value>) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <NewValue> Builder<Key, NewValue> valueSerializer(Serializer<NewValue> valueSerializer) {
+      this.valueSerializer = Objects.requireNonNull(valueSerializer);
+      return (Builder<Key, NewValue>) this;
+    }
+
+    /**
+     * the function processing each record. It is called by the worker threads.
+     *
+     * @param processor processor
+     * @return this builder
+     */
+    public Builder<Key, Value> processor(
+        java.util.function.Consumer<Consumer.Record<Key, Value>> processor) {
+      this.processor = Objects.requireNonNull(processor);
+      return this;
+    }
+
+    /**
+     * handle the exception thrown by processor. The failed record is still marked as processed.
+     *
+     * @param exceptionHandler exception handler
+     * @return this builder
+     */
+    @Optional("default is to log the exception")
+    public Builder<Key, Value> exceptionHandler(
+        BiConsumer<Consumer.Record<Key, Value>, Throwable> exceptionHandler) {
+      this.exceptionHandler = Objects.requireNonNull(exceptionHandler);
+      return this;
+    }
+
+    @Optional("default is the number of available processors")
+    public Builder<Key, Value> threads(int threads) {
+      this.threads = CommonUtils.requirePositiveInt(threads);
+      return this;
+    }
+
+    /**
+     * dispatch the records by key rather than partition. The records having same key are still
+     * processed in order, and the records of a partition can be processed by many workers.
+     *
+     * @return this builder
+     */
+    @Optional("default is to dispatch records by partition")
+    public Builder<Key, Value> orderByKey() {
+      this.orderByKey = true;
+      return this;
+    }
+
+    /**
+     * the partition is paused if the number of unprocessed records of it is larger than this
+     * value. It is resumed when the number is reduced to half of this value.
+     *
+     * @param maxInFlight max number of unprocessed records per partition
+     * @return this builder
+     */
+    @Optional("default is 1000")
+    public Builder<Key, Value> maxInFlight(int maxInFlight) {
+      this.maxInFlight = CommonUtils.requirePositiveInt(maxInFlight);
+      return this;
+    }
+
+    @Optional("default is 500 ms")
+    public Builder<Key, Value> pollTimeout(Duration pollTimeout) {
+      this.pollTimeout = Objects.requireNonNull(pollTimeout);
+      return this;
+    }
+
+    @Optional("default is 1 second")
+    public Builder<Key, Value> commitInterval(Duration commitInterval) {
+      this.commitInterval = Objects.requireNonNull(commitInterval);
+      return this;
+    }
+
+    private void checkArguments() {
+      CommonUtils.requireNonEmpty(topicKeys);
+      CommonUtils.requireNonEmpty(connectionProps);
+      Objects.requireNonNull(keySerializer);
+      Objects.requireNonNull(valueSerializer);
+      Objects.requireNonNull(processor);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public ParallelConsumer<Key, Value> build() {
+      checkArguments();
+      Consumer.Builder<Key, Value> consumerBuilder =
+          Consumer.builder()
+              .option(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false")
+              .topicKeys(topicKeys)
+              .groupId(groupId)
+              .connectionProps(connectionProps)
+              .keySerializer((Serializer<Key>) keySerializer)
+              .valueSerializer((Serializer<Value>) valueSerializer);
+      if (fromBegin) consumerBuilder.offsetFromBegin();
+      return new Impl<>(this, consumerBuilder.build());
+    }
+
+    private static class Impl<Key, Value> implements ParallelConsumer<Key, Value> {
+      /** the time to wait for the poller to process the in-flight records and then close. */
+      private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(60);
+      /**
+       * the time to wait for all workers. It is shorter than {@link #CLOSE_TIMEOUT} since the
+       * poller has to commit the offsets and close the consumer after the workers are terminated.
+       */
+      private static final Duration WORKERS_TIMEOUT = Duration.ofSeconds(30);
+
+      private final Builder<Key, Value> builder;
+      private final Consumer<Key, Value> consumer;
+      private final OffsetTracker tracker = new OffsetTracker();
+      private final ExecutorService[] workers;
+      private final ExecutorService poller = Executors.newSingleThreadExecutor();
+      private final AtomicBoolean closed = new AtomicBoolean(false);
+      private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+      private Impl(Builder<Key, Value> builder, Consumer<Key, Value> consumer) {
+        this.builder = builder;
+        this.consumer = consumer;
+        this.workers =
+            IntStream.range(0, builder.threads)
+                .mapToObj(i -> Executors.newSingleThreadExecutor())
+                .toArray(ExecutorService[]::new);
+        poller.execute(this::poll);
+      }
+
+      private int worker(Consumer.Record<Key, Value> record) {
+        int hash;
+        if (builder.orderByKey) {
+          Object key = record.key().orElse(null);
+          hash = key instanceof byte[] ? Arrays.hashCode((byte[]) key) : Objects.hashCode(key);
+        } else hash = Objects.hash(record.topicKey(), record.partition());
+        return Math.floorMod(hash, workers.length);
+      }
+
+      private void poll() {
+        long lastCommit = CommonUtils.current();
+        try {
+          while (!closed.get()) {
+            Consumer.Records<Key, Value> records = consumer.pollRecords(builder.pollTimeout);
+            Set<TopicPartition> busy = new HashSet<>();
+            for (Consumer.Record<Key, Value> record : records) {
+              TopicPartition partition =
+                  new TopicPartition(record.topicKey(), record.partition());
+              tracker.dispatch(partition, record.offset());
+              workers[worker(record)].execute(() -> process(partition, record));
+              if (tracker.inFlight(partition) > builder.maxInFlight) busy.add(partition);
+            }
+            if (!busy.isEmpty()) consumer.pause(busy);
+            Set<TopicPartition> idle =
+                consumer.paused().stream()
+                    .filter(p -> tracker.inFlight(p) <= builder.maxInFlight / 2)
+                    .collect(Collectors.toUnmodifiableSet());
+            if (!idle.isEmpty()) consumer.resume(idle);
+            if (CommonUtils.current() - lastCommit >= builder.commitInterval.toMillis()) {
+              commit();
+              lastCommit = CommonUtils.current();
+            }
+          }
+        } catch (Throwable e) {
+          LOG.error("the poller of parallel consumer is broken", e);
+          error.set(e);
+        } finally {
+          closed.set(true);
+          awaitWorkers();
+          commit();
+          Releasable.close(consumer);
+          // the poller stops by itself if it is broken
+          poller.shutdown();
+        }
+      }
+
+      /** wait for all workers by a shared deadline. The workers exceeding it are interrupted. */
+      private void awaitWorkers() {
+        Arrays.stream(workers).forEach(ExecutorService::shutdown);
+        long deadline = CommonUtils.current() + WORKERS_TIMEOUT.toMillis();
+        try {
+          for (ExecutorService worker : workers)
+            worker.awaitTermination(
+                Math.max(0, deadline - CommonUtils.current()), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        long unterminated = Arrays.stream(workers).filter(w -> !w.isTerminated()).count();
+        if (unterminated > 0) {
+          LOG.warn(
+              unterminated
+                  + " workers of parallel consumer are not terminated in "
+                  + WORKERS_TIMEOUT.toSeconds()
+                  + " seconds");
+          Arrays.stream(workers).forEach(ExecutorService::shutdownNow);
+        }
+      }
+
+      private void process(TopicPartition partition, Consumer.Record<Key, Value> record) {
+        try {
+          builder.processor.accept(record);
+        } catch (Throwable e) {
+          builder.exceptionHandler.accept(record, e);
+        } finally {
+          tracker.done(partition, record.offset());
+        }
+      }
+
+      private void commit() {
+        try {
+          // the revoked partitions can't be committed by this consumer
+          tracker.retain(consumer.assignment());
+          Map<TopicPartition, Long> offsets = tracker.committable();
+          if (!offsets.isEmpty()) {
+            consumer.commit(offsets);
+            tracker.committed(offsets);
+          }
+        } catch (Throwable e) {
+          // the offsets will be committed again in next round
+          LOG.warn("failed to commit the offsets", e);
+        }
+      }
+
+      @Override
+      public int inFlight() {
+        return tracker.inFlight();
+      }
+
+      @Override
+      public boolean closed() {
+        return closed.get() && poller.isTerminated();
+      }
+
+      @Override
+      public java.util.Optional<Throwable> error() {
+        return java.util.Optional.ofNullable(error.get());
+      }
+
+      /**
+       * the poller is stopped after current poll is completed. It also waits for the broken poller
+       * to release the resources.
+       */
+      @Override
+      public void close() {
+        closed.set(true);
+        poller.shutdown();
+        try {
+          if (!poller.awaitTermination(CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS))
+            LOG.warn(
+                "the poller of parallel consumer is not terminated in "
+                    + CLOSE_TIMEOUT.toSeconds()
+                    + " seconds");
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+}
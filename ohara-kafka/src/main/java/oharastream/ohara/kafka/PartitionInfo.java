@@ -32,7 +32,10 @@ public final class PartitionInfo {
   public static PartitionInfo of(org.apache.kafka.common.PartitionInfo partitionInfo) {
     return new PartitionInfo(
         partitionInfo.partition(),
-        PartitionNode.of(partitionInfo.leader()),
+        // the leader is null (or an empty node) if the partition is offline
+        partitionInfo.leader() == null || partitionInfo.leader().isEmpty()
+            ? null
+            : PartitionNode.of(partitionInfo.leader()),
         Stream.of(partitionInfo.replicas())
             .map(PartitionNode::of)
             .collect(Collectors.toUnmodifiableList()),
@@ -69,6 +72,7 @@ public final class PartitionInfo {
     return id;
   }
 
+  /** @return the leader of this partition. Or null if the partition is offline */
   public PartitionNode leader() {
     return leader;
   }
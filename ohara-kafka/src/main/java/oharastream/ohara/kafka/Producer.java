@@ -16,11 +16,17 @@
 
 package oharastream.ohara.kafka;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import oharastream.ohara.common.annotations.Optional;
 import oharastream.ohara.common.annotations.VisibleForTesting;
@@ -28,7 +34,9 @@ import oharastream.ohara.common.data.Serializer;
 import oharastream.ohara.common.setting.TopicKey;
 import oharastream.ohara.common.util.CommonUtils;
 import oharastream.ohara.common.util.Releasable;
+import oharastream.ohara.kafka.connector.TopicPartition;
 import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
@@ -48,9 +56,44 @@ public interface Producer<Key, Value> extends Releasable {
    */
   Sender<Key, Value> sender();
 
+  /**
+   * create a sender used to send many records to brokers. All records in the batch share a single
+   * future, and the headers are converted once for the whole batch.
+   *
+   * @return a batch sender
+   */
+  BatchSender<Key, Value> batchSender();
+
   /** flush all on-the-flight data. */
   void flush();
 
+  /**
+   * start a transaction. All records sent before {@link #commitTransaction()} or {@link
+   * #abortTransaction()} are in the same transaction. The producer must be built by {@link
+   * Builder#transactional(String)}. Otherwise, IllegalStateException is thrown.
+   */
+  void beginTransaction();
+
+  /**
+   * commit the current transaction. It flushes all on-the-flight data before committing. If it
+   * fails with a recoverable error, the caller should call {@link #abortTransaction()} and then
+   * retry the whole transaction.
+   */
+  void commitTransaction();
+
+  /**
+   * send the consumed offsets of a consume-transform-produce loop and then commit the current
+   * transaction. The offsets of a whole batch are sent by single request so the offsets and the
+   * output records are committed atomically. Noted: the offset is the next record to read.
+   *
+   * @param offsets partitions and offsets consumed in this transaction
+   * @param groupId the group id of consumer
+   */
+  void commitTransaction(Map<TopicPartition, Long> offsets, String groupId);
+
+  /** abort the current transaction. The records sent in this transaction are discarded. */
+  void abortTransaction();
+
   static Builder<byte[], byte[]> builder() {
     return new Builder<>().keySerializer(Serializer.BYTES).valueSerializer(Serializer.BYTES);
   }
@@ -63,6 +106,11 @@ public interface Producer<Key, Value> extends Releasable {
     private short numberOfAcks = 1;
     private Serializer<?> keySerializer = null;
     private Serializer<?> valueSerializer = null;
+    private Duration linger = null;
+    private Integer batchSize = null;
+    private CompressionType compressionType = null;
+    private boolean idempotent = false;
+    private String transactionalId = null;
 
     private Builder() {
       // no nothing
@@ -96,6 +144,75 @@ public interface Producer<Key, Value> extends Releasable {
       return this;
     }
 
+    /**
+     * the time to wait for more records before sending a batch to brokers.
+     *
+     * @param linger linger time
+     * @return this builder
+     */
+    @Optional("default is kafka default (0 ms)")
+    public Builder<Key, Value> linger(Duration linger) {
+      this.linger = Objects.requireNonNull(linger);
+      return this;
+    }
+
+    /**
+     * the upper bound of bytes in a batch per partition.
+     *
+     * @param batchSize batch size in bytes
+     * @return this builder
+     */
+    @Optional("default is kafka default (16 KB)")
+    public Builder<Key, Value> batchSize(int batchSize) {
+      this.batchSize = CommonUtils.requirePositiveInt(batchSize);
+      return this;
+    }
+
+    @Optional("default is kafka default (NONE)")
+    public Builder<Key, Value> compressionType(CompressionType compressionType) {
+      this.compressionType = Objects.requireNonNull(compressionType);
+      return this;
+    }
+
+    /**
+     * the preset for bulk producers. It trades a bit of latency for throughput by collecting the
+     * records into larger compressed batches.
+     *
+     * @return this builder
+     */
+    @Optional("default is kafka default")
+    public Builder<Key, Value> highThroughput() {
+      return linger(Duration.ofMillis(20))
+          .batchSize(256 * 1024)
+          .compressionType(CompressionType.LZ4);
+    }
+
+    /**
+     * enable the idempotent producer so the retries don't produce duplicate records. It requires
+     * all acks, and the ordering is kept since the in-flight requests are limited by kafka.
+     *
+     * @return this builder
+     */
+    @Optional("default is disabled")
+    public Builder<Key, Value> idempotent() {
+      this.idempotent = true;
+      return allAcks();
+    }
+
+    /**
+     * enable the transactional producer. It implies {@link #idempotent()}. The transactional id
+     * must be unique and stable across restarts for each producer instance. For example, the
+     * producers of a consume-transform-produce loop can use "{app}-{input partition}".
+     *
+     * @param transactionalId transactional id
+     * @return this builder
+     */
+    @Optional("default is non-transactional")
+    public Builder<Key, Value> transactional(String transactionalId) {
+      this.transactionalId = CommonUtils.requireNonEmpty(transactionalId);
+      return idempotent();
+    }
+
     @SuppressWarnings("unchecked")
     public <NewKey> Builder<NewKey, Value> keySerializer(Serializer<NewKey> keySerializer) {
       this.keySerializer = Objects.requireNonNull(keySerializer);
@@ -142,6 +259,8 @@ public interface Producer<Key, Value> extends Releasable {
       CommonUtils.requireNonEmpty(connectionProps);
       Objects.requireNonNull(keySerializer);
       Objects.requireNonNull(valueSerializer);
+      if (idempotent && numberOfAcks != -1)
+        throw new IllegalArgumentException("the idempotent producer requires all acks");
     }
 
     @SuppressWarnings("unchecked")
@@ -156,6 +275,15 @@ public interface Producer<Key, Value> extends Releasable {
           options.forEach(props::setProperty);
           props.setProperty(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG, connectionProps);
           props.setProperty(ProducerConfig.ACKS_CONFIG, String.valueOf(numberOfAcks));
+          if (linger != null)
+            props.setProperty(ProducerConfig.LINGER_MS_CONFIG, String.valueOf(linger.toMillis()));
+          if (batchSize != null)
+            props.setProperty(ProducerConfig.BATCH_SIZE_CONFIG, String.valueOf(batchSize));
+          if (compressionType != null)
+            props.setProperty(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType.kafkaName());
+          if (idempotent) props.setProperty(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "true");
+          if (transactionalId != null)
+            props.setProperty(ProducerConfig.TRANSACTIONAL_ID_CONFIG, transactionalId);
           return props;
         }
 
@@ -165,6 +293,18 @@ public interface Producer<Key, Value> extends Releasable {
                 wrap((Serializer<Key>) keySerializer),
                 wrap((Serializer<Value>) valueSerializer));
 
+        {
+          // it fences the zombie producers having the same transactional id
+          if (transactionalId != null) {
+            try {
+              producer.initTransactions();
+            } catch (RuntimeException e) {
+              producer.close();
+              throw e;
+            }
+          }
+        }
+
         @Override
         public final Sender<Key, Value> sender() {
           return new Sender<Key, Value>() {
@@ -201,11 +341,71 @@ public interface Producer<Key, Value> extends Releasable {
           };
         }
 
+        @Override
+        public final BatchSender<Key, Value> batchSender() {
+          return new BatchSender<Key, Value>() {
+            @Override
+            protected CompletableFuture<BatchMetadata> doSend() {
+              List<org.apache.kafka.common.header.Header> kafkaHeaders =
+                  headers.stream()
+                      .map(Builder.this::toKafkaHeader)
+                      .collect(Collectors.toUnmodifiableList());
+              BatchCallback callback = new BatchCallback(keys.size() * topicKeys.size());
+              for (TopicKey topicKey : topicKeys) {
+                String topicName = topicKey.topicNameOnKafka();
+                for (int i = 0; i != keys.size(); ++i) {
+                  int index = i;
+                  try {
+                    producer.send(
+                        new ProducerRecord<>(
+                            topicName, null, null, keys.get(i), values.get(i), kafkaHeaders),
+                        (metadata, exception) -> callback.complete(index, metadata, exception));
+                  } catch (Exception e) {
+                    callback.complete(index, null, e);
+                  }
+                }
+              }
+              return callback.future;
+            }
+          };
+        }
+
         @Override
         public void flush() {
           producer.flush();
         }
 
+        @Override
+        public void beginTransaction() {
+          producer.beginTransaction();
+        }
+
+        @Override
+        public void commitTransaction() {
+          producer.commitTransaction();
+        }
+
+        @Override
+        public void commitTransaction(Map<TopicPartition, Long> offsets, String groupId) {
+          if (!offsets.isEmpty())
+            producer.sendOffsetsToTransaction(
+                offsets.entrySet().stream()
+                    .collect(
+                        Collectors.toUnmodifiableMap(
+                            e ->
+                                new org.apache.kafka.common.TopicPartition(
+                                    e.getKey().topicKey().topicNameOnKafka(),
+                                    e.getKey().partition()),
+                            e -> new OffsetAndMetadata(e.getValue()))),
+                CommonUtils.requireNonEmpty(groupId));
+          producer.commitTransaction();
+        }
+
+        @Override
+        public void abortTransaction() {
+          producer.abortTransaction();
+        }
+
         @Override
         public void close() {
           producer.close();
@@ -213,6 +413,40 @@ public interface Producer<Key, Value> extends Releasable {
       };
     }
 
+    /** aggregate the callbacks of a batch to a single future. */
+    private static class BatchCallback {
+      private final CompletableFuture<BatchMetadata> future = new CompletableFuture<>();
+      private final AtomicInteger remaining;
+      private final AtomicInteger records = new AtomicInteger();
+      private final AtomicLong bytes = new AtomicLong();
+      private final Map<Integer, Exception> exceptions = new ConcurrentHashMap<>();
+
+      private BatchCallback(int count) {
+        this.remaining = new AtomicInteger(count);
+        if (count == 0) future.complete(new BatchMetadata(0, 0, Map.of()));
+      }
+
+      private void complete(
+          int index,
+          org.apache.kafka.clients.producer.RecordMetadata metadata,
+          Exception exception) {
+        if (exception != null) exceptions.putIfAbsent(index, exception);
+        else if (metadata == null)
+          exceptions.putIfAbsent(
+              index,
+              new IllegalStateException(
+                  "no meta and exception from kafka producer...It should be impossible"));
+        else {
+          records.incrementAndGet();
+          bytes.addAndGet(
+              Math.max(0, metadata.serializedKeySize())
+                  + Math.max(0, metadata.serializedValueSize()));
+        }
+        if (remaining.decrementAndGet() == 0)
+          future.complete(new BatchMetadata(records.get(), bytes.get(), exceptions));
+      }
+    }
+
     private org.apache.kafka.common.header.Header toKafkaHeader(Header header) {
       return new org.apache.kafka.common.header.Header() {
         @Override
@@ -304,4 +538,94 @@ public interface Producer<Key, Value> extends Releasable {
 
     protected abstract CompletableFuture<RecordMetadata> doSend();
   }
+
+  /**
+   * a fluent-style sender used to send many records. Each record is sent to all specified topics.
+   * The returned future is completed when all records are acked or failed, and the failed records
+   * can be found by {@link BatchMetadata#failedIndexes()}.
+   */
+  abstract class BatchSender<Key, Value> {
+    protected List<TopicKey> topicKeys = List.of();
+    protected List<Header> headers = List.of();
+    protected final List<Key> keys = new ArrayList<>();
+    protected final List<Value> values = new ArrayList<>();
+
+    @VisibleForTesting
+    BatchSender() {
+      // do nothing
+    }
+
+    @Optional("default is empty")
+    public BatchSender<Key, Value> header(Header header) {
+      return headers(List.of(Objects.requireNonNull(header)));
+    }
+
+    @Optional("default is empty")
+    public BatchSender<Key, Value> headers(List<Header> headers) {
+      this.headers = CommonUtils.requireNonEmpty(headers);
+      return this;
+    }
+
+    public BatchSender<Key, Value> topicKey(TopicKey topicKey) {
+      return topicKeys(List.of(Objects.requireNonNull(topicKey)));
+    }
+
+    public BatchSender<Key, Value> topicKeys(Collection<TopicKey> topicKeys) {
+      this.topicKeys = List.copyOf(CommonUtils.requireNonEmpty(topicKeys));
+      return this;
+    }
+
+    /**
+     * add a record to this batch. Either key or value can be null.
+     *
+     * @param key key
+     * @param value value
+     * @return this sender
+     */
+    public BatchSender<Key, Value> record(Key key, Value value) {
+      keys.add(key);
+      values.add(value);
+      return this;
+    }
+
+    /**
+     * add the records having only key.
+     *
+     * @param newKeys keys
+     * @return this sender
+     */
+    public BatchSender<Key, Value> keys(Collection<? extends Key> newKeys) {
+      newKeys.forEach(key -> record(Objects.requireNonNull(key), null));
+      return this;
+    }
+
+    /**
+     * add the records having only value.
+     *
+     * @param newValues values
+     * @return this sender
+     */
+    public BatchSender<Key, Value> values(Collection<? extends Value> newValues) {
+      newValues.forEach(value -> record(null, Objects.requireNonNull(value)));
+      return this;
+    }
+
+    private void checkArguments() {
+      Objects.requireNonNull(headers);
+      CommonUtils.requireNonEmpty(topicKeys);
+    }
+
+    /**
+     * start to send the records in background. Noted: the future is completed normally even if
+     * some records are failed. You should check the returned metadata.
+     *
+     * @return an async thread processing the batch
+     */
+    public CompletableFuture<BatchMetadata> send() {
+      checkArguments();
+      return doSend();
+    }
+
+    protected abstract CompletableFuture<BatchMetadata> doSend();
+  }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import oharastream.ohara.common.data.Cell;
+import oharastream.ohara.common.data.Row;
+import oharastream.ohara.common.data.RowCodec;
+
+/**
+ * the layout of ohara record in kafka. The readers accept both layouts so the topics written by
+ * different layouts are readable.
+ */
+public enum RecordLayout {
+  /**
+   * the row is stored in the key and the value is empty. It is readable to all ohara versions but
+   * the whole row is hashed by partitioner and compared by log compaction.
+   */
+  KEY,
+  /**
+   * the row is stored in the value and the key consists of the key columns. The key is null if
+   * there is no key column.
+   */
+  VALUE;
+
+  /** the case-insensitive names of layouts. The definitions of layout use it to check the value */
+  public static final String REGEX =
+      Stream.of(values()).map(Enum::name).collect(Collectors.joining("|", "(?i)^(", ")$"));
+
+  /**
+   * @param name the name of layout. It is case-insensitive
+   * @return record layout
+   * @throws IllegalArgumentException if there is no such layout
+   */
+  public static RecordLayout of(String name) {
+    return Stream.of(values())
+        .filter(layout -> layout.name().equalsIgnoreCase(name))
+        .findFirst()
+        .orElseThrow(
+            () ->
+                new IllegalArgumentException(
+                    "the record layout: "
+                        + name
+                        + " is unknown. Use one of "
+                        + Arrays.toString(values())));
+  }
+
+  /**
+   * @param row row
+   * @param keyColumns the names of key columns. It is ignored by {@link #KEY}
+   * @return the row used as the key of record. Or null if there is no key
+   */
+  public Row key(Row row, List<String> keyColumns) {
+    if (this == KEY) return row;
+    if (keyColumns.isEmpty()) return null;
+    Set<String> names = Set.copyOf(row.names());
+    return Row.of(
+        keyColumns.stream()
+            // the row having no such column gets a smaller key
+            .filter(names::contains)
+            .map(row::cell)
+            .toArray(Cell[]::new));
+  }
+
+  /**
+   * the records written by {@link #KEY} have null (or empty) value. The value which does not start
+   * with the version of row is not written by {@link #VALUE} either.
+   *
+   * @param value the value of record
+   * @return true if the value carries the row
+   */
+  public static boolean inValue(byte[] value) {
+    return RowCodec.isRow(value);
+  }
+
+  /**
+   * @param key the key of record
+   * @param value the value of record
+   * @return the serialized row
+   */
+  public static byte[] payload(byte[] key, byte[] value) {
+    return inValue(value) ? value : key;
+  }
+
+  /**
+   * @param key the deserialized key of record
+   * @param value the value of record
+   * @param schema the schema used to read the compact row. It can be null
+   * @return the row. The cells of row in value are decoded on demand
+   */
+  public static Row row(Row key, byte[] value, RowCodec.Schema schema) {
+    return inValue(value) ? RowCodec.view(value, schema) : key;
+  }
+}
@@ -18,7 +18,9 @@ package oharastream.ohara.kafka;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 import oharastream.ohara.common.data.Row;
+import oharastream.ohara.common.data.RowCodec;
 import oharastream.ohara.common.setting.TopicKey;
 import oharastream.ohara.common.setting.WithDefinitions;
 import org.apache.kafka.clients.producer.Partitioner;
@@ -29,11 +31,24 @@ import org.apache.kafka.clients.producer.internals.DefaultPartitioner;
  * define the distribution of data and you can supply the custom balancer strategy.
  *
  * <p>By default, the distribution is calculated by hash.
+ *
+ * <p>The built-in partitioners are {@link KeyColumnPartitioner}, {@link StickyPartitioner} and
+ * {@link LoadAwarePartitioner}. The settings of partitioner are passed to producer with the prefix
+ * "producer.override." (see {@link #PRODUCER_OVERRIDE_PREFIX}).
  */
 public abstract class RowPartitioner implements Partitioner, WithDefinitions {
 
+  /** the prefix used by connector to pass the settings to producer. */
+  public static final String PRODUCER_OVERRIDE_PREFIX = "producer.override.";
+
   private final DefaultPartitioner kafkaDefaultPartitioner = new DefaultPartitioner();
 
+  /**
+   * the conversion of cluster is expensive and the cluster is changed only if the metadata is
+   * updated. Hence, we keep the last conversion.
+   */
+  private volatile Map.Entry<org.apache.kafka.common.Cluster, Cluster> lastCluster = null;
+
   /**
    * Compute the partition for the given record. Noted: if the input data is NOT row, the partition
    * distribution is calculated by default implementation.
@@ -49,6 +64,94 @@ public abstract class RowPartitioner implements Partitioner, WithDefinitions {
     return Optional.empty();
   }
 
+  /**
+   * Compute the partition for the given record. The row is decoded from the serialized row only if
+   * the supplier is called, so the partitioner ignoring the content of rows should override this
+   * method rather than {@link #partition(TopicKey, Row, byte[], Cluster)}. By default, it passes
+   * the decoded row to {@link #partition(TopicKey, Row, byte[], Cluster)}.
+   *
+   * @param topicKey The topic key
+   * @param row supplies the row data. The row is decoded on the first call
+   * @param serializedRow row in bytes array
+   * @param cluster The current cluster metadata
+   * @return the number of partition to store the data. Or empty if you have no idea :)
+   */
+  protected Optional<Integer> partition(
+      TopicKey topicKey, Supplier<Row> row, byte[] serializedRow, Cluster cluster) {
+    return partition(topicKey, row.get(), serializedRow, cluster);
+  }
+
+  /**
+   * initialize this partitioner. It is called once before any record is partitioned.
+   *
+   * @param configs the configs of producer. Noted: the prefix "producer.override." is removed
+   */
+  protected void init(Map<String, ?> configs) {
+    // do nothing
+  }
+
+  /**
+   * Notifies the partitioner a new batch is about to be created. The sticky partitioner can change
+   * the partition when this method is called.
+   *
+   * @param topicKey The topic key
+   * @param cluster The current cluster metadata
+   * @param prevPartition The partition previously selected for the record that triggered a new
+   *     batch
+   */
+  protected void onNewBatch(TopicKey topicKey, Cluster cluster, int prevPartition) {
+    // do nothing
+  }
+
+  /**
+   * the connectors and streams pass the serialized row to producer, so the row is decoded lazily
+   * from the bytes.
+   *
+   * @return row supplier or null if the key is not a row
+   */
+  private static Supplier<Row> toRow(Object key, byte[] keyBytes) {
+    if (key instanceof Row) return () -> (Row) key;
+    if (key instanceof byte[] && RowCodec.isRow(keyBytes)) return new RowDecoder(keyBytes);
+    return null;
+  }
+
+  /** it is thrown by {@link RowDecoder} if the bytes are not a row. */
+  private static final class NotRowException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private NotRowException(Throwable cause) {
+      super(cause);
+    }
+  }
+
+  private static final class RowDecoder implements Supplier<Row> {
+    private final byte[] bytes;
+    private Row row = null;
+
+    private RowDecoder(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    public Row get() {
+      if (row == null)
+        try {
+          row = RowCodec.view(bytes);
+        } catch (RuntimeException e) {
+          throw new NotRowException(e);
+        }
+      return row;
+    }
+  }
+
+  private Cluster cluster(org.apache.kafka.common.Cluster cluster) {
+    Map.Entry<org.apache.kafka.common.Cluster, Cluster> last = lastCluster;
+    if (last != null && last.getKey() == cluster) return last.getValue();
+    Cluster result = Cluster.of(cluster);
+    lastCluster = Map.entry(cluster, result);
+    return result;
+  }
+
   // -----------------------------[wrap]-----------------------------//
 
   @Override
@@ -60,15 +163,17 @@ public abstract class RowPartitioner implements Partitioner, WithDefinitions {
       byte[] valueBytes,
       org.apache.kafka.common.Cluster cluster) {
     // if the input data is NOT ohara's data, we don't pass it to following partitioner.
-    return TopicKey.ofPlain(topic)
-        .flatMap(
-            topicKey ->
-                key instanceof Row ? Optional.of(Map.entry(topicKey, (Row) key)) : Optional.empty())
-        .flatMap(pair -> partition(pair.getKey(), pair.getValue(), keyBytes, Cluster.of(cluster)))
-        .orElseGet(
-            () ->
-                kafkaDefaultPartitioner.partition(
-                    topic, key, keyBytes, value, valueBytes, cluster));
+    Optional<TopicKey> topicKey = TopicKey.ofPlain(topic);
+    Supplier<Row> row = toRow(key, keyBytes);
+    Optional<Integer> partition = Optional.empty();
+    if (topicKey.isPresent() && row != null)
+      try {
+        partition = partition(topicKey.get(), row, keyBytes, cluster(cluster));
+      } catch (NotRowException e) {
+        // it is not a row
+      }
+    return partition.orElseGet(
+        () -> kafkaDefaultPartitioner.partition(topic, key, keyBytes, value, valueBytes, cluster));
   }
 
   // TODO: should we open them to ohara developer ???
@@ -76,6 +181,7 @@ public abstract class RowPartitioner implements Partitioner, WithDefinitions {
   @Override
   public final void configure(Map<String, ?> configs) {
     kafkaDefaultPartitioner.configure(configs);
+    init(configs);
   }
 
   @Override
@@ -87,5 +193,7 @@ public abstract class RowPartitioner implements Partitioner, WithDefinitions {
   public final void onNewBatch(
       String topic, org.apache.kafka.common.Cluster cluster, int prevPartition) {
     kafkaDefaultPartitioner.onNewBatch(topic, cluster, prevPartition);
+    TopicKey.ofPlain(topic)
+        .ifPresent(topicKey -> onNewBatch(topicKey, cluster(cluster), prevPartition));
   }
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import oharastream.ohara.common.annotations.VisibleForTesting;
+import oharastream.ohara.common.setting.TopicKey;
+import oharastream.ohara.common.util.CommonUtils;
+
+/**
+ * a handle of {@link CachedTopicAdmin} shared by all callers connecting to the same brokers. The
+ * shared admin is reference-counted. It is closed if no handle is opened in {@link #IDLE_TIMEOUT}
+ * after the last handle is closed, so the callers opening a handle per request don't recreate the
+ * admin client for each request.
+ */
+final class SharedTopicAdmin implements TopicAdmin {
+  /** the time to keep the shared admin after the last handle is closed. */
+  static final Duration IDLE_TIMEOUT = Duration.ofMinutes(1);
+
+  private static final Map<String, Entry> ADMINS = new HashMap<>();
+
+  private static final ScheduledExecutorService CLOSER =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "shared-topic-admin-closer");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private static class Entry {
+    private final TopicAdmin admin;
+    private int references = 0;
+    // the pending close of idle admin
+    private ScheduledFuture<?> closing = null;
+
+    private Entry(TopicAdmin admin) {
+      this.admin = admin;
+    }
+  }
+
+  static TopicAdmin acquire(String connectionProps) {
+    return acquire(connectionProps, IDLE_TIMEOUT);
+  }
+
+  @VisibleForTesting
+  static TopicAdmin acquire(String connectionProps, Duration idleTimeout) {
+    CommonUtils.requireNonEmpty(connectionProps);
+    CommonUtils.requireNonNegativeLong(idleTimeout.toMillis());
+    synchronized (ADMINS) {
+      Entry entry =
+          ADMINS.computeIfAbsent(
+              connectionProps,
+              props -> new Entry(TopicAdmin.cached(props, DEFAULT_CACHE_TIMEOUT)));
+      if (entry.closing != null) {
+        entry.closing.cancel(false);
+        entry.closing = null;
+      }
+      entry.references += 1;
+      return new SharedTopicAdmin(connectionProps, idleTimeout, entry.admin);
+    }
+  }
+
+  /**
+   * @param connectionProps broker connection
+   * @return true if the shared admin connecting to the brokers is not closed
+   */
+  @VisibleForTesting
+  static boolean alive(String connectionProps) {
+    synchronized (ADMINS) {
+      return ADMINS.containsKey(connectionProps);
+    }
+  }
+
+  private static void release(String connectionProps, Duration idleTimeout) {
+    synchronized (ADMINS) {
+      Entry entry = ADMINS.get(connectionProps);
+      if (entry != null && --entry.references <= 0)
+        entry.closing =
+            CLOSER.schedule(
+                () -> closeIfIdle(connectionProps, entry),
+                idleTimeout.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private static void closeIfIdle(String connectionProps, Entry entry) {
+    TopicAdmin admin = null;
+    synchronized (ADMINS) {
+      // skip if the admin is in use again
+      if (ADMINS.get(connectionProps) == entry && entry.references <= 0) {
+        ADMINS.remove(connectionProps);
+        admin = entry.admin;
+      }
+    }
+    // close the admin outside the lock since it may take a while
+    if (admin != null) admin.close();
+  }
+
+  private final String connectionProps;
+  private final Duration idleTimeout;
+  private final TopicAdmin admin;
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+
+  private SharedTopicAdmin(String connectionProps, Duration idleTimeout, TopicAdmin admin) {
+    this.connectionProps = connectionProps;
+    this.idleTimeout = idleTimeout;
+    this.admin = admin;
+  }
+
+  @Override
+  public TopicCreator topicCreator() {
+    return admin.topicCreator();
+  }
+
+  @Override
+  public CompletionStage<Void> createTopics(Collection<TopicCreator> creators) {
+    return admin.createTopics(creators);
+  }
+
+  @Override
+  public CompletionStage<Boolean> exist(TopicKey key) {
+    return admin.exist(key);
+  }
+
+  @Override
+  public CompletionStage<Set<TopicKey>> topicKeys() {
+    return admin.topicKeys();
+  }
+
+  @Override
+  public CompletionStage<TopicDescription> topicDescription(TopicKey key) {
+    return admin.topicDescription(key);
+  }
+
+  @Override
+  public CompletionStage<Map<TopicKey, TopicDescription>> topicDescriptions(Set<TopicKey> keys) {
+    return admin.topicDescriptions(keys);
+  }
+
+  @Override
+  public CompletionStage<Void> createPartitions(TopicKey key, int numberOfPartitions) {
+    return admin.createPartitions(key, numberOfPartitions);
+  }
+
+  @Override
+  public CompletionStage<Boolean> deleteTopic(TopicKey key) {
+    return admin.deleteTopic(key);
+  }
+
+  @Override
+  public CompletionStage<Set<TopicKey>> deleteTopics(Set<TopicKey> keys) {
+    return admin.deleteTopics(keys);
+  }
+
+  @Override
+  public String connectionProps() {
+    return connectionProps;
+  }
+
+  @Override
+  public CompletionStage<Map<String, Integer>> brokerPorts() {
+    return admin.brokerPorts();
+  }
+
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) release(connectionProps, idleTimeout);
+  }
+
+  @Override
+  public boolean closed() {
+    return closed.get();
+  }
+}
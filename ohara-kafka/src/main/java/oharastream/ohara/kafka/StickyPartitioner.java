@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import oharastream.ohara.common.data.Row;
+import oharastream.ohara.common.setting.TopicKey;
+
+/**
+ * a partitioner sending the rows to the same partition until the batch of the partition is full.
+ * It ignores the content of rows, so it produces larger batches than the hash-based partitioners
+ * when the order of rows does not matter. Only the partitions having leader are chosen.
+ */
+public class StickyPartitioner extends RowPartitioner {
+  private final Map<TopicKey, Integer> stickyPartitions = new ConcurrentHashMap<>();
+
+  @Override
+  protected Optional<Integer> partition(
+      TopicKey topicKey, Supplier<Row> row, byte[] serializedRow, Cluster cluster) {
+    // the row is not decoded since this partitioner ignores the content of rows
+    Integer partition = stickyPartitions.get(topicKey);
+    if (partition != null) return Optional.of(partition);
+    return nextPartition(topicKey, cluster, -1);
+  }
+
+  @Override
+  protected void onNewBatch(TopicKey topicKey, Cluster cluster, int prevPartition) {
+    Integer partition = stickyPartitions.get(topicKey);
+    // skip if the partition has been changed by another thread
+    if (partition == null || partition == prevPartition)
+      nextPartition(topicKey, cluster, prevPartition);
+  }
+
+  private Optional<Integer> nextPartition(TopicKey topicKey, Cluster cluster, int prevPartition) {
+    List<Integer> candidates =
+        cluster.partitionInfos(topicKey).stream()
+            .filter(p -> p.leader() != null)
+            .map(PartitionInfo::id)
+            .collect(Collectors.toUnmodifiableList());
+    if (candidates.isEmpty()) return Optional.empty();
+    int partition = candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+    // don't stick to previous partition if there are other partitions
+    if (partition == prevPartition && candidates.size() > 1)
+      partition = candidates.get((candidates.indexOf(partition) + 1) % candidates.size());
+    stickyPartitions.put(topicKey, partition);
+    return Optional.of(partition);
+  }
+}
@@ -16,9 +16,12 @@
 
 package oharastream.ohara.kafka;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
@@ -32,7 +35,6 @@ import oharastream.ohara.common.util.Releasable;
 import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.NewPartitions;
-import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.common.Node;
@@ -77,6 +79,48 @@ public interface TopicAdmin extends Releasable {
    */
   CompletionStage<TopicDescription> topicDescription(TopicKey key);
 
+  /**
+   * describe the topics existing in kafka. The nonexistent topics are excluded from the returned
+   * map. The default implementation describes the topics one by one so the sub class should
+   * override it to fetch all descriptions by a single request.
+   *
+   * @param keys topic keys
+   * @return topic key and description
+   */
+  default CompletionStage<Map<TopicKey, TopicDescription>> topicDescriptions(Set<TopicKey> keys) {
+    return topicKeys()
+        .thenCompose(
+            existentKeys -> {
+              List<CompletableFuture<TopicDescription>> fs =
+                  keys.stream()
+                      .filter(existentKeys::contains)
+                      .map(key -> topicDescription(key).toCompletableFuture())
+                      .collect(Collectors.toUnmodifiableList());
+              return CompletableFuture.allOf(fs.toArray(CompletableFuture<?>[]::new))
+                  .thenApply(
+                      ignored ->
+                          fs.stream()
+                              .map(CompletableFuture::join)
+                              .collect(
+                                  Collectors.toUnmodifiableMap(
+                                      TopicDescription::topicKey, d -> d)));
+            });
+  }
+
+  /**
+   * create all topics described by the creators. The creators should be generated by {@link
+   * #topicCreator()} and they are NOT executed by this method.
+   *
+   * @param creators topic creators
+   * @return a async callback is tracing the result
+   */
+  default CompletionStage<Void> createTopics(Collection<TopicCreator> creators) {
+    return CompletableFuture.allOf(
+        creators.stream()
+            .map(creator -> creator.create().toCompletableFuture())
+            .toArray(CompletableFuture<?>[]::new));
+  }
+
   /**
    * create new partitions for specified topic
    *
@@ -95,6 +139,31 @@ public interface TopicAdmin extends Releasable {
    */
   CompletionStage<Boolean> deleteTopic(TopicKey key);
 
+  /**
+   * remove topics. The nonexistent topics are ignored.
+   *
+   * @param keys topic keys
+   * @return a async callback is tracing the result. It carries the keys of removed topics
+   */
+  default CompletionStage<Set<TopicKey>> deleteTopics(Set<TopicKey> keys) {
+    List<CompletableFuture<Map.Entry<TopicKey, Boolean>>> fs =
+        keys.stream()
+            .map(
+                key ->
+                    deleteTopic(key)
+                        .thenApply(removed -> Map.entry(key, removed))
+                        .toCompletableFuture())
+            .collect(Collectors.toUnmodifiableList());
+    return CompletableFuture.allOf(fs.toArray(CompletableFuture<?>[]::new))
+        .thenApply(
+            ignored ->
+                fs.stream()
+                    .map(CompletableFuture::join)
+                    .filter(Map.Entry::getValue)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toUnmodifiableSet()));
+  }
+
   /** @return Connection information. form: host:port,host:port */
   String connectionProps();
 
@@ -109,6 +178,37 @@ public interface TopicAdmin extends Releasable {
 
   boolean closed();
 
+  /**
+   * the default timeout of cached topic descriptions. Noted that the offsets of partitions are
+   * changed frequently so the timeout should be short.
+   */
+  Duration DEFAULT_CACHE_TIMEOUT = Duration.ofSeconds(3);
+
+  /**
+   * create a TopicAdmin which caches the topic descriptions. The cached descriptions are
+   * invalidated when the topics are changed by this admin, and they are expired after the timeout.
+   *
+   * @param connectionProps broker connection
+   * @param timeout the time to expire cached descriptions
+   * @return cached TopicAdmin
+   */
+  static TopicAdmin cached(String connectionProps, Duration timeout) {
+    return new CachedTopicAdmin(of(connectionProps), timeout);
+  }
+
+  /**
+   * get a TopicAdmin shared by all callers in this JVM which are connecting to the same brokers.
+   * The shared admin is based on {@link #cached(String, Duration)} and it is closed when all
+   * callers close the returned admins and no admin is requested in a while. Hence, closing the
+   * returned admin is cheap.
+   *
+   * @param connectionProps broker connection
+   * @return a handle of shared TopicAdmin
+   */
+  static TopicAdmin shared(String connectionProps) {
+    return SharedTopicAdmin.acquire(connectionProps);
+  }
+
   static TopicAdmin of(String connectionProps) {
     return new TopicAdmin() {
 
@@ -123,42 +223,49 @@ public interface TopicAdmin extends Releasable {
         try (KafkaConsumer<byte[], byte[]> consumer =
             new KafkaConsumer<>(
                 properties, new ByteArrayDeserializer(), new ByteArrayDeserializer())) {
-          return consumer.listTopics().entrySet().stream()
-              .filter(
-                  entry -> TopicKey.ofPlain(entry.getKey()).map(topicKeys::contains).isPresent())
-              .map(
-                  entry -> {
-                    List<TopicPartition> tps =
-                        entry.getValue().stream()
-                            .map(p -> new TopicPartition(p.topic(), p.partition()))
-                            .collect(Collectors.toUnmodifiableList());
-                    Map<TopicPartition, Long> beginningOffsets = consumer.beginningOffsets(tps);
-                    Map<TopicPartition, Long> endOffsets = consumer.endOffsets(tps);
-                    List<PartitionInfo> ps =
-                        entry.getValue().stream()
-                            .map(
-                                p -> {
-                                  TopicPartition tp = new TopicPartition(p.topic(), p.partition());
-                                  return new PartitionInfo(
-                                      p.partition(),
-                                      PartitionNode.of(p.leader()),
-                                      p.replicas() == null
-                                          ? List.of()
-                                          : Arrays.stream(p.replicas())
-                                              .map(PartitionNode::of)
-                                              .collect(Collectors.toUnmodifiableList()),
-                                      p.inSyncReplicas() == null
-                                          ? List.of()
-                                          : Arrays.stream(p.inSyncReplicas())
-                                              .map(PartitionNode::of)
-                                              .collect(Collectors.toUnmodifiableList()),
-                                      beginningOffsets.getOrDefault(tp, -1L),
-                                      endOffsets.getOrDefault(tp, -1L));
-                                })
-                            .collect(Collectors.toUnmodifiableList());
-                    return Map.entry(TopicKey.requirePlain(entry.getKey()), ps);
-                  })
-              .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+          Map<TopicKey, List<org.apache.kafka.common.PartitionInfo>> partitions =
+              consumer.listTopics().entrySet().stream()
+                  .filter(
+                      entry ->
+                          TopicKey.ofPlain(entry.getKey()).filter(topicKeys::contains).isPresent())
+                  .collect(
+                      Collectors.toUnmodifiableMap(
+                          entry -> TopicKey.requirePlain(entry.getKey()), Map.Entry::getValue));
+          // fetch the offsets of all partitions by single request
+          List<TopicPartition> tps =
+              partitions.values().stream()
+                  .flatMap(List::stream)
+                  .map(p -> new TopicPartition(p.topic(), p.partition()))
+                  .collect(Collectors.toUnmodifiableList());
+          Map<TopicPartition, Long> beginningOffsets = consumer.beginningOffsets(tps);
+          Map<TopicPartition, Long> endOffsets = consumer.endOffsets(tps);
+          return partitions.entrySet().stream()
+              .collect(
+                  Collectors.toUnmodifiableMap(
+                      Map.Entry::getKey,
+                      entry ->
+                          entry.getValue().stream()
+                              .map(
+                                  p -> {
+                                    TopicPartition tp =
+                                        new TopicPartition(p.topic(), p.partition());
+                                    return new PartitionInfo(
+                                        p.partition(),
+                                        PartitionNode.of(p.leader()),
+                                        p.replicas() == null
+                                            ? List.of()
+                                            : Arrays.stream(p.replicas())
+                                                .map(PartitionNode::of)
+                                                .collect(Collectors.toUnmodifiableList()),
+                                        p.inSyncReplicas() == null
+                                            ? List.of()
+                                            : Arrays.stream(p.inSyncReplicas())
+                                                .map(PartitionNode::of)
+                                                .collect(Collectors.toUnmodifiableList()),
+                                        beginningOffsets.getOrDefault(tp, -1L),
+                                        endOffsets.getOrDefault(tp, -1L));
+                                  })
+                              .collect(Collectors.toUnmodifiableList())));
         }
       }
 
@@ -171,27 +278,30 @@ public interface TopicAdmin extends Releasable {
               short numberOfReplications,
               Map<String, String> options,
               TopicKey topicKey) {
-            CompletableFuture<Void> f = new CompletableFuture<>();
-            admin
-                .createTopics(
-                    List.of(
-                        new NewTopic(
-                                topicKey.topicNameOnKafka(),
-                                numberOfPartitions,
-                                numberOfReplications)
-                            .configs(options)))
-                .values()
-                .get(topicKey.topicNameOnKafka())
-                .whenComplete(
-                    (v, exception) -> {
-                      if (exception != null) f.completeExceptionally(exception);
-                      else f.complete(null);
-                    });
-            return f;
+            return createTopics(List.of(this));
           }
         };
       }
 
+      @Override
+      public CompletionStage<Void> createTopics(Collection<TopicCreator> creators) {
+        CompletableFuture<Void> f = new CompletableFuture<>();
+        if (creators.isEmpty()) f.complete(null);
+        else
+          admin
+              .createTopics(
+                  creators.stream()
+                      .map(TopicCreator::newTopic)
+                      .collect(Collectors.toUnmodifiableList()))
+              .all()
+              .whenComplete(
+                  (v, exception) -> {
+                    if (exception != null) f.completeExceptionally(exception);
+                    else f.complete(null);
+                  });
+        return f;
+      }
+
       @Override
       public CompletionStage<Boolean> exist(TopicKey key) {
         return topicKeys().thenApply(keys -> keys.contains(key));
@@ -264,22 +374,33 @@ public interface TopicAdmin extends Releasable {
 
       @Override
       public CompletionStage<TopicDescription> topicDescription(TopicKey key) {
-        return topicDescriptions(Set.of(key)).thenApply(keys -> keys.iterator().next());
+        return topicDescriptions(Set.of(key))
+            .thenApply(
+                descriptions -> {
+                  TopicDescription description = descriptions.get(key);
+                  if (description == null)
+                    throw new NoSuchElementException(key + " does not exist");
+                  return description;
+                });
       }
 
-      private CompletionStage<List<TopicDescription>> topicDescriptions(Set<TopicKey> topicKeys) {
+      @Override
+      public CompletionStage<Map<TopicKey, TopicDescription>> topicDescriptions(
+          Set<TopicKey> topicKeys) {
+        if (topicKeys.isEmpty()) return CompletableFuture.completedFuture(Map.of());
         return options(topicKeys)
             .thenApply(
                 nameAndOpts -> {
                   Map<TopicKey, List<PartitionInfo>> partitionInfos = partitionInfos(topicKeys);
                   return nameAndOpts.entrySet().stream()
-                      .map(
-                          entry -> {
-                            List<PartitionInfo> infos =
-                                partitionInfos.getOrDefault(entry.getKey(), List.of());
-                            return new TopicDescription(entry.getKey(), infos, entry.getValue());
-                          })
-                      .collect(Collectors.toUnmodifiableList());
+                      .collect(
+                          Collectors.toUnmodifiableMap(
+                              Map.Entry::getKey,
+                              entry ->
+                                  new TopicDescription(
+                                      entry.getKey(),
+                                      partitionInfos.getOrDefault(entry.getKey(), List.of()),
+                                      entry.getValue())));
                 });
       }
 
@@ -317,22 +438,32 @@ public interface TopicAdmin extends Releasable {
 
       @Override
       public CompletionStage<Boolean> deleteTopic(TopicKey key) {
-        return exist(key)
+        return deleteTopics(Set.of(key)).thenApply(keys -> keys.contains(key));
+      }
+
+      @Override
+      public CompletionStage<Set<TopicKey>> deleteTopics(Set<TopicKey> keys) {
+        return topicKeys()
             .thenCompose(
-                existent -> {
-                  if (existent) {
-                    CompletableFuture<Boolean> f2 = new CompletableFuture<>();
-                    admin
-                        .deleteTopics(List.of(key.topicNameOnKafka()))
-                        .values()
-                        .get(key.topicNameOnKafka())
-                        .whenComplete(
-                            (v, exception) -> {
-                              if (exception != null) f2.completeExceptionally(exception);
-                              else f2.complete(true);
-                            });
-                    return f2;
-                  } else return CompletableFuture.completedFuture(false);
+                existentKeys -> {
+                  Set<TopicKey> removedKeys =
+                      keys.stream()
+                          .filter(existentKeys::contains)
+                          .collect(Collectors.toUnmodifiableSet());
+                  if (removedKeys.isEmpty()) return CompletableFuture.completedFuture(Set.of());
+                  CompletableFuture<Set<TopicKey>> f = new CompletableFuture<>();
+                  admin
+                      .deleteTopics(
+                          removedKeys.stream()
+                              .map(TopicKey::topicNameOnKafka)
+                              .collect(Collectors.toUnmodifiableList()))
+                      .all()
+                      .whenComplete(
+                          (v, exception) -> {
+                            if (exception != null) f.completeExceptionally(exception);
+                            else f.complete(removedKeys);
+                          });
+                  return f;
                 });
       }
 
@@ -23,6 +23,7 @@ import java.util.concurrent.CompletionStage;
 import oharastream.ohara.common.annotations.Optional;
 import oharastream.ohara.common.setting.TopicKey;
 import oharastream.ohara.common.util.CommonUtils;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.common.config.TopicConfig;
 
 /**
@@ -112,6 +113,20 @@ public abstract class TopicCreator
         Objects.requireNonNull(topicKey));
   }
 
+  /**
+   * convert the arguments to kafka topic. It is used by {@link TopicAdmin#createTopics} to send all
+   * creations in a single request.
+   *
+   * @return kafka topic
+   */
+  NewTopic newTopic() {
+    return new NewTopic(
+            Objects.requireNonNull(topicKey).topicNameOnKafka(),
+            CommonUtils.requirePositiveInt(numberOfPartitions),
+            CommonUtils.requirePositiveShort(numberOfReplications))
+        .configs(Objects.requireNonNull(options));
+  }
+
   protected abstract CompletionStage<Void> doCreate(
       int numberOfPartitions,
       short numberOfReplications,
@@ -17,11 +17,15 @@
 package oharastream.ohara.kafka.connector;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.stream.Collectors;
 import oharastream.ohara.common.data.Cell;
 import oharastream.ohara.common.data.Column;
 import oharastream.ohara.common.data.Row;
+import oharastream.ohara.common.data.RowCodec;
 import oharastream.ohara.common.setting.ObjectKey;
 import oharastream.ohara.common.setting.SettingDef;
 import oharastream.ohara.common.util.CommonUtils;
@@ -101,6 +105,36 @@ final class ConnectorUtils {
         .register();
   }
 
+  /**
+   * Create and register a number counter for the records which are sent but not acked yet
+   *
+   * @param key It is normally equal to connector key
+   * @return number counter
+   */
+  static Counter inFlightRecordNumberCounter(ObjectKey key) {
+    return Counter.builder()
+        .key(key)
+        .item("in.flight.record.number")
+        .unit("records")
+        .document("number of records waiting for the ack from broker")
+        .value(0)
+        .register();
+  }
+
+  /**
+   * create the schema used to serialize/deserialize the rows by compact format.
+   *
+   * @param columns columns
+   * @param isSink true if the schema is used by sink. The sink reads the cell by {@link
+   *     Column#name()} and the source writes the cell by {@link Column#newName()}
+   * @return schema or null if there is no columns
+   */
+  static RowCodec.Schema schema(List<Column> columns, boolean isSink) {
+    if (CommonUtils.isEmpty(columns)) return null;
+    return RowCodec.Schema.of(columns, isSink ? Column::name : Column::newName);
+  }
+
+
   /**
    * compare the schema with input/output data.
    *
@@ -142,68 +176,52 @@ final class ConnectorUtils {
    * @param columns columns
    */
   static void match(Row row, List<Column> columns, boolean isSink) {
-    List<String> requiredNames =
-        columns.stream()
-            .map(column -> isSink ? column.name() : column.newName())
-            .collect(Collectors.toUnmodifiableList());
-
     if (!CommonUtils.isEmpty(columns)) {
       if (row.size() != columns.size())
         throw new IllegalArgumentException(
             "expected size:" + columns.size() + ", actual:" + row.size());
-      List<String> dataColumnNames = row.names();
-      dataColumnNames.forEach(
-          name -> {
-            if (requiredNames.stream().noneMatch(requiredName -> requiredName.equals(name)))
-              throw new IllegalArgumentException(
-                  "column name:"
-                      + name
-                      + " is not matched by schema:"
-                      + String.join(",", requiredNames));
-          });
-      requiredNames.forEach(
-          requiredName -> {
-            if (dataColumnNames.stream().noneMatch(name -> name.equals(requiredName)))
-              throw new IllegalArgumentException("there is not data for column:" + requiredName);
-          });
+      // the lookups are hash-based so the check is linear to the number of columns
+      Set<String> requiredNames = new HashSet<>(columns.size() * 2);
+      columns.forEach(column -> requiredNames.add(isSink ? column.name() : column.newName()));
+      row.names()
+          .forEach(
+              name -> {
+                if (!requiredNames.contains(name))
+                  throw new IllegalArgumentException(
+                      "column name:"
+                          + name
+                          + " is not matched by schema:"
+                          + columns.stream()
+                              .map(column -> isSink ? column.name() : column.newName())
+                              .collect(Collectors.joining(",")));
+              });
       columns.forEach(
           column -> {
-            Cell<?> cell = row.cell(isSink ? column.name() : column.newName());
-            boolean match = false;
+            String name = isSink ? column.name() : column.newName();
+            final Cell<?> cell;
+            try {
+              cell = row.cell(name);
+            } catch (NoSuchElementException e) {
+              throw new IllegalArgumentException("there is not data for column:" + name);
+            }
+            boolean match;
             switch (column.dataType()) {
               case BYTES:
-                if (cell.value() instanceof byte[]) match = true;
-                break;
               case BOOLEAN:
-                if (cell.value() instanceof Boolean) match = true;
-                break;
               case BYTE:
-                if (cell.value() instanceof Byte) match = true;
-                break;
               case SHORT:
-                if (cell.value() instanceof Short) match = true;
-                break;
               case INT:
-                if (cell.value() instanceof Integer) match = true;
-                break;
               case LONG:
-                if (cell.value() instanceof Long) match = true;
-                break;
               case FLOAT:
-                if (cell.value() instanceof Float) match = true;
-                break;
               case DOUBLE:
-                if (cell.value() instanceof Double) match = true;
-                break;
               case STRING:
-                if (cell.value() instanceof String) match = true;
-                break;
               case ROW:
-                if (cell.value() instanceof Row) match = true;
+                // the primitive cells offer the type without boxing the value
+                match = cell.dataType() == column.dataType();
                 break;
               case OBJECT:
               default:
-                if (cell.value() != null) match = true;
+                match = cell.value() != null;
                 break;
             }
             if (!match)
@@ -217,7 +235,11 @@ final class ConnectorUtils {
   }
 
   static long sizeOf(ConnectRecord<?> record) {
-    if (record.key() instanceof byte[]) return ((byte[]) record.key()).length;
+    return sizeOf(record.key()) + sizeOf(record.value());
+  }
+
+  private static long sizeOf(Object keyOrValue) {
+    if (keyOrValue instanceof byte[]) return ((byte[]) keyOrValue).length;
     else return 0;
   }
 
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka.connector;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * a bounded ring buffer keeping the records which are sent to kafka but not acked yet. The slot is
+ * chosen by the record index so the lookup does not box the index. It is designed for single
+ * producer (the thread calling {@link RowSourceTask#poll()}) and multiple consumers (the threads
+ * calling {@link RowSourceTask#commitRecord}). Noted: the index passed to {@link #put} must be
+ * increasing.
+ */
+final class InFlightRecords {
+  private final int mask;
+  private final AtomicReferenceArray<RowSourceRecord> records;
+  // the slot is published by the volatile write of records so it is fine to use primitive array
+  private final long[] indexes;
+
+  /** the oldest index which may be in-flight. It is updated by producer only. */
+  private volatile long head = 0;
+
+  /** the next index. It is updated by producer only. */
+  private volatile long tail = 0;
+
+  InFlightRecords(int capacity) {
+    if (capacity <= 0)
+      throw new IllegalArgumentException("capacity must be bigger than zero. actual:" + capacity);
+    // round up to power of two so the slot can be computed by mask
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) size <<= 1;
+    this.mask = size - 1;
+    this.records = new AtomicReferenceArray<>(size);
+    this.indexes = new long[size];
+  }
+
+  int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * add the record to the ring. Noted: this method must be called by producer.
+   *
+   * @param index record index
+   * @param record record
+   * @return false if the ring is full.
+   */
+  boolean put(long index, RowSourceRecord record) {
+    if (index < tail)
+      throw new IllegalArgumentException("the index:" + index + " is smaller than " + tail);
+    // the slot of index must be checked before moving the tail. Otherwise, the head may skip it
+    boolean hasRoom = index - advance() < capacity();
+    if (hasRoom) {
+      int slot = (int) (index & mask);
+      indexes[slot] = index;
+      records.set(slot, record);
+    }
+    tail = index + 1;
+    return hasRoom;
+  }
+
+  /**
+   * remove the record from the ring.
+   *
+   * @param index record index
+   * @return record or null if the index is not in the ring
+   */
+  RowSourceRecord remove(long index) {
+    int slot = (int) (index & mask);
+    RowSourceRecord record = records.get(slot);
+    if (record == null || indexes[slot] != index) return null;
+    return records.compareAndSet(slot, record, null) ? record : null;
+  }
+
+  /**
+   * Noted: this method must be called by producer.
+   *
+   * @return the number of slots which can't be reused. It includes the released slots which are
+   *     behind an in-flight record.
+   */
+  int size() {
+    return (int) (tail - advance());
+  }
+
+  /** @return true if there is no available slot. Noted: this method must be called by producer. */
+  boolean isFull() {
+    return size() >= capacity();
+  }
+
+  /** move the head to the oldest in-flight record. */
+  private long advance() {
+    long h = head;
+    long t = tail;
+    while (h < t && records.get((int) (h & mask)) == null) ++h;
+    head = h;
+    return h;
+  }
+}
@@ -20,15 +20,20 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import oharastream.ohara.common.annotations.VisibleForTesting;
 import oharastream.ohara.common.data.Column;
 import oharastream.ohara.common.data.Row;
-import oharastream.ohara.common.data.Serializer;
+import oharastream.ohara.common.data.RowCodec;
 import oharastream.ohara.common.setting.SettingDef;
 import oharastream.ohara.common.setting.TopicKey;
 import oharastream.ohara.common.util.Releasable;
 import oharastream.ohara.common.util.VersionUtils;
+import oharastream.ohara.kafka.ConsumerMetrics;
+import oharastream.ohara.kafka.RecordLayout;
 import oharastream.ohara.kafka.TimestampType;
 import oharastream.ohara.metrics.basic.Counter;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
@@ -116,19 +121,27 @@ public abstract class RowSinkTask extends SinkTask {
   @VisibleForTesting Counter ignoredMessageNumberCounter = null;
   @VisibleForTesting Counter ignoredMessageSizeCounter = null;
   @VisibleForTesting TaskSetting taskSetting = null;
+  @VisibleForTesting ConsumerMetrics consumerMetrics = null;
+
+  /** the partitions opened by this task. It is used to trace the lag of partitions. */
+  private final Set<TopicPartition> assignedPartitions = ConcurrentHashMap.newKeySet();
+
+  /**
+   * the schema used to deserialize the rows written by compact format with schema. It is immutable
+   * after starting this connector task.
+   */
+  @VisibleForTesting RowCodec.Schema rowSchema = null;
 
   /**
    * @param record kafka's sink record
    * @return ohara's sink record
    */
-  private static RowSinkRecord toOhara(SinkRecord record) {
+  private RowSinkRecord toOhara(SinkRecord record) {
     return RowSinkRecord.builder()
         .topicKey(TopicKey.requirePlain(record.topic()))
-        // add a room to accept the row in kafka
-        .row(
-            (record.key() instanceof Row)
-                ? ((Row) record.key())
-                : Serializer.ROW.from((byte[]) record.key()))
+        // add a room to accept the row in kafka. The bytes are wrapped by a lazy view so the cells
+        // which are not used by the sink are never decoded
+        .row(toRow(record))
         .partition(record.kafkaPartition())
         .offset(record.kafkaOffset())
         // constructing a record without timeout is legal in kafka ...
@@ -137,11 +150,28 @@ public abstract class RowSinkTask extends SinkTask {
         .build();
   }
 
+  /**
+   * the row is in the value if the record is written by {@link RecordLayout#VALUE}. Otherwise, the
+   * row is in the key.
+   */
+  private Row toRow(SinkRecord record) {
+    if (record.value() instanceof Row) return (Row) record.value();
+    if (record.value() instanceof byte[] && RecordLayout.inValue((byte[]) record.value()))
+      return RowCodec.view((byte[]) record.value(), rowSchema);
+    return (record.key() instanceof Row)
+        ? ((Row) record.key())
+        : RowCodec.view((byte[]) record.key(), rowSchema);
+  }
+
   @Override
   public final void put(Collection<SinkRecord> raw) {
     SettingDef.CheckRule rule = taskSetting.checkRule();
     List<Column> columns = taskSetting.columns();
     if (raw == null) return;
+    if (consumerMetrics != null) {
+      consumerMetrics.records(raw.size());
+      raw.forEach(r -> consumerMetrics.record(r.timestamp() == null ? 0 : r.timestamp()));
+    }
     List<RowSinkRecord> records =
         raw.stream()
             .map(kafkaRecord -> Map.entry(toOhara(kafkaRecord), kafkaRecord))
@@ -189,6 +219,15 @@ public abstract class RowSinkTask extends SinkTask {
         ConnectorUtils.ignoredMessageNumberCounter(taskSetting.connectorKey());
     ignoredMessageSizeCounter =
         ConnectorUtils.ignoredMessageSizeCounter(taskSetting.connectorKey());
+    // the consumer of sink task is hosted by worker, and its client id is
+    // "connector-consumer-{connector name}-{task id}"
+    String clientId =
+        "connector-consumer-" + Pattern.quote(taskSetting.connectorKey().connectorNameOnKafka());
+    consumerMetrics =
+        ConsumerMetrics.of(
+            taskSetting.connectorKey(),
+            () -> ConsumerMetrics.lags(clientId + "-\\d+", Set.copyOf(assignedPartitions)));
+    rowSchema = ConnectorUtils.schema(taskSetting.columns(), true);
     run(taskSetting);
   }
 
@@ -201,6 +240,7 @@ public abstract class RowSinkTask extends SinkTask {
       Releasable.close(messageSizeCounter);
       Releasable.close(ignoredMessageNumberCounter);
       Releasable.close(ignoredMessageSizeCounter);
+      Releasable.close(consumerMetrics);
     }
   }
 
@@ -211,14 +251,18 @@ public abstract class RowSinkTask extends SinkTask {
 
   @Override
   public final void open(Collection<org.apache.kafka.common.TopicPartition> partitions) {
-    openPartitions(
-        partitions.stream().map(TopicPartition::of).collect(Collectors.toUnmodifiableList()));
+    List<TopicPartition> tps =
+        partitions.stream().map(TopicPartition::of).collect(Collectors.toUnmodifiableList());
+    assignedPartitions.addAll(tps);
+    openPartitions(tps);
   }
 
   @Override
   public final void close(Collection<org.apache.kafka.common.TopicPartition> partitions) {
-    closePartitions(
-        partitions.stream().map(TopicPartition::of).collect(Collectors.toUnmodifiableList()));
+    List<TopicPartition> tps =
+        partitions.stream().map(TopicPartition::of).collect(Collectors.toUnmodifiableList());
+    tps.forEach(assignedPartitions::remove);
+    closePartitions(tps);
   }
 
   @Override
@@ -19,13 +19,14 @@ package oharastream.ohara.kafka.connector;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Collectors;
 import oharastream.ohara.common.annotations.VisibleForTesting;
 import oharastream.ohara.common.data.Column;
-import oharastream.ohara.common.data.Serializer;
+import oharastream.ohara.common.data.Row;
+import oharastream.ohara.common.data.RowCodec;
 import oharastream.ohara.common.setting.ObjectKey;
 import oharastream.ohara.common.setting.SettingDef;
 import oharastream.ohara.common.setting.TopicKey;
@@ -34,6 +35,7 @@ import oharastream.ohara.common.util.CommonUtils;
 import oharastream.ohara.common.util.Releasable;
 import oharastream.ohara.common.util.VersionUtils;
 import oharastream.ohara.kafka.Header;
+import oharastream.ohara.kafka.RecordLayout;
 import oharastream.ohara.kafka.RecordMetadata;
 import oharastream.ohara.metrics.basic.Counter;
 import org.apache.kafka.connect.data.Schema;
@@ -104,6 +106,7 @@ public abstract class RowSourceTask extends SourceTask {
   @VisibleForTesting Counter messageSizeCounter = null;
   @VisibleForTesting Counter ignoredMessageNumberCounter = null;
   @VisibleForTesting Counter ignoredMessageSizeCounter = null;
+  @VisibleForTesting Counter inFlightRecordNumberCounter = null;
   @VisibleForTesting TaskSetting taskSetting = null;
 
   /**
@@ -116,8 +119,9 @@ public abstract class RowSourceTask extends SourceTask {
 
   private final AtomicLong recordIndex = new AtomicLong(0);
 
+  /** the index is a varint since it is small in most cases. */
   private static long recordIndex(SourceRecord record) {
-    return ByteUtils.toLong((byte[]) record.headers().lastWithName(RECORD_INDEX_KEY).value());
+    return ByteUtils.toVarLong((byte[]) record.headers().lastWithName(RECORD_INDEX_KEY).value());
   }
 
   /**
@@ -126,8 +130,29 @@ public abstract class RowSourceTask extends SourceTask {
    */
   @VisibleForTesting byte[] keyInBytes = null;
 
+  /**
+   * the varint of connector id. It is registered once when starting this task and then it is used
+   * by {@link Header.Format#COMPACT}.
+   */
+  @VisibleForTesting byte[] idInBytes = null;
+
+  @VisibleForTesting Header.Format headerFormat = Header.Format.FULL;
+
   @VisibleForTesting byte[] classNameInBytes = ByteUtils.toBytes(getClass().getName());
 
+  /**
+   * the format and schema used to serialize rows. They are immutable after starting this connector
+   * task.
+   */
+  @VisibleForTesting RowCodec.Format rowFormat = RowCodec.Format.DEFAULT;
+
+  @VisibleForTesting RowCodec.Schema rowSchema = null;
+
+  /** the layout of record and the key columns. They are immutable after starting this task. */
+  @VisibleForTesting RecordLayout recordLayout = RecordLayout.KEY;
+
+  @VisibleForTesting List<String> recordKeyColumns = List.of();
+
   /**
    * convert the row to byte array. This method is open to subclasses if they are another idea of
    * handling the serialization.
@@ -136,7 +161,7 @@ public abstract class RowSourceTask extends SourceTask {
    * @return byte array
    */
   protected byte[] toBytes(RowSourceRecord record) {
-    return Serializer.ROW.to(record.row());
+    return RowCodec.toBytes(record.row(), rowFormat, rowSchema);
   }
 
   /**
@@ -149,30 +174,55 @@ public abstract class RowSourceTask extends SourceTask {
     // add the header to mark the source of this data
     // we convert the string to bytes manually since we don't want to use the schema in order to
     // make this header is readable to consumer.
-    headers.addBytes(Header.SOURCE_CLASS_KEY, classNameInBytes);
-    headers.addBytes(Header.SOURCE_KEY_KEY, keyInBytes);
+    if (headerFormat == Header.Format.COMPACT) headers.addBytes(Header.SOURCE_ID_KEY, idInBytes);
+    else {
+      headers.addBytes(Header.SOURCE_CLASS_KEY, classNameInBytes);
+      headers.addBytes(Header.SOURCE_KEY_KEY, keyInBytes);
+    }
     // this is a internal field
-    headers.addBytes(RECORD_INDEX_KEY, ByteUtils.toBytes(recordIndex.getAndIncrement()));
+    headers.addBytes(RECORD_INDEX_KEY, ByteUtils.toVarBytes(recordIndex.getAndIncrement()));
+    final byte[] key;
+    final byte[] value;
+    if (recordLayout == RecordLayout.KEY) {
+      key = toBytes(record);
+      // we keep empty value in order to reduce data size in transmission
+      value = null;
+    } else {
+      Row keyRow = recordLayout.key(record.row(), recordKeyColumns);
+      key = keyRow == null ? null : RowCodec.toBytes(keyRow);
+      value = toBytes(record);
+    }
     return new SourceRecord(
         record.sourcePartition(),
         record.sourceOffset(),
         record.topicKey().topicNameOnKafka(),
         record.partition().orElse(null),
         Schema.BYTES_SCHEMA,
-        toBytes(record),
-        // TODO: we keep empty value in order to reduce data size in transmission
+        key,
         Schema.BYTES_SCHEMA,
-        null,
+        value,
         record.timestamp().orElse(null),
         headers);
   }
 
-  /** the conversion is too expensive so we keep this mapping. */
-  @VisibleForTesting
-  final ConcurrentMap<Long, RowSourceRecord> cachedRecords = new ConcurrentHashMap<>();
+  /**
+   * the conversion is too expensive so we keep this mapping. It is bounded so the task stops
+   * pulling data when the broker is too slow to ack the records.
+   */
+  @VisibleForTesting InFlightRecords cachedRecords = null;
+
+  /** the time to wait for the acks when there are too many in-flight records. */
+  private static final long THROTTLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
 
   @Override
   public final List<SourceRecord> poll() {
+    if (cachedRecords.isFull()) {
+      if (inFlightRecordNumberCounter != null)
+        inFlightRecordNumberCounter.setAndGet(cachedRecords.size());
+      // kafka calls poll again after getting null so we don't need to loop here
+      LockSupport.parkNanos(THROTTLE_NANOS);
+      return null;
+    }
     List<RowSourceRecord> records = pollRecords();
     // kafka connector doesn't support the empty list in testing. see
     // https://github.com/apache/kafka/pull/4958
@@ -196,12 +246,15 @@ public abstract class RowSourceTask extends SourceTask {
                           ignoredMessageNumberCounter,
                           ignoredMessageSizeCounter);
                   if (pass && messageSizeCounter != null) messageSizeCounter.addAndGet(rowSize);
+                  // the record is not cached if the ring is full. commitRecord rebuilds it
                   if (pass) cachedRecords.put(recordIndex(pair.getValue()), pair.getKey());
                   return pass;
                 })
             .map(Map.Entry::getValue)
             .collect(Collectors.toUnmodifiableList());
     if (messageNumberCounter != null) messageNumberCounter.addAndGet(raw.size());
+    if (inFlightRecordNumberCounter != null)
+      inFlightRecordNumberCounter.setAndGet(cachedRecords.size());
     return raw;
   }
 
@@ -227,7 +280,18 @@ public abstract class RowSourceTask extends SourceTask {
         ConnectorUtils.ignoredMessageNumberCounter(taskSetting.connectorKey());
     ignoredMessageSizeCounter =
         ConnectorUtils.ignoredMessageSizeCounter(taskSetting.connectorKey());
+    inFlightRecordNumberCounter =
+        ConnectorUtils.inFlightRecordNumberCounter(taskSetting.connectorKey());
+    cachedRecords = new InFlightRecords(taskSetting.maxInFlightRecords());
     keyInBytes = ByteUtils.toBytes(ObjectKey.toJsonString(taskSetting.connectorKey()));
+    headerFormat = taskSetting.headerFormat();
+    // only the compact header carries the source id
+    if (headerFormat == Header.Format.COMPACT)
+      idInBytes = Header.register(taskSetting.connectorKey());
+    rowFormat = taskSetting.rowFormat();
+    rowSchema = ConnectorUtils.schema(taskSetting.columns(), false);
+    recordLayout = taskSetting.recordLayout();
+    recordKeyColumns = taskSetting.recordKeyColumns();
     run(taskSetting);
   }
 
@@ -240,6 +304,8 @@ public abstract class RowSourceTask extends SourceTask {
       Releasable.close(messageSizeCounter);
       Releasable.close(ignoredMessageNumberCounter);
       Releasable.close(ignoredMessageSizeCounter);
+      Releasable.close(inFlightRecordNumberCounter);
+      if (idInBytes != null) Header.unregister(taskSetting.connectorKey());
     }
   }
 
@@ -252,8 +318,8 @@ public abstract class RowSourceTask extends SourceTask {
   public final void commitRecord(
       SourceRecord record, org.apache.kafka.clients.producer.RecordMetadata metadata) {
     RowSourceRecord r = cachedRecords.remove(recordIndex(record));
-    // It is impossible to observer the null since we cache all records in #poll method.
-    // However, we all hate the null so the workaround is to create a new record :(
+    // the record is not cached if there were too many in-flight records when it was polled. The
+    // workaround is to create a new record :(
     if (r == null) {
       RowSourceRecord.Builder builder = RowSourceRecord.builder();
       builder.topicKey(TopicKey.requirePlain(record.topic()));
@@ -261,9 +327,11 @@ public abstract class RowSourceTask extends SourceTask {
       if (record.sourcePartition() != null) builder.sourcePartition(record.sourcePartition());
       if (record.kafkaPartition() != null) builder.partition(record.kafkaPartition());
       if (record.timestamp() != null) builder.timestamp(record.timestamp());
-      builder.row(Serializer.ROW.from((byte[]) record.key()));
+      builder.row(
+          RowCodec.fromBytes(
+              RecordLayout.payload((byte[]) record.key(), (byte[]) record.value()), rowSchema));
       r = builder.build();
-      LOG.error("An new SourceRecord is generated as we failed to find a SourceRecord from cache");
+      LOG.debug("An new SourceRecord is generated as we failed to find a SourceRecord from cache");
     }
     commitRecord(r, RecordMetadata.of(metadata));
   }
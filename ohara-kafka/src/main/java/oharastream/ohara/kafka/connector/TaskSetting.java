@@ -29,8 +29,11 @@ import java.util.Optional;
 import java.util.Set;
 import oharastream.ohara.common.annotations.VisibleForTesting;
 import oharastream.ohara.common.data.Column;
+import oharastream.ohara.common.data.RowCodec;
 import oharastream.ohara.common.setting.*;
 import oharastream.ohara.common.util.CommonUtils;
+import oharastream.ohara.kafka.Header;
+import oharastream.ohara.kafka.RecordLayout;
 import oharastream.ohara.kafka.connector.json.ConnectorDefUtils;
 import oharastream.ohara.kafka.connector.json.StringList;
 
@@ -327,6 +330,68 @@ public class TaskSetting {
         .orElse(SettingDef.CheckRule.NONE);
   }
 
+  /**
+   * the format used to serialize the row
+   *
+   * @return row format
+   */
+  public RowCodec.Format rowFormat() {
+    return stringOption(ConnectorDefUtils.ROW_FORMAT_DEFINITION.key())
+        .map(
+            s -> {
+              try {
+                return RowCodec.Format.valueOf(s.toUpperCase());
+              } catch (Throwable e) {
+                // unknown string is converted to default
+                return RowCodec.Format.DEFAULT;
+              }
+            })
+        .orElse(RowCodec.Format.DEFAULT);
+  }
+
+  /**
+   * the layout used to write the row to kafka
+   *
+   * @return record layout
+   * @throws IllegalArgumentException if the layout is unknown
+   */
+  public RecordLayout recordLayout() {
+    return stringOption(ConnectorDefUtils.RECORD_LAYOUT_DEFINITION.key())
+        .map(RecordLayout::of)
+        .orElse(RecordLayout.KEY);
+  }
+
+  /** @return the columns composing the key of record */
+  public List<String> recordKeyColumns() {
+    return stringListOption(ConnectorDefUtils.RECORD_KEY_COLUMNS_DEFINITION.key())
+        .orElse(List.of());
+  }
+
+  /**
+   * the format of headers added to the records generated by source connector
+   *
+   * @return header format
+   */
+  public Header.Format headerFormat() {
+    return stringOption(ConnectorDefUtils.HEADER_FORMAT_DEFINITION.key())
+        .map(
+            s -> {
+              try {
+                return Header.Format.valueOf(s.toUpperCase());
+              } catch (Throwable e) {
+                // unknown string is converted to default
+                return Header.Format.FULL;
+              }
+            })
+        .orElse(Header.Format.FULL);
+  }
+
+  /** @return the max number of records which are sent by source connector but not acked yet */
+  public int maxInFlightRecords() {
+    return intOption(ConnectorDefUtils.MAX_IN_FLIGHT_RECORDS_DEFINITION.key())
+        .orElse(ConnectorDefUtils.MAX_IN_FLIGHT_RECORDS_DEFINITION.defaultInt());
+  }
+
   @VisibleForTesting
   Map<String, String> raw() {
     return Collections.unmodifiableMap(raw);
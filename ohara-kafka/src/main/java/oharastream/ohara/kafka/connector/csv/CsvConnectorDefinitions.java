@@ -102,12 +102,55 @@ public final class CsvConnectorDefinitions {
   public static final SettingDef FILE_ENCODE_DEFINITION =
       SettingDef.builder()
           .displayName("File Encode")
-          .documentation("File encode for write to file")
+          .documentation(
+              "File encode for write to file. The csv source supports the encode in which the line"
+                  + " feed is a single byte, for example UTF-8 and ISO-8859-1")
           .key(FILE_ENCODE_KEY)
           .optional(FILE_ENCODE_DEFAULT)
           .orderInGroup(COUNTER.getAndIncrement())
           .build();
 
+  /** a single char or "\t" (tab). */
+  private static final String CHAR_REGEX = "^(.|\\\\t)$";
+
+  public static final String FILE_DELIMITER_KEY = "file.delimiter";
+  public static final String FILE_DELIMITER_DEFAULT = ",";
+  public static final SettingDef FILE_DELIMITER_DEFINITION =
+      SettingDef.builder()
+          .displayName("File Delimiter")
+          .documentation("The char used to separate the fields of csv file. Use \\t for tab")
+          .key(FILE_DELIMITER_KEY)
+          .optional(FILE_DELIMITER_DEFAULT)
+          .regex(CHAR_REGEX)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
+  public static final String FILE_QUOTE_KEY = "file.quote";
+  public static final String FILE_QUOTE_DEFAULT = "\"";
+  public static final SettingDef FILE_QUOTE_DEFINITION =
+      SettingDef.builder()
+          .displayName("File Quote")
+          .documentation(
+              "The char used to enclose the field containing delimiter or line separator")
+          .key(FILE_QUOTE_KEY)
+          .optional(FILE_QUOTE_DEFAULT)
+          .regex(CHAR_REGEX)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
+  public static final String FILE_ESCAPE_KEY = "file.escape";
+  public static final SettingDef FILE_ESCAPE_DEFINITION =
+      SettingDef.builder()
+          .displayName("File Escape")
+          .documentation(
+              "The char used to escape the quote in quoted field. "
+                  + "If it is not defined, the quote is escaped by doubling it")
+          .key(FILE_ESCAPE_KEY)
+          .optional(SettingDef.Type.STRING)
+          .regex(CHAR_REGEX)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
   public static final String SIZE_OF_FILE_CACHE_KEY = "size.of.file.cache";
   public static final int SIZE_OF_FILE_CACHE_DEFAULT = 4096;
   public static final SettingDef SIZE_OF_FILE_CACHE_DEFINITION =
@@ -134,6 +177,72 @@ public final class CsvConnectorDefinitions {
           .orderInGroup(COUNTER.getAndIncrement())
           .build();
 
+  public static final String FILE_SPLIT_SIZE_KEY = "file.split.size";
+  public static final SettingDef FILE_SPLIT_SIZE_DEFINITION =
+      SettingDef.builder()
+          .displayName("File Split Size")
+          .documentation(
+              "The file bigger than this size (in bytes) is split into line-aligned ranges which "
+                  + "are processed by all tasks. It is disabled if it is not defined. Noted: the "
+                  + "split file should not have quoted field carrying line separator.")
+          .key(FILE_SPLIT_SIZE_KEY)
+          .optional(SettingDef.Type.POSITIVE_LONG)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
+  public static final String FILE_PIPELINE_DEPTH_KEY = "file.pipeline.depth";
+  public static final SettingDef FILE_PIPELINE_DEPTH_DEFINITION =
+      SettingDef.builder()
+          .displayName("File Pipeline Depth")
+          .documentation(
+              "The capacity of queues used by the background threads which list, check and read "
+                  + "the files. It is disabled if it is not defined, and then the files are read "
+                  + "by the poll thread.")
+          .key(FILE_PIPELINE_DEPTH_KEY)
+          .optional(SettingDef.Type.POSITIVE_INT)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
+  public static final String FILE_LISTING_INCREMENTAL_KEY = "file.listing.incremental";
+  public static final boolean FILE_LISTING_INCREMENTAL_DEFAULT = false;
+  public static final SettingDef FILE_LISTING_INCREMENTAL_DEFINITION =
+      SettingDef.builder()
+          .displayName("Incremental File Listing")
+          .documentation(
+              "The files skipped by task, such as the folders and the files processed by other "
+                  + "tasks, are indexed with their last modified times so they are not checked "
+                  + "again until they are modified.")
+          .key(FILE_LISTING_INCREMENTAL_KEY)
+          .optional(FILE_LISTING_INCREMENTAL_DEFAULT)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
+  public static final String FILE_LISTING_INDEX_FOLDER_KEY = "file.listing.index.folder";
+  public static final SettingDef FILE_LISTING_INDEX_FOLDER_DEFINITION =
+      SettingDef.builder()
+          .displayName("File Listing Index Folder")
+          .documentation(
+              "The local folder storing the index of incremental file listing. The index is kept "
+                  + "in memory only if it is not defined.")
+          .key(FILE_LISTING_INDEX_FOLDER_KEY)
+          .optional(SettingDef.Type.STRING)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
+  public static final String FILE_LISTING_WATCH_KEY = "file.listing.watch";
+  public static final boolean FILE_LISTING_WATCH_DEFAULT = false;
+  public static final SettingDef FILE_LISTING_WATCH_DEFINITION =
+      SettingDef.builder()
+          .displayName("Watch Input Folder")
+          .documentation(
+              "Use the change notification of file system to find the new files of incremental "
+                  + "file listing, and the input folder is listed only periodically. It is "
+                  + "ignored if the file system does not support the change notification.")
+          .key(FILE_LISTING_WATCH_KEY)
+          .optional(FILE_LISTING_WATCH_DEFAULT)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
   public static final String TASK_TOTAL_KEY = "task.total";
   public static final String TASK_HASH_KEY = "task.hash";
 
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka.connector.csv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import oharastream.ohara.common.util.CommonUtils;
+import oharastream.ohara.common.util.Releasable;
+import oharastream.ohara.kafka.connector.storage.FileSystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The incremental listing of input folder. The files skipped by task, such as the folders and the
+ * files owned by other tasks, are indexed with their last modified times, and they are not returned
+ * again until they are modified. The file modified after the watermark (the latest modified time
+ * of previous listings) is a new file so it does not need the lookup of index.
+ *
+ * <p>If the file system supports the change notification, the input folder is listed only
+ * periodically and the changed files are added to the listing between the periodic listings.
+ *
+ * <p>The index is stored by a local file if the path is defined. It is discarded if the number of
+ * tasks is changed since the owners of files are changed.
+ */
+final class CsvFileLister implements Releasable {
+  private static final Logger LOG = LoggerFactory.getLogger(CsvFileLister.class);
+  static final Duration LIST_INTERVAL_OF_WATCH = Duration.ofMinutes(5);
+  private static final String TASK_TOTAL_KEY = "task.total";
+  private static final String WATERMARK_KEY = "watermark";
+  private static final String FILE_KEY_PREFIX = "file.";
+
+  private final FileSystem fs;
+  private final String dir;
+  private final Path indexFile;
+  private final int total;
+  // the skipped files and their last modified times
+  private final Map<String, Long> index = new HashMap<>();
+  // the files which are not skipped
+  private final Set<String> candidates = new LinkedHashSet<>();
+  // the last modified times of latest listing
+  private Map<String, Long> modifiedTimes = Map.of();
+  private long watermark = -1;
+  private long lastListing = -1;
+  private boolean dirty = false;
+  private final Releasable watch;
+
+  /**
+   * @param fs file system
+   * @param dir input folder
+   * @param indexFile the local file storing the index. It can be null
+   * @param total the number of tasks
+   * @param watch true if the changes of input folder are watched by the file system
+   */
+  CsvFileLister(FileSystem fs, String dir, Path indexFile, int total, boolean watch) {
+    this.fs = Objects.requireNonNull(fs);
+    this.dir = CommonUtils.requireNonEmpty(dir);
+    this.indexFile = indexFile;
+    this.total = total;
+    load();
+    this.watch = watch ? fs.watch(dir, this::changed).orElse(null) : null;
+  }
+
+  /** @return the names of files which are not skipped */
+  synchronized List<String> list() {
+    if (watch == null || CommonUtils.current() - lastListing >= LIST_INTERVAL_OF_WATCH.toMillis())
+      listAll();
+    save();
+    return List.copyOf(candidates);
+  }
+
+  private void listAll() {
+    modifiedTimes = fs.listLastModified(dir);
+    // the removed files are not indexed
+    if (index.keySet().retainAll(modifiedTimes.keySet())) dirty = true;
+    candidates.clear();
+    long latest = watermark;
+    for (Map.Entry<String, Long> entry : modifiedTimes.entrySet()) {
+      long modifiedTime = entry.getValue();
+      if (modifiedTime > watermark || !Objects.equals(index.get(entry.getKey()), modifiedTime))
+        candidates.add(entry.getKey());
+      latest = Math.max(latest, modifiedTime);
+    }
+    if (latest != watermark) {
+      watermark = latest;
+      dirty = true;
+    }
+    lastListing = CommonUtils.current();
+  }
+
+  /**
+   * the file is skipped by task. It is not returned until it is modified.
+   *
+   * @param fileName file name
+   */
+  synchronized void skip(String fileName) {
+    candidates.remove(fileName);
+    index.put(fileName, modifiedTimes.getOrDefault(fileName, -1L));
+    dirty = true;
+  }
+
+  /**
+   * the file is removed from the input folder.
+   *
+   * @param fileName file name
+   */
+  synchronized void remove(String fileName) {
+    candidates.remove(fileName);
+  }
+
+  private synchronized void changed(String fileName) {
+    candidates.add(fileName);
+    if (index.remove(fileName) != null) dirty = true;
+  }
+
+  private void load() {
+    if (indexFile == null || !Files.exists(indexFile)) return;
+    Properties props = new Properties();
+    try (InputStream input = Files.newInputStream(indexFile)) {
+      props.load(input);
+    } catch (IOException e) {
+      LOG.warn("failed to load the listing index from " + indexFile, e);
+      return;
+    }
+    // the owners of files are changed so the index is useless
+    if (!String.valueOf(total).equals(props.getProperty(TASK_TOTAL_KEY))) return;
+    try {
+      for (String key : props.stringPropertyNames()) {
+        if (!key.startsWith(FILE_KEY_PREFIX)) continue;
+        index.put(key.substring(FILE_KEY_PREFIX.length()), Long.parseLong(props.getProperty(key)));
+      }
+      watermark = Long.parseLong(props.getProperty(WATERMARK_KEY, "-1"));
+    } catch (NumberFormatException e) {
+      LOG.warn("the listing index " + indexFile + " is broken", e);
+      index.clear();
+    }
+  }
+
+  private void save() {
+    if (indexFile == null || !dirty) return;
+    Properties props = new Properties();
+    props.setProperty(TASK_TOTAL_KEY, String.valueOf(total));
+    props.setProperty(WATERMARK_KEY, String.valueOf(watermark));
+    index.forEach((name, time) -> props.setProperty(FILE_KEY_PREFIX + name, String.valueOf(time)));
+    Path tmp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+    try {
+      if (indexFile.getParent() != null) Files.createDirectories(indexFile.getParent());
+      try (OutputStream output = Files.newOutputStream(tmp)) {
+        props.store(output, null);
+      }
+      // the index is replaced at once so a crash does not leave a broken index
+      Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+      dirty = false;
+    } catch (IOException e) {
+      LOG.warn("failed to save the listing index to " + indexFile, e);
+    }
+  }
+
+  @Override
+  public void close() {
+    // the watch may be waiting for the lock so it is closed without the lock
+    Releasable.close(watch);
+    synchronized (this) {
+      save();
+    }
+  }
+}
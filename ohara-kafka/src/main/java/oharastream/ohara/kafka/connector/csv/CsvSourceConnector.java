@@ -18,7 +18,15 @@ package oharastream.ohara.kafka.connector.csv;
 
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.COMPLETED_FOLDER_DEFINITION;
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.ERROR_FOLDER_DEFINITION;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_DELIMITER_DEFINITION;
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_ENCODE_DEFINITION;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_ESCAPE_DEFINITION;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_LISTING_INCREMENTAL_DEFINITION;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_LISTING_INDEX_FOLDER_DEFINITION;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_LISTING_WATCH_DEFINITION;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_PIPELINE_DEPTH_DEFINITION;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_QUOTE_DEFINITION;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_SPLIT_SIZE_DEFINITION;
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.INPUT_FOLDER_DEFINITION;
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.MAXIMUM_NUMBER_OF_LINES_DEFINITION;
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.SIZE_OF_FILE_CACHE_DEFINITION;
@@ -34,6 +42,7 @@ import java.util.stream.Stream;
 import oharastream.ohara.common.setting.SettingDef;
 import oharastream.ohara.kafka.connector.RowSourceConnector;
 import oharastream.ohara.kafka.connector.TaskSetting;
+import oharastream.ohara.kafka.connector.csv.source.CsvSourceConfig;
 import oharastream.ohara.kafka.connector.storage.FileSystem;
 import oharastream.ohara.kafka.connector.storage.FileType;
 
@@ -46,6 +55,13 @@ import oharastream.ohara.kafka.connector.storage.FileType;
  *   <li>COMPLETED_FOLDER_DEFINITION: This folder is used to store the completed files
  *   <li>ERROR_FOLDER_DEFINITION: This folder is used to keep the invalid files
  *   <li>FILE_ENCODE_DEFINITION: File encode for write to file
+ *   <li>FILE_DELIMITER_DEFINITION, FILE_QUOTE_DEFINITION and FILE_ESCAPE_DEFINITION: the chars
+ *       used to parse csv file
+ *   <li>FILE_SPLIT_SIZE_DEFINITION: the large file is split into ranges processed by all tasks
+ *   <li>FILE_PIPELINE_DEPTH_DEFINITION: the files are listed and read by background threads
+ *   <li>FILE_LISTING_INCREMENTAL_DEFINITION: the skipped files are not checked again
+ *   <li>FILE_LISTING_INDEX_FOLDER_DEFINITION: the local folder storing the listing index
+ *   <li>FILE_LISTING_WATCH_DEFINITION: find the new files by the change notification
  * </ul>
  */
 public abstract class CsvSourceConnector extends RowSourceConnector {
@@ -89,6 +105,8 @@ public abstract class CsvSourceConnector extends RowSourceConnector {
       setting
           .stringOption(CsvConnectorDefinitions.ERROR_FOLDER_KEY)
           .ifPresent(path -> checkExist(fileSystem, path));
+      // the csv files are split into lines by byte
+      CsvSourceConfig.of(setting).charset();
     } finally {
       execute(setting);
     }
@@ -123,7 +141,15 @@ public abstract class CsvSourceConnector extends RowSourceConnector {
                 INPUT_FOLDER_DEFINITION,
                 COMPLETED_FOLDER_DEFINITION,
                 ERROR_FOLDER_DEFINITION,
-                FILE_ENCODE_DEFINITION)
+                FILE_ENCODE_DEFINITION,
+                FILE_DELIMITER_DEFINITION,
+                FILE_QUOTE_DEFINITION,
+                FILE_ESCAPE_DEFINITION,
+                FILE_SPLIT_SIZE_DEFINITION,
+                FILE_PIPELINE_DEPTH_DEFINITION,
+                FILE_LISTING_INCREMENTAL_DEFINITION,
+                FILE_LISTING_INDEX_FOLDER_DEFINITION,
+                FILE_LISTING_WATCH_DEFINITION)
             .collect(Collectors.toUnmodifiableMap(SettingDef::key, Function.identity())));
     return Collections.unmodifiableMap(finalDefinitions);
   }
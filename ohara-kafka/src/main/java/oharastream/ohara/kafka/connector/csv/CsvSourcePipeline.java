@@ -0,0 +1,237 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka.connector.csv;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import oharastream.ohara.common.util.CommonUtils;
+import oharastream.ohara.common.util.Releasable;
+import oharastream.ohara.kafka.connector.RowSourceRecord;
+import oharastream.ohara.metrics.basic.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The background pipeline of csv source. The lister thread lists the input folder, the prefetcher
+ * thread checks the listed files, and the parser thread reads the files. The stages are connected
+ * by bounded queues so the latency of remote file system is overlapped with parsing, and the poll
+ * thread only takes the parsed records.
+ *
+ * <p>The file staying in the pipeline is not listed again until the parser reaches the end of it.
+ * The file is completed only after all its queued records are taken by the poll thread, so the
+ * records dropped by {@link #close()} are read again by next task.
+ */
+final class CsvSourcePipeline implements Releasable {
+  private static final Logger LOG = LoggerFactory.getLogger(CsvSourcePipeline.class);
+  private static final Duration LIST_INTERVAL = Duration.ofSeconds(1);
+  private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+  private static final Duration AWAIT_INTERVAL = Duration.ofMillis(10);
+
+  /** reads the next records of a file. */
+  @FunctionalInterface
+  interface FileReader {
+    /**
+     * @param completable called when the file has no more records. It returns false if the file
+     *     can't be completed now
+     * @return the next records or empty list if there is no more records
+     */
+    List<RowSourceRecord> read(BooleanSupplier completable);
+  }
+
+  private static class OpenedFile {
+    private final String fileName;
+    private final FileReader reader;
+
+    private OpenedFile(String fileName, FileReader reader) {
+      this.fileName = fileName;
+      this.reader = reader;
+    }
+  }
+
+  private interface Stage {
+    void run() throws InterruptedException;
+  }
+
+  private final Supplier<Iterator<String>> lister;
+  private final Function<String, Optional<FileReader>> opener;
+  private final BlockingQueue<String> listedFiles;
+  private final BlockingQueue<OpenedFile> openedFiles;
+  private final BlockingQueue<List<RowSourceRecord>> batches;
+  private final Set<String> processingFiles = ConcurrentHashMap.newKeySet();
+  private final Counter listedFileCounter;
+  private final Counter openedFileCounter;
+  private final Counter batchCounter;
+  private final ExecutorService executor = Executors.newFixedThreadPool(3);
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+
+  /**
+   * @param depth the capacity of each queue
+   * @param lister lists the file names of input folder
+   * @param opener checks the file and returns the reader of file. Empty means the file is skipped
+   * @param listedFileCounter the number of files waiting for the prefetcher. It can be null
+   * @param openedFileCounter the number of files waiting for the parser. It can be null
+   * @param batchCounter the number of record batches waiting for the poll. It can be null
+   */
+  CsvSourcePipeline(
+      int depth,
+      Supplier<Iterator<String>> lister,
+      Function<String, Optional<FileReader>> opener,
+      Counter listedFileCounter,
+      Counter openedFileCounter,
+      Counter batchCounter) {
+    CommonUtils.requirePositiveInt(depth);
+    this.lister = Objects.requireNonNull(lister);
+    this.opener = Objects.requireNonNull(opener);
+    this.listedFiles = new ArrayBlockingQueue<>(depth);
+    this.openedFiles = new ArrayBlockingQueue<>(depth);
+    this.batches = new ArrayBlockingQueue<>(depth);
+    this.listedFileCounter = listedFileCounter;
+    this.openedFileCounter = openedFileCounter;
+    this.batchCounter = batchCounter;
+    executor.execute(() -> loop(this::list));
+    executor.execute(() -> loop(this::prefetch));
+    executor.execute(() -> loop(this::parse));
+  }
+
+  private void loop(Stage stage) {
+    while (!closed.get()) {
+      try {
+        stage.run();
+      } catch (InterruptedException e) {
+        return;
+      } catch (Exception e) {
+        LOG.error("failed to run the stage of csv source", e);
+      }
+    }
+  }
+
+  private static void update(Counter counter, BlockingQueue<?> queue) {
+    if (counter != null) counter.setAndGet(queue.size());
+  }
+
+  private void list() throws InterruptedException {
+    try {
+      Iterator<String> fileNames = lister.get();
+      while (fileNames.hasNext()) {
+        String fileName = fileNames.next();
+        if (processingFiles.add(fileName)) {
+          listedFiles.put(fileName);
+          update(listedFileCounter, listedFiles);
+        }
+      }
+    } catch (RuntimeException e) {
+      LOG.error("failed to list the input folder", e);
+    }
+    // the skipped files (folders, files of other tasks) are listed by every round so we can't
+    // tell the new files from them. The files in pipeline are not listed again so it is fine to
+    // wait for next round.
+    TimeUnit.MILLISECONDS.sleep(LIST_INTERVAL.toMillis());
+  }
+
+  private void prefetch() throws InterruptedException {
+    String fileName = listedFiles.take();
+    update(listedFileCounter, listedFiles);
+    Optional<FileReader> reader;
+    try {
+      reader = opener.apply(fileName);
+    } catch (RuntimeException e) {
+      LOG.error("failed to check " + fileName, e);
+      reader = Optional.empty();
+    }
+    if (reader.isPresent()) {
+      openedFiles.put(new OpenedFile(fileName, reader.get()));
+      update(openedFileCounter, openedFiles);
+    } else processingFiles.remove(fileName);
+  }
+
+  private void parse() throws InterruptedException {
+    OpenedFile file = openedFiles.take();
+    update(openedFileCounter, openedFiles);
+    try {
+      List<RowSourceRecord> records = file.reader.read(this::awaitPolled);
+      while (!records.isEmpty()) {
+        batches.put(records);
+        update(batchCounter, batches);
+        records = file.reader.read(this::awaitPolled);
+      }
+    } finally {
+      processingFiles.remove(file.fileName);
+    }
+  }
+
+  /**
+   * wait for the poll thread to take all queued records.
+   *
+   * @return true if all records are taken. false if the pipeline is closed
+   */
+  private boolean awaitPolled() {
+    try {
+      while (!batches.isEmpty() && !closed.get())
+        TimeUnit.MILLISECONDS.sleep(AWAIT_INTERVAL.toMillis());
+      return !closed.get();
+    } catch (InterruptedException e) {
+      // restore the interrupt
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /** @return the parsed records or empty list if there is no records in the timeout */
+  List<RowSourceRecord> poll() {
+    try {
+      List<RowSourceRecord> records = batches.poll(POLL_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+      update(batchCounter, batches);
+      return records == null ? List.of() : records;
+    } catch (InterruptedException e) {
+      // restore the interrupt
+      Thread.currentThread().interrupt();
+      return List.of();
+    }
+  }
+
+  /**
+   * stop all stages. The records in the queues are dropped, and they are read again by next task
+   * since their offsets are not committed and their files are not completed.
+   */
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      executor.shutdownNow();
+      try {
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS))
+          LOG.warn("the stages of csv source are not terminated in 30 seconds");
+      } catch (InterruptedException e) {
+        // restore the interrupt
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -20,6 +20,7 @@ import java.nio.file.Paths;
 import java.util.ArrayDeque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Queue;
 import oharastream.ohara.common.annotations.VisibleForTesting;
 import oharastream.ohara.common.exception.NoSuchFileException;
@@ -31,8 +32,10 @@ import oharastream.ohara.kafka.connector.TaskSetting;
 import oharastream.ohara.kafka.connector.csv.source.CsvDataReader;
 import oharastream.ohara.kafka.connector.csv.source.CsvSourceConfig;
 import oharastream.ohara.kafka.connector.csv.source.DataReader;
+import oharastream.ohara.kafka.connector.csv.source.FileRange;
 import oharastream.ohara.kafka.connector.storage.FileSystem;
 import oharastream.ohara.kafka.connector.storage.FileType;
+import oharastream.ohara.metrics.basic.Counter;
 
 /**
  * CsvSourceTask moveFile files from file system to Kafka topics. The file format must be csv file,
@@ -42,10 +45,18 @@ import oharastream.ohara.kafka.connector.storage.FileType;
  */
 public abstract class CsvSourceTask extends RowSourceTask {
   private CsvSourceConfig config;
-  private DataReader dataReader;
+  private CsvDataReader dataReader;
   private FileSystem fs;
   private int fileNameCacheCapacity;
   private Queue<String> fileNameCache;
+  // the file systems used by the background stages
+  private FileSystem listerFs;
+  private FileSystem prefetcherFs;
+  private CsvSourcePipeline pipeline;
+  private CsvFileLister lister;
+  private Counter listedFileCounter;
+  private Counter openedFileCounter;
+  private Counter batchCounter;
 
   /**
    * Return the file system for this connector
@@ -62,14 +73,59 @@ public abstract class CsvSourceTask extends RowSourceTask {
     dataReader = CsvDataReader.of(fs, config, rowContext);
     fileNameCacheCapacity = config.fileCacheSize();
     fileNameCache = new ArrayDeque<>(fileNameCacheCapacity);
+    if (config.pipelineDepth().isPresent()) {
+      // the connection of file system may be not thread-safe so each stage has its own file system
+      listerFs = fileSystem(setting);
+      prefetcherFs = fileSystem(setting);
+    }
+    if (config.incrementalListing()) {
+      // each task has its own index since the skipped files are different
+      String indexName = setting.connectorKey().toPlain() + "-" + config.hash() + ".index";
+      lister =
+          new CsvFileLister(
+              listerFs == null ? fs : listerFs,
+              config.inputFolder(),
+              config.listingIndexFolder().map(folder -> Paths.get(folder, indexName)).orElse(null),
+              config.total(),
+              config.watchListing());
+    }
+    if (config.pipelineDepth().isPresent()) {
+      listedFileCounter =
+          counterBuilder()
+              .name("listed.file.number")
+              .unit("files")
+              .document("number of listed files waiting for the check")
+              .build();
+      openedFileCounter =
+          counterBuilder()
+              .name("opened.file.number")
+              .unit("files")
+              .document("number of checked files waiting for the parser")
+              .build();
+      batchCounter =
+          counterBuilder()
+              .name("parsed.batch.number")
+              .unit("batches")
+              .document("number of parsed record batches waiting for the poll")
+              .build();
+      pipeline =
+          new CsvSourcePipeline(
+              config.pipelineDepth().get(),
+              () -> listFileNames(listerFs),
+              fileName -> reader(prefetcherFs, fileName),
+              listedFileCounter,
+              openedFileCounter,
+              batchCounter);
+    }
   }
 
   @Override
   public final List<RowSourceRecord> pollRecords() {
+    if (pipeline != null) return pipeline.poll();
     var sleeper = new Sleeper();
     do {
       if (fileNameCache.isEmpty()) {
-        Iterator<String> fileNames = fs.listFileNames(config.inputFolder());
+        Iterator<String> fileNames = listFileNames(fs);
         while (fileNames.hasNext()) {
           if (fileNameCacheCapacity <= fileNameCache.size()) break;
           else fileNameCache.offer(fileNames.next());
@@ -86,24 +142,75 @@ public abstract class CsvSourceTask extends RowSourceTask {
     return List.of();
   }
 
+  private Iterator<String> listFileNames(FileSystem fs) {
+    if (lister != null) return lister.list().iterator();
+    return fs.listFileNames(config.inputFolder());
+  }
+
   private List<RowSourceRecord> tryToRead(String fileName) {
+    return reader(fs, fileName).map(reader -> reader.read(() -> true)).orElse(List.of());
+  }
+
+  /**
+   * check the file and create the reader of file.
+   *
+   * @param fs file system used to check the file
+   * @param fileName file name
+   * @return the reader of file, or empty if the file is not processed by this task
+   */
+  private Optional<CsvSourcePipeline.FileReader> reader(FileSystem fs, String fileName) {
     try {
       String path = Paths.get(config.inputFolder(), fileName).toString();
       // we skip the folder
-      if (fs.fileType(path) == FileType.FILE
-          // Avoid more than one Task processing the same file
-          && fileName.hashCode() % config.total() == config.hash()) {
-        return dataReader.read(path);
+      if (fs.fileType(path) != FileType.FILE) return skip(fileName);
+      // the large file is processed by all tasks
+      if (config.splitSize().isPresent()) {
+        long size = fs.size(path);
+        if (size > config.splitSize().get()) {
+          List<FileRange> ranges = FileRange.split(size, config.splitSize().get());
+          // the file is completed after the offsets of all ranges are committed
+          return Optional.of(completable -> dataReader.read(path, ranges));
+        }
       }
+      // Avoid more than one Task processing the same file
+      if (isOwner(fileName, config.total(), config.hash()))
+        return Optional.of(completable -> dataReader.read(path, completable));
+      return skip(fileName);
     } catch (NoSuchFileException e) {
       // fs.fileType may throw NoSuchFileException if the file is removed by other process. We just
       // swallow this error
+      if (lister != null) lister.remove(fileName);
     }
-    return List.of();
+    return Optional.empty();
+  }
+
+  /**
+   * @param fileName file name
+   * @param total number of tasks
+   * @param hash hash of this task
+   * @return true if the file is processed by this task. The hash code of file name can be
+   *     negative so floorMod is used to keep the index in [0, total).
+   */
+  @VisibleForTesting
+  static boolean isOwner(String fileName, int total, int hash) {
+    return Math.floorMod(fileName.hashCode(), total) == hash;
+  }
+
+  private Optional<CsvSourcePipeline.FileReader> skip(String fileName) {
+    if (lister != null) lister.skip(fileName);
+    return Optional.empty();
   }
 
   @Override
   public final void terminate() {
+    // the pipeline and lister must be closed before the file systems used by them
+    Releasable.close(pipeline);
+    Releasable.close(lister);
+    Releasable.close(listerFs);
+    Releasable.close(prefetcherFs);
+    Releasable.close(listedFileCounter);
+    Releasable.close(openedFileCounter);
+    Releasable.close(batchCounter);
     Releasable.close(fs);
   }
 
@@ -16,11 +16,17 @@
 
 package oharastream.ohara.kafka.connector.csv.source;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import oharastream.ohara.common.annotations.VisibleForTesting;
 import oharastream.ohara.common.util.CommonUtils;
 import oharastream.ohara.kafka.connector.RowSourceContext;
 import oharastream.ohara.kafka.connector.RowSourceRecord;
@@ -37,6 +43,21 @@ public class CsvDataReader implements DataReader {
   private final RowSourceContext context;
   private final CsvOffsetCache offsetCache;
 
+  /**
+   * the header of files which are being processed. The header is required to parse the lines so we
+   * keep it in order to avoid reading the head of file repeatedly.
+   */
+  private final Map<String, String[]> headers = new HashMap<>();
+  // the byte position after the header
+  private final Map<String, Long> headerPositions = new HashMap<>();
+  private final CsvTokenizer tokenizer;
+  private final Charset charset;
+
+  // the offsets of ranges of split files
+  private final CsvOffsetCache rangeOffsetCache = new CsvOffsetCache();
+  // the keys of ranges which are processed by this reader
+  private final Set<String> finishedRanges = new HashSet<>();
+
   public static CsvDataReader of(FileSystem fs, CsvSourceConfig config, RowSourceContext context) {
     return new CsvDataReader(fs, config, context);
   }
@@ -46,38 +67,256 @@ public class CsvDataReader implements DataReader {
     this.config = config;
     this.context = context;
     this.offsetCache = new CsvOffsetCache();
+    this.tokenizer = config.tokenizer();
+    this.charset = config.charset();
+  }
+
+  private CsvRecordConverter.Builder converterBuilder(String path) {
+    return CsvRecordConverter.builder()
+        .path(path)
+        .topicKeys(config.topicKeys())
+        .schema(config.columns())
+        .maximumNumberOfLines(config.maximumNumberOfLines())
+        .tokenizer(tokenizer);
   }
 
   @Override
   public List<RowSourceRecord> read(String path) {
+    return read(path, () -> true);
+  }
+
+  /**
+   * Read the records of a file. The file is moved to the completed folder when it has no more
+   * records and the completable returns true.
+   *
+   * @param path the path of file
+   * @param completable called when the file has no more records. It returns false if the file
+   *     can't be completed now, and the file is completed by the next call of this method
+   * @return a list of RowSourceRecord
+   */
+  public List<RowSourceRecord> read(String path, BooleanSupplier completable) {
     try {
       offsetCache.loadIfNeed(context, path);
-      CsvRecordConverter converter =
-          CsvRecordConverter.builder()
-              .path(path)
-              .topicKeys(config.topicKeys())
-              .offsetCache(offsetCache)
-              .schema(config.columns())
-              .maximumNumberOfLines(config.maximumNumberOfLines())
-              .build();
-
-      List<RowSourceRecord> records;
-      try (BufferedReader reader =
-          new BufferedReader(
-              new InputStreamReader(fs.open(path), Charset.forName(config.encode())))) {
-        records = converter.convert(reader.lines());
-      }
+      CsvRecordConverter converter = converterBuilder(path).offsetCache(offsetCache).build();
+
+      List<RowSourceRecord> records = read(path, converter);
 
       // eof so we mark the file as "completed"
-      if (records.isEmpty()) handleCompletedFile(path);
+      if (records.isEmpty() && completable.getAsBoolean()) {
+        release(path);
+        handleCompletedFile(path);
+      }
       return records;
     } catch (Exception e) {
       LOG.error("failed to handle " + path, e);
+      release(path);
+      // the failed record may be incomplete
+      tokenizer.reset();
       handleErrorFile(path);
       return List.of();
     }
   }
 
+  /**
+   * Read the ranges, which are owned by this reader, of a large file. The ranges of a file are
+   * spread over all tasks, and the owner of first range moves the file to the completed folder
+   * after all ranges are processed. Other readers release the cache of file after their ranges
+   * are processed.
+   *
+   * @param path the path of file
+   * @param ranges all ranges of the file
+   * @return a list of RowSourceRecord
+   */
+  public List<RowSourceRecord> read(String path, List<FileRange> ranges) {
+    try {
+      String[] header = header(path);
+      if (header != null) {
+        for (FileRange range : ranges) {
+          String key = range.key(path);
+          if (!owns(path, range) || finishedRanges.contains(key)) continue;
+          List<RowSourceRecord> records = read(path, header, range);
+          // the next line is beyond the end of range so the range has no more records
+          if (records.isEmpty() || rangeOffsetCache.position(key) >= range.end())
+            finishedRanges.add(key);
+          if (!records.isEmpty()) {
+            // the file may be completed by the owner of first range before it is read again
+            if (!owns(path, ranges.get(0)) && processed(path, ranges)) release(path, ranges);
+            return records;
+          }
+        }
+      }
+      if (!owns(path, ranges.get(0))) {
+        // only the owner of first range completes the file, so other readers evict the cache of
+        // file after their ranges are processed. If the file is listed again, the owned ranges are
+        // checked by the cached offsets and no record is read again.
+        release(path, ranges);
+      } else if (header == null || completed(path, ranges)) {
+        release(path, ranges);
+        handleCompletedFile(path);
+      }
+      return List.of();
+    } catch (Exception e) {
+      LOG.error("failed to handle " + path, e);
+      release(path, ranges);
+      // the failed record may be incomplete
+      tokenizer.reset();
+      handleErrorFile(path);
+      return List.of();
+    }
+  }
+
+  /**
+   * @param path file path
+   * @param range file range
+   * @return true if this reader should process the range
+   */
+  private boolean owns(String path, FileRange range) {
+    int hash = Paths.get(path).getFileName().toString().hashCode();
+    return Math.floorMod(hash + range.index(), config.total()) == config.hash();
+  }
+
+  /**
+   * @param path file path
+   * @param ranges all ranges of file
+   * @return true if all ranges owned by this reader are processed
+   */
+  private boolean processed(String path, List<FileRange> ranges) {
+    return ranges.stream()
+        .filter(range -> owns(path, range))
+        .allMatch(range -> finishedRanges.contains(range.key(path)));
+  }
+
+  /**
+   * @param path file path
+   * @return the header of file or null if the file is empty
+   * @throws IOException if failed to read the file
+   */
+  private String[] header(String path) throws IOException {
+    if (!headers.containsKey(path)) {
+      try (LineReader reader = LineReader.of(fs.open(path), charset, 0)) {
+        String[] header = converterBuilder(path).offsetCache(offsetCache).build().header(reader);
+        if (header == null) return null;
+        headers.put(path, header);
+        headerPositions.put(path, reader.position());
+      }
+    }
+    return headers.get(path);
+  }
+
+  /**
+   * read the unprocessed records of range. If there is no offset, the reader starts from the first
+   * line starting in the range.
+   *
+   * @param path file path
+   * @param header the fields of header
+   * @param range file range
+   * @return unprocessed records
+   * @throws IOException if failed to read the file
+   */
+  private List<RowSourceRecord> read(String path, String[] header, FileRange range)
+      throws IOException {
+    String key = range.key(path);
+    rangeOffsetCache.loadIfNeed(context, key, range.partition(path));
+    CsvRecordConverter converter =
+        converterBuilder(path).range(range).offsetCache(rangeOffsetCache).build();
+    long position = rangeOffsetCache.position(key);
+    int index = rangeOffsetCache.index(key) + 1;
+    if (position < 0) {
+      position = headerPositions.get(path);
+      if (range.start() > position) {
+        // the line crossing the start of range belongs to the previous range
+        try (LineReader reader =
+            LineReader.of(fs.open(path, range.start() - 1), charset, range.start() - 1)) {
+          reader.readLine();
+          return converter.convert(header, reader, index);
+        }
+      }
+    }
+    try (LineReader reader = LineReader.of(fs.open(path, position), charset, position)) {
+      return converter.convert(header, reader, index);
+    }
+  }
+
+  /**
+   * check whether all ranges are processed. A range is processed if the next line is beyond the
+   * end of range, or if the range has no line start since it is covered by the line of previous
+   * range. The offsets of ranges processed by other tasks are loaded from the committed offsets so
+   * the check is delayed by the offset flush of kafka.
+   *
+   * @param path file path
+   * @param ranges all ranges of file
+   * @return true if all ranges are processed
+   */
+  private boolean completed(String path, List<FileRange> ranges) {
+    List<Map<String, String>> partitions =
+        ranges.stream()
+            .filter(range -> rangeOffsetCache.position(range.key(path)) < range.end())
+            .map(range -> range.partition(path))
+            .collect(Collectors.toUnmodifiableList());
+    if (!partitions.isEmpty()) {
+      Map<Map<String, String>, Map<String, Object>> offsets = context.offset(partitions);
+      ranges.forEach(
+          range -> rangeOffsetCache.load(range.key(path), offsets.get(range.partition(path))));
+    }
+    long reach = headerPositions.get(path);
+    for (FileRange range : ranges) {
+      long position = rangeOffsetCache.position(range.key(path));
+      if (position >= range.end()) reach = Math.max(reach, position);
+      else if (reach < range.end()) return false;
+    }
+    return true;
+  }
+
+  /** @return the number of cached headers and finished ranges */
+  @VisibleForTesting
+  int cacheSize() {
+    return headers.size() + headerPositions.size() + finishedRanges.size();
+  }
+
+  private void release(String path) {
+    headers.remove(path);
+    headerPositions.remove(path);
+  }
+
+  private void release(String path, List<FileRange> ranges) {
+    release(path);
+    ranges.forEach(range -> finishedRanges.remove(range.key(path)));
+  }
+
+  /**
+   * read the unprocessed records. If the byte position of next record is in the offset, the file is
+   * opened from the position so the processed records are not transferred again. Otherwise, the
+   * file is read from the beginning and the processed records are skipped by index.
+   *
+   * @param path file path
+   * @param converter converter
+   * @return unprocessed records
+   * @throws IOException if failed to read the file
+   */
+  private List<RowSourceRecord> read(String path, CsvRecordConverter converter)
+      throws IOException {
+    long position = offsetCache.position(path);
+    if (!headers.containsKey(path)) {
+      try (LineReader reader = LineReader.of(fs.open(path), charset, 0)) {
+        String[] header = converter.header(reader);
+        if (header == null) return List.of();
+        headers.put(path, header);
+        headerPositions.put(path, reader.position());
+        if (position < 0) return converter.convert(header, reader, 1);
+      }
+    }
+    if (position < 0) {
+      try (LineReader reader = LineReader.of(fs.open(path), charset, 0)) {
+        // skip the header
+        converter.header(reader);
+        return converter.convert(headers.get(path), reader, 1);
+      }
+    }
+    try (LineReader reader = LineReader.of(fs.open(path, position), charset, position)) {
+      return converter.convert(headers.get(path), reader, offsetCache.index(path) + 1);
+    }
+  }
+
   /**
    * Move the file to the completed folder, or delete it directly.
    *
@@ -22,26 +22,74 @@ import oharastream.ohara.kafka.connector.RowSourceContext;
 
 public class CsvOffsetCache implements OffsetCache {
   private final Map<String, Integer> cache = new HashMap<>();
+  // the byte position of next line. It is absent if the offset is generated by older version
+  private final Map<String, Long> positions = new HashMap<>();
 
   public void loadIfNeed(RowSourceContext context, String path) {
+    loadIfNeed(context, path, Map.of(CsvRecordConverter.CSV_PARTITION_KEY, path));
+  }
+
+  /**
+   * load the offset of source partition if the key is not in the cache. The key is not equal to
+   * the path if the file is split into ranges.
+   *
+   * @param context source context
+   * @param key the key of cache
+   * @param partition source partition
+   */
+  public void loadIfNeed(RowSourceContext context, String key, Map<String, String> partition) {
     /**
      * RowSourceContext is based on kafka context, and the Getter methods is based on kafka topic.
      * It means touching the method may be a high latency operation since it produces network
      * traffics. Therefore, we SHOULD avoid triggering the method frequently.
      */
-    if (!cache.containsKey(path)) {
-      Map<String, Object> offset =
-          context.offset(Map.of(CsvRecordConverter.CSV_PARTITION_KEY, path));
-      if (!offset.isEmpty()) update(path, getOffsetValue(offset));
-    }
+    if (!cache.containsKey(key)) load(key, context.offset(partition));
+  }
+
+  /**
+   * update the cache by the offset of source partition.
+   *
+   * @param key the key of cache
+   * @param offset source offset
+   */
+  public void load(String key, Map<String, Object> offset) {
+    if (offset == null || offset.isEmpty()) return;
+    Object position = offset.get(CsvRecordConverter.CSV_POSITION_KEY);
+    if (position instanceof Number)
+      update(key, getOffsetValue(offset), ((Number) position).longValue());
+    else update(key, getOffsetValue(offset));
   }
 
   public void update(String path, int index) {
-    if (!cache.containsKey(path)) {
+    if (!cache.containsKey(path) || index > cache.get(path)) {
       cache.put(path, index);
+      // the position belongs to an older line
+      positions.remove(path);
     }
-    int previous = cache.get(path);
-    if (index > previous) cache.put(path, index);
+  }
+
+  @Override
+  public void update(String path, int index, long position) {
+    if (!cache.containsKey(path) || index > cache.get(path)) {
+      cache.put(path, index);
+      positions.put(path, position);
+    }
+  }
+
+  /**
+   * @param path file path
+   * @return the index of latest processed line or -1 if there is no processed line
+   */
+  public int index(String path) {
+    return cache.getOrDefault(path, -1);
+  }
+
+  /**
+   * @param path file path
+   * @return the byte position of next line or -1 if the position is unknown
+   */
+  public long position(String path) {
+    return positions.getOrDefault(path, -1L);
   }
 
   public boolean predicate(String path, int index) {
@@ -16,122 +16,167 @@
 
 package oharastream.ohara.kafka.connector.csv.source;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 import oharastream.ohara.common.annotations.VisibleForTesting;
 import oharastream.ohara.common.data.*;
 import oharastream.ohara.common.setting.TopicKey;
 import oharastream.ohara.common.util.CommonUtils;
-import oharastream.ohara.common.util.StreamUtils;
 import oharastream.ohara.kafka.connector.RowSourceRecord;
 
 /**
  * A converter to be used to read data from a csv file, and convert to records of Kafka Connect
  * format
  */
-public class CsvRecordConverter implements RecordConverter {
-  @VisibleForTesting static final String CSV_REGEX = ",(?=([^\"]*\"[^\"]*\")*[^\"]*$)";
+public class CsvRecordConverter {
   public static final String CSV_PARTITION_KEY = "csv.file.path";
   public static final String CSV_OFFSET_KEY = "csv.file.line";
+  /** the byte position of next line. It enables the reader to seek to the unprocessed lines. */
+  public static final String CSV_POSITION_KEY = "csv.file.position";
 
   public static Builder builder() {
     return new Builder();
   }
 
   private final String path;
+  // the key of offset cache. It is equal to path if the file is not split
+  private final String key;
+  // the lines starting from this position are not converted
+  private final long end;
   private final Set<TopicKey> topicKeys;
-  private final List<Column> schema;
+  // the columns sorted by order
+  private final List<Column> columns;
 
   private final Map<String, String> partition;
   private final OffsetCache cache;
   private final int maximumNumberOfLines;
+  private final CsvTokenizer tokenizer;
 
-  @Override
-  public List<RowSourceRecord> convert(Stream<String> lines) {
-    Map<Integer, List<Cell<String>>> cellsAndIndex = toCells(lines, maximumNumberOfLines);
-    Map<Integer, Row> rowsAndIndex = transform(cellsAndIndex);
-    List<RowSourceRecord> records = toRecords(rowsAndIndex);
-    // ok. all data are prepared. let's update the cache
-    rowsAndIndex.keySet().forEach(index -> cache.update(path, index));
-    return records;
+  /**
+   * read the first record of file.
+   *
+   * @param reader line reader
+   * @return the fields of header or null if there is no data
+   * @throws IOException if failed to read the lines
+   */
+  String[] header(LineReader reader) throws IOException {
+    return next(reader) ? tokenizer.fields() : null;
   }
 
   /**
-   * read all lines from a reader, and then convert them to cells.
+   * read the records from the reader and then convert them to source records. The fields are
+   * converted to the typed cells directly. The byte position of each record is kept in the source
+   * offset so the next read can start from the unprocessed records directly.
    *
-   * @param lines the input stream
-   * @param maximumNumberOfLines the max number of converted lines
-   * @return data
+   * @param header the fields of first record
+   * @param reader line reader
+   * @param index the index of next record
+   * @return records. If nothing is readable (i.e EOF or the end of range), an empty collection is
+   *     returned.
+   * @throws IOException if failed to read the lines
    */
-  @VisibleForTesting
-  Map<Integer, List<Cell<String>>> toCells(Stream<String> lines, int maximumNumberOfLines) {
-    Map<Integer, String> lineAndIndex =
-        StreamUtils.zipWithIndex(lines)
-            .filter(
-                pair -> {
-                  int index = pair.getKey();
-                  if (index == 0) return true;
-                  return cache.predicate(path, index);
-                })
-            // the header must be included.
-            // increase maximumNumberOfLines only if it is smaller than Integer.MAX
-            .limit(Math.max(maximumNumberOfLines, maximumNumberOfLines + 1))
-            .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
-
-    if (lineAndIndex.isEmpty()) return Map.of();
-
-    String[] header =
-        Arrays.stream(lineAndIndex.get(0).split(CSV_REGEX))
-            .map(String::trim)
-            .toArray(String[]::new);
-
-    return lineAndIndex.entrySet().stream()
-        .filter(e -> e.getKey() > 0)
-        .collect(
-            Collectors.toUnmodifiableMap(
-                Map.Entry::getKey,
-                e -> {
-                  String line = e.getValue();
-                  String[] items = line.split(CSV_REGEX);
-                  return IntStream.range(0, items.length)
-                      .mapToObj(i -> Cell.of(header[i], items[i].trim()))
-                      .collect(Collectors.toUnmodifiableList());
-                }));
+  List<RowSourceRecord> convert(String[] header, LineReader reader, int index)
+      throws IOException {
+    int[] fieldIndexes = fieldIndexes(header);
+    List<RowSourceRecord> records = new ArrayList<>();
+    int count = 0;
+    int lastIndex = -1;
+    // the position of reader is the start of next record
+    while (count < maximumNumberOfLines && reader.position() < end && next(reader)) {
+      if (cache.predicate(key, index)) {
+        records.addAll(toRecords(toRow(header, fieldIndexes), index, reader.position()));
+        lastIndex = index;
+        ++count;
+      }
+      ++index;
+    }
+    // ok. all data are prepared. let's update the cache
+    if (lastIndex >= 0) cache.update(key, lastIndex, reader.position());
+    return Collections.unmodifiableList(records);
+  }
+
+  /** @return true if a record is completed by the lines from reader */
+  private boolean next(LineReader reader) throws IOException {
+    String line;
+    while ((line = reader.readLine()) != null) if (tokenizer.tokenize(line)) return true;
+    return complete();
+  }
+
+  /** @return false since there is no more line */
+  private boolean complete() {
+    if (tokenizer.pending()) {
+      tokenizer.reset();
+      throw new IllegalArgumentException("the quoted field is not closed in " + path);
+    }
+    return false;
   }
 
   /**
-   * transform the input cells to rows as stated by the columns. This method does the following
-   * works. 1) filter out the unused cell 2) replace the name by new one 3) convert the string to
-   * specified type
+   * @param header the fields of first record
+   * @return the field index of columns or null if there is no schema
    */
-  @VisibleForTesting
-  Map<Integer, Row> transform(Map<Integer, List<Cell<String>>> indexAndCells) {
-    return indexAndCells.entrySet().stream()
-        .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> transform(e.getValue())));
+  private int[] fieldIndexes(String[] header) {
+    if (columns.isEmpty()) return null;
+    List<String> names = Arrays.asList(header);
+    return columns.stream()
+        .mapToInt(
+            column -> {
+              int index = names.indexOf(column.name());
+              if (index < 0)
+                throw new NoSuchElementException(
+                    "the column:" + column.name() + " does not exist in " + path);
+              return index;
+            })
+        .toArray();
   }
 
-  private Row transform(List<Cell<String>> cells) {
-    if (schema.isEmpty()) {
-      return Row.of(cells.stream().toArray(Cell[]::new));
+  /** convert the fields of completed record to a row. */
+  private Row toRow(String[] header, int[] fieldIndexes) {
+    int size = tokenizer.size();
+    if (size > header.length)
+      throw new IllegalArgumentException(
+          "the number of fields: " + size + " is bigger than header: " + header.length);
+    if (fieldIndexes == null)
+      return Row.of(
+          IntStream.range(0, size)
+              .mapToObj(i -> Cell.of(header[i], tokenizer.field(i)))
+              .toArray(Cell<?>[]::new));
+    Cell<?>[] cells = new Cell<?>[fieldIndexes.length];
+    for (int i = 0; i != cells.length; ++i) {
+      Column column = columns.get(i);
+      if (fieldIndexes[i] >= size)
+        throw new NoSuchElementException("the column:" + column.name() + " is absent");
+      cells[i] = toCell(column.newName(), tokenizer.field(fieldIndexes[i]), column.dataType());
     }
-
-    return Row.of(
-        schema.stream()
-            .sorted(Comparator.comparing(Column::order))
-            .map(
-                column -> {
-                  String value = findCellByName(cells, column.name()).value();
-                  Object newValue = convertByType(value, column.dataType());
-                  return Cell.of(column.newName(), newValue);
-                })
-            .toArray(Cell[]::new));
+    return Row.of(cells);
   }
 
+  /**
+   * parse the string to a cell of specified type. The primitive values are carried by primitive
+   * cells so they are not boxed.
+   */
   @VisibleForTesting
-  Cell<String> findCellByName(List<Cell<String>> cells, String name) {
-    return cells.stream().filter(cell -> cell.name().equals(name)).findFirst().get();
+  Cell<?> toCell(String name, String value, DataType type) {
+    switch (type) {
+      case BOOLEAN:
+        return Cell.of(name, Boolean.parseBoolean(value));
+      case BYTE:
+        return Cell.of(name, Byte.parseByte(value));
+      case SHORT:
+        return Cell.of(name, Short.parseShort(value));
+      case INT:
+        return Cell.of(name, Integer.parseInt(value));
+      case LONG:
+        return Cell.of(name, Long.parseLong(value));
+      case FLOAT:
+        return Cell.of(name, Float.parseFloat(value));
+      case DOUBLE:
+        return Cell.of(name, Double.parseDouble(value));
+      default:
+        return Cell.of(name, convertByType(value, type));
+    }
   }
 
   @VisibleForTesting
@@ -161,28 +206,17 @@ public class CsvRecordConverter implements RecordConverter {
   }
 
   @VisibleForTesting
-  List<RowSourceRecord> toRecords(Map<Integer, Row> rows) {
-    return rows.entrySet().stream()
-        // we have to keep the order of insertion by sorting key (key is the index of line in file)
-        .sorted(Map.Entry.comparingByKey())
-        .map(
-            e -> {
-              int index = e.getKey();
-              Row row = e.getValue();
-              return toRecords(row, index);
-            })
-        .flatMap(List::stream)
-        .collect(Collectors.toUnmodifiableList());
+  List<RowSourceRecord> toRecords(Row row, int index, long position) {
+    return toRecords(row, Map.of(CSV_OFFSET_KEY, index, CSV_POSITION_KEY, position));
   }
 
-  @VisibleForTesting
-  List<RowSourceRecord> toRecords(Row row, int index) {
+  private List<RowSourceRecord> toRecords(Row row, Map<String, ?> offset) {
     return this.topicKeys.stream()
         .map(
             t ->
                 RowSourceRecord.builder()
                     .sourcePartition(partition)
-                    .sourceOffset(Map.of(CSV_OFFSET_KEY, index))
+                    .sourceOffset(offset)
                     .row(row)
                     .topicKey(t)
                     .build())
@@ -193,9 +227,11 @@ public class CsvRecordConverter implements RecordConverter {
       implements oharastream.ohara.common.pattern.Builder<CsvRecordConverter> {
     // Required parameters
     private String path;
+    private FileRange range = null;
     private Set<TopicKey> topicKeys;
     private OffsetCache offsetCache;
     private int maximumNumberOfLines = Integer.MAX_VALUE;
+    private CsvTokenizer tokenizer = CsvTokenizer.builder().build();
 
     // Optional parameters - initialized to default values
     private List<Column> schema = List.of();
@@ -207,6 +243,19 @@ public class CsvRecordConverter implements RecordConverter {
       return this;
     }
 
+    /**
+     * convert the records starting in the range only. The progress of range is tracked by its own
+     * source partition.
+     *
+     * @param range file range
+     * @return this builder
+     */
+    @oharastream.ohara.common.annotations.Optional("default is whole file")
+    public Builder range(FileRange range) {
+      this.range = Objects.requireNonNull(range);
+      return this;
+    }
+
     public Builder topicKeys(Set<TopicKey> topicKeys) {
       this.topicKeys = new HashSet<>(Objects.requireNonNull(topicKeys));
       return this;
@@ -223,6 +272,12 @@ public class CsvRecordConverter implements RecordConverter {
       return this;
     }
 
+    @oharastream.ohara.common.annotations.Optional("default is a RFC 4180 tokenizer")
+    public Builder tokenizer(CsvTokenizer tokenizer) {
+      this.tokenizer = Objects.requireNonNull(tokenizer);
+      return this;
+    }
+
     @oharastream.ohara.common.annotations.Optional("default is empty")
     public Builder schema(List<Column> val) {
       schema = new ArrayList<>(Objects.requireNonNull(val));
@@ -241,9 +296,21 @@ public class CsvRecordConverter implements RecordConverter {
   private CsvRecordConverter(Builder builder) {
     path = builder.path;
     topicKeys = builder.topicKeys;
-    schema = builder.schema;
+    columns =
+        builder.schema.stream()
+            .sorted(Comparator.comparing(Column::order))
+            .collect(Collectors.toUnmodifiableList());
     cache = builder.offsetCache;
     maximumNumberOfLines = builder.maximumNumberOfLines;
-    partition = Map.of(CSV_PARTITION_KEY, builder.path);
+    tokenizer = builder.tokenizer;
+    if (builder.range == null) {
+      key = builder.path;
+      end = Long.MAX_VALUE;
+      partition = Map.of(CSV_PARTITION_KEY, builder.path);
+    } else {
+      key = builder.range.key(builder.path);
+      end = builder.range.end();
+      partition = builder.range.partition(builder.path);
+    }
   }
 }
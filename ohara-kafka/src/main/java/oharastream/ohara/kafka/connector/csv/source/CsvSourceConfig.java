@@ -18,8 +18,20 @@ package oharastream.ohara.kafka.connector.csv.source;
 
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.COMPLETED_FOLDER_KEY;
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.ERROR_FOLDER_KEY;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_DELIMITER_DEFAULT;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_DELIMITER_KEY;
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_ENCODE_DEFAULT;
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_ENCODE_KEY;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_ESCAPE_KEY;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_LISTING_INCREMENTAL_DEFAULT;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_LISTING_INCREMENTAL_KEY;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_LISTING_INDEX_FOLDER_KEY;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_LISTING_WATCH_DEFAULT;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_LISTING_WATCH_KEY;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_PIPELINE_DEPTH_KEY;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_QUOTE_DEFAULT;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_QUOTE_KEY;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_SPLIT_SIZE_KEY;
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.INPUT_FOLDER_KEY;
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.MAXIMUM_NUMBER_OF_LINES_DEFAULT;
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.MAXIMUM_NUMBER_OF_LINES_KEY;
@@ -28,6 +40,7 @@ import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.SIZE
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.TASK_HASH_KEY;
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.TASK_TOTAL_KEY;
 
+import java.nio.charset.Charset;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -63,6 +76,52 @@ public interface CsvSourceConfig {
   /** @return the string encode to parse csv files */
   String encode();
 
+  /**
+   * The lines of csv files are split by byte so the line feed must be a single byte in the charset.
+   * For example, UTF-8 and ISO-8859-1 are supported but UTF-16 and UTF-32 are not.
+   *
+   * @return the charset to parse csv files
+   * @throws IllegalArgumentException if the charset is unknown or unsupported
+   */
+  default Charset charset() {
+    Charset charset = Charset.forName(encode());
+    if (!LineReader.supports(charset))
+      throw new IllegalArgumentException(
+          "the encode: " + encode() + " is not supported since the line feed is not a single byte");
+    return charset;
+  }
+
+  /** @return the char used to separate the fields */
+  char delimiter();
+
+  /** @return the char used to enclose the field */
+  char quote();
+
+  /** @return the char used to escape the quote. Empty means the quote is escaped by doubling it */
+  Optional<Character> escape();
+
+  /** @return a tokenizer based on the delimiter, quote and escape */
+  default CsvTokenizer tokenizer() {
+    CsvTokenizer.Builder builder = CsvTokenizer.builder().delimiter(delimiter()).quote(quote());
+    escape().ifPresent(builder::escape);
+    return builder.build();
+  }
+
+  /** @return the max size of file range. Empty means the files are not split */
+  Optional<Long> splitSize();
+
+  /** @return the capacity of pipeline queues. Empty means the files are read by poll thread */
+  Optional<Integer> pipelineDepth();
+
+  /** @return true if the skipped files are indexed to avoid checking them again */
+  boolean incrementalListing();
+
+  /** @return the local folder storing the listing index. Empty means the index is in memory */
+  Optional<String> listingIndexFolder();
+
+  /** @return true if the new files are found by the change notification of file system */
+  boolean watchListing();
+
   /** @return target topics */
   Set<TopicKey> topicKeys();
 
@@ -128,6 +187,48 @@ public interface CsvSourceConfig {
         return setting.stringOption(FILE_ENCODE_KEY).orElse(FILE_ENCODE_DEFAULT);
       }
 
+      @Override
+      public char delimiter() {
+        return toChar(setting.stringOption(FILE_DELIMITER_KEY).orElse(FILE_DELIMITER_DEFAULT));
+      }
+
+      @Override
+      public char quote() {
+        return toChar(setting.stringOption(FILE_QUOTE_KEY).orElse(FILE_QUOTE_DEFAULT));
+      }
+
+      @Override
+      public Optional<Character> escape() {
+        return setting.stringOption(FILE_ESCAPE_KEY).map(CsvSourceConfig::toChar);
+      }
+
+      @Override
+      public Optional<Long> splitSize() {
+        return setting.longOption(FILE_SPLIT_SIZE_KEY);
+      }
+
+      @Override
+      public Optional<Integer> pipelineDepth() {
+        return setting.intOption(FILE_PIPELINE_DEPTH_KEY);
+      }
+
+      @Override
+      public boolean incrementalListing() {
+        return setting
+            .booleanOption(FILE_LISTING_INCREMENTAL_KEY)
+            .orElse(FILE_LISTING_INCREMENTAL_DEFAULT);
+      }
+
+      @Override
+      public Optional<String> listingIndexFolder() {
+        return setting.stringOption(FILE_LISTING_INDEX_FOLDER_KEY);
+      }
+
+      @Override
+      public boolean watchListing() {
+        return setting.booleanOption(FILE_LISTING_WATCH_KEY).orElse(FILE_LISTING_WATCH_DEFAULT);
+      }
+
       @Override
       public Set<TopicKey> topicKeys() {
         return setting.topicKeys();
@@ -139,4 +240,17 @@ public interface CsvSourceConfig {
       }
     };
   }
+
+  /**
+   * parse the setting to a char. "\\t" is converted to tab since it is hard to input a tab.
+   *
+   * @param value setting value
+   * @return char
+   */
+  private static char toChar(String value) {
+    if (value.equals("\\t")) return '\t';
+    if (value.length() != 1)
+      throw new IllegalArgumentException("expected a single char but actual:" + value);
+    return value.charAt(0);
+  }
 }
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka.connector.csv.source;
+
+import java.util.Arrays;
+import oharastream.ohara.common.annotations.Optional;
+
+/**
+ * A single-pass csv tokenizer which follows RFC 4180. It is fed by lines (excluding the line
+ * separator) and it keeps the state between lines so a quoted field can carry the line separator.
+ * The field buffer and the array of fields are reused by all records so the tokenizer generates no
+ * garbage except for the values of fields.
+ *
+ * <ul>
+ *   <li>the field enclosed by quote can carry delimiter, quote and line separator
+ *   <li>the quote in the quoted field is escaped by escape character. If the escape is equal to
+ *       quote, the quote is escaped by doubling it (RFC 4180)
+ *   <li>the leading and trailing whitespaces out of quotes are removed
+ * </ul>
+ *
+ * <p>This class is not thread-safe.
+ */
+public final class CsvTokenizer {
+  public static final char DELIMITER_DEFAULT = ',';
+  public static final char QUOTE_DEFAULT = '"';
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private enum State {
+    FIELD_START,
+    UNQUOTED,
+    QUOTED,
+    /** the quote in quoted field. It is either the closing quote or the escape of next quote. */
+    QUOTE_IN_QUOTED,
+    ESCAPE_IN_QUOTED,
+    ESCAPE_IN_UNQUOTED
+  }
+
+  private final char delimiter;
+  private final char quote;
+  private final char escape;
+  private final StringBuilder field = new StringBuilder();
+  private String[] fields = new String[16];
+  private int size = 0;
+  private State state = State.FIELD_START;
+  // the chars before this position are enclosed by quotes or escaped so they are not trimmed
+  private int protectedLength = 0;
+  private boolean completed = true;
+
+  private CsvTokenizer(char delimiter, char quote, char escape) {
+    this.delimiter = delimiter;
+    this.quote = quote;
+    this.escape = escape;
+  }
+
+  /**
+   * tokenize a line. If there is an unclosed quote, the line separator is added to the field and
+   * the record is completed by following lines.
+   *
+   * @param line a line excluding the line separator
+   * @return true if the record is completed. Otherwise, next line is required.
+   */
+  public boolean tokenize(CharSequence line) {
+    if (completed) {
+      size = 0;
+      completed = false;
+    }
+    for (int index = 0, length = line.length(); index != length; ++index)
+      accept(line.charAt(index));
+    completed = endOfLine();
+    return completed;
+  }
+
+  /** @return true if the current record is waiting for the following lines */
+  public boolean pending() {
+    return !completed;
+  }
+
+  /** drop the state of current record. */
+  public void reset() {
+    field.setLength(0);
+    size = 0;
+    state = State.FIELD_START;
+    protectedLength = 0;
+    completed = true;
+  }
+
+  /** @return the number of fields in the completed record */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param index index of field
+   * @return the field of completed record
+   */
+  public String field(int index) {
+    if (index < 0 || index >= size)
+      throw new IndexOutOfBoundsException("index:" + index + " size:" + size);
+    return fields[index];
+  }
+
+  /** @return a copy of fields of completed record */
+  public String[] fields() {
+    return Arrays.copyOf(fields, size);
+  }
+
+  private void accept(char c) {
+    switch (state) {
+      case FIELD_START:
+        if (c == delimiter) emit();
+        else if (c == quote) state = State.QUOTED;
+        else if (c == escape) state = State.ESCAPE_IN_UNQUOTED;
+        // skip the leading whitespaces
+        else if (c > ' ') {
+          field.append(c);
+          state = State.UNQUOTED;
+        }
+        break;
+      case UNQUOTED:
+        if (c == delimiter) emit();
+        else if (c == escape && escape != quote) state = State.ESCAPE_IN_UNQUOTED;
+        else field.append(c);
+        break;
+      case QUOTED:
+        if (c == escape && escape != quote) state = State.ESCAPE_IN_QUOTED;
+        else if (c == quote) {
+          protectedLength = field.length();
+          state = escape == quote ? State.QUOTE_IN_QUOTED : State.UNQUOTED;
+        } else field.append(c);
+        break;
+      case QUOTE_IN_QUOTED:
+        if (c == quote) {
+          field.append(c);
+          state = State.QUOTED;
+        } else {
+          // the previous quote is the closing quote. The rest chars are kept as unquoted chars
+          state = State.UNQUOTED;
+          accept(c);
+        }
+        break;
+      case ESCAPE_IN_QUOTED:
+        field.append(c);
+        state = State.QUOTED;
+        break;
+      case ESCAPE_IN_UNQUOTED:
+        field.append(c);
+        protectedLength = field.length();
+        state = State.UNQUOTED;
+        break;
+      default:
+        throw new IllegalStateException("unknown state:" + state);
+    }
+  }
+
+  /** @return true if the record is completed */
+  private boolean endOfLine() {
+    switch (state) {
+      case QUOTED:
+        field.append('\n');
+        return false;
+      case ESCAPE_IN_QUOTED:
+        field.append('\n');
+        state = State.QUOTED;
+        return false;
+      case ESCAPE_IN_UNQUOTED:
+        field.append('\n');
+        protectedLength = field.length();
+        state = State.UNQUOTED;
+        return false;
+      default:
+        emit();
+        return true;
+    }
+  }
+
+  private void emit() {
+    int end = field.length();
+    // remove the trailing whitespaces
+    while (end > protectedLength && field.charAt(end - 1) <= ' ') --end;
+    if (size == fields.length) fields = Arrays.copyOf(fields, size * 2);
+    fields[size++] = field.substring(0, end);
+    field.setLength(0);
+    protectedLength = 0;
+    state = State.FIELD_START;
+  }
+
+  public static final class Builder
+      implements oharastream.ohara.common.pattern.Builder<CsvTokenizer> {
+    private char delimiter = DELIMITER_DEFAULT;
+    private char quote = QUOTE_DEFAULT;
+    // null means the quote is escaped by doubling it
+    private Character escape = null;
+
+    private Builder() {}
+
+    @Optional("default is ,")
+    public Builder delimiter(char delimiter) {
+      this.delimiter = delimiter;
+      return this;
+    }
+
+    @Optional("default is \"")
+    public Builder quote(char quote) {
+      this.quote = quote;
+      return this;
+    }
+
+    /**
+     * @param escape the char used to escape the next char. If it is equal to quote, the quote is
+     *     escaped by doubling it.
+     * @return this builder
+     */
+    @Optional("default is equal to quote")
+    public Builder escape(char escape) {
+      this.escape = escape;
+      return this;
+    }
+
+    @Override
+    public CsvTokenizer build() {
+      char escape = this.escape == null ? quote : this.escape;
+      if (delimiter == quote || delimiter == escape)
+        throw new IllegalArgumentException(
+            "the delimiter can't be equal to quote or escape. delimiter:"
+                + delimiter
+                + " quote:"
+                + quote
+                + " escape:"
+                + escape);
+      if (delimiter == '\n' || quote == '\n' || escape == '\n')
+        throw new IllegalArgumentException("the line separator can't be used by csv tokenizer");
+      return new CsvTokenizer(delimiter, quote, escape);
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka.connector.csv.source;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import oharastream.ohara.common.util.CommonUtils;
+
+/**
+ * A byte range of a large file. The lines starting in the range are processed by the owner of
+ * range, and the progress of each range is tracked by its own source partition. Noted: the ranges
+ * are aligned to lines so the quoted field carrying line separator is unsupported.
+ */
+public final class FileRange {
+  public static final String CSV_RANGE_KEY = "csv.file.range";
+
+  /**
+   * split the file into ranges.
+   *
+   * @param size the size of file
+   * @param splitSize the max size of range
+   * @return ranges
+   */
+  public static List<FileRange> split(long size, long splitSize) {
+    CommonUtils.requirePositiveLong(splitSize);
+    long count = (size + splitSize - 1) / splitSize;
+    if (count > Integer.MAX_VALUE)
+      throw new IllegalArgumentException("too many ranges:" + count + ". Please use bigger size");
+    return LongStream.range(0, Math.max(count, 1))
+        .mapToObj(i -> new FileRange((int) i, i * splitSize, Math.min(size, (i + 1) * splitSize)))
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+  private final int index;
+  private final long start;
+  private final long end;
+
+  private FileRange(int index, long start, long end) {
+    this.index = index;
+    this.start = start;
+    this.end = end;
+  }
+
+  /** @return the index of range in the file */
+  public int index() {
+    return index;
+  }
+
+  /** @return the first byte of range */
+  public long start() {
+    return start;
+  }
+
+  /** @return the end (exclusive) of range */
+  public long end() {
+    return end;
+  }
+
+  /**
+   * @param path file path
+   * @return the source partition of this range
+   */
+  Map<String, String> partition(String path) {
+    return Map.of(
+        CsvRecordConverter.CSV_PARTITION_KEY, path, CSV_RANGE_KEY, String.valueOf(start));
+  }
+
+  /**
+   * @param path file path
+   * @return the key of this range in offset cache
+   */
+  String key(String path) {
+    return path + "@" + start;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof FileRange) {
+      FileRange that = (FileRange) obj;
+      return index == that.index && start == that.start && end == that.end;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(index, start, end);
+  }
+
+  @Override
+  public String toString() {
+    return "index:" + index + ", start:" + start + ", end:" + end;
+  }
+}
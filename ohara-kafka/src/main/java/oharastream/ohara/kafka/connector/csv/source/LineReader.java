@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka.connector.csv.source;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import oharastream.ohara.common.util.Releasable;
+
+/**
+ * A line reader which tracks the byte position of lines. {@link java.io.BufferedReader} decodes the
+ * bytes before splitting lines so it is unable to tell the byte position of a line. This reader
+ * splits the lines by '\n' (and removes the trailing '\r') before decoding. Noted: it works with
+ * the encodings in which '\n' is a single byte, for example UTF-8 and ISO-8859-1.
+ */
+class LineReader implements Releasable {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * @param charset charset
+   * @return true if the line feed is encoded to the single byte '\n'
+   */
+  static boolean supports(Charset charset) {
+    return charset.canEncode() && Arrays.equals("\n".getBytes(charset), new byte[] {'\n'});
+  }
+
+  static LineReader of(InputStream input, Charset charset, long position) {
+    return new LineReader(input, charset, position);
+  }
+
+  private final InputStream input;
+  private final Charset charset;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int bufferIndex = 0;
+  private int bufferSize = 0;
+  private byte[] line = new byte[256];
+  private long position;
+
+  private LineReader(InputStream input, Charset charset, long position) {
+    this.input = input;
+    this.charset = charset;
+    this.position = position;
+  }
+
+  /**
+   * @return next line or null if there is no more line
+   * @throws IOException if failed to read data from the input stream
+   */
+  String readLine() throws IOException {
+    int lineSize = 0;
+    while (true) {
+      if (bufferIndex >= bufferSize) {
+        bufferSize = input.read(buffer, 0, buffer.length);
+        bufferIndex = 0;
+        if (bufferSize <= 0) {
+          bufferSize = 0;
+          // the last line has no line separator
+          return lineSize == 0 ? null : decode(lineSize);
+        }
+      }
+      int start = bufferIndex;
+      while (bufferIndex < bufferSize && buffer[bufferIndex] != '\n') ++bufferIndex;
+      int length = bufferIndex - start;
+      if (lineSize + length > line.length)
+        line = Arrays.copyOf(line, Math.max(line.length * 2, lineSize + length));
+      System.arraycopy(buffer, start, line, lineSize, length);
+      lineSize += length;
+      position += length;
+      if (bufferIndex < bufferSize) {
+        // skip the '\n'
+        ++bufferIndex;
+        ++position;
+        return decode(lineSize);
+      }
+    }
+  }
+
+  /** @return the byte position of next line */
+  long position() {
+    return position;
+  }
+
+  private String decode(int lineSize) {
+    if (lineSize > 0 && line[lineSize - 1] == '\r') --lineSize;
+    return new String(line, 0, lineSize, charset);
+  }
+
+  @Override
+  public void close() {
+    Releasable.close(input);
+  }
+}
@@ -37,6 +37,18 @@ public interface OffsetCache {
    */
   void update(String path, int index);
 
+  /**
+   * add (index, path) and the byte position after the line to the cache. The default
+   * implementation ignores the position.
+   *
+   * @param path file path
+   * @param index index from line
+   * @param position the byte position of next line
+   */
+  default void update(String path, int index, long position) {
+    update(path, index);
+  }
+
   /**
    * check whether the index from path is processed.
    *
@@ -24,18 +24,23 @@ import static oharastream.ohara.common.setting.SettingDef.COLUMN_ORDER_KEY;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import oharastream.ohara.common.annotations.VisibleForTesting;
 import oharastream.ohara.common.data.DataType;
+import oharastream.ohara.common.data.RowCodec;
 import oharastream.ohara.common.exception.ConfigException;
 import oharastream.ohara.common.setting.SettingDef;
 import oharastream.ohara.common.setting.SettingDef.Reference;
 import oharastream.ohara.common.setting.SettingDef.Type;
 import oharastream.ohara.common.setting.TableColumn;
+import oharastream.ohara.kafka.Header;
+import oharastream.ohara.kafka.RecordLayout;
 import oharastream.ohara.kafka.RowDefaultPartitioner;
 import org.apache.kafka.common.config.ConfigDef;
 import org.apache.kafka.connect.runtime.rest.entities.ConfigKeyInfo;
@@ -190,6 +195,102 @@ public final class ConnectorDefUtils {
                           .collect(Collectors.toUnmodifiableSet()))
                   .build());
 
+  /**
+   * the format of serialized row. The compact formats are smaller but they are readable only to the
+   * ohara which supports the version 1 of row. Noted that the rows written by COMPACT_WITH_SCHEMA
+   * carry no names of cells so they are readable only to the sink connectors having the same
+   * columns. The configurator rejects to start the connector if the other readers of topics can't
+   * supply the schema.
+   */
+  public static final SettingDef ROW_FORMAT_DEFINITION =
+      createDef(
+          builder ->
+              builder
+                  .displayName("row format")
+                  .key("row.format")
+                  .documentation(
+                      "the format of serialized row. It includes DEFAULT, COMPACT and "
+                          + "COMPACT_WITH_SCHEMA. The COMPACT_WITH_SCHEMA is readable only to the "
+                          + "sink connectors having the same columns")
+                  .optional(
+                      // the first one is the default value
+                      Stream.of(RowCodec.Format.values())
+                          .map(RowCodec.Format::name)
+                          .collect(
+                              Collectors.<String, Set<String>>toCollection(LinkedHashSet::new)))
+                  .build());
+
+  /**
+   * the layout of record written by source connector. The sink connectors read both layouts so it
+   * is fine to change the layout of existent topics.
+   */
+  public static final SettingDef RECORD_LAYOUT_DEFINITION =
+      createDef(
+          builder ->
+              builder
+                  .displayName("record layout")
+                  .key("record.layout")
+                  .documentation(
+                      "the layout of record. It includes KEY (row in key) and VALUE (row in value "
+                          + "and key columns in key)")
+                  .optional(
+                      // the first one is the default value
+                      Stream.of(RecordLayout.values())
+                          .map(RecordLayout::name)
+                          .collect(
+                              Collectors.<String, Set<String>>toCollection(LinkedHashSet::new)))
+                  .regex(RecordLayout.REGEX)
+                  .build());
+
+  public static final SettingDef RECORD_KEY_COLUMNS_DEFINITION =
+      createDef(
+          builder ->
+              builder
+                  .displayName("record key columns")
+                  .key("record.key.columns")
+                  .documentation(
+                      "the columns composing the key of record. It works only if the record "
+                          + "layout is value")
+                  .optional(Type.ARRAY)
+                  .build());
+
+  /**
+   * the headers added to the records by source connector. The compact headers carry the numeric id
+   * of connector only and the inspection of topic resolves it to the connector key.
+   */
+  public static final SettingDef HEADER_FORMAT_DEFINITION =
+      createDef(
+          builder ->
+              builder
+                  .displayName("header format")
+                  .key("header.format")
+                  .documentation(
+                      "the format of record headers. It includes FULL (source class and key) and "
+                          + "COMPACT (numeric id of source)")
+                  .optional(
+                      // the first one is the default value
+                      Stream.of(Header.Format.values())
+                          .map(Header.Format::name)
+                          .collect(
+                              Collectors.<String, Set<String>>toCollection(LinkedHashSet::new)))
+                  .build());
+
+  /**
+   * the max number of records which are sent by source connector but not acked yet. The source
+   * connector stops pulling data if there are too many in-flight records.
+   */
+  public static final SettingDef MAX_IN_FLIGHT_RECORDS_DEFINITION =
+      createDef(
+          builder ->
+              builder
+                  .displayName("max in-flight records")
+                  .key("max.in.flight.records")
+                  .documentation(
+                      "the max number of records which are sent by source connector but not acked "
+                          + "by broker yet")
+                  .positiveNumber(65536)
+                  .build());
+
   public static final SettingDef WORKER_CLUSTER_KEY_DEFINITION =
       createDef(
           builder ->
@@ -25,12 +25,15 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import oharastream.ohara.common.annotations.VisibleForTesting;
 import oharastream.ohara.common.data.Column;
+import oharastream.ohara.common.data.RowCodec;
 import oharastream.ohara.common.setting.ConnectorKey;
 import oharastream.ohara.common.setting.ObjectKey;
 import oharastream.ohara.common.setting.PropGroup;
 import oharastream.ohara.common.setting.SettingDef;
 import oharastream.ohara.common.setting.TopicKey;
 import oharastream.ohara.common.util.CommonUtils;
+import oharastream.ohara.kafka.Header;
+import oharastream.ohara.kafka.RecordLayout;
 
 /**
  * Kafka worker accept json and then unmarshal it to Map[String, String]. In most cases we can't
@@ -93,6 +96,29 @@ public final class ConnectorFormatter {
     return setting(ConnectorDefUtils.CHECK_RULE_DEFINITION.key(), rule.name());
   }
 
+  public ConnectorFormatter rowFormat(RowCodec.Format format) {
+    return setting(ConnectorDefUtils.ROW_FORMAT_DEFINITION.key(), format.name());
+  }
+
+  public ConnectorFormatter recordLayout(RecordLayout layout) {
+    return setting(ConnectorDefUtils.RECORD_LAYOUT_DEFINITION.key(), layout.name());
+  }
+
+  public ConnectorFormatter recordKeyColumns(List<String> keyColumns) {
+    return setting(
+        ConnectorDefUtils.RECORD_KEY_COLUMNS_DEFINITION.key(), StringList.toJsonString(keyColumns));
+  }
+
+  public ConnectorFormatter headerFormat(Header.Format format) {
+    return setting(ConnectorDefUtils.HEADER_FORMAT_DEFINITION.key(), format.name());
+  }
+
+  public ConnectorFormatter maxInFlightRecords(int maxInFlightRecords) {
+    return setting(
+        ConnectorDefUtils.MAX_IN_FLIGHT_RECORDS_DEFINITION.key(),
+        String.valueOf(CommonUtils.requirePositiveInt(maxInFlightRecords)));
+  }
+
   public ConnectorFormatter workerClusterKey(ObjectKey classKey) {
     return setting(
         ConnectorDefUtils.WORKER_CLUSTER_KEY_DEFINITION.key(), ObjectKey.toJsonString(classKey));
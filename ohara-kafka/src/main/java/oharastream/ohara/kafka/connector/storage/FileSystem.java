@@ -16,9 +16,15 @@
 
 package oharastream.ohara.kafka.connector.storage;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import oharastream.ohara.common.exception.FileSystemException;
 import oharastream.ohara.common.util.Releasable;
 
 /** Interface to file system */
@@ -41,6 +47,33 @@ public interface FileSystem extends Releasable {
    */
   Iterator<String> listFileNames(String dir);
 
+  /**
+   * List the names and the last modified times (in milliseconds) of the files and folders at a
+   * given path. The default implementation returns -1 as the modified time, which means the time is
+   * unknown.
+   *
+   * @param dir the path of the folder
+   * @return the names and last modified times
+   */
+  default Map<String, Long> listLastModified(String dir) {
+    Map<String, Long> result = new HashMap<>();
+    listFileNames(dir).forEachRemaining(name -> result.put(name, -1L));
+    return result;
+  }
+
+  /**
+   * Watch the folder by the native change notification of backend. The listener is called by the
+   * name of file which is created, renamed or modified in the folder. The default implementation
+   * returns empty since there is no change notification.
+   *
+   * @param dir the path of the folder
+   * @param listener the callback of changed file name
+   * @return an object stopping the watch, or empty if the backend does not support the watch
+   */
+  default Optional<Releasable> watch(String dir, Consumer<String> listener) {
+    return Optional.empty();
+  }
+
   /**
    * Get type of the given path
    *
@@ -76,6 +109,52 @@ public interface FileSystem extends Releasable {
    */
   InputStream open(String path);
 
+  /**
+   * Open for reading an file at the given path and then start reading from the given byte
+   * position. The default implementation skips the bytes before the position so the backends
+   * which are able to seek should override it.
+   *
+   * @param path the path of the file
+   * @param position the byte position to start reading
+   * @throws IllegalArgumentException if the file does not exist
+   * @return an input stream with the requested file
+   */
+  default InputStream open(String path, long position) {
+    if (position < 0)
+      throw new IllegalArgumentException("position can't be negative. actual:" + position);
+    InputStream input = open(path);
+    try {
+      long remaining = position;
+      while (remaining > 0) {
+        long skipped = input.skip(remaining);
+        if (skipped > 0) remaining -= skipped;
+        // skip may return 0 before eof so we try to read a byte
+        else if (input.read() >= 0) remaining -= 1;
+        else break;
+      }
+      return input;
+    } catch (IOException e) {
+      Releasable.close(input);
+      throw new FileSystemException(e);
+    }
+  }
+
+  /**
+   * Get the number of bytes of file. The default implementation reads the whole file so the
+   * backends which are able to get the size from metadata should override it.
+   *
+   * @param path the path of the file
+   * @throws IllegalArgumentException if the file does not exist
+   * @return the size of file
+   */
+  default long size(String path) {
+    try (InputStream input = open(path)) {
+      return input.transferTo(OutputStream.nullOutputStream());
+    } catch (IOException e) {
+      throw new FileSystemException(e);
+    }
+  }
+
   /**
    * Delete the given file for folder (If empty)
    *
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import oharastream.ohara.common.rule.OharaTest;
+import oharastream.ohara.common.setting.ObjectKey;
+import oharastream.ohara.common.setting.TopicKey;
+import oharastream.ohara.common.util.CommonUtils;
+import oharastream.ohara.kafka.connector.TopicPartition;
+import oharastream.ohara.metrics.BeanChannel;
+import oharastream.ohara.metrics.basic.CounterMBean;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.Metrics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestConsumerMetrics extends OharaTest {
+  private final TopicPartition partition0 =
+      new TopicPartition(TopicKey.of("g", CommonUtils.randomString(5)), 0);
+  private final TopicPartition partition1 = new TopicPartition(partition0.topicKey(), 1);
+
+  private static List<CounterMBean> counters(ObjectKey key) {
+    return BeanChannel.local().counterMBeans().stream()
+        .filter(c -> c.key().equals(key))
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+  private static void addLag(Metrics metrics, TopicPartition tp, double lag) {
+    metrics.addMetric(
+        new MetricName(
+            "records-lag",
+            "consumer-fetch-manager-metrics",
+            "",
+            Map.of(
+                "client-id",
+                "c",
+                "topic",
+                tp.topicKey().topicNameOnKafka(),
+                "partition",
+                String.valueOf(tp.partition()))),
+        (Gauge<Double>) (config, now) -> lag);
+  }
+
+  @Test
+  public void testLagsFromKafkaMetrics() {
+    try (Metrics metrics = new Metrics()) {
+      addLag(metrics, partition0, 10);
+      // the lag is unknown
+      addLag(metrics, partition1, Double.NaN);
+      Assertions.assertEquals(
+          Map.of(partition0, 10L),
+          ConsumerMetrics.lags(metrics.metrics(), Set.of(partition0, partition1)));
+      // the partition is not assigned
+      Assertions.assertEquals(Map.of(), ConsumerMetrics.lags(metrics.metrics(), Set.of()));
+    }
+  }
+
+  @Test
+  public void testLagsFromNonexistentClient() {
+    Assertions.assertEquals(
+        Map.of(), ConsumerMetrics.lags(CommonUtils.randomString(), Set.of(partition0)));
+  }
+
+  @Test
+  public void testCounters() {
+    ObjectKey key = CommonUtils.randomKey();
+    ConsumerMetrics metrics = ConsumerMetrics.of(key, () -> Map.of(partition0, 100L));
+    try {
+      metrics.poll(10, 3);
+      metrics.record(CommonUtils.current() - 10);
+      List<CounterMBean> counters = counters(key);
+      // 3 histograms (each has p50, p99 and max) and a lag
+      Assertions.assertEquals(10, counters.size());
+      CounterMBean lag =
+          counters.stream().filter(c -> c.item().startsWith("lag.")).findFirst().get();
+      Assertions.assertEquals(100L, lag.getValue());
+      Assertions.assertEquals(
+          "lag." + partition0.topicKey().topicNameOnKafka() + "." + partition0.partition(),
+          lag.item());
+    } finally {
+      metrics.close();
+    }
+    Assertions.assertEquals(0, counters(key).size());
+  }
+
+  @Test
+  public void testIgnoreInvalidTimestamp() {
+    try (ConsumerMetrics metrics = ConsumerMetrics.of(CommonUtils.randomKey(), Map::of)) {
+      metrics.record(0);
+      metrics.record(-1);
+    }
+  }
+}
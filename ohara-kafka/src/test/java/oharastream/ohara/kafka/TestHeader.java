@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka;
+
+import java.util.List;
+import oharastream.ohara.common.rule.OharaTest;
+import oharastream.ohara.common.setting.ConnectorKey;
+import oharastream.ohara.common.setting.ObjectKey;
+import oharastream.ohara.common.util.ByteUtils;
+import oharastream.ohara.common.util.CommonUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestHeader extends OharaTest {
+
+  @Test
+  public void testSourceId() {
+    Assertions.assertEquals(
+        Header.sourceId(ConnectorKey.of("g", "n")), Header.sourceId(ObjectKey.of("g", "n")));
+    Assertions.assertNotEquals(
+        Header.sourceId(ObjectKey.of("a", "bc")), Header.sourceId(ObjectKey.of("ab", "c")));
+    Assertions.assertTrue(Header.sourceId(ObjectKey.of("g", CommonUtils.randomString())) >= 0);
+  }
+
+  @Test
+  public void testRegister() {
+    ConnectorKey key = ConnectorKey.of("g", CommonUtils.randomString());
+    byte[] id = Header.register(key);
+    Assertions.assertEquals(Header.sourceId(key), ByteUtils.toVarLong(id));
+    Assertions.assertEquals(key, Header.sourceKey(id).get());
+    Assertions.assertEquals(key, Header.sourceKey(id, List.of()).get());
+    // the tasks of same source register the same key
+    Assertions.assertArrayEquals(id, Header.register(key));
+    Header.unregister(key);
+    Assertions.assertEquals(key, Header.sourceKey(id).get());
+    Header.unregister(key);
+    Assertions.assertTrue(Header.sourceKey(id).isEmpty());
+  }
+
+  @Test
+  public void testConflictedSourceId() {
+    // the two keys have the same crc32
+    ObjectKey key = ObjectKey.of("g", "n3985819");
+    ObjectKey conflictedKey = ObjectKey.of("g", "n4420602");
+    Assertions.assertEquals(Header.sourceId(key), Header.sourceId(conflictedKey));
+    byte[] id = Header.register(key);
+    try {
+      Assertions.assertThrows(IllegalArgumentException.class, () -> Header.register(conflictedKey));
+      // the conflicted key can't remove the registered key
+      Header.unregister(conflictedKey);
+      Assertions.assertEquals(key, Header.sourceKey(id).get());
+      // the candidates take precedence over the registered keys
+      Assertions.assertEquals(conflictedKey, Header.sourceKey(id, List.of(conflictedKey)).get());
+      Assertions.assertTrue(Header.sourceKey(id, List.of(key, conflictedKey)).isEmpty());
+    } finally {
+      Header.unregister(key);
+    }
+  }
+
+  @Test
+  public void testResolveFromCandidates() {
+    ObjectKey key = ObjectKey.of("g", CommonUtils.randomString());
+    byte[] id = ByteUtils.toVarBytes(Header.sourceId(key));
+    Assertions.assertTrue(Header.sourceKey(id).isEmpty());
+    Assertions.assertTrue(Header.sourceKey(id, List.of(ObjectKey.of("g", "n"))).isEmpty());
+    Assertions.assertEquals(key, Header.sourceKey(id, List.of(ObjectKey.of("g", "n"), key)).get());
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka;
+
+import java.util.Map;
+import java.util.Set;
+import oharastream.ohara.common.rule.OharaTest;
+import oharastream.ohara.common.setting.TopicKey;
+import oharastream.ohara.common.util.CommonUtils;
+import oharastream.ohara.kafka.connector.TopicPartition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestOffsetTracker extends OharaTest {
+  private final TopicPartition partition =
+      new TopicPartition(TopicKey.of("g", CommonUtils.randomString()), 0);
+
+  @Test
+  public void testEmpty() {
+    OffsetTracker tracker = new OffsetTracker();
+    Assertions.assertEquals(Map.of(), tracker.committable());
+    Assertions.assertEquals(0, tracker.inFlight());
+    Assertions.assertEquals(0, tracker.inFlight(partition));
+  }
+
+  @Test
+  public void testCommitContiguousOffsets() {
+    OffsetTracker tracker = new OffsetTracker();
+    tracker.dispatch(partition, 10);
+    tracker.dispatch(partition, 11);
+    tracker.dispatch(partition, 12);
+    Assertions.assertEquals(3, tracker.inFlight(partition));
+    // nothing is done
+    Assertions.assertEquals(Map.of(partition, 10L), tracker.committable());
+    tracker.committed(tracker.committable());
+    Assertions.assertEquals(Map.of(), tracker.committable());
+
+    // 11 is done but 10 is not
+    tracker.done(partition, 11);
+    Assertions.assertEquals(Map.of(), tracker.committable());
+
+    tracker.done(partition, 10);
+    Assertions.assertEquals(Map.of(partition, 12L), tracker.committable());
+
+    tracker.done(partition, 12);
+    Assertions.assertEquals(Map.of(partition, 13L), tracker.committable());
+    Assertions.assertEquals(0, tracker.inFlight());
+  }
+
+  @Test
+  public void testUncommittedOffsetsAreReturnedAgain() {
+    OffsetTracker tracker = new OffsetTracker();
+    tracker.dispatch(partition, 0);
+    tracker.done(partition, 0);
+    Assertions.assertEquals(Map.of(partition, 1L), tracker.committable());
+    // the commit is failed so the offsets are not marked
+    Assertions.assertEquals(Map.of(partition, 1L), tracker.committable());
+  }
+
+  @Test
+  public void testRetain() {
+    OffsetTracker tracker = new OffsetTracker();
+    TopicPartition another = new TopicPartition(partition.topicKey(), 1);
+    tracker.dispatch(partition, 0);
+    tracker.dispatch(another, 0);
+    Assertions.assertEquals(2, tracker.inFlight());
+    tracker.retain(Set.of(another));
+    Assertions.assertEquals(1, tracker.inFlight());
+    Assertions.assertEquals(Map.of(another, 0L), tracker.committable());
+    // the offset of revoked partition is ignored
+    tracker.done(partition, 0);
+    Assertions.assertEquals(1, tracker.inFlight());
+  }
+}
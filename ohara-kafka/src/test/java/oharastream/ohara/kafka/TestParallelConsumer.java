@@ -0,0 +1,209 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import oharastream.ohara.common.data.Serializer;
+import oharastream.ohara.common.setting.TopicKey;
+import oharastream.ohara.common.util.CommonUtils;
+import oharastream.ohara.testing.WithBroker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestParallelConsumer extends WithBroker {
+  private final TopicKey topicKey = TopicKey.of("group", CommonUtils.randomString());
+  private final int numberOfPartitions = 3;
+  private final int numberOfRecords = 300;
+  private final int numberOfKeys = 10;
+
+  @BeforeEach
+  public void setup() throws ExecutionException, InterruptedException {
+    try (TopicAdmin client = TopicAdmin.of(testUtil().brokersConnProps())) {
+      client
+          .topicCreator()
+          .numberOfPartitions(numberOfPartitions)
+          .numberOfReplications((short) 1)
+          .topicKey(topicKey)
+          .create()
+          .toCompletableFuture()
+          .get();
+    }
+    try (Producer<String, String> producer =
+        Producer.builder()
+            .keySerializer(Serializer.STRING)
+            .valueSerializer(Serializer.STRING)
+            .connectionProps(testUtil().brokersConnProps())
+            .build()) {
+      // the records having same key are sent to same partition
+      IntStream.range(0, numberOfRecords)
+          .forEach(
+              i ->
+                  producer
+                      .sender()
+                      .key("key" + (i % numberOfKeys))
+                      .value(String.valueOf(i))
+                      .partition((i % numberOfKeys) % numberOfPartitions)
+                      .topicKey(topicKey)
+                      .send());
+      producer.flush();
+    }
+  }
+
+  private ParallelConsumer.Builder<String, String> builder() {
+    return ParallelConsumer.builder()
+        .keySerializer(Serializer.STRING)
+        .valueSerializer(Serializer.STRING)
+        .offsetFromBegin()
+        .topicKey(topicKey)
+        .threads(4)
+        .commitInterval(Duration.ofMillis(100))
+        .connectionProps(testUtil().brokersConnProps());
+  }
+
+  @Test
+  public void testOrderPerPartition() {
+    Map<Integer, List<Long>> offsets = new ConcurrentHashMap<>();
+    AtomicInteger count = new AtomicInteger();
+    try (ParallelConsumer<String, String> consumer =
+        builder()
+            .maxInFlight(10)
+            .processor(
+                record -> {
+                  offsets
+                      .computeIfAbsent(record.partition(), p -> new CopyOnWriteArrayList<>())
+                      .add(record.offset());
+                  count.incrementAndGet();
+                })
+            .build()) {
+      CommonUtils.await(() -> count.get() == numberOfRecords, Duration.ofSeconds(30));
+      CommonUtils.await(() -> consumer.inFlight() == 0, Duration.ofSeconds(30));
+    }
+    Assertions.assertEquals(numberOfPartitions, offsets.size());
+    offsets
+        .values()
+        .forEach(
+            os ->
+                Assertions.assertEquals(
+                    os.stream().sorted().collect(Collectors.toUnmodifiableList()), os));
+  }
+
+  @Test
+  public void testOrderPerKey() {
+    Map<String, List<Integer>> values = new ConcurrentHashMap<>();
+    AtomicInteger count = new AtomicInteger();
+    try (ParallelConsumer<String, String> consumer =
+        builder()
+            .orderByKey()
+            .processor(
+                record -> {
+                  values
+                      .computeIfAbsent(record.key().get(), k -> new CopyOnWriteArrayList<>())
+                      .add(Integer.valueOf(record.value().get()));
+                  count.incrementAndGet();
+                })
+            .build()) {
+      CommonUtils.await(() -> count.get() == numberOfRecords, Duration.ofSeconds(30));
+      CommonUtils.await(() -> consumer.inFlight() == 0, Duration.ofSeconds(30));
+    }
+    Assertions.assertEquals(numberOfKeys, values.size());
+    // the records having same key are in same partition so they are processed in the sending order
+    values
+        .values()
+        .forEach(
+            vs ->
+                Assertions.assertEquals(
+                    vs.stream().sorted().collect(Collectors.toUnmodifiableList()), vs));
+  }
+
+  @Test
+  public void testCommit() throws InterruptedException {
+    String groupId = CommonUtils.randomString();
+    AtomicInteger count = new AtomicInteger();
+    try (ParallelConsumer<String, String> consumer =
+        builder().groupId(groupId).processor(record -> count.incrementAndGet()).build()) {
+      CommonUtils.await(() -> count.get() == numberOfRecords, Duration.ofSeconds(30));
+      CommonUtils.await(() -> consumer.inFlight() == 0, Duration.ofSeconds(30));
+    }
+    Assertions.assertTrue(count.get() >= numberOfRecords);
+
+    // all offsets are committed so the new consumer in same group gets nothing
+    AtomicInteger newCount = new AtomicInteger();
+    try (ParallelConsumer<String, String> consumer =
+        builder().groupId(groupId).processor(record -> newCount.incrementAndGet()).build()) {
+      TimeUnit.SECONDS.sleep(5);
+      Assertions.assertFalse(consumer.closed());
+      Assertions.assertTrue(consumer.error().isEmpty());
+    }
+    Assertions.assertEquals(0, newCount.get());
+  }
+
+  @Test
+  public void testExceptionHandler() {
+    AtomicInteger failed = new AtomicInteger();
+    try (ParallelConsumer<String, String> consumer =
+        builder()
+            .processor(
+                record -> {
+                  throw new IllegalStateException("failed");
+                })
+            .exceptionHandler((record, e) -> failed.incrementAndGet())
+            .build()) {
+      CommonUtils.await(() -> failed.get() == numberOfRecords, Duration.ofSeconds(30));
+      CommonUtils.await(() -> consumer.inFlight() == 0, Duration.ofSeconds(30));
+    }
+  }
+
+  @Test
+  public void testBrokenPoller() {
+    Serializer<String> brokenSerializer =
+        new Serializer<>() {
+          @Override
+          public byte[] to(String obj) {
+            return Serializer.STRING.to(obj);
+          }
+
+          @Override
+          public String from(byte[] bytes) {
+            throw new IllegalStateException("broken");
+          }
+        };
+    try (ParallelConsumer<String, String> consumer =
+        builder().keySerializer(brokenSerializer).processor(record -> {}).build()) {
+      // the poller fails to deserialize the key so it closes the consumer
+      CommonUtils.await(consumer::closed, Duration.ofSeconds(30));
+      Assertions.assertTrue(consumer.error().isPresent());
+    }
+  }
+
+  @AfterEach
+  public void tearDown() {
+    try (TopicAdmin client = TopicAdmin.of(testUtil().brokersConnProps())) {
+      client.deleteTopic(topicKey);
+    }
+  }
+}
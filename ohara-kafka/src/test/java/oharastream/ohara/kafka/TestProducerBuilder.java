@@ -45,4 +45,33 @@ public class TestProducerBuilder extends OharaTest {
     Assertions.assertThrows(
         NullPointerException.class, () -> Producer.builder().valueSerializer(null));
   }
+
+  @Test
+  public void nullLinger() {
+    Assertions.assertThrows(NullPointerException.class, () -> Producer.builder().linger(null));
+  }
+
+  @Test
+  public void negativeBatchSize() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> Producer.builder().batchSize(-1));
+  }
+
+  @Test
+  public void emptyTransactionalId() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> Producer.builder().transactional(""));
+  }
+
+  @Test
+  public void idempotentWithoutAllAcks() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> Producer.builder().connectionProps("localhost:12345").idempotent().noAcks().build());
+  }
+
+  @Test
+  public void nullCompressionType() {
+    Assertions.assertThrows(
+        NullPointerException.class, () -> Producer.builder().compressionType(null));
+  }
 }
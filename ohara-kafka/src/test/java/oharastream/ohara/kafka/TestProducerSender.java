@@ -16,6 +16,7 @@
 
 package oharastream.ohara.kafka;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import oharastream.ohara.common.rule.OharaTest;
@@ -31,10 +32,21 @@ public class TestProducerSender extends OharaTest {
     }
   }
 
+  private static class FakeBatchSender<K, V> extends Producer.BatchSender<K, V> {
+    @Override
+    public CompletableFuture<BatchMetadata> doSend() {
+      return null;
+    }
+  }
+
   private static FakeSender<String, String> fake() {
     return new FakeSender<>();
   }
 
+  private static FakeBatchSender<String, String> fakeBatch() {
+    return new FakeBatchSender<>();
+  }
+
   @Test
   public void nullHeader() {
     Assertions.assertThrows(NullPointerException.class, () -> fake().header(null));
@@ -64,4 +76,30 @@ public class TestProducerSender extends OharaTest {
   public void nullTopicKey() {
     Assertions.assertThrows(NullPointerException.class, () -> fake().topicKey(null));
   }
+
+  @Test
+  public void nullTopicKeyInBatch() {
+    Assertions.assertThrows(NullPointerException.class, () -> fakeBatch().topicKey(null));
+  }
+
+  @Test
+  public void emptyTopicKeysInBatch() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> fakeBatch().topicKeys(List.of()));
+  }
+
+  @Test
+  public void noTopicKeyInBatch() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> fakeBatch().send());
+  }
+
+  @Test
+  public void emptyHeadersInBatch() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> fakeBatch().headers(List.of()));
+  }
+
+  @Test
+  public void nullKeyInBatch() {
+    Assertions.assertThrows(
+        NullPointerException.class, () -> fakeBatch().keys(Collections.singletonList(null)));
+  }
 }
@@ -30,6 +30,7 @@ import oharastream.ohara.common.util.CommonUtils;
 import oharastream.ohara.kafka.connector.TopicPartition;
 import oharastream.ohara.testing.WithBroker;
 import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -315,6 +316,203 @@ public class TestProducerToConsumer extends WithBroker {
     }
   }
 
+  @Test
+  public void testPollRecords() {
+    try (Producer<String, String> producer =
+            Producer.builder()
+                .keySerializer(Serializer.STRING)
+                .valueSerializer(Serializer.STRING)
+                .connectionProps(testUtil().brokersConnProps())
+                .build();
+        Consumer<String, String> consumer =
+            Consumer.builder()
+                .keySerializer(Serializer.STRING)
+                .valueSerializer(Serializer.STRING)
+                .offsetFromBegin()
+                .topicKey(topicKey)
+                .connectionProps(testUtil().brokersConnProps())
+                .build()) {
+      Header header = new Header("h", new byte[] {1});
+      IntStream.range(0, 3)
+          .forEach(
+              i ->
+                  producer
+                      .sender()
+                      .key("key" + i)
+                      .value("value" + i)
+                      .header(header)
+                      .topicKey(topicKey)
+                      .send());
+      producer.flush();
+      CommonUtils.await(
+          () -> {
+            Consumer.Records<String, String> records = consumer.pollRecords(Duration.ofSeconds(1));
+            if (records.isEmpty()) return false;
+            Assertions.assertEquals(3, records.count());
+            Assertions.assertEquals(Set.of(new TopicPartition(topicKey, 0)), records.partitions());
+            List<Consumer.Record<String, String>> partitionRecords =
+                records.records(new TopicPartition(topicKey, 0));
+            Assertions.assertEquals(3, partitionRecords.size());
+            int index = 0;
+            for (Consumer.Record<String, String> record : records) {
+              Assertions.assertEquals(topicKey, record.topicKey());
+              Assertions.assertEquals("key" + index, record.key().get());
+              Assertions.assertEquals(List.of(header), record.headers());
+              Assertions.assertEquals(record, partitionRecords.get(index));
+              ++index;
+            }
+            return true;
+          },
+          Duration.ofSeconds(30));
+    }
+  }
+
+  @Test
+  public void testBatchSender() throws ExecutionException, InterruptedException {
+    TopicKey anotherTopicKey = TopicKey.of("group", CommonUtils.randomString());
+    createTopic(anotherTopicKey);
+    try (Producer<String, String> producer =
+        Producer.builder()
+            .keySerializer(Serializer.STRING)
+            .valueSerializer(Serializer.STRING)
+            .connectionProps(testUtil().brokersConnProps())
+            .highThroughput()
+            .build()) {
+      Producer.BatchSender<String, String> sender =
+          producer.batchSender().topicKeys(List.of(topicKey, anotherTopicKey));
+      IntStream.range(0, 10).forEach(i -> sender.record("key" + i, "value" + i));
+      BatchMetadata metadata = sender.send().get();
+      Assertions.assertTrue(metadata.succeed());
+      Assertions.assertEquals(List.of(), metadata.failedIndexes());
+      Assertions.assertEquals(20, metadata.records());
+      Assertions.assertEquals(
+          2 * IntStream.range(0, 10).map(i -> ("key" + i + "value" + i).length()).sum(),
+          metadata.bytes());
+      for (TopicKey key : List.of(topicKey, anotherTopicKey)) {
+        try (Consumer<String, String> consumer =
+            Consumer.builder()
+                .keySerializer(Serializer.STRING)
+                .valueSerializer(Serializer.STRING)
+                .offsetFromBegin()
+                .topicKey(key)
+                .connectionProps(testUtil().brokersConnProps())
+                .build()) {
+          List<Consumer.Record<String, String>> records =
+              consumer.poll(Duration.ofSeconds(30), 10);
+          Assertions.assertEquals(10, records.size());
+          Assertions.assertEquals(
+              IntStream.range(0, 10).mapToObj(i -> "key" + i).collect(Collectors.toSet()),
+              records.stream().map(r -> r.key().get()).collect(Collectors.toSet()));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testEmptyBatch() throws ExecutionException, InterruptedException {
+    try (Producer<String, String> producer =
+        Producer.builder()
+            .keySerializer(Serializer.STRING)
+            .valueSerializer(Serializer.STRING)
+            .connectionProps(testUtil().brokersConnProps())
+            .build()) {
+      BatchMetadata metadata = producer.batchSender().topicKey(topicKey).send().get();
+      Assertions.assertTrue(metadata.succeed());
+      Assertions.assertEquals(0, metadata.records());
+    }
+  }
+
+  private Producer<String, String> transactionalProducer() {
+    return Producer.builder()
+        .keySerializer(Serializer.STRING)
+        .valueSerializer(Serializer.STRING)
+        .connectionProps(testUtil().brokersConnProps())
+        .transactional(CommonUtils.randomString())
+        .build();
+  }
+
+  private Consumer<String, String> readCommittedConsumer(TopicKey topicKey, String groupId) {
+    return Consumer.builder()
+        .keySerializer(Serializer.STRING)
+        .valueSerializer(Serializer.STRING)
+        .offsetFromBegin()
+        .readCommitted()
+        // the offsets are committed by transaction only
+        .option(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false")
+        .topicKey(topicKey)
+        .groupId(groupId)
+        .connectionProps(testUtil().brokersConnProps())
+        .build();
+  }
+
+  @Test
+  public void testTransaction() {
+    try (Producer<String, String> producer = transactionalProducer()) {
+      producer.beginTransaction();
+      producer.sender().key("aborted").value("b").topicKey(topicKey).send();
+      producer.abortTransaction();
+
+      producer.beginTransaction();
+      IntStream.range(0, 10)
+          .forEach(
+              i -> producer.sender().key("key" + i).value("value" + i).topicKey(topicKey).send());
+      producer.commitTransaction();
+    }
+    try (Consumer<String, String> consumer =
+        readCommittedConsumer(topicKey, CommonUtils.randomString())) {
+      List<Consumer.Record<String, String>> records = consumer.poll(Duration.ofSeconds(30), 10);
+      Assertions.assertEquals(10, records.size());
+      records.forEach(r -> Assertions.assertNotEquals("aborted", r.key().get()));
+      Assertions.assertEquals(0, consumer.poll(Duration.ofSeconds(1)).size());
+    }
+  }
+
+  @Test
+  public void testConsumeTransformProduce() throws ExecutionException, InterruptedException {
+    TopicKey outputKey = TopicKey.of("group", CommonUtils.randomString());
+    createTopic(outputKey);
+    String groupId = CommonUtils.randomString();
+    try (Producer<String, String> producer =
+        Producer.builder()
+            .keySerializer(Serializer.STRING)
+            .valueSerializer(Serializer.STRING)
+            .connectionProps(testUtil().brokersConnProps())
+            .build()) {
+      IntStream.range(0, 10)
+          .forEach(
+              i -> producer.sender().key("key" + i).value("value" + i).topicKey(topicKey).send());
+    }
+
+    try (Consumer<String, String> consumer = readCommittedConsumer(topicKey, groupId);
+        Producer<String, String> producer = transactionalProducer()) {
+      List<Consumer.Record<String, String>> records = consumer.poll(Duration.ofSeconds(30), 10);
+      Assertions.assertEquals(10, records.size());
+      producer.beginTransaction();
+      records.forEach(
+          r -> producer.sender().key(r.key().get()).value("new").topicKey(outputKey).send());
+      // the offsets of whole batch are committed with the output records
+      producer.commitTransaction(
+          records.stream()
+              .collect(
+                  Collectors.toMap(
+                      r -> new TopicPartition(r.topicKey(), r.partition()),
+                      r -> r.offset() + 1,
+                      Math::max)),
+          groupId);
+    }
+
+    // the consumed records are committed so the consumer in same group gets nothing
+    try (Consumer<String, String> consumer = readCommittedConsumer(topicKey, groupId)) {
+      Assertions.assertEquals(0, consumer.poll(Duration.ofSeconds(3)).size());
+    }
+    try (Consumer<String, String> consumer =
+        readCommittedConsumer(outputKey, CommonUtils.randomString())) {
+      List<Consumer.Record<String, String>> records = consumer.poll(Duration.ofSeconds(30), 10);
+      Assertions.assertEquals(10, records.size());
+      records.forEach(r -> Assertions.assertEquals("new", r.value().get()));
+    }
+  }
+
   @AfterEach
   public void tearDown() {
     try (TopicAdmin client = TopicAdmin.of(testUtil().brokersConnProps())) {
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka;
+
+import java.util.List;
+import oharastream.ohara.common.data.Cell;
+import oharastream.ohara.common.data.Row;
+import oharastream.ohara.common.data.Serializer;
+import oharastream.ohara.common.rule.OharaTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestRecordLayout extends OharaTest {
+  private final Row row = Row.of(Cell.of("a", 1), Cell.of("b", "b"), Cell.of("c", 3L));
+
+  @Test
+  public void testKey() {
+    Assertions.assertSame(row, RecordLayout.KEY.key(row, List.of("a")));
+    Assertions.assertNull(RecordLayout.VALUE.key(row, List.of()));
+    Assertions.assertEquals(
+        Row.of(Cell.of("c", 3L), Cell.of("a", 1)), RecordLayout.VALUE.key(row, List.of("c", "a")));
+    // the nonexistent column is skipped
+    Assertions.assertEquals(
+        Row.of(Cell.of("b", "b")), RecordLayout.VALUE.key(row, List.of("b", "x")));
+  }
+
+  @Test
+  public void testOf() {
+    Assertions.assertEquals(RecordLayout.KEY, RecordLayout.of("key"));
+    Assertions.assertEquals(RecordLayout.VALUE, RecordLayout.of("VALUE"));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> RecordLayout.of("keys"));
+    Assertions.assertTrue("Value".matches(RecordLayout.REGEX));
+    Assertions.assertFalse("keys".matches(RecordLayout.REGEX));
+  }
+
+  @Test
+  public void testPayload() {
+    byte[] key = Serializer.ROW.to(row);
+    byte[] value = Serializer.ROW.to(row);
+    Assertions.assertSame(key, RecordLayout.payload(key, null));
+    Assertions.assertSame(key, RecordLayout.payload(key, new byte[0]));
+    Assertions.assertSame(value, RecordLayout.payload(key, value));
+    Assertions.assertSame(value, RecordLayout.payload(null, value));
+    // the value is not a row
+    Assertions.assertSame(key, RecordLayout.payload(key, new byte[] {'{', '}'}));
+  }
+
+  @Test
+  public void testRow() {
+    Row keyRow = Row.of(Cell.of("a", 1));
+    Assertions.assertSame(row, RecordLayout.row(row, null, null));
+    Assertions.assertSame(row, RecordLayout.row(row, new byte[0], null));
+    Assertions.assertEquals(row, RecordLayout.row(keyRow, Serializer.ROW.to(row), null));
+    Assertions.assertEquals(row, RecordLayout.row(null, Serializer.ROW.to(row), null));
+  }
+}
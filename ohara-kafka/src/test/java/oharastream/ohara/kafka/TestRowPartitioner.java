@@ -17,8 +17,13 @@
 package oharastream.ohara.kafka;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import oharastream.ohara.common.data.Cell;
 import oharastream.ohara.common.data.Row;
 import oharastream.ohara.common.data.Serializer;
@@ -66,4 +71,206 @@ public class TestRowPartitioner extends OharaTest {
             .get(WithDefinitions.KIND_KEY)
             .defaultString());
   }
+
+  private static org.apache.kafka.common.Cluster cluster(
+      TopicKey key, int numberOfNodes, int numberOfPartitions) {
+    List<Node> nodes =
+        IntStream.range(0, numberOfNodes)
+            .mapToObj(i -> new Node(i, "host" + i, 99))
+            .collect(Collectors.toUnmodifiableList());
+    List<PartitionInfo> partitionInfos =
+        IntStream.range(0, numberOfPartitions)
+            .mapToObj(
+                i -> {
+                  Node[] replicas = new Node[] {nodes.get(i % numberOfNodes)};
+                  return new PartitionInfo(
+                      key.topicNameOnKafka(), i, replicas[0], replicas, replicas);
+                })
+            .collect(Collectors.toUnmodifiableList());
+    return new org.apache.kafka.common.Cluster("aa", nodes, partitionInfos, Set.of(), Set.of());
+  }
+
+  @Test
+  public void serializedRowShouldBePassedToSubClass() {
+    CountRowPartitioner custom = new CountRowPartitioner();
+    TopicKey key = TopicKey.of("a", "b");
+    byte[] bytes = Serializer.ROW.to(Row.of(Cell.of("a", "b")));
+    custom.partition(key.topicNameOnKafka(), bytes, bytes, null, null, cluster(key, 1, 1));
+    Assertions.assertEquals(1, custom.count.get());
+
+    // broken bytes are handled by default partitioner
+    byte[] brokenBytes = Arrays.copyOf(bytes, bytes.length - 1);
+    custom.partition(
+        key.topicNameOnKafka(), brokenBytes, brokenBytes, null, null, cluster(key, 1, 1));
+    Assertions.assertEquals(1, custom.count.get());
+  }
+
+  @Test
+  public void testKeyColumnPartitioner() {
+    KeyColumnPartitioner partitioner = new KeyColumnPartitioner();
+    partitioner.configure(Map.of(KeyColumnPartitioner.KEY_COLUMNS_KEY, "a,b"));
+    TopicKey key = TopicKey.of("a", "b");
+    org.apache.kafka.common.Cluster cluster = cluster(key, 3, 10);
+    Map<Integer, Integer> partitions = new HashMap<>();
+    IntStream.range(0, 100)
+        .forEach(
+            i -> {
+              Row row = Row.of(Cell.of("a", i % 5), Cell.of("b", "b"), Cell.of("c", i));
+              byte[] bytes = Serializer.ROW.to(row);
+              int partition =
+                  partitioner.partition(key.topicNameOnKafka(), row, bytes, null, null, cluster);
+              Assertions.assertEquals(
+                  partition,
+                  partitioner.partition(key.topicNameOnKafka(), bytes, bytes, null, null, cluster));
+              // the rows having same key columns are sent to same partition
+              Assertions.assertEquals(partitions.computeIfAbsent(i % 5, k -> partition), partition);
+            });
+  }
+
+  @Test
+  public void testKeyColumnsInJson() {
+    KeyColumnPartitioner json = new KeyColumnPartitioner();
+    json.configure(Map.of(KeyColumnPartitioner.KEY_COLUMNS_KEY, "[\"a\", \"b\"]"));
+    KeyColumnPartitioner kafka = new KeyColumnPartitioner();
+    kafka.configure(Map.of(KeyColumnPartitioner.KEY_COLUMNS_KEY, "a,b"));
+    TopicKey key = TopicKey.of("a", "b");
+    org.apache.kafka.common.Cluster cluster = cluster(key, 1, 7);
+    IntStream.range(0, 30)
+        .forEach(
+            i -> {
+              Row row = Row.of(Cell.of("a", i), Cell.of("b", new byte[] {(byte) i}));
+              Assertions.assertEquals(
+                  kafka.partition(key.topicNameOnKafka(), row, null, null, null, cluster),
+                  json.partition(key.topicNameOnKafka(), row, null, null, null, cluster));
+            });
+    Assertions.assertTrue(
+        new KeyColumnPartitioner()
+            .settingDefinitions()
+            .containsKey(KeyColumnPartitioner.KEY_COLUMNS_DEFINITION.key()));
+  }
+
+  @Test
+  public void testStickyPartitioner() {
+    StickyPartitioner partitioner = new StickyPartitioner();
+    TopicKey key = TopicKey.of("a", "b");
+    org.apache.kafka.common.Cluster cluster = cluster(key, 2, 4);
+    Row row = Row.of(Cell.of("a", "b"));
+    int partition = partitioner.partition(key.topicNameOnKafka(), row, null, null, null, cluster);
+    IntStream.range(0, 10)
+        .forEach(
+            i ->
+                Assertions.assertEquals(
+                    partition,
+                    partitioner.partition(key.topicNameOnKafka(), row, null, null, null, cluster)));
+    partitioner.onNewBatch(key.topicNameOnKafka(), cluster, partition);
+    Assertions.assertNotEquals(
+        partition, partitioner.partition(key.topicNameOnKafka(), row, null, null, null, cluster));
+  }
+
+  @Test
+  public void testStickyPartitionerDoesNotDecodeRow() {
+    StickyPartitioner partitioner = new StickyPartitioner();
+    TopicKey key = TopicKey.of("a", "b");
+    org.apache.kafka.common.Cluster cluster = cluster(key, 2, 4);
+    Row row = Row.of(Cell.of("a", "b"));
+    int partition = partitioner.partition(key.topicNameOnKafka(), row, null, null, null, cluster);
+    // the broken bytes can't be decoded but the sticky partitioner doesn't read the row
+    byte[] bytes = Serializer.ROW.to(row);
+    byte[] brokenBytes = Arrays.copyOf(bytes, bytes.length - 1);
+    Assertions.assertEquals(
+        partition,
+        partitioner.partition(
+            key.topicNameOnKafka(), brokenBytes, brokenBytes, null, null, cluster));
+  }
+
+  @Test
+  public void testLoadAwarePartitioner() {
+    LoadAwarePartitioner partitioner = new LoadAwarePartitioner();
+    TopicKey key = TopicKey.of("a", "b");
+    org.apache.kafka.common.Cluster cluster = cluster(key, 3, 6);
+    Row row = Row.of(Cell.of("a", "b"));
+    int[] counts = new int[6];
+    for (int i = 0; i != 600; ++i)
+      counts[partitioner.partition(key.topicNameOnKafka(), row, null, null, null, cluster)]++;
+    Arrays.stream(counts).forEach(count -> Assertions.assertEquals(100, count));
+  }
+
+  private static LoadAwarePartitioner loadAwarePartitioner(AtomicLong clock) {
+    return new LoadAwarePartitioner() {
+      @Override
+      long current() {
+        return clock.get();
+      }
+    };
+  }
+
+  private static int[] send(
+      LoadAwarePartitioner partitioner,
+      TopicKey key,
+      org.apache.kafka.common.Cluster cluster,
+      int numberOfRows) {
+    Row row = Row.of(Cell.of("a", "b"));
+    int[] counts = new int[cluster.partitionsForTopic(key.topicNameOnKafka()).size()];
+    for (int i = 0; i != numberOfRows; ++i)
+      counts[partitioner.partition(key.topicNameOnKafka(), row, null, null, null, cluster)]++;
+    return counts;
+  }
+
+  @Test
+  public void testNewPartitionOfLoadAwarePartitioner() {
+    LoadAwarePartitioner partitioner = loadAwarePartitioner(new AtomicLong(0));
+    TopicKey key = TopicKey.of("a", "b");
+    send(partitioner, key, cluster(key, 3, 3), 300);
+    // the new partition starts from the lowest load rather than zero
+    Arrays.stream(send(partitioner, key, cluster(key, 4, 4), 400))
+        .forEach(count -> Assertions.assertEquals(100, count));
+  }
+
+  @Test
+  public void testLeaderBackOfLoadAwarePartitioner() {
+    LoadAwarePartitioner partitioner = loadAwarePartitioner(new AtomicLong(0));
+    TopicKey key = TopicKey.of("a", "b");
+    List<Node> nodes = List.of(new Node(0, "host0", 99), new Node(1, "host1", 99));
+    Node[] replicas = nodes.toArray(new Node[0]);
+    org.apache.kafka.common.Cluster cluster =
+        new org.apache.kafka.common.Cluster(
+            "aa",
+            nodes,
+            List.of(
+                new PartitionInfo(key.topicNameOnKafka(), 0, null, replicas, new Node[0]),
+                new PartitionInfo(key.topicNameOnKafka(), 1, nodes.get(1), replicas, replicas)),
+            Set.of(),
+            Set.of());
+    Assertions.assertArrayEquals(new int[] {0, 100}, send(partitioner, key, cluster, 100));
+    // the partition getting back the leader starts from the lowest load rather than zero
+    Arrays.stream(send(partitioner, key, cluster(key, 2, 2), 200))
+        .forEach(count -> Assertions.assertEquals(100, count));
+  }
+
+  @Test
+  public void testDecayOfLoadAwarePartitioner() {
+    AtomicLong clock = new AtomicLong(0);
+    LoadAwarePartitioner partitioner = loadAwarePartitioner(clock);
+    TopicKey key = TopicKey.of("a", "b");
+    List<Node> nodes = List.of(new Node(0, "host0", 99), new Node(1, "host1", 99));
+    Node[] replicas = nodes.toArray(new Node[0]);
+    // the partition 0 is under-replicated so it gets fewer rows
+    org.apache.kafka.common.Cluster cluster =
+        new org.apache.kafka.common.Cluster(
+            "aa",
+            nodes,
+            List.of(
+                new PartitionInfo(
+                    key.topicNameOnKafka(), 0, nodes.get(0), replicas, new Node[] {nodes.get(0)}),
+                new PartitionInfo(key.topicNameOnKafka(), 1, nodes.get(1), replicas, replicas)),
+            Set.of(),
+            Set.of());
+    int[] counts = send(partitioner, key, cluster, 300);
+    Assertions.assertTrue(counts[0] < counts[1]);
+
+    // the old load fades out so the recovered partition does not get all rows
+    clock.addAndGet(LoadAwarePartitioner.HALF_LIFE.toMillis() * 20);
+    counts = send(partitioner, key, cluster(key, 2, 2), 200);
+    Assertions.assertTrue(Math.abs(counts[0] - counts[1]) <= 2, Arrays.toString(counts));
+  }
 }
@@ -17,11 +17,14 @@
 package oharastream.ohara.kafka;
 
 import java.time.Duration;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import oharastream.ohara.common.setting.TopicKey;
 import oharastream.ohara.common.util.CommonUtils;
 import oharastream.ohara.common.util.Releasable;
@@ -153,6 +156,84 @@ public class TestTopicAdmin extends With3Brokers {
             .value());
   }
 
+  @Test
+  public void testBulkOperations() throws ExecutionException, InterruptedException {
+    Set<TopicKey> topicKeys =
+        IntStream.range(0, 5)
+            .mapToObj(i -> TopicKey.of("TestTopicAdmin", CommonUtils.randomString(5)))
+            .collect(Collectors.toUnmodifiableSet());
+    client
+        .createTopics(
+            topicKeys.stream()
+                .map(key -> client.topicCreator().numberOfPartitions(2).topicKey(key))
+                .collect(Collectors.toUnmodifiableList()))
+        .toCompletableFuture()
+        .get();
+    topicKeys.forEach(key -> waitPartitions(key, 2));
+
+    TopicKey nonexistentKey = TopicKey.of("a", CommonUtils.randomString(5));
+    Set<TopicKey> keys = new HashSet<>(topicKeys);
+    keys.add(nonexistentKey);
+    Map<TopicKey, TopicDescription> descriptions =
+        client.topicDescriptions(keys).toCompletableFuture().get();
+    Assertions.assertEquals(topicKeys, descriptions.keySet());
+    descriptions.values().forEach(d -> Assertions.assertEquals(2, d.numberOfPartitions()));
+
+    Assertions.assertEquals(topicKeys, client.deleteTopics(keys).toCompletableFuture().get());
+    Assertions.assertEquals(0, client.topicDescriptions(keys).toCompletableFuture().get().size());
+  }
+
+  @Test
+  public void testCachedAdmin() throws ExecutionException, InterruptedException {
+    try (TopicAdmin cached =
+        TopicAdmin.cached(testUtil().brokersConnProps(), Duration.ofSeconds(30))) {
+      cached.topicCreator().topicKey(topicKey).create().toCompletableFuture().get();
+      waitPartitions(topicKey, 1);
+      TopicDescription description = cached.topicDescription(topicKey).toCompletableFuture().get();
+      Assertions.assertTrue(cached.exist(topicKey).toCompletableFuture().get());
+      Assertions.assertSame(
+          description, cached.topicDescription(topicKey).toCompletableFuture().get());
+
+      // the mutation invalidates the cached description
+      cached.createPartitions(topicKey, 2).toCompletableFuture().get();
+      waitPartitions(topicKey, 2);
+      Assertions.assertEquals(
+          2, cached.topicDescription(topicKey).toCompletableFuture().get().numberOfPartitions());
+
+      Assertions.assertTrue(cached.deleteTopic(topicKey).toCompletableFuture().get());
+      CommonUtils.await(
+          () -> !client.exist(topicKey).toCompletableFuture().join(), Duration.ofSeconds(30));
+      Assertions.assertFalse(cached.exist(topicKey).toCompletableFuture().get());
+    }
+  }
+
+  @Test
+  public void testSharedAdmin() throws ExecutionException, InterruptedException {
+    TopicAdmin admin0 = TopicAdmin.shared(testUtil().brokersConnProps());
+    TopicAdmin admin1 = TopicAdmin.shared(testUtil().brokersConnProps());
+    admin0.topicCreator().topicKey(topicKey).create().toCompletableFuture().get();
+    waitPartitions(topicKey, 1);
+    Assertions.assertSame(
+        admin0.topicDescription(topicKey).toCompletableFuture().get(),
+        admin1.topicDescription(topicKey).toCompletableFuture().get());
+
+    admin0.close();
+    Assertions.assertTrue(admin0.closed());
+    // the shared admin is still alive
+    Assertions.assertFalse(admin1.closed());
+    Assertions.assertTrue(admin1.exist(topicKey).toCompletableFuture().get());
+    admin1.close();
+  }
+
+  @Test
+  public void testIdleSharedAdmin() {
+    String connectionProps = testUtil().brokersConnProps();
+    SharedTopicAdmin.acquire(connectionProps, Duration.ofSeconds(2)).close();
+    // the idle admin is kept for a while
+    Assertions.assertTrue(SharedTopicAdmin.alive(connectionProps));
+    CommonUtils.await(() -> !SharedTopicAdmin.alive(connectionProps), Duration.ofSeconds(30));
+  }
+
   @AfterEach
   public void cleanup() throws ExecutionException, InterruptedException {
     client
@@ -16,6 +16,7 @@
 
 package oharastream.ohara.kafka.connector;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -25,8 +26,11 @@ import oharastream.ohara.common.setting.ConnectorKey;
 import oharastream.ohara.common.setting.SettingDef;
 import oharastream.ohara.common.setting.TopicKey;
 import oharastream.ohara.common.util.CommonUtils;
+import oharastream.ohara.kafka.Header;
+import oharastream.ohara.kafka.RecordLayout;
 import oharastream.ohara.kafka.connector.json.ConnectorFormatter;
 import org.apache.kafka.connect.sink.SinkRecord;
+import org.apache.kafka.connect.source.SourceRecord;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -287,6 +291,129 @@ public class TestConnectorProps extends OharaTest {
     }
   }
 
+  @Test
+  public void testRecordLayoutInSource() {
+    Row row = Row.of(Cell.of("a", 1), Cell.of("b", "b"), Cell.of("c", 3L));
+    RowSourceTask task =
+        new DumbSourceTask() {
+          @Override
+          protected List<RowSourceRecord> pollRecords() {
+            return List.of(
+                RowSourceRecord.builder().row(row).topicKey(TopicKey.of("g", "n")).build());
+          }
+        };
+    task.start(
+        ConnectorFormatter.of()
+            .connectorKey(ConnectorKey.of("g", "n"))
+            .recordLayout(RecordLayout.VALUE)
+            .recordKeyColumns(List.of("a", "c"))
+            .raw());
+    try {
+      SourceRecord record = task.poll().get(0);
+      Assertions.assertEquals(row, Serializer.ROW.from((byte[]) record.value()));
+      Assertions.assertEquals(
+          Row.of(Cell.of("a", 1), Cell.of("c", 3L)), Serializer.ROW.from((byte[]) record.key()));
+    } finally {
+      task.stop();
+    }
+  }
+
+  @Test
+  public void testCompactHeaders() {
+    Row row = Row.of(Cell.of("a", 1));
+    ConnectorKey connectorKey = ConnectorKey.of("g", CommonUtils.randomString());
+    RowSourceTask task =
+        new DumbSourceTask() {
+          @Override
+          protected List<RowSourceRecord> pollRecords() {
+            return List.of(
+                RowSourceRecord.builder().row(row).topicKey(TopicKey.of("g", "n")).build());
+          }
+        };
+    task.start(
+        ConnectorFormatter.of()
+            .connectorKey(connectorKey)
+            .headerFormat(Header.Format.COMPACT)
+            .raw());
+    try {
+      SourceRecord record = task.poll().get(0);
+      Assertions.assertNull(record.headers().lastWithName(Header.SOURCE_CLASS_KEY));
+      Assertions.assertNull(record.headers().lastWithName(Header.SOURCE_KEY_KEY));
+      byte[] id = (byte[]) record.headers().lastWithName(Header.SOURCE_ID_KEY).value();
+      Assertions.assertEquals(connectorKey, Header.sourceKey(id).get());
+      byte[] index = (byte[]) record.headers().lastWithName(RowSourceTask.RECORD_INDEX_KEY).value();
+      Assertions.assertEquals(1, index.length);
+      // the record is cached by varint index
+      Assertions.assertEquals(1, task.cachedRecords.size());
+    } finally {
+      task.stop();
+    }
+  }
+
+  @Test
+  public void testThrottleInFlightRecords() {
+    RowSourceTask task =
+        new DumbSourceTask() {
+          @Override
+          protected List<RowSourceRecord> pollRecords() {
+            return List.of(
+                RowSourceRecord.builder()
+                    .row(Row.of(Cell.of("a", 1)))
+                    .topicKey(TopicKey.of("g", "n"))
+                    .build());
+          }
+        };
+    task.start(
+        ConnectorFormatter.of()
+            .connectorKey(ConnectorKey.of("g", "n"))
+            .maxInFlightRecords(1)
+            .raw());
+    try {
+      SourceRecord record = task.poll().get(0);
+      Assertions.assertEquals(1, task.inFlightRecordNumberCounter.getValue());
+      // the ring is full so the task is throttled
+      Assertions.assertNull(task.poll());
+      task.commitRecord(
+          record,
+          new org.apache.kafka.clients.producer.RecordMetadata(
+              new org.apache.kafka.common.TopicPartition(record.topic(), 0), 0, 0, 0, 0L, 0, 0));
+      Assertions.assertEquals(1, task.poll().size());
+    } finally {
+      task.stop();
+      Assertions.assertTrue(task.inFlightRecordNumberCounter.isClosed());
+    }
+  }
+
+  @Test
+  public void testRecordLayoutInSink() {
+    Row row = Row.of(Cell.of("a", 1), Cell.of("b", "b"));
+    List<Row> rows = new ArrayList<>();
+    RowSinkTask task =
+        new DumbSinkTask() {
+          @Override
+          protected void putRecords(List<RowSinkRecord> records) {
+            records.forEach(record -> rows.add(record.row()));
+          }
+        };
+    task.start(ConnectorFormatter.of().connectorKey(ConnectorKey.of("g", "n")).raw());
+    try {
+      String topicName = TopicKey.of("g", "n").topicNameOnKafka();
+      byte[] bytes = Serializer.ROW.to(row);
+      byte[] keyBytes = Serializer.ROW.to(Row.of(Cell.of("a", 1)));
+      task.put(
+          List.of(
+              // the legacy record
+              new SinkRecord(topicName, 0, null, bytes, null, null, 10),
+              // the legacy record written by stream
+              new SinkRecord(topicName, 0, null, bytes, null, new byte[0], 11),
+              new SinkRecord(topicName, 0, null, keyBytes, null, bytes, 12),
+              new SinkRecord(topicName, 0, null, null, null, bytes, 13)));
+      Assertions.assertEquals(List.of(row, row, row, row), rows);
+    } finally {
+      task.stop();
+    }
+  }
+
   @Test
   public void testStop() {
     RowSourceTask task = new DumbSourceTask();
@@ -17,10 +17,13 @@
 package oharastream.ohara.kafka.connector;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import oharastream.ohara.common.data.Cell;
 import oharastream.ohara.common.data.Column;
 import oharastream.ohara.common.data.DataType;
 import oharastream.ohara.common.data.Row;
+import oharastream.ohara.common.data.RowCodec;
 import oharastream.ohara.common.rule.OharaTest;
 import oharastream.ohara.common.util.CommonUtils;
 import org.junit.jupiter.api.Assertions;
@@ -68,4 +71,57 @@ public class TestConnectorUtils extends OharaTest {
     ConnectorUtils.match(
         Row.of(Cell.of(column.newName(), CommonUtils.randomString())), List.of(column), false);
   }
+
+  @Test
+  public void testSchema() {
+    Assertions.assertNull(ConnectorUtils.schema(List.of(), true));
+    // the sink column is named by the new name of source column
+    Column sourceColumn =
+        Column.builder().name("a").newName("b").dataType(DataType.STRING).order(0).build();
+    Column sinkColumn =
+        Column.builder().name("b").newName("c").dataType(DataType.STRING).order(0).build();
+    RowCodec.Schema sourceSchema = ConnectorUtils.schema(List.of(sourceColumn), false);
+    RowCodec.Schema sinkSchema = ConnectorUtils.schema(List.of(sinkColumn), true);
+    Assertions.assertEquals(sourceSchema.fingerprint(), sinkSchema.fingerprint());
+    Row row = Row.of(Cell.of("b", CommonUtils.randomString()));
+    Assertions.assertEquals(
+        row, RowCodec.fromBytes(RowCodec.toCompactBytes(row, sourceSchema), sinkSchema));
+  }
+
+  /** the wide rows are checked by name rather than by position. */
+  @Test
+  public void testMatchWideRows() {
+    int numberOfColumns = 1000;
+    List<Column> columns =
+        IntStream.range(0, numberOfColumns)
+            .mapToObj(
+                i -> Column.builder().name("c" + i).dataType(DataType.INT).order(i).build())
+            .collect(Collectors.toUnmodifiableList());
+    // the cells are in reverse order
+    Row row =
+        Row.of(
+            IntStream.range(0, numberOfColumns)
+                .mapToObj(i -> Cell.of("c" + (numberOfColumns - 1 - i), i))
+                .toArray(Cell[]::new));
+    ConnectorUtils.match(row, columns, false);
+
+    // the last cell has unknown name
+    Row unknownName =
+        Row.of(
+            IntStream.range(0, numberOfColumns)
+                .mapToObj(i -> Cell.of(i == numberOfColumns - 1 ? "unknown" : "c" + i, i))
+                .toArray(Cell[]::new));
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> ConnectorUtils.match(unknownName, columns, false));
+
+    // the last cell has illegal type
+    Row illegalType =
+        Row.of(
+            IntStream.range(0, numberOfColumns)
+                .mapToObj(
+                    i -> i == numberOfColumns - 1 ? Cell.of("c" + i, "a") : Cell.of("c" + i, i))
+                .toArray(Cell[]::new));
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> ConnectorUtils.match(illegalType, columns, false));
+  }
 }
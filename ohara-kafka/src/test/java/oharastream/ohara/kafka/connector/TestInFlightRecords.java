@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka.connector;
+
+import oharastream.ohara.common.data.Cell;
+import oharastream.ohara.common.data.Row;
+import oharastream.ohara.common.rule.OharaTest;
+import oharastream.ohara.common.setting.TopicKey;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestInFlightRecords extends OharaTest {
+  private static RowSourceRecord record(int value) {
+    return RowSourceRecord.builder()
+        .row(Row.of(Cell.of("a", value)))
+        .topicKey(TopicKey.of("g", "n"))
+        .build();
+  }
+
+  @Test
+  public void testCapacity() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new InFlightRecords(0));
+    Assertions.assertEquals(1, new InFlightRecords(1).capacity());
+    Assertions.assertEquals(4, new InFlightRecords(3).capacity());
+    Assertions.assertEquals(4, new InFlightRecords(4).capacity());
+  }
+
+  @Test
+  public void testPutAndRemove() {
+    InFlightRecords records = new InFlightRecords(4);
+    RowSourceRecord record = record(0);
+    Assertions.assertTrue(records.put(0, record));
+    Assertions.assertEquals(1, records.size());
+    Assertions.assertSame(record, records.remove(0));
+    Assertions.assertNull(records.remove(0));
+    Assertions.assertEquals(0, records.size());
+    // the index must be increasing
+    Assertions.assertThrows(IllegalArgumentException.class, () -> records.put(0, record));
+  }
+
+  @Test
+  public void testFull() {
+    InFlightRecords records = new InFlightRecords(4);
+    for (int i = 0; i != 4; ++i) Assertions.assertTrue(records.put(i, record(i)));
+    Assertions.assertTrue(records.isFull());
+    // the slot of index 4 is used by index 0
+    Assertions.assertFalse(records.put(4, record(4)));
+    Assertions.assertNull(records.remove(4));
+    Assertions.assertEquals(0, records.remove(0).row().getInt("a"));
+    // the skipped index 4 is counted
+    Assertions.assertTrue(records.isFull());
+    Assertions.assertEquals(1, records.remove(1).row().getInt("a"));
+    Assertions.assertFalse(records.isFull());
+    Assertions.assertTrue(records.put(5, record(5)));
+    Assertions.assertTrue(records.isFull());
+    Assertions.assertNull(records.remove(4));
+    Assertions.assertEquals(5, records.remove(5).row().getInt("a"));
+  }
+
+  @Test
+  public void testRemoveOutOfOrder() {
+    InFlightRecords records = new InFlightRecords(4);
+    for (int i = 0; i != 4; ++i) Assertions.assertTrue(records.put(i, record(i)));
+    Assertions.assertNotNull(records.remove(3));
+    Assertions.assertNotNull(records.remove(1));
+    // the head is blocked by index 0
+    Assertions.assertEquals(4, records.size());
+    Assertions.assertNotNull(records.remove(0));
+    Assertions.assertEquals(2, records.size());
+    Assertions.assertNotNull(records.remove(2));
+    Assertions.assertEquals(0, records.size());
+  }
+}
@@ -18,22 +18,17 @@ package oharastream.ohara.kafka.connector;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import oharastream.ohara.common.data.Cell;
 import oharastream.ohara.common.data.Row;
 import oharastream.ohara.common.rule.OharaTest;
 import oharastream.ohara.common.setting.ConnectorKey;
 import oharastream.ohara.common.setting.SettingDef;
 import oharastream.ohara.common.setting.TopicKey;
-import oharastream.ohara.common.util.ByteUtils;
 import oharastream.ohara.common.util.CommonUtils;
 import oharastream.ohara.kafka.connector.json.ConnectorFormatter;
-import org.apache.kafka.connect.header.Header;
-import org.apache.kafka.connect.header.Headers;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mockito;
 
 public class TestRowSourceRecord extends OharaTest {
 
@@ -162,7 +157,8 @@ public class TestRowSourceRecord extends OharaTest {
             .connectorKey(ConnectorKey.of("a", "b"))
             .checkRule(SettingDef.CheckRule.PERMISSIVE)
             .raw());
-    Assertions.assertEquals(1, task.poll().size());
+    List<SourceRecord> kafkaRecords = task.poll();
+    Assertions.assertEquals(1, kafkaRecords.size());
     Assertions.assertEquals(1, task.cachedRecords.size());
     org.apache.kafka.clients.producer.RecordMetadata meta =
         new org.apache.kafka.clients.producer.RecordMetadata(
@@ -173,21 +169,6 @@ public class TestRowSourceRecord extends OharaTest {
             4L,
             5,
             6);
-    // snapshot the cache and then generate fake records
-    var kafkaRecords =
-        task.cachedRecords.keySet().stream()
-            .map(
-                index -> {
-                  var header = Mockito.mock(Header.class);
-                  Mockito.when(header.value()).thenReturn(ByteUtils.toBytes(index));
-                  var headers = Mockito.mock(Headers.class);
-                  Mockito.when(headers.lastWithName(RowSourceTask.RECORD_INDEX_KEY))
-                      .thenReturn(header);
-                  var r = Mockito.mock(SourceRecord.class);
-                  Mockito.when(r.headers()).thenReturn(headers);
-                  return r;
-                })
-            .collect(Collectors.toList());
     kafkaRecords.forEach(r -> task.commitRecord(r, meta));
     Assertions.assertEquals(0, task.cachedRecords.size());
   }
@@ -21,9 +21,13 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import oharastream.ohara.common.data.RowCodec;
 import oharastream.ohara.common.rule.OharaTest;
 import oharastream.ohara.common.setting.PropGroup;
 import oharastream.ohara.common.util.CommonUtils;
+import oharastream.ohara.kafka.Header;
+import oharastream.ohara.kafka.RecordLayout;
+import oharastream.ohara.kafka.connector.json.ConnectorFormatter;
 import oharastream.ohara.kafka.connector.json.StringList;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -159,4 +163,46 @@ public class TestTaskSetting extends OharaTest {
     Assertions.assertEquals(duration, CommonUtils.toDuration(duration.toString()));
     Assertions.assertEquals(duration, CommonUtils.toDuration("10 seconds"));
   }
+
+  @Test
+  public void testRowFormat() {
+    Assertions.assertEquals(RowCodec.Format.DEFAULT, TaskSetting.of(Map.of()).rowFormat());
+    Assertions.assertEquals(
+        RowCodec.Format.COMPACT, TaskSetting.of(Map.of("row.format", "compact")).rowFormat());
+    Assertions.assertEquals(
+        RowCodec.Format.DEFAULT,
+        TaskSetting.of(Map.of("row.format", CommonUtils.randomString())).rowFormat());
+  }
+
+  @Test
+  public void testRecordLayout() {
+    Assertions.assertEquals(RecordLayout.KEY, TaskSetting.of(Map.of()).recordLayout());
+    Assertions.assertEquals(
+        RecordLayout.VALUE, TaskSetting.of(Map.of("record.layout", "value")).recordLayout());
+    // the unknown layout is rejected rather than replaced by default
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> TaskSetting.of(Map.of("record.layout", CommonUtils.randomString())).recordLayout());
+    Assertions.assertEquals(List.of(), TaskSetting.of(Map.of()).recordKeyColumns());
+    Assertions.assertEquals(
+        List.of("a", "b"),
+        TaskSetting.of(
+                ConnectorFormatter.of()
+                    .recordLayout(RecordLayout.VALUE)
+                    .recordKeyColumns(List.of("a", "b"))
+                    .raw())
+            .recordKeyColumns());
+  }
+
+  @Test
+  public void testHeaderFormat() {
+    Assertions.assertEquals(Header.Format.FULL, TaskSetting.of(Map.of()).headerFormat());
+    Assertions.assertEquals(
+        Header.Format.COMPACT,
+        TaskSetting.of(ConnectorFormatter.of().headerFormat(Header.Format.COMPACT).raw())
+            .headerFormat());
+    Assertions.assertEquals(
+        Header.Format.FULL,
+        TaskSetting.of(Map.of("header.format", CommonUtils.randomString())).headerFormat());
+  }
 }
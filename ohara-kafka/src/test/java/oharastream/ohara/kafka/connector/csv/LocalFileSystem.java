@@ -24,7 +24,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
 import oharastream.ohara.common.exception.FileSystemException;
 import oharastream.ohara.common.exception.NoSuchFileException;
 import oharastream.ohara.kafka.connector.storage.FileSystem;
@@ -52,6 +55,21 @@ public class LocalFileSystem implements FileSystem {
     }
   }
 
+  @Override
+  public Map<String, Long> listLastModified(String dir) {
+    if (!exists(dir)) {
+      throw new NoSuchFileException(String.format("The path %s doesn't exist", dir));
+    }
+    try (Stream<Path> paths = Files.list(Paths.get(dir))) {
+      Map<String, Long> result = new HashMap<>();
+      for (Path path : (Iterable<Path>) paths::iterator)
+        result.put(path.getFileName().toString(), Files.getLastModifiedTime(path).toMillis());
+      return result;
+    } catch (IOException e) {
+      throw new FileSystemException(e);
+    }
+  }
+
   @Override
   public FileType fileType(String path) {
     return (new File(path)).isDirectory() ? FileType.FOLDER : FileType.FILE;
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka.connector.csv;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import oharastream.ohara.common.rule.OharaTest;
+import oharastream.ohara.common.util.Releasable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestCsvFileLister extends OharaTest {
+  private Path folder;
+
+  @BeforeEach
+  public void before() throws IOException {
+    folder = Files.createTempDirectory(getClass().getSimpleName());
+    Files.createFile(folder.resolve("a"));
+    Files.createFile(folder.resolve("b"));
+  }
+
+  private CsvFileLister lister(Path indexFile, int total) {
+    return new CsvFileLister(LocalFileSystem.of(), folder.toString(), indexFile, total, false);
+  }
+
+  @Test
+  public void testSkip() throws IOException {
+    try (CsvFileLister lister = lister(null, 1)) {
+      Assertions.assertEquals(Set.of("a", "b"), Set.copyOf(lister.list()));
+      lister.skip("a");
+      Assertions.assertEquals(List.of("b"), lister.list());
+      // the modified file is checked again
+      Files.setLastModifiedTime(
+          folder.resolve("a"),
+          FileTime.fromMillis(Files.getLastModifiedTime(folder.resolve("a")).toMillis() + 1000));
+      Assertions.assertEquals(Set.of("a", "b"), Set.copyOf(lister.list()));
+    }
+  }
+
+  @Test
+  public void testRemovedFileIsNotIndexed() throws IOException {
+    try (CsvFileLister lister = lister(null, 1)) {
+      lister.list();
+      lister.skip("a");
+      FileTime time = Files.getLastModifiedTime(folder.resolve("a"));
+      Files.delete(folder.resolve("a"));
+      Assertions.assertEquals(List.of("b"), lister.list());
+      // the new file has same name and modified time
+      Files.setLastModifiedTime(Files.createFile(folder.resolve("a")), time);
+      Assertions.assertEquals(Set.of("a", "b"), Set.copyOf(lister.list()));
+    }
+  }
+
+  @Test
+  public void testPersistentIndex() throws IOException {
+    Path indexFile = Files.createTempDirectory("index").resolve("task.index");
+    try (CsvFileLister lister = lister(indexFile, 2)) {
+      lister.list();
+      lister.skip("a");
+    }
+    Assertions.assertTrue(Files.exists(indexFile));
+    try (CsvFileLister lister = lister(indexFile, 2)) {
+      Assertions.assertEquals(List.of("b"), lister.list());
+    }
+    // the owners of files are changed
+    try (CsvFileLister lister = lister(indexFile, 3)) {
+      Assertions.assertEquals(Set.of("a", "b"), Set.copyOf(lister.list()));
+    }
+  }
+
+  @Test
+  public void testWatch() throws IOException {
+    AtomicInteger listCount = new AtomicInteger();
+    AtomicReference<Consumer<String>> watcher = new AtomicReference<>();
+    LocalFileSystem fs =
+        new LocalFileSystem() {
+          @Override
+          public Map<String, Long> listLastModified(String dir) {
+            listCount.incrementAndGet();
+            return super.listLastModified(dir);
+          }
+
+          @Override
+          public Optional<Releasable> watch(String dir, Consumer<String> listener) {
+            watcher.set(listener);
+            return Optional.of(() -> watcher.set(null));
+          }
+        };
+    try (CsvFileLister lister = new CsvFileLister(fs, folder.toString(), null, 1, true)) {
+      Assertions.assertEquals(Set.of("a", "b"), Set.copyOf(lister.list()));
+      lister.skip("a");
+      lister.remove("b");
+      Files.createFile(folder.resolve("c"));
+      watcher.get().accept("c");
+      // the folder is not listed again
+      Assertions.assertEquals(List.of("c"), lister.list());
+      Assertions.assertEquals(1, listCount.get());
+      // the changed file is not skipped
+      watcher.get().accept("a");
+      Assertions.assertEquals(Set.of("a", "c"), Set.copyOf(lister.list()));
+    }
+    Assertions.assertNull(watcher.get());
+  }
+}
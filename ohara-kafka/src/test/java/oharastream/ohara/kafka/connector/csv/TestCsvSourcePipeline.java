@@ -0,0 +1,177 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka.connector.csv;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import oharastream.ohara.common.data.Cell;
+import oharastream.ohara.common.data.Row;
+import oharastream.ohara.common.rule.OharaTest;
+import oharastream.ohara.common.setting.TopicKey;
+import oharastream.ohara.common.util.CommonUtils;
+import oharastream.ohara.kafka.connector.RowSourceRecord;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestCsvSourcePipeline extends OharaTest {
+
+  private static RowSourceRecord record(String fileName) {
+    return RowSourceRecord.builder()
+        .row(Row.of(Cell.of("file", fileName)))
+        .topicKey(TopicKey.of("g", "n"))
+        .build();
+  }
+
+  @Test
+  public void testReadAllFiles() throws Exception {
+    // each file has two batches
+    Map<String, AtomicInteger> reads = new ConcurrentHashMap<>();
+    List<RowSourceRecord> records = new ArrayList<>();
+    try (CsvSourcePipeline pipeline =
+        new CsvSourcePipeline(
+            1,
+            () -> List.of("a", "b", "folder").iterator(),
+            fileName -> {
+              if (fileName.equals("folder")) return Optional.empty();
+              return Optional.of(
+                  completable -> {
+                    int index =
+                        reads.computeIfAbsent(fileName, k -> new AtomicInteger()).getAndIncrement();
+                    return index < 2 ? List.of(record(fileName)) : List.of();
+                  });
+            },
+            null,
+            null,
+            null)) {
+      CommonUtils.await(
+          () -> {
+            records.addAll(pipeline.poll());
+            return records.size() == 4;
+          },
+          Duration.ofSeconds(10));
+      // the completed files are listed again but they have no more records
+      TimeUnit.SECONDS.sleep(2);
+      records.addAll(pipeline.poll());
+    }
+    Assertions.assertEquals(4, records.size());
+    Assertions.assertEquals(
+        2, records.stream().filter(r -> r.row().equals(Row.of(Cell.of("file", "a")))).count());
+    Assertions.assertFalse(reads.containsKey("folder"));
+  }
+
+  @Test
+  public void testFileInPipelineIsNotListedAgain() throws Exception {
+    AtomicInteger opens = new AtomicInteger();
+    try (CsvSourcePipeline pipeline =
+        new CsvSourcePipeline(
+            1,
+            () -> List.of("a").iterator(),
+            fileName -> {
+              opens.incrementAndGet();
+              // the file never ends
+              return Optional.of(completable -> List.of(record(fileName)));
+            },
+            null,
+            null,
+            null)) {
+      // the parser is blocked since no one polls the records
+      TimeUnit.SECONDS.sleep(3);
+      Assertions.assertEquals(1, opens.get());
+      Assertions.assertEquals(1, pipeline.poll().size());
+    }
+  }
+
+  @Test
+  public void testSkippedFilesDoNotBusyLoop() throws Exception {
+    AtomicInteger lists = new AtomicInteger();
+    try (CsvSourcePipeline pipeline =
+        new CsvSourcePipeline(
+            1,
+            () -> {
+              lists.incrementAndGet();
+              return List.of("a", "b").iterator();
+            },
+            fileName -> Optional.empty(),
+            null,
+            null,
+            null)) {
+      TimeUnit.MILLISECONDS.sleep(2500);
+      // the skipped files are not new files so the lister waits for next round
+      int count = lists.get();
+      Assertions.assertTrue(count <= 3, "the folder is listed " + count + " times");
+      Assertions.assertEquals(0, pipeline.poll().size());
+    }
+  }
+
+  @Test
+  public void testFileIsCompletedAfterRecordsArePolled() throws Exception {
+    AtomicInteger reads = new AtomicInteger();
+    AtomicBoolean completed = new AtomicBoolean(false);
+    try (CsvSourcePipeline pipeline =
+        new CsvSourcePipeline(
+            1,
+            () -> List.of("a").iterator(),
+            fileName ->
+                Optional.of(
+                    completable -> {
+                      if (reads.getAndIncrement() == 0) return List.of(record(fileName));
+                      if (!completed.get()) completed.set(completable.getAsBoolean());
+                      return List.of();
+                    }),
+            null,
+            null,
+            null)) {
+      // the queued records are not polled so the file can't be completed
+      TimeUnit.SECONDS.sleep(1);
+      Assertions.assertFalse(completed.get());
+      Assertions.assertEquals(1, pipeline.poll().size());
+      CommonUtils.await(completed::get, Duration.ofSeconds(10));
+    }
+  }
+
+  @Test
+  public void testFileIsNotCompletedIfRecordsAreDropped() {
+    AtomicInteger reads = new AtomicInteger();
+    List<Boolean> completables = new CopyOnWriteArrayList<>();
+    CsvSourcePipeline pipeline =
+        new CsvSourcePipeline(
+            1,
+            () -> List.of("a").iterator(),
+            fileName ->
+                Optional.of(
+                    completable -> {
+                      if (reads.getAndIncrement() == 0) return List.of(record(fileName));
+                      completables.add(completable.getAsBoolean());
+                      return List.of();
+                    }),
+            null,
+            null,
+            null);
+    // the parser reaches the end of file but the records are not polled
+    CommonUtils.await(() -> reads.get() == 2, Duration.ofSeconds(10));
+    pipeline.close();
+    Assertions.assertEquals(List.of(false), completables);
+  }
+}
@@ -114,6 +114,16 @@ public class TestCsvSourceTask extends OharaTest {
     Assertions.assertThrows(NoSuchElementException.class, () -> createTask(settings));
   }
 
+  @Test
+  public void testOwnerOfFileHavingNegativeHash() {
+    String fileName = "file-negative.csv";
+    Assertions.assertTrue(fileName.hashCode() < 0);
+    int total = 3;
+    int owner = Math.floorMod(fileName.hashCode(), total);
+    for (int hash = 0; hash != total; ++hash)
+      Assertions.assertEquals(hash == owner, CsvSourceTask.isOwner(fileName, total, hash));
+  }
+
   private CsvSourceTask createTask(Map<String, String> settings) {
     CsvSourceTask task = new MockCsvSourceTask();
     task.start(
@@ -16,13 +16,25 @@
 
 package oharastream.ohara.kafka.connector.csv.source;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import oharastream.ohara.common.data.Cell;
 import oharastream.ohara.common.data.Column;
 import oharastream.ohara.common.data.DataType;
+import oharastream.ohara.common.data.Row;
+import oharastream.ohara.kafka.connector.RowSourceContext;
 import oharastream.ohara.kafka.connector.RowSourceRecord;
 import oharastream.ohara.kafka.connector.TaskSetting;
+import oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -73,6 +85,106 @@ public class TestCsvDataReader extends WithFakeStorage {
     verifyFileSize(0, 0, 1);
   }
 
+  @Test
+  public void testResumeFromPosition() {
+    setup();
+    props.put(CsvConnectorDefinitions.MAXIMUM_NUMBER_OF_LINES_KEY, "1");
+    DataReader dataReader = createDataReader();
+
+    List<RowSourceRecord> records = new ArrayList<>();
+    long position = 0;
+    for (int index = 0; index != INPUT_DATA.size(); ++index) {
+      List<RowSourceRecord> result = dataReader.read(INPUT_FILE.toString());
+      Assertions.assertEquals(1, result.size());
+      Map<String, ?> offset = result.get(0).sourceOffset();
+      Assertions.assertEquals(index + 1, offset.get(CsvRecordConverter.CSV_OFFSET_KEY));
+      long next = (Long) offset.get(CsvRecordConverter.CSV_POSITION_KEY);
+      Assertions.assertTrue(next > position);
+      position = next;
+      records.addAll(result);
+    }
+    verifyRecords(records);
+    Assertions.assertEquals(0, dataReader.read(INPUT_FILE.toString()).size());
+    verifyFileSize(0, 1, 0);
+  }
+
+  @Test
+  public void testQuotedLineSeparator() throws IOException {
+    setup();
+    storage.delete(INPUT_FILE.toString());
+    try (BufferedWriter writer =
+        new BufferedWriter(new OutputStreamWriter(storage.create(INPUT_FILE.toString())))) {
+      writer.write("hostname,port,running\n\"a\nb\",1,true\n\"c,d\",2,false\n");
+    }
+    props.put(CsvConnectorDefinitions.MAXIMUM_NUMBER_OF_LINES_KEY, "1");
+    DataReader dataReader = createDataReader();
+
+    List<RowSourceRecord> first = dataReader.read(INPUT_FILE.toString());
+    Assertions.assertEquals(1, first.size());
+    Assertions.assertEquals(
+        Row.of(Cell.of("hostname", "a\nb"), Cell.of("port", 1), Cell.of("running", true)),
+        first.get(0).row());
+    List<RowSourceRecord> second = dataReader.read(INPUT_FILE.toString());
+    Assertions.assertEquals(1, second.size());
+    Assertions.assertEquals(
+        Row.of(Cell.of("hostname", "c,d"), Cell.of("port", 2), Cell.of("running", false)),
+        second.get(0).row());
+    Assertions.assertEquals(0, dataReader.read(INPUT_FILE.toString()).size());
+    verifyFileSize(0, 1, 0);
+  }
+
+  @Test
+  public void testSplitFileAcrossReaders() {
+    setup();
+    // the offsets are committed after they are returned by reader
+    Map<Map<String, ?>, Map<String, Object>> committed = new HashMap<>();
+    RowSourceContext context =
+        new RowSourceContext() {
+          @Override
+          public <T> Map<String, Object> offset(Map<String, T> partition) {
+            return committed.getOrDefault(partition, Map.of());
+          }
+
+          @Override
+          public <T> Map<Map<String, T>, Map<String, Object>> offset(
+              List<Map<String, T>> partitions) {
+            return partitions.stream()
+                .filter(committed::containsKey)
+                .collect(Collectors.toMap(p -> p, committed::get));
+          }
+        };
+    List<CsvDataReader> readers =
+        IntStream.range(0, 2)
+            .mapToObj(
+                hash -> {
+                  Map<String, String> settings = new HashMap<>(props);
+                  settings.put(CsvConnectorDefinitions.TASK_TOTAL_KEY, "2");
+                  settings.put(CsvConnectorDefinitions.TASK_HASH_KEY, String.valueOf(hash));
+                  CsvSourceConfig config = CsvSourceConfig.of(TaskSetting.of(settings), SCHEMA);
+                  return CsvDataReader.of(storage, config, context);
+                })
+            .collect(Collectors.toUnmodifiableList());
+    String path = INPUT_FILE.toString();
+    // the small size makes some ranges have no line start
+    List<FileRange> ranges = FileRange.split(storage.size(path), 8);
+    Assertions.assertTrue(ranges.size() > readers.size());
+
+    List<RowSourceRecord> records = new ArrayList<>();
+    for (int round = 0; round != 10 && storage.exists(path); ++round) {
+      for (CsvDataReader reader : readers) {
+        if (!storage.exists(path)) break;
+        List<RowSourceRecord> result = reader.read(path, ranges);
+        result.forEach(r -> committed.put(r.sourcePartition(), new HashMap<>(r.sourceOffset())));
+        records.addAll(result);
+      }
+    }
+    Assertions.assertEquals(VERIFICATION_DATA.size(), records.size());
+    Assertions.assertEquals(Set.copyOf(VERIFICATION_DATA), Set.copyOf(extractRow(records)));
+    verifyFileSize(0, 1, 0);
+    // all readers release the cache of completed file
+    readers.forEach(reader -> Assertions.assertEquals(0, reader.cacheSize()));
+  }
+
   private void verifyFileSize(int inputSize, int completedSize, int errorSize) {
     verifyFileSizeInFolder(inputSize, INPUT_FOLDER);
     verifyFileSizeInFolder(completedSize, COMPLETED_FOLDER);
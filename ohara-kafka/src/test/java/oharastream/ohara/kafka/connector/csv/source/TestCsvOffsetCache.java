@@ -30,4 +30,24 @@ public class TestCsvOffsetCache extends OharaTest {
     Assertions.assertTrue(cache.predicate(path, 2));
     Assertions.assertFalse(cache.predicate(path, 1));
   }
+
+  @Test
+  public void testPosition() {
+    CsvOffsetCache cache = new CsvOffsetCache();
+    Assertions.assertEquals(-1, cache.index(path));
+    Assertions.assertEquals(-1, cache.position(path));
+    cache.update(path, 1, 100);
+    Assertions.assertEquals(1, cache.index(path));
+    Assertions.assertEquals(100, cache.position(path));
+
+    // the older line can't change the position
+    cache.update(path, 0, 10);
+    Assertions.assertEquals(1, cache.index(path));
+    Assertions.assertEquals(100, cache.position(path));
+
+    // the offset without position makes the position unknown
+    cache.update(path, 2);
+    Assertions.assertEquals(2, cache.index(path));
+    Assertions.assertEquals(-1, cache.position(path));
+  }
 }
@@ -16,25 +16,27 @@
 
 package oharastream.ohara.kafka.connector.csv.source;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 import oharastream.ohara.common.data.Cell;
 import oharastream.ohara.common.data.Column;
 import oharastream.ohara.common.data.DataType;
+import oharastream.ohara.common.data.DoubleCell;
+import oharastream.ohara.common.data.IntCell;
+import oharastream.ohara.common.data.LongCell;
 import oharastream.ohara.common.data.Row;
 import oharastream.ohara.common.rule.OharaTest;
 import oharastream.ohara.common.setting.TopicKey;
@@ -80,9 +82,26 @@ public class TestCsvRecordConverter extends OharaTest {
         .build();
   }
 
-  private BufferedReader createReader() throws IOException {
-    return new BufferedReader(
-        new InputStreamReader(new FileInputStream(tempFile), StandardCharsets.UTF_8));
+  private LineReader createReader() throws IOException {
+    return LineReader.of(new FileInputStream(tempFile), StandardCharsets.UTF_8, 0);
+  }
+
+  private static LineReader createReader(String content) {
+    return LineReader.of(
+        new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+        StandardCharsets.UTF_8,
+        0);
+  }
+
+  /** convert all records after the header */
+  private static List<RowSourceRecord> convert(CsvRecordConverter converter, LineReader reader)
+      throws IOException {
+    return converter.convert(converter.header(reader), reader, 1);
+  }
+
+  /** @return the rows of records. Each row is sent to all topics */
+  private static List<Row> rows(List<RowSourceRecord> records) {
+    return records.stream().map(RowSourceRecord::row).distinct().collect(Collectors.toList());
   }
 
   private Map<Integer, List<Cell<String>>> setupInputData() {
@@ -123,56 +142,47 @@ public class TestCsvRecordConverter extends OharaTest {
   }
 
   @Test
-  public void testTransform() {
+  public void testConvert() throws IOException {
     var converter = createConverter();
     data = setupInputData();
-    System.out.println(data);
-    Map<Integer, Row> transformedData = converter.transform(data);
-    System.out.println(transformedData);
-    Assertions.assertEquals(mapToRow(data), converter.transform(data));
+    try (LineReader reader = createReader()) {
+      List<RowSourceRecord> records = convert(converter, reader);
+      Assertions.assertEquals(topicKeys.size() * data.size(), records.size());
+      Assertions.assertEquals(mapToRow(data), rows(records));
+    }
   }
 
   @Test
-  public void testTransform_WithFullSchema() {
+  public void testConvertWithFullSchema() throws IOException {
     var converter = createConverter(schema);
     data = setupInputData();
-    Map<Integer, Row> transformedData = converter.transform(data);
-    Assertions.assertEquals(data.size(), transformedData.size());
-    Assertions.assertEquals(mapToRow(data), transformedData);
+    try (LineReader reader = createReader()) {
+      Assertions.assertEquals(mapToRow(data), rows(convert(converter, reader)));
+    }
   }
 
   @Test
-  public void testTransform_WithSingleColumn() {
+  public void testConvertWithSingleColumn() throws IOException {
     Column column = Column.builder().name("cf1").dataType(DataType.STRING).order(0).build();
     var converter = createConverter(List.of(column));
     data = setupInputData();
-    Map<Integer, Row> transformedData = converter.transform(data);
-    Assertions.assertEquals(data.size(), transformedData.size());
-    transformedData
-        .values()
-        .forEach(
-            row -> {
-              Assertions.assertEquals(1, row.size());
-              Assertions.assertEquals("a", row.cell(column.newName()).value());
-            });
+    try (LineReader reader = createReader()) {
+      List<RowSourceRecord> records = convert(converter, reader);
+      Assertions.assertEquals(topicKeys.size() * data.size(), records.size());
+      records.forEach(
+          record -> {
+            Assertions.assertEquals(1, record.row().size());
+            Assertions.assertEquals("a", record.row().cell(column.newName()).value());
+          });
+    }
   }
 
   @SuppressWarnings({"rawtypes"})
-  private Map<Integer, Row> mapToRow(Map<Integer, List<Cell<String>>> data) {
+  private List<Row> mapToRow(Map<Integer, List<Cell<String>>> data) {
     return data.entrySet().stream()
-        .collect(
-            Collectors.toUnmodifiableMap(
-                Map.Entry::getKey, e -> Row.of(e.getValue().toArray(new Cell[0]))));
-  }
-
-  @Test
-  public void testFindCellByName() {
-    var converter = createConverter();
-    data = setupInputData();
-    List<Cell<String>> cells = data.get(3);
-    Cell<String> cell = converter.findCellByName(cells, "cf3");
-    Assertions.assertEquals("cf3", cell.name());
-    Assertions.assertEquals("c", cell.value());
+        .sorted(Map.Entry.comparingByKey())
+        .map(e -> Row.of(e.getValue().toArray(new Cell[0])))
+        .collect(Collectors.toList());
   }
 
   @Test
@@ -204,88 +214,65 @@ public class TestCsvRecordConverter extends OharaTest {
   }
 
   @Test
-  public void testToRecords_BySingleRow() {
+  public void testToCell() {
     var converter = createConverter();
-    data = setupInputData();
-    Map<Integer, Row> rows = mapToRow(data);
+    Assertions.assertTrue(converter.toCell("a", "2", DataType.INT) instanceof IntCell);
+    Assertions.assertTrue(converter.toCell("a", "3", DataType.LONG) instanceof LongCell);
+    Assertions.assertTrue(converter.toCell("a", "5", DataType.DOUBLE) instanceof DoubleCell);
+    Assertions.assertEquals(Cell.of("a", 2), converter.toCell("a", "2", DataType.INT));
+    Assertions.assertEquals(Cell.of("a", "str"), converter.toCell("a", "str", DataType.STRING));
+    Assertions.assertThrows(
+        NumberFormatException.class, () -> converter.toCell("a", "128", DataType.BYTE));
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> converter.toCell("a", "row", DataType.ROW));
+  }
 
+  @Test
+  public void testToRecords() {
+    var converter = createConverter();
+    data = setupInputData();
     int index = 1;
-    Row row = rows.get(index);
-    List<RowSourceRecord> records = converter.toRecords(row, index);
+    Row row = mapToRow(data).get(0);
+    List<RowSourceRecord> records = converter.toRecords(row, index, 10);
     Assertions.assertEquals(records.size(), topicKeys.size());
     for (RowSourceRecord record : records) {
       Assertions.assertTrue(topicKeys.contains(record.topicKey()));
       Assertions.assertEquals(
           Map.of(CsvRecordConverter.CSV_PARTITION_KEY, path), record.sourcePartition());
       Assertions.assertEquals(
-          Map.of(CsvRecordConverter.CSV_OFFSET_KEY, index), record.sourceOffset());
+          Map.of(
+              CsvRecordConverter.CSV_OFFSET_KEY, index, CsvRecordConverter.CSV_POSITION_KEY, 10L),
+          record.sourceOffset());
       Assertions.assertEquals(row, record.row());
     }
   }
 
   @Test
-  public void testOrder() {
-    var converter = createConverter();
-    var row0 = Row.of(Cell.of("a", "b"));
-    var row1 = Row.of(Cell.of("ccc", "ddd"));
-    var records = converter.toRecords(Map.of(1, row0, 2, row1));
-    Assertions.assertEquals(row0, records.get(0).row());
-    // the order of records should be [0-t0][0-t1][1-t0][1-t1]
-    Assertions.assertEquals(row1, records.get(topicKeys.size()).row());
-  }
-
-  @Test
-  public void testToRecords_ByManyRows() {
-    var converter = createConverter();
-    data = setupInputData();
-    Map<Integer, Row> rows = mapToRow(data);
-
-    List<RowSourceRecord> records = converter.toRecords(rows);
-    Assertions.assertEquals(topicKeys.size() * rows.size(), records.size());
-  }
-
-  @Test
-  public void testToCells() throws IOException {
+  public void testOrder() throws IOException {
     var converter = createConverter();
-    data = setupInputData();
-    try (BufferedReader reader = createReader()) {
-      Stream<String> lines = reader.lines();
-      Assertions.assertEquals(data, converter.toCells(lines, Integer.MAX_VALUE));
+    try (LineReader reader = createReader("a\nb\nddd\n")) {
+      List<RowSourceRecord> records = convert(converter, reader);
+      Assertions.assertEquals(Row.of(Cell.of("a", "b")), records.get(0).row());
+      // the order of records should be [0-t0][0-t1][1-t0][1-t1]
+      Assertions.assertEquals(Row.of(Cell.of("a", "ddd")), records.get(topicKeys.size()).row());
     }
   }
 
   @Test
-  public void testToCellsWithMaximumNumberOfLines() {
-    var converter = createConverter();
-    data = setupInputData();
-    IntStream.range(0, data.size())
-        .forEach(
-            index -> {
-              int expectedLines = index + 1;
-              try (BufferedReader reader = createReader()) {
-                Stream<String> lines = reader.lines();
-                Map<Integer, List<Cell<String>>> converted =
-                    converter.toCells(lines, expectedLines);
-                Assertions.assertEquals(expectedLines, converted.size());
-                IntStream.range(0, expectedLines)
-                    .forEach(
-                        cellsIndex ->
-                            Assertions.assertEquals(
-                                data.get(cellsIndex), converted.get(cellsIndex)));
-              } catch (IOException e) {
-                throw new AssertionError(e);
-              }
-            });
-  }
-
-  @Test
-  public void testConvert() throws IOException {
-    var converter = createConverter();
+  public void testConvertWithMaximumNumberOfLines() throws IOException {
     data = setupInputData();
-    try (BufferedReader reader = createReader()) {
-      Stream<String> lines = reader.lines();
-      List<RowSourceRecord> records = converter.convert(lines);
-      Assertions.assertEquals(topicKeys.size() * data.size(), records.size());
+    List<Row> rows = mapToRow(data);
+    for (int expectedLines = 1; expectedLines <= data.size(); ++expectedLines) {
+      var converter =
+          CsvRecordConverter.builder()
+              .path(path)
+              .topicKeys(topicKeys)
+              .offsetCache(new FakeOffsetCache())
+              .maximumNumberOfLines(expectedLines)
+              .build();
+      try (LineReader reader = createReader()) {
+        Assertions.assertEquals(rows.subList(0, expectedLines), rows(convert(converter, reader)));
+      }
     }
   }
 
@@ -311,26 +298,72 @@ public class TestCsvRecordConverter extends OharaTest {
             .schema(schema)
             .build();
     setupInputData();
-    try (BufferedReader reader = createReader()) {
-      Stream<String> lines = reader.lines();
-      List<RowSourceRecord> records = converter.convert(lines);
-      Assertions.assertEquals(0, records.size());
+    try (LineReader reader = createReader()) {
+      Assertions.assertEquals(0, convert(converter, reader).size());
+    }
+  }
+
+  @Test
+  public void testQuotedFields() throws IOException {
+    var converter = createConverter();
+    try (LineReader reader = createReader("a,b,c\n1,\"2,3,4\",5\n\"x\ny\",\"\"\"z\"\"\",w\n")) {
+      Assertions.assertEquals(
+          List.of(
+              Row.of(Cell.of("a", "1"), Cell.of("b", "2,3,4"), Cell.of("c", "5")),
+              Row.of(Cell.of("a", "x\ny"), Cell.of("b", "\"z\""), Cell.of("c", "w"))),
+          rows(convert(converter, reader)));
+    }
+  }
+
+  @Test
+  public void testUnclosedQuote() {
+    var converter = createConverter();
+    try (LineReader reader = createReader("a\n\"b\n")) {
+      Assertions.assertThrows(IllegalArgumentException.class, () -> convert(converter, reader));
+    }
+  }
+
+  @Test
+  public void testConvertFromLineReader() throws IOException {
+    var converter =
+        createConverter(
+            List.of(
+                Column.builder().name("b").newName("bb").dataType(DataType.INT).order(1).build(),
+                Column.builder().name("a").dataType(DataType.STRING).order(0).build()));
+    byte[] content = "a,b\n\"x\ny\",1\nz,2\n".getBytes(StandardCharsets.UTF_8);
+    try (LineReader reader =
+        LineReader.of(new ByteArrayInputStream(content), StandardCharsets.UTF_8, 0)) {
+      String[] header = converter.header(reader);
+      Assertions.assertArrayEquals(new String[] {"a", "b"}, header);
+      List<RowSourceRecord> records = converter.convert(header, reader, 1);
+      Assertions.assertEquals(2 * topicKeys.size(), records.size());
+      Assertions.assertEquals(
+          Row.of(Cell.of("a", "x\ny"), Cell.of("bb", 1)), records.get(0).row());
+      Assertions.assertEquals(
+          Map.of(CsvRecordConverter.CSV_OFFSET_KEY, 1, CsvRecordConverter.CSV_POSITION_KEY, 12L),
+          records.get(0).sourceOffset());
+      Assertions.assertEquals(Row.of(Cell.of("a", "z"), Cell.of("bb", 2)), records.get(2).row());
+      Assertions.assertEquals(
+          Map.of(
+              CsvRecordConverter.CSV_OFFSET_KEY,
+              2,
+              CsvRecordConverter.CSV_POSITION_KEY,
+              (long) content.length),
+          records.get(2).sourceOffset());
+      Assertions.assertEquals(0, converter.convert(header, reader, 3).size());
     }
   }
 
   @Test
-  public void testRegex() {
-    String[] splits = "1,\"2,3,4\",5".split(CsvRecordConverter.CSV_REGEX);
-    Assertions.assertEquals(3, splits.length);
-    Assertions.assertEquals("1", splits[0]);
-    Assertions.assertEquals("\"2,3,4\"", splits[1]);
-    Assertions.assertEquals("5", splits[2]);
-
-    String[] splits2 = "1,3,5".split(CsvRecordConverter.CSV_REGEX);
-    Assertions.assertEquals(3, splits.length);
-    Assertions.assertEquals("1", splits2[0]);
-    Assertions.assertEquals("3", splits2[1]);
-    Assertions.assertEquals("5", splits2[2]);
+  public void testConvertWithNonexistentColumn() throws IOException {
+    var converter = createConverter(schema);
+    byte[] content = "cf1,cf2\na,b\n".getBytes(StandardCharsets.UTF_8);
+    try (LineReader reader =
+        LineReader.of(new ByteArrayInputStream(content), StandardCharsets.UTF_8, 0)) {
+      String[] header = converter.header(reader);
+      Assertions.assertThrows(
+          NoSuchElementException.class, () -> converter.convert(header, reader, 1));
+    }
   }
 
   private static class FakeOffsetCache implements OffsetCache {
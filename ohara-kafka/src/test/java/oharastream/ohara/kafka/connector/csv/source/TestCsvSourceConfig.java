@@ -18,7 +18,15 @@ package oharastream.ohara.kafka.connector.csv.source;
 
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.COMPLETED_FOLDER_KEY;
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.ERROR_FOLDER_KEY;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_DELIMITER_KEY;
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_ENCODE_KEY;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_ESCAPE_KEY;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_LISTING_INCREMENTAL_KEY;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_LISTING_INDEX_FOLDER_KEY;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_LISTING_WATCH_KEY;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_PIPELINE_DEPTH_KEY;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_QUOTE_KEY;
+import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_SPLIT_SIZE_KEY;
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.INPUT_FOLDER_KEY;
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.MAXIMUM_NUMBER_OF_LINES_KEY;
 import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.TASK_HASH_KEY;
@@ -26,6 +34,7 @@ import static oharastream.ohara.kafka.connector.csv.CsvConnectorDefinitions.TASK
 import static oharastream.ohara.kafka.connector.json.ConnectorDefUtils.COLUMNS_DEFINITION;
 import static oharastream.ohara.kafka.connector.json.ConnectorDefUtils.TOPIC_KEYS_DEFINITION;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -95,6 +104,79 @@ public class TestCsvSourceConfig extends OharaTest {
     Assertions.assertEquals(config.encode(), "10");
   }
 
+  @Test
+  public void testCharset() {
+    Assertions.assertEquals(
+        StandardCharsets.UTF_8, config(FILE_ENCODE_KEY, StandardCharsets.UTF_8.name()).charset());
+    Assertions.assertEquals(
+        StandardCharsets.ISO_8859_1,
+        config(FILE_ENCODE_KEY, StandardCharsets.ISO_8859_1.name()).charset());
+    // the line feed is not a single byte
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> config(FILE_ENCODE_KEY, StandardCharsets.UTF_16.name()).charset());
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> config(FILE_ENCODE_KEY, "UTF-32").charset());
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> config(FILE_ENCODE_KEY, "10").charset());
+  }
+
+  @Test
+  public void testDelimiter() {
+    Assertions.assertEquals(',', config(FILE_DELIMITER_KEY, ",").delimiter());
+    Assertions.assertEquals(';', config(FILE_DELIMITER_KEY, ";").delimiter());
+    Assertions.assertEquals('\t', config(FILE_DELIMITER_KEY, "\\t").delimiter());
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> config(FILE_DELIMITER_KEY, "ab").delimiter());
+  }
+
+  @Test
+  public void testQuoteAndEscape() {
+    CsvSourceConfig config = config(CommonUtils.randomString(), CommonUtils.randomString());
+    Assertions.assertEquals(',', config.delimiter());
+    Assertions.assertEquals('"', config.quote());
+    Assertions.assertEquals(Optional.empty(), config.escape());
+    Assertions.assertEquals('\'', config(FILE_QUOTE_KEY, "'").quote());
+    Assertions.assertEquals(Optional.of('\\'), config(FILE_ESCAPE_KEY, "\\").escape());
+  }
+
+  @Test
+  public void testTokenizer() {
+    CsvTokenizer tokenizer =
+        CsvSourceConfig.of(TaskSetting.of(Map.of(FILE_DELIMITER_KEY, ";", FILE_QUOTE_KEY, "'")))
+            .tokenizer();
+    Assertions.assertTrue(tokenizer.tokenize("a;'b;c'"));
+    Assertions.assertArrayEquals(new String[] {"a", "b;c"}, tokenizer.fields());
+  }
+
+  @Test
+  public void testSplitSize() {
+    Assertions.assertEquals(Optional.of(100L), config(FILE_SPLIT_SIZE_KEY, "100").splitSize());
+    Assertions.assertEquals(
+        Optional.empty(),
+        config(CommonUtils.randomString(), CommonUtils.randomString()).splitSize());
+  }
+
+  @Test
+  public void testPipelineDepth() {
+    Assertions.assertEquals(Optional.of(3), config(FILE_PIPELINE_DEPTH_KEY, "3").pipelineDepth());
+    Assertions.assertEquals(
+        Optional.empty(),
+        config(CommonUtils.randomString(), CommonUtils.randomString()).pipelineDepth());
+  }
+
+  @Test
+  public void testListing() {
+    CsvSourceConfig config = config(CommonUtils.randomString(), CommonUtils.randomString());
+    Assertions.assertFalse(config.incrementalListing());
+    Assertions.assertEquals(Optional.empty(), config.listingIndexFolder());
+    Assertions.assertFalse(config.watchListing());
+    Assertions.assertTrue(config(FILE_LISTING_INCREMENTAL_KEY, "true").incrementalListing());
+    Assertions.assertEquals(
+        Optional.of("/tmp"), config(FILE_LISTING_INDEX_FOLDER_KEY, "/tmp").listingIndexFolder());
+    Assertions.assertTrue(config(FILE_LISTING_WATCH_KEY, "true").watchListing());
+  }
+
   @Test
   public void testTopicNames() {
     TopicKey key = TopicKey.of("g", "n");
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka.connector.csv.source;
+
+import oharastream.ohara.common.rule.OharaTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestCsvTokenizer extends OharaTest {
+
+  private static String[] tokenize(CsvTokenizer tokenizer, String... lines) {
+    for (int index = 0; index != lines.length; ++index) {
+      boolean completed = tokenizer.tokenize(lines[index]);
+      Assertions.assertEquals(index == lines.length - 1, completed);
+    }
+    return tokenizer.fields();
+  }
+
+  private static String[] tokenize(String... lines) {
+    return tokenize(CsvTokenizer.builder().build(), lines);
+  }
+
+  @Test
+  public void testSimple() {
+    Assertions.assertArrayEquals(new String[] {"1", "3", "5"}, tokenize("1,3,5"));
+    Assertions.assertArrayEquals(new String[] {"a", "b", "c"}, tokenize(" a , b\t,c "));
+  }
+
+  @Test
+  public void testEmptyField() {
+    Assertions.assertArrayEquals(new String[] {""}, tokenize(""));
+    Assertions.assertArrayEquals(new String[] {"", "", ""}, tokenize(",,"));
+    Assertions.assertArrayEquals(new String[] {"a", "", ""}, tokenize("a,\"\","));
+  }
+
+  @Test
+  public void testQuotedDelimiter() {
+    Assertions.assertArrayEquals(new String[] {"1", "2,3,4", "5"}, tokenize("1,\"2,3,4\",5"));
+  }
+
+  @Test
+  public void testQuotedWhitespace() {
+    Assertions.assertArrayEquals(new String[] {" a ", "b"}, tokenize(" \" a \" , b"));
+  }
+
+  @Test
+  public void testDoubledQuote() {
+    Assertions.assertArrayEquals(
+        new String[] {"say \"hi\"", "\""}, tokenize("\"say \"\"hi\"\"\",\"\"\"\""));
+  }
+
+  @Test
+  public void testQuotedLineSeparator() {
+    CsvTokenizer tokenizer = CsvTokenizer.builder().build();
+    Assertions.assertArrayEquals(
+        new String[] {"1", "a\n\nb", "2"}, tokenize(tokenizer, "1,\"a", "", "b\",2"));
+    Assertions.assertFalse(tokenizer.pending());
+    // the state is reset by next record
+    Assertions.assertArrayEquals(new String[] {"x", "y"}, tokenize(tokenizer, "x,y"));
+  }
+
+  @Test
+  public void testEscape() {
+    CsvTokenizer tokenizer = CsvTokenizer.builder().escape('\\').build();
+    Assertions.assertArrayEquals(
+        new String[] {"a\"b", "c,d", "e\\ "}, tokenize(tokenizer, "\"a\\\"b\",c\\,d,e\\\\\\ "));
+    Assertions.assertArrayEquals(new String[] {"a\nb"}, tokenize(tokenizer, "\"a\\", "b\""));
+  }
+
+  @Test
+  public void testDelimiterAndQuote() {
+    CsvTokenizer tokenizer = CsvTokenizer.builder().delimiter('\t').quote('\'').build();
+    Assertions.assertArrayEquals(
+        new String[] {"a", "b\tc", "d\"", ""}, tokenize(tokenizer, "a\t'b\tc'\td\"\t"));
+  }
+
+  @Test
+  public void testCharsAfterClosingQuote() {
+    Assertions.assertArrayEquals(new String[] {"ab", "c"}, tokenize("\"a\"b ,c"));
+  }
+
+  @Test
+  public void testReset() {
+    CsvTokenizer tokenizer = CsvTokenizer.builder().build();
+    Assertions.assertFalse(tokenizer.tokenize("\"a"));
+    Assertions.assertTrue(tokenizer.pending());
+    tokenizer.reset();
+    Assertions.assertFalse(tokenizer.pending());
+    Assertions.assertArrayEquals(new String[] {"b"}, tokenize(tokenizer, "b"));
+  }
+
+  @Test
+  public void testField() {
+    CsvTokenizer tokenizer = CsvTokenizer.builder().build();
+    Assertions.assertTrue(tokenizer.tokenize("a,b"));
+    Assertions.assertEquals(2, tokenizer.size());
+    Assertions.assertEquals("b", tokenizer.field(1));
+    Assertions.assertThrows(IndexOutOfBoundsException.class, () -> tokenizer.field(2));
+  }
+
+  @Test
+  public void testManyFields() {
+    String[] expected = new String[100];
+    for (int index = 0; index != expected.length; ++index) expected[index] = "v" + index;
+    Assertions.assertArrayEquals(expected, tokenize(String.join(",", expected)));
+  }
+
+  @Test
+  public void testIllegalArguments() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> CsvTokenizer.builder().delimiter('"').build());
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> CsvTokenizer.builder().delimiter(';').escape(';').build());
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> CsvTokenizer.builder().quote('\n').build());
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka.connector.csv.source;
+
+import java.util.List;
+import java.util.Map;
+import oharastream.ohara.common.rule.OharaTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestFileRange extends OharaTest {
+
+  @Test
+  public void testSplit() {
+    List<FileRange> ranges = FileRange.split(25, 10);
+    Assertions.assertEquals(3, ranges.size());
+    for (int index = 0; index != ranges.size(); ++index) {
+      Assertions.assertEquals(index, ranges.get(index).index());
+      Assertions.assertEquals(index * 10L, ranges.get(index).start());
+    }
+    Assertions.assertEquals(10, ranges.get(0).end());
+    Assertions.assertEquals(25, ranges.get(2).end());
+  }
+
+  @Test
+  public void testSplitExactly() {
+    List<FileRange> ranges = FileRange.split(20, 10);
+    Assertions.assertEquals(2, ranges.size());
+    Assertions.assertEquals(20, ranges.get(1).end());
+  }
+
+  @Test
+  public void testEmptyFile() {
+    List<FileRange> ranges = FileRange.split(0, 10);
+    Assertions.assertEquals(1, ranges.size());
+    Assertions.assertEquals(0, ranges.get(0).start());
+    Assertions.assertEquals(0, ranges.get(0).end());
+  }
+
+  @Test
+  public void testIllegalSplitSize() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> FileRange.split(10, 0));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> FileRange.split(10, -1));
+  }
+
+  @Test
+  public void testTooManyRanges() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> FileRange.split(Long.MAX_VALUE / 2, 1));
+  }
+
+  @Test
+  public void testPartition() {
+    FileRange range = FileRange.split(25, 10).get(1);
+    Assertions.assertEquals(
+        Map.of(CsvRecordConverter.CSV_PARTITION_KEY, "a", FileRange.CSV_RANGE_KEY, "10"),
+        range.partition("a"));
+    Assertions.assertNotEquals(range.key("a"), FileRange.split(25, 10).get(2).key("a"));
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.kafka.connector.csv.source;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import oharastream.ohara.common.rule.OharaTest;
+import oharastream.ohara.common.util.CommonUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestLineReader extends OharaTest {
+
+  private static LineReader reader(String content, long position) {
+    byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+    return LineReader.of(
+        new ByteArrayInputStream(bytes, (int) position, bytes.length - (int) position),
+        StandardCharsets.UTF_8,
+        position);
+  }
+
+  @Test
+  public void testPosition() throws IOException {
+    try (LineReader reader = reader("a,b\r\n\u4e2d\u6587,c\nd,e", 0)) {
+      Assertions.assertEquals("a,b", reader.readLine());
+      Assertions.assertEquals(5, reader.position());
+      Assertions.assertEquals("\u4e2d\u6587,c", reader.readLine());
+      Assertions.assertEquals(14, reader.position());
+      // the last line has no line separator
+      Assertions.assertEquals("d,e", reader.readLine());
+      Assertions.assertEquals(17, reader.position());
+      Assertions.assertNull(reader.readLine());
+    }
+  }
+
+  @Test
+  public void testReadFromPosition() throws IOException {
+    String content = "a,b\nc,d\ne,f\n";
+    try (LineReader reader = reader(content, 4)) {
+      Assertions.assertEquals("c,d", reader.readLine());
+      Assertions.assertEquals(8, reader.position());
+      Assertions.assertEquals("e,f", reader.readLine());
+      Assertions.assertEquals(content.length(), reader.position());
+      Assertions.assertNull(reader.readLine());
+    }
+  }
+
+  @Test
+  public void testEmptyLine() throws IOException {
+    try (LineReader reader = reader("\n\na", 0)) {
+      Assertions.assertEquals("", reader.readLine());
+      Assertions.assertEquals("", reader.readLine());
+      Assertions.assertEquals("a", reader.readLine());
+      Assertions.assertNull(reader.readLine());
+    }
+  }
+
+  @Test
+  public void testLongLine() throws IOException {
+    char[] chars = new char[200 * 1024];
+    Arrays.fill(chars, 'a');
+    String line = new String(chars);
+    String other = CommonUtils.randomString();
+    try (LineReader reader = reader(line + "\n" + other, 0)) {
+      Assertions.assertEquals(line, reader.readLine());
+      Assertions.assertEquals(line.length() + 1, reader.position());
+      Assertions.assertEquals(other, reader.readLine());
+      Assertions.assertNull(reader.readLine());
+    }
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.metrics.basic;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import oharastream.ohara.common.annotations.Optional;
+import oharastream.ohara.common.annotations.VisibleForTesting;
+import oharastream.ohara.common.setting.ObjectKey;
+import oharastream.ohara.common.util.CommonUtils;
+import oharastream.ohara.common.util.ReleaseOnce;
+import oharastream.ohara.common.util.Releasable;
+
+/**
+ * A histogram of non-negative samples (for example, latency). The samples are kept in log-linear
+ * buckets so the percentiles are approximate (the relative error is less than 1/8) and recording a
+ * sample is lock-free. The summary of the samples recorded in the latest interval is exposed by
+ * {@link Counter}s so the histogram is collected by the same path as other counters. The names of
+ * counters are "item.p50", "item.p99" and "item.max".
+ */
+public final class Histogram extends ReleaseOnce {
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** the values smaller than 2^SUB_BUCKET_BITS are kept exactly. */
+  private static final int SUB_BUCKET_BITS = 3;
+
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  @VisibleForTesting
+  static final int NUMBER_OF_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  @VisibleForTesting
+  static int index(long value) {
+    if (value < SUB_BUCKETS) return (int) value;
+    int msb = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    int shift = msb - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+  }
+
+  /** @return the max value which can be put in the bucket */
+  @VisibleForTesting
+  static long upperBound(int index) {
+    if (index < SUB_BUCKETS) return index;
+    int shift = index / SUB_BUCKETS - 1;
+    long lower = ((long) (SUB_BUCKETS + index % SUB_BUCKETS)) << shift;
+    return lower + ((1L << shift) - 1);
+  }
+
+  private final AtomicLongArray buckets = new AtomicLongArray(NUMBER_OF_BUCKETS);
+  private final AtomicLong maxInInterval = new AtomicLong(0);
+  private final AtomicLong lastPublished = new AtomicLong(CommonUtils.current());
+  private final long interval;
+  @VisibleForTesting final Counter p50;
+  @VisibleForTesting final Counter p99;
+  @VisibleForTesting final Counter max;
+
+  private Histogram(Counter p50, Counter p99, Counter max, long interval) {
+    this.p50 = p50;
+    this.p99 = p99;
+    this.max = max;
+    this.interval = interval;
+  }
+
+  /**
+   * record a sample. The negative value is treated as zero (for example, the clock of remote node
+   * is faster than local node).
+   *
+   * @param value sample
+   */
+  public void record(long value) {
+    long v = Math.max(0, value);
+    buckets.incrementAndGet(index(v));
+    maxInInterval.accumulateAndGet(v, Math::max);
+    long last = lastPublished.get();
+    long now = CommonUtils.current();
+    if (now - last >= interval && lastPublished.compareAndSet(last, now)) publish();
+  }
+
+  /**
+   * update the counters by the samples recorded since last publish. The counters are not changed if
+   * there is no sample.
+   */
+  public synchronized void publish() {
+    long[] counts = new long[NUMBER_OF_BUCKETS];
+    long total = 0;
+    for (int i = 0; i != NUMBER_OF_BUCKETS; ++i) {
+      counts[i] = buckets.getAndSet(i, 0);
+      total += counts[i];
+    }
+    long maxValue = maxInInterval.getAndSet(0);
+    if (total == 0) return;
+    p50.setAndGet(Math.min(maxValue, percentile(counts, total, 0.5)));
+    p99.setAndGet(Math.min(maxValue, percentile(counts, total, 0.99)));
+    max.setAndGet(maxValue);
+  }
+
+  private static long percentile(long[] counts, long total, double percentile) {
+    long rank = (long) Math.ceil(total * percentile);
+    long accumulated = 0;
+    for (int i = 0; i != counts.length; ++i) {
+      accumulated += counts[i];
+      if (accumulated >= rank) return upperBound(i);
+    }
+    return upperBound(counts.length - 1);
+  }
+
+  /** @return the counters exposing this histogram */
+  public List<Counter> counters() {
+    return List.of(p50, p99, max);
+  }
+
+  @Override
+  protected void doClose() {
+    Releasable.close(p50);
+    Releasable.close(p99);
+    Releasable.close(max);
+  }
+
+  public static class Builder implements oharastream.ohara.common.pattern.Builder<Histogram> {
+    private ObjectKey key;
+    private String item;
+    private String unit = "N/A";
+    private String document = "there is no document for this histogram...";
+    private Duration interval = Duration.ofSeconds(1);
+
+    private Builder() {}
+
+    public Builder key(ObjectKey key) {
+      this.key = Objects.requireNonNull(key);
+      return this;
+    }
+
+    public Builder item(String item) {
+      this.item = CommonUtils.requireNonEmpty(item);
+      return this;
+    }
+
+    @Optional("default is no document")
+    public Builder document(String document) {
+      this.document = CommonUtils.requireNonEmpty(document);
+      return this;
+    }
+
+    @Optional("default is N/A")
+    public Builder unit(String unit) {
+      this.unit = CommonUtils.requireNonEmpty(unit);
+      return this;
+    }
+
+    /**
+     * @param interval the time to update the counters. The counters show the samples recorded in
+     *     the latest interval.
+     * @return this builder
+     */
+    @Optional("default is 1 second")
+    public Builder interval(Duration interval) {
+      this.interval = Objects.requireNonNull(interval);
+      return this;
+    }
+
+    private Counter.Builder counter(String suffix, String description) {
+      return Counter.builder()
+          .key(key)
+          .item(item + "." + suffix)
+          .unit(unit)
+          .document(description + " of " + document);
+    }
+
+    private void checkArgument() {
+      Objects.requireNonNull(key);
+      CommonUtils.requireNonEmpty(item);
+      Objects.requireNonNull(interval);
+    }
+
+    /**
+     * create a histogram without registering the counters.
+     *
+     * @return Histogram
+     */
+    @Override
+    public Histogram build() {
+      checkArgument();
+      return new Histogram(
+          counter("p50", "median").build(),
+          counter("p99", "99th percentile").build(),
+          counter("max", "max").build(),
+          interval.toMillis());
+    }
+
+    /**
+     * create a histogram and register the counters.
+     *
+     * @return Histogram
+     */
+    public Histogram register() {
+      checkArgument();
+      return new Histogram(
+          counter("p50", "median").register(),
+          counter("p99", "99th percentile").register(),
+          counter("max", "max").register(),
+          interval.toMillis());
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package oharastream.ohara.metrics.basic;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import oharastream.ohara.common.rule.OharaTest;
+import oharastream.ohara.common.util.CommonUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestHistogram extends OharaTest {
+
+  private static Histogram histogram() {
+    return Histogram.builder()
+        .key(CommonUtils.randomKey())
+        .item(CommonUtils.randomString(10))
+        // the counters are updated by manual
+        .interval(Duration.ofDays(1))
+        .build();
+  }
+
+  @Test
+  public void testBucket() {
+    LongStream.concat(
+            LongStream.rangeClosed(0, 10000),
+            LongStream.of(123456789L, Integer.MAX_VALUE, Long.MAX_VALUE / 3, Long.MAX_VALUE))
+        .forEach(
+            v -> {
+              long upper = Histogram.upperBound(Histogram.index(v));
+              Assertions.assertTrue(upper >= v);
+              // the relative error is less than 1/8
+              Assertions.assertTrue(upper - v <= v / 8);
+            });
+    IntStream.range(0, 8).forEach(i -> Assertions.assertEquals(i, Histogram.index(i)));
+    Assertions.assertTrue(Histogram.index(Long.MAX_VALUE) < Histogram.NUMBER_OF_BUCKETS);
+    Assertions.assertEquals(0, Histogram.index(0));
+  }
+
+  @Test
+  public void testPercentile() {
+    try (Histogram histogram = histogram()) {
+      IntStream.rangeClosed(1, 1000).forEach(histogram::record);
+      histogram.publish();
+      Assertions.assertEquals(1000, histogram.max.getValue());
+      Assertions.assertTrue(Math.abs(histogram.p50.getValue() - 500) <= 500 / 8);
+      Assertions.assertTrue(Math.abs(histogram.p99.getValue() - 990) <= 990 / 8);
+      Assertions.assertEquals(3, histogram.counters().size());
+    }
+  }
+
+  @Test
+  public void testCountersAreKeptIfNoSample() {
+    try (Histogram histogram = histogram()) {
+      histogram.record(10);
+      histogram.publish();
+      Assertions.assertEquals(10, histogram.max.getValue());
+      histogram.publish();
+      Assertions.assertEquals(10, histogram.max.getValue());
+      // the next interval has only small samples
+      histogram.record(1);
+      histogram.publish();
+      Assertions.assertEquals(1, histogram.max.getValue());
+      Assertions.assertEquals(1, histogram.p99.getValue());
+    }
+  }
+
+  @Test
+  public void testNegativeSample() {
+    try (Histogram histogram = histogram()) {
+      histogram.record(-100);
+      histogram.publish();
+      Assertions.assertEquals(0, histogram.max.getValue());
+      Assertions.assertEquals(0, histogram.p50.getValue());
+    }
+  }
+
+  @Test
+  public void testCounterNames() {
+    try (Histogram histogram = histogram()) {
+      Assertions.assertTrue(histogram.p50.item().endsWith(".p50"));
+      Assertions.assertTrue(histogram.p99.item().endsWith(".p99"));
+      Assertions.assertTrue(histogram.max.item().endsWith(".max"));
+    }
+  }
+
+  @Test
+  public void nullKey() {
+    Assertions.assertThrows(NullPointerException.class, () -> Histogram.builder().key(null));
+  }
+
+  @Test
+  public void emptyItem() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> Histogram.builder().item(""));
+  }
+}
@@ -22,6 +22,7 @@ import java.util.concurrent.atomic.AtomicInteger
 import oharastream.ohara.common.setting.SettingDef.Type
 import oharastream.ohara.common.setting.{SettingDef, WithDefinitions}
 import oharastream.ohara.common.util.VersionUtils
+import oharastream.ohara.kafka.RecordLayout
 
 import scala.collection.mutable
 import scala.jdk.CollectionConverters._
@@ -229,6 +230,28 @@ object ShabondiDefinitions {
     .build
     .registerTo(sourceDefinitionMap)
 
+  val SOURCE_RECORD_LAYOUT_DEFINITION = SettingDef.builder
+    .key("shabondi.source.record.layout")
+    .group(CORE_GROUP)
+    .orderInGroup(orderInGroup())
+    .displayName("Record layout")
+    .documentation("The layout of record. It includes KEY (row in key) and VALUE (row in value and key columns in key)")
+    // the first one is the default value
+    .optional(RecordLayout.values.map(_.name).to(mutable.LinkedHashSet).asJava)
+    .regex(RecordLayout.REGEX)
+    .build
+    .registerTo(sourceDefinitionMap)
+
+  val SOURCE_RECORD_KEY_COLUMNS_DEFINITION = SettingDef.builder
+    .key("shabondi.source.record.key.columns")
+    .group(CORE_GROUP)
+    .orderInGroup(orderInGroup())
+    .displayName("Record key columns")
+    .documentation("The columns composing the key of record. It works only if the record layout is value")
+    .optional(Type.ARRAY)
+    .build
+    .registerTo(sourceDefinitionMap)
+
   //-------------- Definitions of Shabondi Sink -----------------
 
   val SINK_FROM_TOPICS_DEFINITION = SettingDef.builder
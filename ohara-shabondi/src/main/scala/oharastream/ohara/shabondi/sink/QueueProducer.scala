@@ -23,7 +23,7 @@ import java.util.{Queue => JQueue}
 
 import oharastream.ohara.common.data.{Row, Serializer}
 import oharastream.ohara.common.util.Releasable
-import oharastream.ohara.kafka.Consumer
+import oharastream.ohara.kafka.{Consumer, RecordLayout}
 import com.typesafe.scalalogging.Logger
 import oharastream.ohara.common.setting.TopicKey
 import oharastream.ohara.metrics.basic.Counter
@@ -63,12 +63,12 @@ private[sink] class QueueProducer(
     try {
       while (!stopped.get) {
         if (!paused.get && queue.isEmpty) {
-          val rows = consumer.poll(pollTimeout).asScala.map(_.key.get)
-          rows.foreach { r =>
-            queue.add(r)
+          val records = consumer.pollRecords(pollTimeout)
+          records.asScala.foreach { record =>
+            queue.add(RecordLayout.row(record.key.orElse(null), record.value.orElse(null), null))
             rowCounter.incrementAndGet()
           }
-          log.trace("    group[{}], queue: {}, rows: {}", groupName, queue.size, rows.size)
+          log.trace("    group[{}], queue: {}, rows: {}", groupName, queue.size, records.count)
         } else {
           TimeUnit.MILLISECONDS.sleep(10)
         }
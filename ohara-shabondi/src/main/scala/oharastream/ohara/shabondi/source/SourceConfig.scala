@@ -17,6 +17,8 @@
 package oharastream.ohara.shabondi.source
 
 import oharastream.ohara.common.setting.{ObjectKey, TopicKey}
+import oharastream.ohara.kafka.RecordLayout
+import oharastream.ohara.kafka.connector.json.StringList
 import oharastream.ohara.shabondi.ShabondiDefinitions._
 
 import scala.jdk.CollectionConverters._
@@ -35,4 +37,16 @@ private[shabondi] class SourceConfig(raw: Map[String, String]) {
   def brokers: String = raw(BROKERS_DEFINITION.key)
 
   def sourceToTopics: Seq[TopicKey] = TopicKey.toTopicKeys(raw(SOURCE_TO_TOPICS_DEFINITION.key)).asScala.toSeq
+
+  def recordLayout: RecordLayout =
+    raw
+      .get(SOURCE_RECORD_LAYOUT_DEFINITION.key)
+      .map(RecordLayout.of)
+      .getOrElse(RecordLayout.KEY)
+
+  def recordKeyColumns: Seq[String] =
+    raw
+      .get(SOURCE_RECORD_KEY_COLUMNS_DEFINITION.key)
+      .map(s => StringList.ofJson(s).asScala.toSeq)
+      .getOrElse(Seq.empty)
 }
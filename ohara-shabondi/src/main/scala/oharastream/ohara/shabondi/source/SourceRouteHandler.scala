@@ -16,7 +16,6 @@
 
 package oharastream.ohara.shabondi.source
 
-import java.util.concurrent.{ExecutorService, Executors}
 import java.util.function.Consumer
 
 import akka.actor.ActorSystem
@@ -28,13 +27,14 @@ import akka.stream.OverflowStrategy
 import akka.stream.scaladsl.{Flow, Keep, Sink, Source}
 import oharastream.ohara.common.data.Serializer
 import oharastream.ohara.common.util.Releasable
-import oharastream.ohara.kafka.Producer
+import oharastream.ohara.kafka.{Producer, RecordLayout}
 import oharastream.ohara.metrics.basic.Counter
 import oharastream.ohara.shabondi.common.JsonSupport.RowData
 import oharastream.ohara.shabondi.common.{ConvertSupport, JsonSupport, RouteHandler, ShabondiUtils}
 import spray.json.DefaultJsonProtocol._
 
-import scala.concurrent.{ExecutionContext, ExecutionContextExecutorService, Future}
+import scala.concurrent.duration._
+import scala.jdk.CollectionConverters._
 
 private[shabondi] object SourceRouteHandler {
   def apply(config: SourceConfig)(implicit actorSystem: ActorSystem) =
@@ -46,9 +46,6 @@ private[shabondi] class SourceRouteHandler(
     extends RouteHandler {
   private val log = Logging(actorSystem, classOf[SourceRouteHandler])
 
-  private val threadPool: ExecutorService                  = Executors.newFixedThreadPool(4)
-  implicit private val ec: ExecutionContextExecutorService = ExecutionContext.fromExecutorService(threadPool)
-
   private val totalRowsCounter =
     Counter.builder
       .key(config.objectKey)
@@ -58,29 +55,56 @@ private[shabondi] class SourceRouteHandler(
       .value(0)
       .register()
 
+  private val failedRowsCounter =
+    Counter.builder
+      .key(config.objectKey)
+      .item("failed-rows")
+      .unit("row")
+      .document("The number of rows which are not accepted by all topics")
+      .value(0)
+      .register()
+
   private val exceptionHandler = ExceptionHandler {
     case ex: Throwable =>
       log.error(ex, ex.getMessage)
       complete((StatusCodes.InternalServerError, ex.getMessage))
   }
 
+  // the retries of idempotent producer don't produce duplicate rows
   private val producer = Producer
     .builder()
     .connectionProps(config.brokers)
+    .idempotent()
     .keySerializer(Serializer.ROW)
     .valueSerializer(Serializer.BYTES)
     .build()
 
-  private val topicKeys = config.sourceToTopics
+  private val topicKeys = config.sourceToTopics.asJava
+
+  private val recordLayout = config.recordLayout
+
+  private val recordKeyColumns = config.recordKeyColumns.asJava
 
-  // TODO: The error handling for the Kafka Producer exception
-  private val sendRowFlow = Flow[RowData].mapAsync(4) { rowData =>
+  // the queued rows are sent in batches so a single future is created for all rows and topics.
+  // The request is completed before the rows are sent, so the failed rows are logged and counted
+  // rather than failing the stream which would reject all following rows
+  private val sendRowFlow = Flow[RowData].groupedWithin(1024, 10.millis).mapAsync(4) { rowDataSeq =>
     import ConvertSupport._
-    val row = JsonSupport.toRow(rowData)
-    Future.sequence(topicKeys.map { topicKey =>
-      val sender = producer.sender().key(row).topicKey(topicKey)
-      sender.send.toScala
-    })
+    val rows   = rowDataSeq.map(rowData => JsonSupport.toRow(rowData))
+    val sender = producer.batchSender().topicKeys(topicKeys)
+    // the rows are in the keys or values according to the record layout
+    rows.foreach { row =>
+      if (recordLayout == RecordLayout.KEY) sender.record(row, null)
+      else sender.record(recordLayout.key(row, recordKeyColumns), Serializer.ROW.to(row))
+    }
+    sender.send.toScala.map { metadata =>
+      if (!metadata.succeed()) {
+        failedRowsCounter.addAndGet(metadata.failedIndexes().size())
+        val exception = metadata.exceptions().values().iterator().next()
+        log.error(exception, s"failed to send ${metadata.failedIndexes().size()} of ${rows.size} rows")
+      }
+      metadata
+    }(actorSystem.dispatcher)
   }
 
   private val rowQueue = Source
@@ -114,7 +138,7 @@ private[shabondi] class SourceRouteHandler(
     }
     Releasable.close(producer, addSuppressedException)
     Releasable.close(totalRowsCounter, addSuppressedException)
+    Releasable.close(failedRowsCounter, addSuppressedException)
     if (exception != null) throw exception
-    threadPool.shutdown()
   }
 }
@@ -30,6 +30,7 @@ import oharastream.ohara.common.setting.WithDefinitions;
 import oharastream.ohara.common.util.CommonUtils;
 import oharastream.ohara.stream.config.StreamDefUtils;
 import oharastream.ohara.stream.config.StreamSetting;
+import oharastream.ohara.stream.ostream.OStreamBuilder;
 
 @SuppressWarnings({"unchecked", "rawtypes"})
 public abstract class Stream implements WithDefinitions {
@@ -56,7 +57,7 @@ public abstract class Stream implements WithDefinitions {
           StreamSetting streamSetting =
               StreamSetting.of(theApp.settingDefinitions().values(), configs);
 
-          OStream<Row> ostream =
+          OStreamBuilder builder =
               OStream.builder()
                   .key(streamSetting.key())
                   .bootstrapServers(streamSetting.brokerConnectionProps())
@@ -74,7 +75,11 @@ public abstract class Stream implements WithDefinitions {
                           .map(TopicKey::topicNameOnKafka)
                           .findFirst()
                           .orElse(null))
-                  .build();
+                  .partitionerKeyColumns(streamSetting.partitionerKeyColumns())
+                  .recordLayout(streamSetting.recordLayout())
+                  .recordKeyColumns(streamSetting.recordKeyColumns());
+          streamSetting.partitionerClass().ifPresent(builder::partitionerClass);
+          OStream<Row> ostream = builder.build();
           theApp.init();
           theApp.start(ostream, streamSetting);
           return null;
@@ -18,13 +18,17 @@ package oharastream.ohara.stream.config;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import oharastream.ohara.common.setting.SettingDef;
 import oharastream.ohara.common.setting.SettingDef.Type;
 import oharastream.ohara.common.util.VersionUtils;
+import oharastream.ohara.kafka.RecordLayout;
 
 /**
  * This is an helper class for getting / setting {@link oharastream.ohara.common.setting.SettingDef}
@@ -208,6 +212,49 @@ public final class StreamDefUtils {
           .optional(1024L)
           .build();
 
+  public static final SettingDef PARTITIONER_CLASS_DEFINITION =
+      SettingDef.builder()
+          .key("partitioner.class")
+          .group(CORE_GROUP)
+          .orderInGroup(ORDER_COUNTER.getAndIncrement())
+          .documentation("the partitioner deciding the partition of output rows")
+          .optional(Type.CLASS)
+          .build();
+
+  public static final SettingDef PARTITIONER_KEY_COLUMNS_DEFINITION =
+      SettingDef.builder()
+          .key("partitioner.key.columns")
+          .group(CORE_GROUP)
+          .orderInGroup(ORDER_COUNTER.getAndIncrement())
+          .documentation("the columns used by the key-column partitioner")
+          .optional(Type.ARRAY)
+          .build();
+
+  public static final SettingDef RECORD_LAYOUT_DEFINITION =
+      SettingDef.builder()
+          .key("record.layout")
+          .group(CORE_GROUP)
+          .orderInGroup(ORDER_COUNTER.getAndIncrement())
+          .documentation(
+              "the layout of output record. It includes KEY (row in key) and VALUE (row in value "
+                  + "and key columns in key)")
+          .optional(
+              // the first one is the default value
+              Stream.of(RecordLayout.values())
+                  .map(RecordLayout::name)
+                  .collect(Collectors.<String, Set<String>>toCollection(LinkedHashSet::new)))
+          .regex(RecordLayout.REGEX)
+          .build();
+
+  public static final SettingDef RECORD_KEY_COLUMNS_DEFINITION =
+      SettingDef.builder()
+          .key("record.key.columns")
+          .group(CORE_GROUP)
+          .orderInGroup(ORDER_COUNTER.getAndIncrement())
+          .documentation("the columns composing the key of output record")
+          .optional(Type.ARRAY)
+          .build();
+
   /**
    * Load configDefs from default definitions.
    *
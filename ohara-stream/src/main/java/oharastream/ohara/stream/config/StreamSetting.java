@@ -26,6 +26,8 @@ import oharastream.ohara.common.annotations.VisibleForTesting;
 import oharastream.ohara.common.setting.ObjectKey;
 import oharastream.ohara.common.setting.SettingDef;
 import oharastream.ohara.common.setting.TopicKey;
+import oharastream.ohara.kafka.RecordLayout;
+import oharastream.ohara.kafka.connector.json.StringList;
 
 /**
  * The entry class for define stream definitions
@@ -117,6 +119,32 @@ public final class StreamSetting {
             .orElseThrow(() -> new RuntimeException("TO_TOPIC_KEYS_DEFINITION not found in env.")));
   }
 
+  /** @return the class name of partitioner */
+  public Optional<String> partitionerClass() {
+    return string(StreamDefUtils.PARTITIONER_CLASS_DEFINITION.key());
+  }
+
+  /** @return the columns used by the key-column partitioner */
+  public List<String> partitionerKeyColumns() {
+    return string(StreamDefUtils.PARTITIONER_KEY_COLUMNS_DEFINITION.key())
+        .map(StringList::ofJson)
+        .orElse(List.of());
+  }
+
+  /** @return the layout of output record */
+  public RecordLayout recordLayout() {
+    return string(StreamDefUtils.RECORD_LAYOUT_DEFINITION.key())
+        .map(RecordLayout::of)
+        .orElse(RecordLayout.KEY);
+  }
+
+  /** @return the columns composing the key of output record */
+  public List<String> recordKeyColumns() {
+    return string(StreamDefUtils.RECORD_KEY_COLUMNS_DEFINITION.key())
+        .map(StringList::ofJson)
+        .orElse(List.of());
+  }
+
   // ---------------------[command-line tools]---------------------//
 
   /** this is a specific string used to replace the quota in the env. */
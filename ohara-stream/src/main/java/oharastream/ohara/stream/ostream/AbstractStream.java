@@ -18,7 +18,9 @@ package oharastream.ohara.stream.ostream;
 
 import java.util.HashMap;
 import java.util.Map;
+import oharastream.ohara.common.data.Row;
 import oharastream.ohara.common.setting.ObjectKey;
+import oharastream.ohara.kafka.RecordLayout;
 import oharastream.ohara.metrics.basic.Counter;
 import oharastream.ohara.stream.metric.MetricFactory;
 import org.apache.kafka.streams.StreamsBuilder;
@@ -81,15 +83,14 @@ abstract class AbstractStream<K, V> {
     StreamsBuilder newBuilder = new StreamsBuilder();
     this.kstreams =
         newBuilder.stream(builder.getFromTopic(), builder.getFromSerde().get())
-            // since the value is "byte array" of nothing, we only care the key part, i.e, the real
-            // row data.
-            // here we convert the row data to both the key and value part
-            // TODO : is there any good way to avoid this ugly convert?...by Sam
+            // the row is in the key or value according to the layout of record. Here we convert
+            // the row data to both the key and value part
             .map(
                 (key, value) -> {
                   // we calculate the input record size
                   counter.incrementAndGet();
-                  return KeyValue.pair(key, key);
+                  Row row = RecordLayout.row((Row) key, (byte[]) value, null);
+                  return KeyValue.pair(row, row);
                 });
     this.builder = builder;
     this.innerBuilder = newBuilder;
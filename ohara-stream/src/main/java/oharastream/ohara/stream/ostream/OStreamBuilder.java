@@ -16,12 +16,14 @@
 
 package oharastream.ohara.stream.ostream;
 
+import java.util.List;
 import java.util.Objects;
 import oharastream.ohara.common.annotations.VisibleForTesting;
 import oharastream.ohara.common.data.Row;
 import oharastream.ohara.common.pattern.Builder;
 import oharastream.ohara.common.setting.ObjectKey;
 import oharastream.ohara.common.util.CommonUtils;
+import oharastream.ohara.kafka.RecordLayout;
 import oharastream.ohara.stream.OStream;
 
 /**
@@ -38,6 +40,10 @@ public final class OStreamBuilder implements Builder<OStream<Row>> {
   private Class<? extends TimestampExtractor> extractor = null;
   private boolean cleanStart = false;
   private boolean exactlyOnce = false;
+  private String partitionerClass = null;
+  private List<String> partitionerKeyColumns = List.of();
+  private RecordLayout recordLayout = RecordLayout.KEY;
+  private List<String> recordKeyColumns = List.of();
 
   // We are in Ohara world, the data type of topics must be <Row, byte[]> for current version...
   private final Consumed fromSerde = new Consumed<>(Serdes.ROW, Serdes.BYTES);
@@ -124,6 +130,53 @@ public final class OStreamBuilder implements Builder<OStream<Row>> {
     return this;
   }
 
+  /**
+   * set the partitioner of output rows. The partitioner must extend {@link
+   * oharastream.ohara.kafka.RowPartitioner}.
+   *
+   * @param partitionerClass the class name of partitioner
+   * @return this builder
+   */
+  public OStreamBuilder partitionerClass(String partitionerClass) {
+    this.partitionerClass = CommonUtils.requireNonEmpty(partitionerClass);
+    return this;
+  }
+
+  /**
+   * set the columns used by {@link oharastream.ohara.kafka.KeyColumnPartitioner}.
+   *
+   * @param partitionerKeyColumns columns
+   * @return this builder
+   */
+  public OStreamBuilder partitionerKeyColumns(List<String> partitionerKeyColumns) {
+    this.partitionerKeyColumns = List.copyOf(partitionerKeyColumns);
+    return this;
+  }
+
+  /**
+   * set the layout of output record. The input records are readable no matter what layout they
+   * have.
+   *
+   * @param recordLayout record layout
+   * @return this builder
+   */
+  public OStreamBuilder recordLayout(RecordLayout recordLayout) {
+    this.recordLayout = Objects.requireNonNull(recordLayout);
+    return this;
+  }
+
+  /**
+   * set the columns composing the key of output record. It works only if the record layout is
+   * {@link RecordLayout#VALUE}.
+   *
+   * @param recordKeyColumns columns
+   * @return this builder
+   */
+  public OStreamBuilder recordKeyColumns(List<String> recordKeyColumns) {
+    this.recordKeyColumns = List.copyOf(recordKeyColumns);
+    return this;
+  }
+
   private void checkArguments() {
     Objects.requireNonNull(key);
     CommonUtils.requireNonEmpty(bootstrapServers);
@@ -177,4 +230,20 @@ public final class OStreamBuilder implements Builder<OStream<Row>> {
   boolean getExactlyOnce() {
     return exactlyOnce;
   }
+
+  String getPartitionerClass() {
+    return partitionerClass;
+  }
+
+  List<String> getPartitionerKeyColumns() {
+    return partitionerKeyColumns;
+  }
+
+  RecordLayout getRecordLayout() {
+    return recordLayout;
+  }
+
+  List<String> getRecordKeyColumns() {
+    return recordKeyColumns;
+  }
 }
@@ -22,9 +22,12 @@ import java.util.Objects;
 import java.util.Properties;
 import oharastream.ohara.common.data.Cell;
 import oharastream.ohara.common.data.Row;
+import oharastream.ohara.common.data.RowCodec;
 import oharastream.ohara.common.setting.TopicKey;
 import oharastream.ohara.common.util.CommonUtils;
+import oharastream.ohara.kafka.RecordLayout;
 import oharastream.ohara.kafka.TopicAdmin;
+import oharastream.ohara.kafka.connector.json.StringList;
 import oharastream.ohara.metrics.basic.Counter;
 import oharastream.ohara.stream.OGroupedStream;
 import oharastream.ohara.stream.OStream;
@@ -72,8 +75,14 @@ class OStreamImpl extends AbstractStream<Row, Row> implements OStream<Row> {
 
   @Override
   public OStream<Row> through(TopicKey topicKey, int partitions) {
-    TopicAdmin client = TopicAdmin.of(builder.getBootstrapServers());
-    client.topicCreator().topicKey(topicKey).numberOfPartitions(partitions).create();
+    // the shared admin is released after the creation is completed
+    TopicAdmin client = TopicAdmin.shared(builder.getBootstrapServers());
+    client
+        .topicCreator()
+        .topicKey(topicKey)
+        .numberOfPartitions(partitions)
+        .create()
+        .whenComplete((v, e) -> client.close());
     return new OStreamImpl(
         builder,
         kstreams.through(
@@ -101,8 +110,9 @@ class OStreamImpl extends AbstractStream<Row, Row> implements OStream<Row> {
     // convert the right topic (the join topic) to <Row: key_header, Row: values>
     KTable<Row, Row> table =
         innerBuilder.stream(joinTopicName, new Consumed<>(Serdes.ROW, Serdes.BYTES).get())
+            .mapValues((key, value) -> RecordLayout.row(key, value, null))
             .map(
-                (row, value) ->
+                (noUse, row) ->
                     new KeyValue<>(
                         Row.of(
                             rightHeaders.stream()
@@ -152,6 +162,18 @@ class OStreamImpl extends AbstractStream<Row, Row> implements OStream<Row> {
         innerBuilder);
   }
 
+  /**
+   * convert the row to the output record according to the record layout.
+   *
+   * @param row row
+   * @return key and value of output record
+   */
+  private org.apache.kafka.streams.KeyValue<Row, byte[]> toRecord(Row row) {
+    if (builder.getRecordLayout() == RecordLayout.KEY) return KeyValue.pair(row, new byte[0]);
+    return KeyValue.pair(
+        builder.getRecordLayout().key(row, builder.getRecordKeyColumns()), RowCodec.toBytes(row));
+  }
+
   /**
    * Initial topology object if not exists
    *
@@ -178,6 +200,12 @@ class OStreamImpl extends AbstractStream<Row, Row> implements OStream<Row> {
       // Reference : https://docs.confluent.io/current/streams/developer-guide/memory-mgmt.html
       prop.put(StreamsConfig.CACHE_BUFFER, 0);
       prop.put(StreamsConfig.TASK_IDLE_MS, 3 * 1000);
+      if (builder.getPartitionerClass() != null)
+        prop.put(StreamsConfig.PARTITIONER_CLASS, builder.getPartitionerClass());
+      if (!builder.getPartitionerKeyColumns().isEmpty())
+        prop.put(
+            StreamsConfig.PARTITIONER_KEY_COLUMNS,
+            StringList.toKafkaString(builder.getPartitionerKeyColumns()));
 
       topology = new Topology(innerBuilder, prop, builder.isCleanStart(), isDryRun);
       log.info(String.format("poneglyph:%s", topology.getPoneglyphs().toString()));
@@ -202,7 +230,7 @@ class OStreamImpl extends AbstractStream<Row, Row> implements OStream<Row> {
             ((noUse, value) -> {
               // we calculate the output record size
               counter.incrementAndGet();
-              return KeyValue.pair(value, new byte[0]);
+              return toRecord(value);
             }))
         .to(builder.getToTopic(), builder.getToSerde().get());
 
@@ -223,7 +251,7 @@ class OStreamImpl extends AbstractStream<Row, Row> implements OStream<Row> {
   @Override
   public String describe() {
     kstreams
-        .map(((noUse, value) -> KeyValue.pair(value, new byte[0])))
+        .map(((noUse, value) -> toRecord(value)))
         .to(builder.getToTopic(), builder.getToSerde().get());
 
     // Initial properties and topology for "actual" action
@@ -235,7 +263,7 @@ class OStreamImpl extends AbstractStream<Row, Row> implements OStream<Row> {
   @Override
   public List<Poneglyph> getPoneglyph() {
     kstreams
-        .map(((noUse, value) -> KeyValue.pair(value, new byte[0])))
+        .map(((noUse, value) -> toRecord(value)))
         .to(builder.getToTopic(), builder.getToSerde().get());
 
     // Initial properties and topology for "actual" action
@@ -18,7 +18,7 @@ package oharastream.ohara.stream.ostream;
 
 import java.util.Map;
 import oharastream.ohara.common.data.Row;
-import oharastream.ohara.common.data.Serializer;
+import oharastream.ohara.common.data.RowCodec;
 
 // Kafka use it's own serializer to initial Serdes object, we need to implement that
 public class RowDeserializer implements org.apache.kafka.common.serialization.Deserializer<Row> {
@@ -28,8 +28,8 @@ public class RowDeserializer implements org.apache.kafka.common.serialization.De
 
   @Override
   public Row deserialize(String topic, byte[] data) {
-    if (data == null) return null;
-    else return Serializer.ROW.from(data);
+    // the cells are decoded on demand so the stream reading a few cells does not pay for all
+    return data == null ? null : RowCodec.view(data);
   }
 
   @Override
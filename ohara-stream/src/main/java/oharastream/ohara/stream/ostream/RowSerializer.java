@@ -18,7 +18,7 @@ package oharastream.ohara.stream.ostream;
 
 import java.util.Map;
 import oharastream.ohara.common.data.Row;
-import oharastream.ohara.common.data.Serializer;
+import oharastream.ohara.common.data.RowCodec;
 
 // Kafka use it's own serializer to initial Serdes object, we need to implement that
 public class RowSerializer implements org.apache.kafka.common.serialization.Serializer<Row> {
@@ -29,7 +29,7 @@ public class RowSerializer implements org.apache.kafka.common.serialization.Seri
   @Override
   public byte[] serialize(String topic, Row data) {
     if (data == null) return null;
-    else return Serializer.ROW.to(data);
+    else return RowCodec.toBytes(data);
   }
 
   @Override
@@ -16,6 +16,7 @@
 
 package oharastream.ohara.stream.ostream;
 
+import oharastream.ohara.kafka.KeyColumnPartitioner;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.config.TopicConfig;
@@ -42,6 +43,11 @@ class StreamsConfig {
       org.apache.kafka.streams.StreamsConfig.PROCESSING_GUARANTEE_CONFIG;
   static final String ACKS = ProducerConfig.ACKS_CONFIG;
   static final String TASK_IDLE_MS = org.apache.kafka.streams.StreamsConfig.MAX_TASK_IDLE_MS_CONFIG;
+  static final String PARTITIONER_CLASS =
+      org.apache.kafka.streams.StreamsConfig.producerPrefix(
+          ProducerConfig.PARTITIONER_CLASS_CONFIG);
+  static final String PARTITIONER_KEY_COLUMNS =
+      org.apache.kafka.streams.StreamsConfig.producerPrefix(KeyColumnPartitioner.KEY_COLUMNS_KEY);
 
   enum GUARANTEES {
     EXACTLY_ONCE(org.apache.kafka.streams.StreamsConfig.EXACTLY_ONCE),
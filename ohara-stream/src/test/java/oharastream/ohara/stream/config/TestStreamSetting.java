@@ -16,8 +16,11 @@
 
 package oharastream.ohara.stream.config;
 
+import java.util.List;
+import java.util.Map;
 import oharastream.ohara.common.rule.OharaTest;
 import oharastream.ohara.common.util.CommonUtils;
+import oharastream.ohara.kafka.RecordLayout;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -36,4 +39,21 @@ public class TestStreamSetting extends OharaTest {
             StreamSetting.toEnvString(
                 CommonUtils.randomString() + StreamSetting.INTERNAL_STRING_FOR_ENV));
   }
+
+  @Test
+  public void testRecordLayout() {
+    Assertions.assertEquals(
+        RecordLayout.KEY,
+        StreamSetting.of(StreamDefUtils.DEFAULT.values(), Map.of()).recordLayout());
+    StreamSetting setting =
+        StreamSetting.of(
+            StreamDefUtils.DEFAULT.values(),
+            Map.of(
+                StreamDefUtils.RECORD_LAYOUT_DEFINITION.key(),
+                "value",
+                StreamDefUtils.RECORD_KEY_COLUMNS_DEFINITION.key(),
+                StreamSetting.toEnvString("[\"a\",\"b\"]")));
+    Assertions.assertEquals(RecordLayout.VALUE, setting.recordLayout());
+    Assertions.assertEquals(List.of("a", "b"), setting.recordKeyColumns());
+  }
 }
@@ -55,6 +55,13 @@ public interface Brokers extends Releasable {
                       KafkaConfig$.MODULE$.OffsetsTopicPartitionsProp(), String.valueOf(1));
                   config.setProperty(
                       KafkaConfig$.MODULE$.OffsetsTopicReplicationFactorProp(), String.valueOf(1));
+                  config.setProperty(
+                      KafkaConfig$.MODULE$.TransactionsTopicPartitionsProp(), String.valueOf(1));
+                  config.setProperty(
+                      KafkaConfig$.MODULE$.TransactionsTopicReplicationFactorProp(),
+                      String.valueOf(1));
+                  config.setProperty(
+                      KafkaConfig$.MODULE$.TransactionsTopicMinISRProp(), String.valueOf(1));
                   config.setProperty(KafkaConfig$.MODULE$.ZkConnectProp(), zk.connectionProps());
                   config.setProperty(KafkaConfig$.MODULE$.BrokerIdProp(), String.valueOf(index));
                   config.setProperty(